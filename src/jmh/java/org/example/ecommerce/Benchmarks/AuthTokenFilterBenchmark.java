@@ -0,0 +1,186 @@
+package org.example.ecommerce.Benchmarks;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.ecommerce.Jwt.AuthTokenFilter;
+import org.example.ecommerce.Jwt.JwtKeyRing;
+import org.example.ecommerce.Jwt.JwtUtils;
+import org.example.ecommerce.Jwt.VerifiedTokenCache;
+import org.example.ecommerce.Model.User;
+import org.example.ecommerce.Model.UserRole;
+import org.example.ecommerce.Repository.RevokedTokenRepository;
+import org.example.ecommerce.Repository.UserRepository;
+import org.example.ecommerce.Service.CustomUserDetailsService;
+import org.example.ecommerce.Service.RevokedTokenService;
+import org.example.ecommerce.Service.TokenVersionService;
+import org.example.ecommerce.Service.UserSecuritySnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the JWT filter before and after the single-parse pipeline.
+ * The user and token-version lookups are stubbed so only the token handling is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AuthTokenFilterBenchmark {
+
+    private static final String SECRET = "bXlzZWNyZXRrZXkxMjM0NTY3ODkwbXlzZWNyZXRrZXkxMjM0NTY3ODkw";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtUtils jwtUtils;
+    private OncePerRequestFilter legacyFilter;
+    private OncePerRequestFilter cachedFilter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setRole(UserRole.CUSTOMER);
+        UserDetailsService userDetailsService = username -> user;
+
+        jwtUtils = new JwtUtils(new JwtKeyRing(SECRET, "default", ""));
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 3_600_000);
+        token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(UserSecuritySnapshot.of(user), null, List.of()));
+
+        legacyFilter = new LegacyAuthTokenFilter(userDetailsService);
+        UserRepository userRepository = stubUserRepository();
+        CustomUserDetailsService cachingUserDetailsService =
+                new CustomUserDetailsService(userRepository, new SimpleMeterRegistry(), Duration.ofMinutes(10), 10_000);
+        RevokedTokenService revokedTokenService =
+                new RevokedTokenService(stubRevokedTokenRepository(), new SimpleMeterRegistry(), 10_000, 0.01);
+        revokedTokenService.rebuild();
+        cachedFilter = new AuthTokenFilter(new VerifiedTokenCache(jwtUtils, 10_000), revokedTokenService,
+                new TokenVersionService(userRepository, cachingUserDetailsService, Duration.ofSeconds(30), 10_000),
+                PathPatternRequestMatcher.withDefaults().matcher("/api/auth/**"));
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object legacyFilter() throws Exception {
+        return runFilter(legacyFilter);
+    }
+
+    @Benchmark
+    public Object cachedFilter() throws Exception {
+        return runFilter(cachedFilter);
+    }
+
+    @Benchmark
+    public Object legacyVerification() {
+        // validateJwtToken followed by getUserNameFromJwtToken, each rebuilding the key and parser
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Object singleParseVerification() {
+        // cache miss path: one parse with the pre-built key and parser
+        return jwtUtils.parseClaims(token).getSubject();
+    }
+
+    private static UserRepository stubUserRepository() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findTokenVersionById")) {
+                        return Optional.of(0);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static RevokedTokenRepository stubRevokedTokenRepository() {
+        // nothing is revoked, every check has to be answered by the Bloom filter alone
+        return (RevokedTokenRepository) Proxy.newProxyInstance(RevokedTokenRepository.class.getClassLoader(),
+                new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "deleteExpired" -> 0;
+                    case "findActiveTokenIds" -> List.of();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private Object runFilter(OncePerRequestFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    /**
+     * The filter as it was before the single-parse pipeline: the token is verified twice
+     * and the signing key is decoded from the secret for every parse.
+     */
+    private static class LegacyAuthTokenFilter extends OncePerRequestFilter {
+
+        private final UserDetailsService userDetailsService;
+
+        LegacyAuthTokenFilter(UserDetailsService userDetailsService) {
+            this.userDetailsService = userDetailsService;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String jwt = request.getHeader("Authorization").substring(7);
+
+            if (validate(jwt)) {
+                String username = Jwts.parserBuilder()
+                        .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                        .build()
+                        .parseClaimsJws(jwt)
+                        .getBody()
+                        .getSubject();
+
+                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+            }
+            filterChain.doFilter(request, response);
+        }
+
+        private boolean validate(String jwt) {
+            try {
+                Jwts.parserBuilder()
+                        .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                        .build()
+                        .parseClaimsJws(jwt);
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+}
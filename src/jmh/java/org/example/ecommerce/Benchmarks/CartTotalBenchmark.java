@@ -0,0 +1,66 @@
+package org.example.ecommerce.Benchmarks;
+
+import org.example.ecommerce.Model.Cart;
+import org.example.ecommerce.Model.CartItem;
+import org.example.ecommerce.Model.CentsConverter;
+import org.example.ecommerce.Model.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keeping the cart total after one quantity change, as the cart grows: the running sum in cents
+ * against summing every item subtotal again in BigDecimal. Run with {@code ./gradlew jmh}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class CartTotalBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int cartSize;
+
+    private Cart cart;
+    private CartItem changed;
+    private int step = 1;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cart = new Cart();
+        for (int i = 0; i < cartSize; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setPrice(BigDecimal.valueOf(199 + i * 7L, 2));
+
+            CartItem item = new CartItem();
+            item.setProduct(product);
+            item.setCart(cart);
+            item.setQuantity(1 + i % 3);
+            item.setUnitPriceCents(CentsConverter.toCents(product.getPrice()));
+            cart.addItem(item);
+        }
+        changed = cart.getCartItems().get(cartSize / 2);
+    }
+
+    @Benchmark
+    public long runningTotal() {
+        cart.changeQuantity(changed, changed.getQuantity() + nextStep());
+        return cart.getTotalPriceCents();
+    }
+
+    // what every mutation did before: the quantity change, then the whole cart summed again
+    @Benchmark
+    public BigDecimal fullRecompute() {
+        changed.setQuantity(changed.getQuantity() + nextStep());
+        return cart.getCartItems().stream()
+                .map(item -> item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    // alternates +1 and -1 so the quantity stays bounded
+    private int nextStep() {
+        step = -step;
+        return step;
+    }
+}
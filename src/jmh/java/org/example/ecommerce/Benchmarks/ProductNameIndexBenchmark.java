@@ -0,0 +1,77 @@
+package org.example.ecommerce.Benchmarks;
+
+import org.example.ecommerce.DTO.ProductSuggestRowDto;
+import org.example.ecommerce.Service.ProductNameIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build time, memory footprint and prefix query latency of the typeahead index over one million
+ * product names. The footprint is printed once per fork: the arrays the index holds, and the heap
+ * retained after building it. Run with {@code ./gradlew jmh}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductNameIndexBenchmark {
+
+    private static final String[] WORDS = {"Phone", "Case", "Crème", "Brûlée", "Torch", "Cable", "Charger", "Laptop",
+            "Stand", "Lamp", "Desk", "Chair", "Book", "Novel", "Pen", "Paper", "Mug", "Kettle", "Café", "Filter"};
+
+    @Param({"1000000"})
+    public int products;
+
+    private List<ProductSuggestRowDto> rows;
+    private ProductNameIndex index;
+    private String[] prefixes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        rows = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            // review counts are heavily skewed, a few products collect most of them
+            rows.add(new ProductSuggestRowDto(id, name, (long) (Math.pow(random.nextDouble(), 8) * 10_000)));
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        index = ProductNameIndex.build(rows);
+        System.gc();
+        long retained = memory.getHeapMemoryUsage().getUsed() - before;
+        System.out.printf("%nindex of %d names: %d MB in arrays, %d MB retained heap%n",
+                index.size(), index.estimatedSizeInBytes() >> 20, retained >> 20);
+
+        // from one letter, which matches a tenth of the catalog, to nearly a full name
+        prefixes = new String[]{"p", "ph", "phone", "phone c", "creme", "creme brulee", "cafe f", "book novel 12"};
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public ProductNameIndex build() {
+        return ProductNameIndex.build(rows);
+    }
+
+    @Benchmark
+    public Object topTen() {
+        String prefix = prefixes[next++ & 7];
+        return index.top(prefix, 10, id -> false);
+    }
+
+    @Benchmark
+    public Object topTenOfOneLetter() {
+        return index.top("c", 10, id -> false);
+    }
+}
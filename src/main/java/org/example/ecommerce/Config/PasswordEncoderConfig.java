@@ -0,0 +1,34 @@
+package org.example.ecommerce.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final String BCRYPT = "bcrypt";
+
+    /*
+     * New hashes are stored as {bcrypt}<hash> with the configured cost. Hashes written before the
+     * prefix was introduced are still verified as bcrypt, and both they and hashes with a lower
+     * cost report upgradeEncoding() so they are rehashed on the next successful login.
+     */
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(@Value("${security.password-hashing.bcrypt-strength:10}") int strength,
+                                           @Value("${security.password-hashing.pool-size:4}") int poolSize,
+                                           @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${security.password-hashing.timeout:5s}") Duration timeout) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+
+        DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        delegatingEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegatingEncoder, poolSize, queueCapacity, timeout);
+    }
+}
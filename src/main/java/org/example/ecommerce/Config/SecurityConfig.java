@@ -1,10 +1,13 @@
 package org.example.ecommerce.Config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.example.ecommerce.Jwt.AuthEntryPointJwt;
 import org.example.ecommerce.Jwt.AuthTokenFilter;
-import org.example.ecommerce.Jwt.JwtUtils;
+import org.example.ecommerce.Jwt.VerifiedTokenCache;
 import org.example.ecommerce.Service.CustomUserDetailsService;
+import org.example.ecommerce.Service.RevokedTokenService;
+import org.example.ecommerce.Service.TokenVersionService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,18 +15,29 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Configuration
 public class SecurityConfig {
 
+    private static final String[] AUTH_ENDPOINTS = {"/api/auth/**"};
+    private static final String[] API_DOCS_ENDPOINTS = {"/v3/api-docs", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html"};
+
     private final CustomUserDetailsService userDetailsService;
     private final AuthEntryPointJwt authEntryPointJwt;
-    private final JwtUtils jwtUtils;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RevokedTokenService revokedTokenService;
+    private final TokenVersionService tokenVersionService;
+    private final PasswordEncoder passwordEncoder;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -31,10 +45,14 @@ public class SecurityConfig {
                 .exceptionHandling(exceptionHandling -> exceptionHandling.authenticationEntryPoint(authEntryPointJwt))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth ->
-                        auth.requestMatchers("/api/auth/**").permitAll()
-                                .requestMatchers("/v3/api-docs", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        // the dispatch that completes a streamed response was authorized as the original request
+                        auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                                .requestMatchers(AUTH_ENDPOINTS).permitAll()
+                                .requestMatchers(API_DOCS_ENDPOINTS).permitAll()
                                 .requestMatchers("/api/admin/products/**").hasAuthority("ADMIN")
+                                .requestMatchers("/api/admin/users/**").hasAuthority("ADMIN")
                                 .requestMatchers("/api/categories/**").hasAuthority("ADMIN")
+                                .requestMatchers("/actuator/**").hasAuthority("ADMIN")
                                 .anyRequest().authenticated());
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
@@ -42,11 +60,6 @@ public class SecurityConfig {
         return http.build();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration) throws Exception {
         return authenticationConfiguration.getAuthenticationManager();
@@ -56,14 +69,25 @@ public class SecurityConfig {
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
 
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // rehashes the password on login when its encoding or cost is outdated
+        authProvider.setUserDetailsPasswordService(userDetailsService);
 
         return authProvider;
     }
 
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtils, userDetailsService);
+        return new AuthTokenFilter(verifiedTokenCache, revokedTokenService, tokenVersionService, publicEndpoints());
+    }
+
+    private static RequestMatcher publicEndpoints() {
+        PathPatternRequestMatcher.Builder paths = PathPatternRequestMatcher.withDefaults();
+
+        return new OrRequestMatcher(Stream.concat(Arrays.stream(AUTH_ENDPOINTS), Arrays.stream(API_DOCS_ENDPOINTS))
+                .map(paths::matcher)
+                .map(RequestMatcher.class::cast)
+                .toList());
     }
 
 
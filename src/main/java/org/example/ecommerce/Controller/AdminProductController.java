@@ -3,32 +3,107 @@ package org.example.ecommerce.Controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.ecommerce.DTO.AddProductDto;
+import org.example.ecommerce.DTO.BulkProductUpdateDto;
+import org.example.ecommerce.DTO.BulkProductUpdateResultDto;
+import org.example.ecommerce.DTO.CursorPageDto;
+import org.example.ecommerce.DTO.ProductImportResultDto;
 import org.example.ecommerce.DTO.ShowAdminProductDto;
 import org.example.ecommerce.Service.AdminProductService;
+import org.example.ecommerce.Service.ProductExportFormat;
+import org.example.ecommerce.Service.ProductExportService;
+import org.example.ecommerce.Service.ProductImportService;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/admin/products")
 @RequiredArgsConstructor
 public class AdminProductController {
 
+    public static final String EXPORT_HIGH_WATER_MARK = "X-Export-High-Water-Mark";
+
     private final AdminProductService adminProductService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
 
     @PostMapping
     public ResponseEntity<ShowAdminProductDto> createProduct(@Valid @RequestBody AddProductDto addProductDto) {
         return new ResponseEntity<>(adminProductService.createProduct(addProductDto), HttpStatus.CREATED);
     }
 
+    // the body is read as a stream, the file is never held in memory as a whole
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ProductImportResultDto> importProductsFromCsv(InputStream csv) throws IOException {
+        return ResponseEntity.ok(productImportService.importCsv(csv));
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ProductImportResultDto> importProductsFromNdjson(InputStream ndjson) throws IOException {
+        return ResponseEntity.ok(productImportService.importNdjson(ndjson));
+    }
+
+    /**
+     * Streams every product, or with {@code since} only the ones changed after that instant. The response is
+     * gzip compressed when the client accepts it.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ProductExportFormat exportFormat = ProductExportFormat.fromParameter(format);
+        Instant highWaterMark = productExportService.highWaterMark();
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                productExportService.export(exportFormat, since, out);
+                return;
+            }
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            productExportService.export(exportFormat, since, compressed);
+            compressed.finish();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + exportFormat.fileExtension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                // the since of the next incremental export
+                .header(EXPORT_HIGH_WATER_MARK, highWaterMark.toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
         adminProductService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<ShowAdminProductDto>> scrollProducts(@RequestParam(defaultValue = "id") String sort,
+                                                                             @RequestParam(defaultValue = "asc") String direction,
+                                                                             @RequestParam(required = false) String cursor,
+                                                                             @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(adminProductService.scrollProducts(sort, direction, cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ShowAdminProductDto> getProductById(@PathVariable Long id) {
         return ResponseEntity.ok(adminProductService.getProductById(id));
@@ -39,6 +114,11 @@ public class AdminProductController {
         return ResponseEntity.ok(adminProductService.updateProduct(id, addProductDto));
     }
 
+    @PatchMapping
+    public ResponseEntity<BulkProductUpdateResultDto> bulkUpdateProducts(@Valid @RequestBody BulkProductUpdateDto bulkProductUpdateDto) {
+        return ResponseEntity.ok(adminProductService.bulkUpdate(bulkProductUpdateDto));
+    }
+
     @GetMapping
     public ResponseEntity<Page<ShowAdminProductDto>> getAllProducts(Pageable pageable) {
         return ResponseEntity.ok(adminProductService.getAllProducts(pageable));
@@ -0,0 +1,36 @@
+package org.example.ecommerce.Controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.DTO.UserImportResultDto;
+import org.example.ecommerce.Service.TokenVersionService;
+import org.example.ecommerce.Service.UserImportService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+public class AdminUserController {
+
+    private final UserImportService userImportService;
+    private final TokenVersionService tokenVersionService;
+
+    // the body is read as a stream, the file is never held in memory as a whole
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<UserImportResultDto> importUsers(InputStream csv) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(csv));
+    }
+
+    // e.g. for a compromised account, every token issued to the user so far stops being accepted
+    @PostMapping("/{id}/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long id) {
+        tokenVersionService.revokeAllTokens(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,12 +1,15 @@
 package org.example.ecommerce.Controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.ecommerce.DTO.JwtResponseDto;
+import org.example.ecommerce.DTO.RefreshTokenDto;
 import org.example.ecommerce.DTO.RegisteredUserDto;
 import org.example.ecommerce.DTO.UserLoginDto;
 import org.example.ecommerce.DTO.UserRegistrationDto;
 import org.example.ecommerce.Service.AuthenticationService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -36,8 +39,29 @@ public class AuthenticationController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<JwtResponseDto> loginUser(@Valid @RequestBody UserLoginDto userLoginDto){
-        return new ResponseEntity<>(authenticationService.loginUser(userLoginDto), HttpStatus.OK);
+    public ResponseEntity<JwtResponseDto> loginUser(@Valid @RequestBody UserLoginDto userLoginDto,
+                                                    HttpServletRequest request){
+        return new ResponseEntity<>(authenticationService.loginUser(userLoginDto, request.getRemoteAddr()), HttpStatus.OK);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponseDto> refreshToken(@Valid @RequestBody RefreshTokenDto refreshTokenDto) {
+        return new ResponseEntity<>(authenticationService.refreshToken(refreshTokenDto), HttpStatus.OK);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenDto refreshTokenDto,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        authenticationService.logout(refreshTokenDto, accessToken);
+        return ResponseEntity.noContent().build();
+    }
+
+    // every session of the user, not only the one the refresh token belongs to
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutEverywhere(@Valid @RequestBody RefreshTokenDto refreshTokenDto) {
+        authenticationService.logoutEverywhere(refreshTokenDto);
+        return ResponseEntity.noContent().build();
     }
 
 
@@ -1,8 +1,10 @@
 package org.example.ecommerce.Controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.ecommerce.DTO.ShowCartDto;
 import org.example.ecommerce.DTO.ShowCartItemDto;
+import org.example.ecommerce.DTO.UpdateCartDto;
 import org.example.ecommerce.Service.CartService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +26,12 @@ public class CartController {
         return ResponseEntity.ok(cartService.showCart());
     }
 
+    // sets the quantities of many products in one request, 0 removes the product
+    @PatchMapping
+    public ResponseEntity<ShowCartDto> updateCart(@Valid @RequestBody UpdateCartDto updateCartDto) {
+        return ResponseEntity.ok(cartService.updateCart(updateCartDto));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteItemFromCart(@PathVariable Long id) {
         cartService.deleteItemFromCart(id);
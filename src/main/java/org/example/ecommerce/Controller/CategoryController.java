@@ -3,8 +3,10 @@ package org.example.ecommerce.Controller;
 import lombok.RequiredArgsConstructor;
 import org.example.ecommerce.DTO.AdminCategoryDto;
 import org.example.ecommerce.Service.CategoryService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -18,8 +20,9 @@ public class CategoryController {
     private final CategoryService categoryService;
 
     @PostMapping
-    public ResponseEntity<AdminCategoryDto> createCategory(@RequestBody String categoryName) {
-        AdminCategoryDto categoryDto = categoryService.createCategory(categoryName);
+    public ResponseEntity<AdminCategoryDto> createCategory(@RequestBody String categoryName,
+                                                           @RequestParam(required = false) Long parentId) {
+        AdminCategoryDto categoryDto = categoryService.createCategory(categoryName, parentId);
 
         URI location = ServletUriComponentsBuilder
                 .fromCurrentRequest()
@@ -41,9 +44,24 @@ public class CategoryController {
         return ResponseEntity.ok(categoryService.updateCategory(id, categoryName));
     }
 
+    // without parentId the category becomes a top level one
+    @PutMapping("/{id}/parent")
+    public ResponseEntity<AdminCategoryDto> moveCategory(@PathVariable Long id, @RequestParam(required = false) Long parentId) {
+        return ResponseEntity.ok(categoryService.moveCategory(id, parentId));
+    }
+
+    @GetMapping("/{id}/breadcrumb")
+    public ResponseEntity<List<AdminCategoryDto>> getBreadcrumb(@PathVariable Long id) {
+        return ResponseEntity.ok(categoryService.getBreadcrumb(id));
+    }
+
     @GetMapping
-    public ResponseEntity<List<AdminCategoryDto>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<AdminCategoryDto>> getAllCategories(WebRequest webRequest) {
+        if (webRequest.checkNotModified(categoryService.getCategoriesETag())) {
+            return null;
+        }
+        // no-cache instead of the default no-store, clients keep the body and revalidate it with the ETag
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(categoryService.getAllCategories());
     }
 
     @GetMapping("/{id}")
@@ -1,5 +1,6 @@
 package org.example.ecommerce.Controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.ecommerce.DTO.AddReviewDto;
 import org.example.ecommerce.DTO.ShowReviewDto;
@@ -20,7 +21,7 @@ public class ReviewController {
     private final ReviewService reviewService;
 
     @PostMapping
-    public ResponseEntity<ShowReviewDto> addReview(@PathVariable Long productId, @RequestBody AddReviewDto reviewDto) {
+    public ResponseEntity<ShowReviewDto> addReview(@PathVariable Long productId, @Valid @RequestBody AddReviewDto reviewDto) {
         ShowReviewDto showReviewDto = reviewService.addReview(productId, reviewDto);
 
         URI location = ServletUriComponentsBuilder
@@ -37,5 +38,9 @@ public class ReviewController {
         return ResponseEntity.ok(reviewService.getAllReviews(productId, pageable));
     }
 
-
+    @DeleteMapping("/{reviewId}")
+    public ResponseEntity<Void> deleteReview(@PathVariable Long productId, @PathVariable Long reviewId) {
+        reviewService.deleteReview(productId, reviewId);
+        return ResponseEntity.noContent().build();
+    }
 }
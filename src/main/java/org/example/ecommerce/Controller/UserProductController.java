@@ -1,15 +1,32 @@
 package org.example.ecommerce.Controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.DTO.BestsellerDto;
+import org.example.ecommerce.DTO.CursorPageDto;
+import org.example.ecommerce.DTO.ProductFacetsDto;
+import org.example.ecommerce.DTO.ProductFilterDto;
+import org.example.ecommerce.DTO.ProductSuggestionDto;
+import org.example.ecommerce.DTO.ProductTextSearchDto;
+import org.example.ecommerce.DTO.ProductViewDto;
 import org.example.ecommerce.DTO.ShowProductDto;
+import org.example.ecommerce.Service.BestsellerService;
+import org.example.ecommerce.Service.BestsellerWindow;
+import org.example.ecommerce.Service.ProductSuggestService;
+import org.example.ecommerce.Service.ProductTextSearchService;
 import org.example.ecommerce.Service.UserProductService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
@@ -17,14 +34,61 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserProductController {
 
     private final UserProductService userProductService;
+    private final BestsellerService bestsellerService;
+    private final ProductSuggestService productSuggestService;
+    private final ProductTextSearchService productTextSearchService;
 
     @GetMapping
-    public ResponseEntity<Page<ShowProductDto>> getAllProducts(Pageable pageable) {
-        return ResponseEntity.ok(userProductService.getAllProducts(pageable));
+    public ResponseEntity<Page<ShowProductDto>> getAllProducts(@Valid ProductFilterDto filter, Pageable pageable,
+                                                               WebRequest webRequest) {
+        // the ETag is read before the page, a write in between makes the next poll download it again
+        if (webRequest.checkNotModified(userProductService.getCatalogETag(filter))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(userProductService.searchProducts(filter, pageable));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsDto> getFacets(@Valid ProductFilterDto filter) {
+        return ResponseEntity.ok(userProductService.getFacets(filter));
+    }
+
+    // keyset pagination, stays fast on deep pages and skips the count query of the page API
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<ShowProductDto>> scrollProducts(@RequestParam(defaultValue = "id") String sort,
+                                                                        @RequestParam(defaultValue = "asc") String direction,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userProductService.scrollProducts(sort, direction, cursor, size));
+    }
+
+    // typeahead, answered from the in-memory name index
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDto>> suggest(@RequestParam String q,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productSuggestService.suggest(q, limit));
+    }
+
+    // full-text search over names and descriptions, ranked by relevance
+    @GetMapping("/search")
+    public ResponseEntity<Page<ShowProductDto>> searchProducts(@Valid ProductTextSearchDto query, Pageable pageable) {
+        return ResponseEntity.ok(productTextSearchService.search(query, pageable));
+    }
+
+    // answered from memory, see BestsellerService for how fresh the ranking is
+    @GetMapping("/bestsellers")
+    public ResponseEntity<List<BestsellerDto>> getBestsellers(@RequestParam(required = false) Long category,
+                                                              @RequestParam(defaultValue = "7d") String window,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(bestsellerService.getBestsellers(category, BestsellerWindow.fromParameter(window), limit));
     }
 
     @GetMapping("/{productId}")
-    public ResponseEntity<ShowProductDto> getProductByProductName(@PathVariable Long productId) {
-        return ResponseEntity.ok(userProductService.getProductByProductName(productId));
+    public ResponseEntity<ShowProductDto> getProductByProductName(@PathVariable Long productId, WebRequest webRequest) {
+        ProductViewDto product = userProductService.getProductView(productId);
+        if (webRequest.checkNotModified(product.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(product.toShowProductDto());
     }
 }
@@ -1,4 +1,9 @@
 package org.example.ecommerce.DTO;
 
-public record AddReviewDto(String reviewText) {
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record AddReviewDto(String reviewText,
+                           @NotNull @Min(1) @Max(5) Integer rating) {
 }
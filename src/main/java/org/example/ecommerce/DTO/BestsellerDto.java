@@ -0,0 +1,6 @@
+package org.example.ecommerce.DTO;
+
+public record BestsellerDto(Long productId,
+                            String productName,
+                            long unitsSold) {
+}
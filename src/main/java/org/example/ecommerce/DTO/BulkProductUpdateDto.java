@@ -0,0 +1,21 @@
+package org.example.ecommerce.DTO;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkProductUpdateDto(@NotNull(message = "Mode cannot be empty") Mode mode,
+                                   @NotEmpty(message = "Products cannot be empty")
+                                   @Size(max = 10000, message = "At most 10000 products can be updated at once")
+                                   List<@Valid @NotNull ProductPriceStockUpdateDto> products) {
+
+    public enum Mode {
+        // price and availableQuantity are the new values
+        ABSOLUTE,
+        // price is a change in percent (10 raises it by 10%), availableQuantity is added to the stock
+        RELATIVE
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.ecommerce.DTO;
+
+import java.util.List;
+
+// notUpdated holds unknown ids and updates that would have made the price or the stock negative
+public record BulkProductUpdateResultDto(int updated,
+                                         List<Long> notUpdated) {
+}
@@ -0,0 +1,10 @@
+package org.example.ecommerce.DTO;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+// quantity is the new quantity of the product in the cart, 0 removes it
+public record CartItemQuantityDto(@NotNull(message = "Product id cannot be empty") Long productId,
+                                  @NotNull(message = "Quantity cannot be empty")
+                                  @PositiveOrZero(message = "Quantity cannot be negative") Integer quantity) {
+}
@@ -0,0 +1,6 @@
+package org.example.ecommerce.DTO;
+
+public record CategoryFacetDto(Long categoryId,
+                               String categoryName,
+                               long count) {
+}
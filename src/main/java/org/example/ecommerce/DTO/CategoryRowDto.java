@@ -0,0 +1,10 @@
+package org.example.ecommerce.DTO;
+
+import java.time.Instant;
+
+public record CategoryRowDto(Long id,
+                             String categoryName,
+                             Long parentId,
+                             String path,
+                             Instant lastModified) {
+}
@@ -0,0 +1,22 @@
+package org.example.ecommerce.DTO;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Row count and latest modification of a table. Every insert and update moves the timestamp
+ * forward and every delete changes the count, so together they change whenever any row does.
+ */
+public record CollectionVersionDto(Long count,
+                                   Instant lastModified) {
+
+    public String eTag(String collection) {
+        return "\"" + tag(collection) + "\"";
+    }
+
+    // unquoted, for ETags that depend on more than one table
+    public String tag(String collection) {
+        long modifiedMicros = lastModified == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, lastModified);
+        return collection + "-" + count + "-" + modifiedMicros;
+    }
+}
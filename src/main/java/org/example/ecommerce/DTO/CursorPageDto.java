@@ -0,0 +1,7 @@
+package org.example.ecommerce.DTO;
+
+import java.util.List;
+
+public record CursorPageDto<T>(List<T> content,
+                               String nextCursor) {
+}
@@ -0,0 +1,5 @@
+package org.example.ecommerce.DTO;
+
+public record ImportRowErrorDto(long line,
+                                String message) {
+}
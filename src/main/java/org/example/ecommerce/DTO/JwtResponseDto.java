@@ -3,6 +3,7 @@ package org.example.ecommerce.DTO;
 import java.util.List;
 
 public record JwtResponseDto(String jwtToken,
+                             String refreshToken,
                              String username,
                              List<String> roles) {
 }
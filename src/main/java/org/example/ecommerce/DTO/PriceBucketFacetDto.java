@@ -0,0 +1,9 @@
+package org.example.ecommerce.DTO;
+
+import java.math.BigDecimal;
+
+// from is inclusive, to is exclusive, null means unbounded
+public record PriceBucketFacetDto(BigDecimal from,
+                                  BigDecimal to,
+                                  long count) {
+}
@@ -0,0 +1,13 @@
+package org.example.ecommerce.DTO;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record ProductExportDto(Long id,
+                               String productName,
+                               String description,
+                               BigDecimal price,
+                               Integer availableQuantity,
+                               String categoryName,
+                               Instant lastModified) {
+}
@@ -0,0 +1,7 @@
+package org.example.ecommerce.DTO;
+
+import java.util.List;
+
+public record ProductFacetsDto(List<CategoryFacetDto> categories,
+                               List<PriceBucketFacetDto> priceBuckets) {
+}
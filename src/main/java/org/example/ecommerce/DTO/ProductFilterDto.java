@@ -0,0 +1,24 @@
+package org.example.ecommerce.DTO;
+
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public record ProductFilterDto(Long categoryId,
+                               @PositiveOrZero BigDecimal minPrice,
+                               @PositiveOrZero BigDecimal maxPrice,
+                               Boolean inStock,
+                               @Size(max = 100) String namePrefix) {
+
+    public static final ProductFilterDto NONE = new ProductFilterDto(null, null, null, null, null);
+
+    public boolean inStockOnly() {
+        return Boolean.TRUE.equals(inStock);
+    }
+
+    public boolean isEmpty() {
+        return categoryId == null && minPrice == null && maxPrice == null && !inStockOnly()
+                && (namePrefix == null || namePrefix.isBlank());
+    }
+}
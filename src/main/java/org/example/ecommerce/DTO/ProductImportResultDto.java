@@ -0,0 +1,8 @@
+package org.example.ecommerce.DTO;
+
+import java.util.List;
+
+public record ProductImportResultDto(int imported,
+                                     int failed,
+                                     List<ImportRowErrorDto> errors) {
+}
@@ -0,0 +1,11 @@
+package org.example.ecommerce.DTO;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+// a null price or availableQuantity leaves that column as it is
+public record ProductPriceStockUpdateDto(@NotNull(message = "Product id cannot be empty") Long id,
+                                         BigDecimal price,
+                                         Integer availableQuantity) {
+}
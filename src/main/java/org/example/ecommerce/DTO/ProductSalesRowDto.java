@@ -0,0 +1,9 @@
+package org.example.ecommerce.DTO;
+
+// units sold of one product in the short and the long bestseller window
+public record ProductSalesRowDto(Long categoryId,
+                                 Long productId,
+                                 String productName,
+                                 Long weekQuantity,
+                                 Long monthQuantity) {
+}
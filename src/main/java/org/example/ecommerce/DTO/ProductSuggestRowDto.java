@@ -0,0 +1,6 @@
+package org.example.ecommerce.DTO;
+
+public record ProductSuggestRowDto(Long id,
+                                   String productName,
+                                   long popularity) {
+}
@@ -0,0 +1,5 @@
+package org.example.ecommerce.DTO;
+
+public record ProductSuggestionDto(Long id,
+                                   String productName) {
+}
@@ -0,0 +1,11 @@
+package org.example.ecommerce.DTO;
+
+import java.math.BigDecimal;
+
+// what the full-text index keeps of a product: its text and the columns search results can be filtered on
+public record ProductTextRowDto(Long id,
+                                String productName,
+                                String description,
+                                Long categoryId,
+                                BigDecimal price) {
+}
@@ -0,0 +1,13 @@
+package org.example.ecommerce.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public record ProductTextSearchDto(@NotBlank @Size(max = 200) String q,
+                                   Long categoryId,
+                                   @PositiveOrZero BigDecimal minPrice,
+                                   @PositiveOrZero BigDecimal maxPrice) {
+}
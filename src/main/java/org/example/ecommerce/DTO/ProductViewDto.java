@@ -0,0 +1,27 @@
+package org.example.ecommerce.DTO;
+
+import org.example.ecommerce.Model.ReviewSummary;
+
+/**
+ * Customer view of a product together with its version, which is all that is needed to answer a
+ * conditional GET without building the response body.
+ */
+public record ProductViewDto(Long id,
+                             Long version,
+                             String productName,
+                             String description,
+                             Double price,
+                             ReviewSummaryDto reviews) {
+
+    public ProductViewDto(Long id, Long version, String productName, String description, Double price, ReviewSummary reviews) {
+        this(id, version, productName, description, price, ReviewSummaryDto.of(reviews));
+    }
+
+    public String eTag() {
+        return "\"product-" + id + "-" + version + "\"";
+    }
+
+    public ShowProductDto toShowProductDto() {
+        return new ShowProductDto(productName, description, price, reviews);
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.ecommerce.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenDto(@NotBlank(message = "Refresh token cannot be empty") String refreshToken) {
+}
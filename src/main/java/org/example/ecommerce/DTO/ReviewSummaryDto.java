@@ -0,0 +1,19 @@
+package org.example.ecommerce.DTO;
+
+import org.example.ecommerce.Model.ReviewSummary;
+
+import java.util.List;
+
+// ratingHistogram holds the number of one to five star ratings, averageRating is null while there are none
+public record ReviewSummaryDto(long reviewCount,
+                               Double averageRating,
+                               List<Long> ratingHistogram) {
+
+    public static ReviewSummaryDto of(ReviewSummary summary) {
+        Double averageRating = summary.getRatedCount() == 0 ? null
+                : Math.round(summary.getRatingSum() * 100.0 / summary.getRatedCount()) / 100.0;
+        return new ReviewSummaryDto(summary.getReviewCount(), averageRating, List.of(
+                summary.getOneStarCount(), summary.getTwoStarCount(), summary.getThreeStarCount(),
+                summary.getFourStarCount(), summary.getFiveStarCount()));
+    }
+}
@@ -1,9 +1,18 @@
 package org.example.ecommerce.DTO;
 
+import org.example.ecommerce.Model.ReviewSummary;
+
 public record ShowAdminProductDto(Long id,
                                   String productName,
                                   String description,
                                   Double price,
-                                  Integer availableQuantity
+                                  Integer availableQuantity,
+                                  ReviewSummaryDto reviews
                            ) {
+
+    // used by the JPQL projections, which select the summary columns of the product row
+    public ShowAdminProductDto(Long id, String productName, String description, Double price, Integer availableQuantity,
+                               ReviewSummary reviews) {
+        this(id, productName, description, price, availableQuantity, ReviewSummaryDto.of(reviews));
+    }
 }
@@ -1,6 +1,7 @@
 package org.example.ecommerce.DTO;
 
+import java.math.BigDecimal;
 import java.util.List;
 
-public record ShowCartDto(List<ShowCartItemDto> cart) {
+public record ShowCartDto(List<ShowCartItemDto> cart, BigDecimal totalPrice) {
 }
@@ -1,6 +1,14 @@
 package org.example.ecommerce.DTO;
 
+import org.example.ecommerce.Model.ReviewSummary;
+
 public record ShowProductDto(String productName,
                              String description,
-                             Double price) {
+                             Double price,
+                             ReviewSummaryDto reviews) {
+
+    // used by the JPQL projections, which select the summary columns of the product row
+    public ShowProductDto(String productName, String description, Double price, ReviewSummary reviews) {
+        this(productName, description, price, ReviewSummaryDto.of(reviews));
+    }
 }
@@ -2,5 +2,6 @@ package org.example.ecommerce.DTO;
 
 public record ShowReviewDto(Long id,
                             String reviewText,
+                            Integer rating,
                             String username) {
 }
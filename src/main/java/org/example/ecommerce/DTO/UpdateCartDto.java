@@ -0,0 +1,13 @@
+package org.example.ecommerce.DTO;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record UpdateCartDto(@NotEmpty(message = "Items cannot be empty")
+                            @Size(max = 200, message = "At most 200 items can be updated at once")
+                            List<@Valid @NotNull CartItemQuantityDto> items) {
+}
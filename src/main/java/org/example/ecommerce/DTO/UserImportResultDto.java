@@ -0,0 +1,8 @@
+package org.example.ecommerce.DTO;
+
+import java.util.List;
+
+public record UserImportResultDto(int imported,
+                                  int failed,
+                                  List<ImportRowErrorDto> errors) {
+}
@@ -0,0 +1,9 @@
+package org.example.ecommerce.Exception;
+
+public class InvalidBestsellerWindowException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidBestsellerWindowException(String message) {
+        super(message);
+    }
+}
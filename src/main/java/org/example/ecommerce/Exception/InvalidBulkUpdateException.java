@@ -0,0 +1,9 @@
+package org.example.ecommerce.Exception;
+
+public class InvalidBulkUpdateException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidBulkUpdateException(String message) {
+        super(message);
+    }
+}
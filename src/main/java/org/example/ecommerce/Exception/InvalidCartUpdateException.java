@@ -0,0 +1,9 @@
+package org.example.ecommerce.Exception;
+
+public class InvalidCartUpdateException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCartUpdateException(String message) {
+        super(message);
+    }
+}
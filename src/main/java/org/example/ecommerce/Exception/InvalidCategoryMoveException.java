@@ -0,0 +1,9 @@
+package org.example.ecommerce.Exception;
+
+public class InvalidCategoryMoveException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCategoryMoveException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.ecommerce.Exception;
+
+public class InvalidExportFormatException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidExportFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.ecommerce.Exception;
+
+public class InvalidImportFileException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.ecommerce.Exception;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.ecommerce.Exception;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
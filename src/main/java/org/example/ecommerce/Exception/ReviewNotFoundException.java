@@ -0,0 +1,9 @@
+package org.example.ecommerce.Exception;
+
+public class ReviewNotFoundException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ReviewNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.ecommerce.Exception;
+
+public class UserNotFoundException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -4,44 +4,56 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
-import org.example.ecommerce.Model.User;
-import org.example.ecommerce.Service.CustomUserDetailsService;
+import org.example.ecommerce.Service.RevokedTokenService;
+import org.example.ecommerce.Service.TokenVersionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 public class AuthTokenFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
-    private final JwtUtils jwtUtils;
-    private final CustomUserDetailsService userDetailsService;
-    //TODO: TEST THIS FILTER
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RevokedTokenService revokedTokenService;
+    private final TokenVersionService tokenVersionService;
+    private final RequestMatcher publicEndpoints;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // permitAll routes never look at the token, so don't spend time verifying it
+        return publicEndpoints.matches(request);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
 
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            if (jwt != null) {
+                Optional<AuthenticatedUser> user = verifiedTokenCache.getVerifiedClaims(jwt)
+                        .filter(claims -> !revokedTokenService.isRevoked(claims.getId()))
+                        .flatMap(AuthenticatedUser::fromClaims);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails,
-                                null,
-                                userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                // the principal comes straight from the claims, only revocation and the token version are checked
+                if (user.isPresent() && tokenVersionService.isCurrent(user.get())) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(user.get(),
+                                    null,
+                                    user.get().getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.warn("Failed to set user authentication", e);
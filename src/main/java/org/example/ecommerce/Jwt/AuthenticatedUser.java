@@ -0,0 +1,48 @@
+package org.example.ecommerce.Jwt;
+
+import io.jsonwebtoken.Claims;
+import org.example.ecommerce.Model.UserRole;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Principal of a request authenticated with a JWT, built from the token claims alone
+ * so that authenticating a request does not need to load the {@code User} entity.
+ */
+public record AuthenticatedUser(Long id,
+                                String username,
+                                UserRole role,
+                                int tokenVersion) implements AuthenticatedPrincipal {
+
+    public static Optional<AuthenticatedUser> fromClaims(Claims claims) {
+        // refresh tokens are only accepted by the refresh endpoint
+        if (!JwtUtils.TOKEN_TYPE_ACCESS.equals(claims.get(JwtUtils.CLAIM_TOKEN_TYPE, String.class))) {
+            return Optional.empty();
+        }
+
+        Long id = claims.get(JwtUtils.CLAIM_USER_ID, Long.class);
+        String role = claims.get(JwtUtils.CLAIM_ROLE, String.class);
+        Integer tokenVersion = claims.get(JwtUtils.CLAIM_TOKEN_VERSION, Integer.class);
+
+        // tokens issued before these claims existed have to be renewed by logging in again
+        if (id == null || role == null || tokenVersion == null || claims.getSubject() == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new AuthenticatedUser(id, claims.getSubject(), UserRole.valueOf(role), tokenVersion));
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.ecommerce.Jwt;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keys used to sign and verify JWTs. Tokens are signed with the active key and name it in their
+ * {@code kid} header; verification looks the key up by that id, so tokens signed with an older key
+ * stay valid for as long as that key is in the ring. The ring is an immutable map of decoded keys
+ * that is replaced atomically, verification never decodes a secret.
+ * <p>
+ * Without {@code jwt.key-ring.file} the ring holds {@code jwt.secret} under {@code jwt.key-id}.
+ * With it, the file defines the ring and is re-read whenever it changes:
+ * <pre>
+ * active=2025-02
+ * key.2025-02=&lt;base64 secret&gt;
+ * key.2025-01=&lt;base64 secret&gt;
+ * </pre>
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String ACTIVE_PROPERTY = "active";
+    private static final String KEY_PROPERTY_PREFIX = "key.";
+
+    private final String defaultKeyId;
+    private final Path keyRingFile;
+    private final AtomicReference<KeySet> keySet = new AtomicReference<>();
+    private final List<Runnable> removalListeners = new CopyOnWriteArrayList<>();
+    private volatile FileTime loadedFileTime;
+
+    public JwtKeyRing(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.key-id:default}") String defaultKeyId,
+                      @Value("${jwt.key-ring.file:}") String keyRingFile) {
+        this.defaultKeyId = defaultKeyId;
+        this.keyRingFile = keyRingFile.isBlank() ? null : Path.of(keyRingFile);
+
+        if (this.keyRingFile == null) {
+            keySet.set(new KeySet(defaultKeyId, Map.of(defaultKeyId, decode(secret))));
+        } else {
+            // a key ring file that cannot be read at startup is a deployment error
+            try {
+                loadedFileTime = Files.getLastModifiedTime(this.keyRingFile);
+                keySet.set(readKeyRingFile());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read the JWT key ring " + keyRingFile, e);
+            }
+        }
+    }
+
+    public SigningKey signingKey() {
+        KeySet current = keySet.get();
+        return new SigningKey(current.activeKeyId(), current.keys().get(current.activeKeyId()));
+    }
+
+    /**
+     * Returns the key with the given id, or {@code null} if it is not in the ring.
+     */
+    public Key verificationKey(String keyId) {
+        // tokens issued before key ids were introduced were signed with the default key
+        return keySet.get().keys().get(keyId != null ? keyId : defaultKeyId);
+    }
+
+    public Set<String> keyIds() {
+        return keySet.get().keys().keySet();
+    }
+
+    /**
+     * Registers a callback run after a reload dropped a key, for caches of already verified tokens.
+     */
+    public void onKeysRemoved(Runnable listener) {
+        removalListeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.key-ring.reload-interval:30s}")
+    public void reloadIfChanged() {
+        if (keyRingFile == null) {
+            return;
+        }
+
+        try {
+            FileTime fileTime = Files.getLastModifiedTime(keyRingFile);
+            if (fileTime.equals(loadedFileTime)) {
+                return;
+            }
+            replace(readKeyRingFile());
+            loadedFileTime = fileTime;
+        } catch (IOException | RuntimeException e) {
+            // a half-written or broken file must not log everyone out, the current keys stay in use
+            logger.warn("Could not reload the JWT key ring from {}, keeping the current keys", keyRingFile, e);
+        }
+    }
+
+    private void replace(KeySet next) {
+        KeySet previous = keySet.getAndSet(next);
+        logger.info("Loaded JWT key ring with keys {}, signing with {}", next.keys().keySet(), next.activeKeyId());
+
+        if (!next.keys().keySet().containsAll(previous.keys().keySet())) {
+            removalListeners.forEach(Runnable::run);
+        }
+    }
+
+    private KeySet readKeyRingFile() throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(keyRingFile)) {
+            properties.load(reader);
+        }
+
+        Map<String, Key> keys = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(KEY_PROPERTY_PREFIX)) {
+                keys.put(name.substring(KEY_PROPERTY_PREFIX.length()), decode(properties.getProperty(name)));
+            }
+        }
+
+        String activeKeyId = properties.getProperty(ACTIVE_PROPERTY);
+        if (activeKeyId == null || !keys.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("The active key " + activeKeyId + " is not defined in " + keyRingFile);
+        }
+        return new KeySet(activeKeyId, Map.copyOf(keys));
+    }
+
+    private static Key decode(String secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret.trim()));
+    }
+
+    public record SigningKey(String keyId, Key key) {
+    }
+
+    private record KeySet(String activeKeyId, Map<String, Key> keys) {
+    }
+}
@@ -1,60 +1,122 @@
 package org.example.ecommerce.Jwt;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import org.example.ecommerce.Model.User;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.Service.UserSecuritySnapshot;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtils {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_TOKEN_TYPE = "typ";
+    public static final String TOKEN_TYPE_ACCESS = "access";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
 
     @Value("${jwt.expiration}")
     private int jwtExpiration;
 
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long refreshExpiration;
+
+    private final JwtKeyRing keyRing;
+
+    // the resolver reads the key ring on every parse, so one parser serves every key rotation
+    private final JwtParser jwtParser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new KeyRingResolver())
+            .build();
+
     public String generateJwtToken(Authentication authentication) {
+        return generateToken(authentication, TOKEN_TYPE_ACCESS, jwtExpiration);
+    }
 
-        User userPrincipal = (User) authentication.getPrincipal();
+    /**
+     * Issues a long-lived token that can only be exchanged for new tokens at {@code /api/auth/refresh}.
+     */
+    public String generateRefreshToken(Authentication authentication) {
+        return generateToken(authentication, TOKEN_TYPE_REFRESH, refreshExpiration);
+    }
+
+    private String generateToken(Authentication authentication, String tokenType, long expiration) {
+
+        UserSecuritySnapshot userPrincipal = (UserSecuritySnapshot) authentication.getPrincipal();
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+        Date now = new Date();
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.keyId())
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpiration))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .claim(CLAIM_TOKEN_TYPE, tokenType)
+                .claim(CLAIM_USER_ID, userPrincipal.id())
+                .claim(CLAIM_ROLE, userPrincipal.role().name())
+                .claim(CLAIM_TOKEN_VERSION, userPrincipal.tokenVersion())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + expiration))
+                .signWith(signingKey.key(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    /**
+     * Verifies the signature and expiry of the token and returns its claims.
+     * Throws a {@link io.jsonwebtoken.JwtException} if the token is not valid.
+     */
+    public Claims parseClaims(String token) {
+        return jwtParser
+                .parseClaimsJws(token)
+                .getBody();
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key())
-                    .build()
-                    .parseClaimsJws(authToken);
+            parseClaims(authToken);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
+
+    /**
+     * Registers a callback run when a verification key is removed from the key ring.
+     */
+    public void onVerificationKeysRemoved(Runnable listener) {
+        keyRing.onKeysRemoved(listener);
+    }
+
+    private class KeyRingResolver extends SigningKeyResolverAdapter {
+
+        // the raw parameter type is fixed by the jjwt 0.11 resolver API, a JwsHeader<?> would not override it
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            return resolveSigningKey((JwsHeader<?>) header);
+        }
+
+        private Key resolveSigningKey(JwsHeader<?> header) {
+            Key key = keyRing.verificationKey(header.getKeyId());
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown signing key id: " + header.getKeyId());
+            }
+            return key;
+        }
+    }
 }
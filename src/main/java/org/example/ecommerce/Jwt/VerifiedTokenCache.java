@@ -0,0 +1,91 @@
+package org.example.ecommerce.Jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the claims of tokens whose signature has already been checked, so a client
+ * sending the same token on every request only pays for the HMAC verification once.
+ * Entries are keyed by the SHA-256 digest of the token and expire together with the token.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtils jwtUtils;
+    private final Cache<String, Claims> cache;
+
+    public VerifiedTokenCache(JwtUtils jwtUtils, @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this.jwtUtils = jwtUtils;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+        // tokens signed with a key that was taken out of the ring must be verified again
+        jwtUtils.onVerificationKeysRemoved(cache::invalidateAll);
+    }
+
+    /**
+     * Returns the claims of a valid token, or an empty optional if the token is malformed,
+     * badly signed or expired.
+     */
+    public Optional<Claims> getVerifiedClaims(String token) {
+        String digest = digest(token);
+
+        Claims claims = cache.getIfPresent(digest);
+        if (claims != null) {
+            return Optional.of(claims);
+        }
+
+        try {
+            claims = jwtUtils.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        // tokens without an expiry are never cached, they could otherwise stay valid forever
+        if (claims.getExpiration() != null) {
+            cache.put(digest, claims);
+        }
+        return Optional.of(claims);
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
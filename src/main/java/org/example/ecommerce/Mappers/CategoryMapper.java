@@ -15,6 +15,9 @@ public interface CategoryMapper {
     @Mapping(target = "products", ignore = true)
     @Mapping(target = "subcategories", ignore = true)
     @Mapping(target = "parentCategory", ignore = true)
+    @Mapping(target = "path", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
     Category categoryNameToCategory(String categoryName);
 
     String categoryToCategoryName(Category category);
@@ -22,6 +25,9 @@ public interface CategoryMapper {
     @Mapping(target = "products", ignore = true)
     @Mapping(target = "subcategories", ignore = true)
     @Mapping(target = "parentCategory", ignore = true)
+    @Mapping(target = "path", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
     @Mapping(target = "id", ignore = true)
     void updateCategory(String categoryName, @MappingTarget Category category);
 }
@@ -2,9 +2,11 @@ package org.example.ecommerce.Mappers;
 
 
 import org.example.ecommerce.DTO.AddProductDto;
+import org.example.ecommerce.DTO.ReviewSummaryDto;
 import org.example.ecommerce.DTO.ShowAdminProductDto;
 import org.example.ecommerce.DTO.ShowProductDto;
 import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Model.ReviewSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -18,19 +20,31 @@ public interface ProductMapper {
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "orderItems", ignore = true)
     @Mapping(target = "reviews", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    @Mapping(target = "reviewSummary", ignore = true)
     Product addProductDtoToProduct(AddProductDto addProductDto);
 
     @Mapping(source = "category", target = "categoryName")
     AddProductDto productToAddProductDto(Product product);
 
+    @Mapping(target = "reviews", source = "reviewSummary")
     ShowProductDto productToShowProductDto(Product product);
 
+    @Mapping(target = "reviews", source = "reviewSummary")
     ShowAdminProductDto productToShowAdminProductDto(Product product);
 
+    default ReviewSummaryDto reviewSummaryToReviewSummaryDto(ReviewSummary reviewSummary) {
+        return ReviewSummaryDto.of(reviewSummary);
+    }
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "wishlistItems", ignore = true)
     @Mapping(target = "orderItems", ignore = true)
     @Mapping(target = "reviews", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    @Mapping(target = "reviewSummary", ignore = true)
     void updateProductFromDto(AddProductDto addProductDto, @MappingTarget Product product);
 }
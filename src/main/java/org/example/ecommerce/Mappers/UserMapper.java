@@ -21,6 +21,7 @@ public interface UserMapper {
     @Mapping(target = "cart", ignore = true)
     @Mapping(target = "role", expression = "java(org.example.ecommerce.Model.UserRole.CUSTOMER)")
     @Mapping(target = "authorities", ignore = true)
+    @Mapping(target = "tokenVersion", ignore = true)
     User toUser(UserRegistrationDto userRegistrationDto);
 
     UserRegistrationDto toUserRegistrationDto(User user);
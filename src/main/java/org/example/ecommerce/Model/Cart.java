@@ -1,8 +1,10 @@
 package org.example.ecommerce.Model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -18,19 +20,76 @@ public class Cart {
     @Column(name = "id", nullable = false)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CartItem> cartItems = new ArrayList<>();
 
+    // price without shipping, always the sum of the item subtotals; only the methods below change it
+    @Setter(AccessLevel.NONE)
+    @Convert(converter = CentsConverter.class)
     @Column(name = "total_price", nullable = false)
-    private BigDecimal totalPrice; // price without shipping
+    private long totalPriceCents;
 
-    @PrePersist
-    @PreUpdate
-    public void calculateTotalPrice() {
-        this.totalPrice = cartItems.stream().map(CartItem::getSubtotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+    // every change of the total updates this row, so two requests changing the same cart cannot lose each other's delta
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public BigDecimal getTotalPrice() {
+        return CentsConverter.toAmount(totalPriceCents);
+    }
+
+    public void addItem(CartItem item) {
+        cartItems.add(item);
+        totalPriceCents += item.getSubtotalCents();
+    }
+
+    public void removeItem(CartItem item) {
+        if (cartItems.remove(item)) {
+            totalPriceCents -= item.getSubtotalCents();
+        }
+    }
+
+    public void changeQuantity(CartItem item, int quantity) {
+        totalPriceCents += item.getUnitPriceCents() * (quantity - item.getQuantity());
+        item.setQuantity(quantity);
+    }
+
+    public void clear() {
+        cartItems.clear();
+        totalPriceCents = 0;
+    }
+
+    /**
+     * Brings the unit prices of the items up to the current product prices. The total is summed again
+     * only when one of them changed, otherwise it is left as the mutations kept it.
+     */
+    public boolean reprice() {
+        boolean changed = false;
+        for (CartItem item : cartItems) {
+            long price = CentsConverter.toCents(item.getProduct().getPrice());
+            if (item.getUnitPriceCents() != price) {
+                item.setUnitPriceCents(price);
+                changed = true;
+            }
+        }
+        if (changed) {
+            totalPriceCents = cartItems.stream().mapToLong(CartItem::getSubtotalCents).sum();
+        }
+        return changed;
+    }
+
+    /**
+     * Reprices the items and sums the total again from their subtotals regardless of the running sum,
+     * for the places where the amount is actually charged.
+     */
+    public BigDecimal recalculateTotal() {
+        reprice();
+        totalPriceCents = cartItems.stream().mapToLong(CartItem::getSubtotalCents).sum();
+        return getTotalPrice();
     }
-}
\ No newline at end of file
+}
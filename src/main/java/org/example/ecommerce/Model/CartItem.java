@@ -2,6 +2,7 @@ package org.example.ecommerce.Model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
@@ -29,7 +30,16 @@ public class CartItem {
     @Column(name = "quantity", nullable = false)
     private int quantity;
 
+    // the product price the cart total was summed with; 0 for items added before it was kept, until the cart is repriced
+    @ColumnDefault("0")
+    @Column(name = "unit_price_cents", nullable = false)
+    private long unitPriceCents;
+
+    public long getSubtotalCents() {
+        return unitPriceCents * quantity;
+    }
+
     public BigDecimal getSubtotal() {
-        return product.getPrice().multiply(BigDecimal.valueOf(quantity));
+        return CentsConverter.toAmount(getSubtotalCents());
     }
 }
\ No newline at end of file
@@ -3,7 +3,10 @@ package org.example.ecommerce.Model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,6 +23,22 @@ public class Category {
     @Column(name = "category_name", nullable = false)
     private String categoryName;
 
+    // ids of the ancestors from the root down, "/" for a root, "/1/5/" for a category below 5 below 1
+    @ColumnDefault("'/'")
+    @Column(name = "path", nullable = false, length = 1000)
+    private String path = "/";
+
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // moved forward by every write, the ETag of the listing is derived from it
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "last_modified", nullable = false)
+    private Instant lastModified;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_category_id")
     private Category parentCategory;
@@ -30,4 +49,9 @@ public class Category {
     @OneToMany(mappedBy = "category")
     private List<Product> products = new ArrayList<>();
 
+    // the path every category below this one starts with
+    public String subtreePath() {
+        return path + id + "/";
+    }
+
 }
\ No newline at end of file
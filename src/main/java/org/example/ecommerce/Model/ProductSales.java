@@ -0,0 +1,23 @@
+package org.example.ecommerce.Model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Units of a product checked out on one day. Rolling bestseller windows sum the buckets of their days,
+ * buckets older than the longest window are purged. The product id is not a foreign key, so deleting a
+ * product does not have to touch its sales; they drop out of the ranking with it.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "product_sales", indexes = @Index(name = "idx_product_sales_day", columnList = "sales_day"))
+public class ProductSales {
+
+    @EmbeddedId
+    private ProductSalesId id;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+}
@@ -0,0 +1,27 @@
+package org.example.ecommerce.Model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ProductSalesId implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // UTC day the units were checked out on
+    @Column(name = "sales_day", nullable = false)
+    private LocalDate salesDay;
+}
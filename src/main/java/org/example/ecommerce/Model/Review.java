@@ -7,7 +7,10 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "review")
+@Table(name = "review", indexes = {
+        // reviews are always read and counted per product
+        @Index(name = "idx_review_product", columnList = "product_id")
+})
 public class Review {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
@@ -17,6 +20,10 @@ public class Review {
     @Column(name = "review_text")
     private String reviewText;
 
+    // 1 to 5 stars, null for reviews written before reviews had a rating
+    @Column(name = "rating")
+    private Integer rating;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
@@ -0,0 +1,50 @@
+package org.example.ecommerce.Model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Review aggregates kept on the product row, so listings can show them without touching the reviews.
+ * They are only changed by the atomic updates in {@code ProductRepository#updateReviewSummary}.
+ */
+@Getter
+@Setter
+@Embeddable
+public class ReviewSummary {
+
+    // every review, including the ones written before reviews had a rating
+    @ColumnDefault("0")
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @ColumnDefault("0")
+    @Column(name = "rated_review_count", nullable = false)
+    private long ratedCount;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @ColumnDefault("0")
+    @Column(name = "one_star_count", nullable = false)
+    private long oneStarCount;
+
+    @ColumnDefault("0")
+    @Column(name = "two_star_count", nullable = false)
+    private long twoStarCount;
+
+    @ColumnDefault("0")
+    @Column(name = "three_star_count", nullable = false)
+    private long threeStarCount;
+
+    @ColumnDefault("0")
+    @Column(name = "four_star_count", nullable = false)
+    private long fourStarCount;
+
+    @ColumnDefault("0")
+    @Column(name = "five_star_count", nullable = false)
+    private long fiveStarCount;
+}
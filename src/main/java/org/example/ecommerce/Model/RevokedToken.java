@@ -0,0 +1,23 @@
+package org.example.ecommerce.Model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "revoked_token", indexes = @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at"))
+public class RevokedToken {
+    // the jti claim of the revoked token
+    @Id
+    @Column(name = "token_id", nullable = false, length = 36)
+    private String tokenId;
+
+    // rows are only needed until the token would have expired on its own
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+}
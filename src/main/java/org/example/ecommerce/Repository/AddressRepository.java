@@ -13,5 +13,6 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
     @Override
     void deleteById(Long aLong);
 
+    Optional<Address> findByIdAndUserId(Long id, Long userId);
 
 }
@@ -1,7 +1,16 @@
 package org.example.ecommerce.Repository;
 
 import org.example.ecommerce.Model.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
+
+    // the cart, its items and their products in one statement, the user row is not read
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
+    @Query("SELECT c FROM Cart c WHERE c.user.id = :userId")
+    Optional<Cart> findWithItemsByUserId(Long userId);
 }
@@ -1,11 +1,17 @@
 package org.example.ecommerce.Repository;
 
+import org.example.ecommerce.DTO.CategoryRowDto;
+import org.example.ecommerce.DTO.CollectionVersionDto;
 import org.example.ecommerce.Model.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,4 +31,23 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findAll();
 
     Optional<Category> findByCategoryName(String categoryName);
+
+    List<Category> findAllByCategoryNameIn(Collection<String> categoryNames);
+
+    @Query("SELECT new org.example.ecommerce.DTO.CategoryRowDto(c.id, c.categoryName, p.id, c.path, c.lastModified) " +
+            "FROM Category c LEFT JOIN c.parentCategory p")
+    List<CategoryRowDto> findAllRows();
+
+    // re-roots every category whose path starts with oldPrefix, i.e. the whole subtree of a moved category
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Category c SET c.path = concat(:newPrefix, substring(c.path, length(:oldPrefix) + 1)), " +
+            "c.version = c.version + 1, c.lastModified = :modifiedAt WHERE c.path LIKE concat(:oldPrefix, '%')")
+    int moveSubtree(String oldPrefix, String newPrefix, Instant modifiedAt);
+
+    @Modifying
+    @Query("UPDATE Category c SET c.path = :path WHERE c.id = :id")
+    int updatePath(Long id, String path);
+
+    @Query("SELECT new org.example.ecommerce.DTO.CollectionVersionDto(count(c), max(c.lastModified)) FROM Category c")
+    CollectionVersionDto findCategoriesVersion();
 }
@@ -3,6 +3,7 @@ package org.example.ecommerce.Repository;
 import org.example.ecommerce.Model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -10,4 +11,6 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     @Override
     Optional<Order> findById(Long aLong);
+
+    List<Order> findByUserId(Long userId);
 }
@@ -0,0 +1,22 @@
+package org.example.ecommerce.Repository;
+
+import org.example.ecommerce.DTO.ProductPriceStockUpdateDto;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ProductBulkUpdateRepository {
+
+    /**
+     * Sets the given prices and stock levels with a single UPDATE and returns the ids of the updated products.
+     * Unknown ids and negative values are skipped.
+     */
+    List<Long> setPricesAndStock(List<ProductPriceStockUpdateDto> updates, Instant modifiedAt);
+
+    /**
+     * Changes the prices by the given percentages and the stock by the given amounts with a single UPDATE
+     * and returns the ids of the updated products. Unknown ids and changes that would make the price or
+     * the stock negative are skipped.
+     */
+    List<Long> adjustPricesAndStock(List<ProductPriceStockUpdateDto> updates, Instant modifiedAt);
+}
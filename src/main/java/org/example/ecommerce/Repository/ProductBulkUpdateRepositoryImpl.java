@@ -0,0 +1,71 @@
+package org.example.ecommerce.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.DTO.ProductPriceStockUpdateDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ProductBulkUpdateRepositoryImpl implements ProductBulkUpdateRepository {
+
+    // the updates are joined as three parallel arrays, so a chunk of any size is one statement with four parameters
+    private static final String SET_PRICES_AND_STOCK = """
+            UPDATE product p
+            SET price = COALESCE(v.price, p.price),
+                available_quantity = COALESCE(v.quantity, p.available_quantity),
+                version = p.version + 1,
+                last_modified = ?
+            FROM unnest(?, ?, ?) AS v(id, price, quantity)
+            WHERE p.id = v.id
+              AND (v.price IS NULL OR v.price >= 0)
+              AND (v.quantity IS NULL OR v.quantity >= 0)
+            RETURNING p.id
+            """;
+
+    private static final String ADJUST_PRICES_AND_STOCK = """
+            UPDATE product p
+            SET price = CASE WHEN v.price IS NULL THEN p.price ELSE round(p.price * (100 + v.price) / 100, 2) END,
+                available_quantity = CASE WHEN v.quantity IS NULL THEN p.available_quantity
+                                          ELSE COALESCE(p.available_quantity, 0) + v.quantity END,
+                version = p.version + 1,
+                last_modified = ?
+            FROM unnest(?, ?, ?) AS v(id, price, quantity)
+            WHERE p.id = v.id
+              AND (v.price IS NULL OR v.price >= -100)
+              AND (v.quantity IS NULL OR COALESCE(p.available_quantity, 0) + v.quantity >= 0)
+            RETURNING p.id
+            """;
+
+    // runs on the connection of the surrounding JPA transaction
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> setPricesAndStock(List<ProductPriceStockUpdateDto> updates, Instant modifiedAt) {
+        return update(SET_PRICES_AND_STOCK, updates, modifiedAt);
+    }
+
+    @Override
+    public List<Long> adjustPricesAndStock(List<ProductPriceStockUpdateDto> updates, Instant modifiedAt) {
+        return update(ADJUST_PRICES_AND_STOCK, updates, modifiedAt);
+    }
+
+    private List<Long> update(String sql, List<ProductPriceStockUpdateDto> updates, Instant modifiedAt) {
+        Long[] ids = updates.stream().map(ProductPriceStockUpdateDto::id).toArray(Long[]::new);
+        BigDecimal[] prices = updates.stream().map(ProductPriceStockUpdateDto::price).toArray(BigDecimal[]::new);
+        Integer[] quantities = updates.stream().map(ProductPriceStockUpdateDto::availableQuantity).toArray(Integer[]::new);
+
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setTimestamp(1, Timestamp.from(modifiedAt));
+            statement.setArray(2, connection.createArrayOf("bigint", ids));
+            statement.setArray(3, connection.createArrayOf("numeric", prices));
+            statement.setArray(4, connection.createArrayOf("integer", quantities));
+            return statement;
+        }, (resultSet, rowNumber) -> resultSet.getLong(1));
+    }
+}
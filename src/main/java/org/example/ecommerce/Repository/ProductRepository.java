@@ -1,16 +1,34 @@
 package org.example.ecommerce.Repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.ecommerce.DTO.CollectionVersionDto;
+import org.example.ecommerce.DTO.ProductExportDto;
+import org.example.ecommerce.DTO.ProductSuggestRowDto;
+import org.example.ecommerce.DTO.ProductTextRowDto;
+import org.example.ecommerce.DTO.ProductViewDto;
+import org.example.ecommerce.DTO.ShowAdminProductDto;
+import org.example.ecommerce.DTO.ShowProductDto;
 import org.example.ecommerce.Model.Product;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductSearchRepository, ProductBulkUpdateRepository {
 
     Optional<Product> findByProductName(String productName);
 
@@ -19,9 +37,47 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     boolean existsByProductName(String productName);
 
+    @Query("SELECT p.productName FROM Product p WHERE p.productName IN :productNames")
+    Set<String> findExistingProductNames(Collection<String> productNames);
+
     @Override
     Page<Product> findAll(Pageable pageable);
 
+    // catalog reads select straight into the DTOs, no Product is hydrated or put in the persistence context
+    @Query(value = "SELECT new org.example.ecommerce.DTO.ShowProductDto(p.productName, p.description, CAST(p.price AS Double), p.reviewSummary) FROM Product p",
+            countQuery = "SELECT count(p) FROM Product p")
+    Page<ShowProductDto> findAllShowProductDtos(Pageable pageable);
+
+    @Query("SELECT new org.example.ecommerce.DTO.ProductViewDto(p.id, p.version, p.productName, p.description, CAST(p.price AS Double), p.reviewSummary) FROM Product p WHERE p.id = :id")
+    Optional<ProductViewDto> findProductViewById(Long id);
+
+    // one page of search hits, in no particular order
+    @Query("SELECT new org.example.ecommerce.DTO.ProductViewDto(p.id, p.version, p.productName, p.description, CAST(p.price AS Double), p.reviewSummary) FROM Product p WHERE p.id IN :ids")
+    List<ProductViewDto> findProductViewsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new org.example.ecommerce.DTO.CollectionVersionDto(count(p), max(p.lastModified)) FROM Product p")
+    CollectionVersionDto findCatalogVersion();
+
+    @Query(value = "SELECT new org.example.ecommerce.DTO.ShowAdminProductDto(p.id, p.productName, p.description, CAST(p.price AS Double), p.availableQuantity, p.reviewSummary) FROM Product p",
+            countQuery = "SELECT count(p) FROM Product p")
+    Page<ShowAdminProductDto> findAllShowAdminProductDtos(Pageable pageable);
+
+    @Query("SELECT new org.example.ecommerce.DTO.ShowAdminProductDto(p.id, p.productName, p.description, CAST(p.price AS Double), p.availableQuantity, p.reviewSummary) FROM Product p WHERE p.id = :id")
+    Optional<ShowAdminProductDto> findShowAdminProductDtoById(Long id);
+
+    // forward-only reads for the export, the driver fetches the rows in batches instead of all at once
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new org.example.ecommerce.DTO.ProductExportDto(p.id, p.productName, p.description, p.price, p.availableQuantity, c.categoryName, p.lastModified) " +
+            "FROM Product p JOIN p.category c ORDER BY p.id")
+    Stream<ProductExportDto> streamAllForExport();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new org.example.ecommerce.DTO.ProductExportDto(p.id, p.productName, p.description, p.price, p.availableQuantity, c.categoryName, p.lastModified) " +
+            "FROM Product p JOIN p.category c WHERE p.lastModified > :since " +
+            // a renamed category changes the categoryName of its products without touching them
+            "OR p.category.id IN (SELECT m.id FROM Category m WHERE m.lastModified > :since) ORDER BY p.id")
+    Stream<ProductExportDto> streamModifiedForExport(Instant since);
+
     @Override
     void deleteById(Long productId);
 
@@ -29,6 +85,66 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     boolean existsById(Long productId);
 
     @Modifying
-    @Query("UPDATE Product p SET p.availableQuantity = p.availableQuantity - :qty WHERE p.id = :id AND p.availableQuantity >= :qty")
-    int decreaseAvailableQuantity(Long id, int qty);
+    // bumps the version like an entity update would, so ETags and optimistic locking see the change
+    @Query("UPDATE Product p SET p.availableQuantity = p.availableQuantity - :qty, p.version = p.version + 1, p.lastModified = :modifiedAt " +
+            "WHERE p.id = :id AND p.availableQuantity >= :qty")
+    int decreaseAvailableQuantity(Long id, int qty, Instant modifiedAt);
+
+    /**
+     * Adds ({@code delta} 1) or removes ({@code delta} -1) one review in the summary of the product, rating 0 stands
+     * for a review without rating. A single statement, so concurrent reviews of the same product cannot lose counts.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET " +
+            "p.reviewSummary.reviewCount = p.reviewSummary.reviewCount + :delta, " +
+            "p.reviewSummary.ratedCount = p.reviewSummary.ratedCount + CASE WHEN :rating > 0 THEN :delta ELSE 0 END, " +
+            "p.reviewSummary.ratingSum = p.reviewSummary.ratingSum + :delta * :rating, " +
+            "p.reviewSummary.oneStarCount = p.reviewSummary.oneStarCount + CASE WHEN :rating = 1 THEN :delta ELSE 0 END, " +
+            "p.reviewSummary.twoStarCount = p.reviewSummary.twoStarCount + CASE WHEN :rating = 2 THEN :delta ELSE 0 END, " +
+            "p.reviewSummary.threeStarCount = p.reviewSummary.threeStarCount + CASE WHEN :rating = 3 THEN :delta ELSE 0 END, " +
+            "p.reviewSummary.fourStarCount = p.reviewSummary.fourStarCount + CASE WHEN :rating = 4 THEN :delta ELSE 0 END, " +
+            "p.reviewSummary.fiveStarCount = p.reviewSummary.fiveStarCount + CASE WHEN :rating = 5 THEN :delta ELSE 0 END, " +
+            "p.version = p.version + 1, p.lastModified = :modifiedAt " +
+            "WHERE p.id = :id")
+    int updateReviewSummary(Long id, int rating, int delta, Instant modifiedAt);
+
+    @Query("SELECT p.id FROM Product p " +
+            "WHERE p.reviewSummary.reviewCount = 0 AND EXISTS (SELECT r FROM Review r WHERE r.product = p)")
+    List<Long> findIdsWithoutReviewSummary();
+
+    // fills the summary of products whose reviews were written before the summary existed
+    @Modifying
+    @Query("UPDATE Product p SET " +
+            "p.reviewSummary.reviewCount = (SELECT count(r) FROM Review r WHERE r.product = p), " +
+            "p.reviewSummary.ratedCount = (SELECT count(r.rating) FROM Review r WHERE r.product = p), " +
+            "p.reviewSummary.ratingSum = (SELECT coalesce(sum(r.rating), 0) FROM Review r WHERE r.product = p), " +
+            "p.reviewSummary.oneStarCount = (SELECT count(r) FROM Review r WHERE r.product = p AND r.rating = 1), " +
+            "p.reviewSummary.twoStarCount = (SELECT count(r) FROM Review r WHERE r.product = p AND r.rating = 2), " +
+            "p.reviewSummary.threeStarCount = (SELECT count(r) FROM Review r WHERE r.product = p AND r.rating = 3), " +
+            "p.reviewSummary.fourStarCount = (SELECT count(r) FROM Review r WHERE r.product = p AND r.rating = 4), " +
+            "p.reviewSummary.fiveStarCount = (SELECT count(r) FROM Review r WHERE r.product = p AND r.rating = 5), " +
+            "p.version = p.version + 1, p.lastModified = :modifiedAt " +
+            "WHERE p.reviewSummary.reviewCount = 0 AND EXISTS (SELECT r FROM Review r WHERE r.product = p)")
+    int backfillReviewSummaries(Instant modifiedAt);
+
+    // the review count stands in for popularity in the typeahead ranking
+    @Query("SELECT new org.example.ecommerce.DTO.ProductSuggestRowDto(p.id, p.productName, p.reviewSummary.reviewCount) " +
+            "FROM Product p")
+    List<ProductSuggestRowDto> findAllForSuggest();
+
+    // the full-text index is built in pages of ids, a single result of every description would not fit in memory
+    @Query("SELECT new org.example.ecommerce.DTO.ProductTextRowDto(p.id, p.productName, p.description, p.category.id, p.price) " +
+            "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductTextRowDto> findTextRowsAfter(Long afterId, Pageable pageable);
+
+    @Query("SELECT new org.example.ecommerce.DTO.ProductTextRowDto(p.id, p.productName, p.description, p.category.id, p.price) " +
+            "FROM Product p WHERE p.lastModified > :since")
+    List<ProductTextRowDto> findTextRowsModifiedSince(Instant since);
+
+    @Query("SELECT new org.example.ecommerce.DTO.ProductTextRowDto(p.id, p.productName, p.description, p.category.id, p.price) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<ProductTextRowDto> findTextRowsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Product p")
+    Set<Long> findAllIds();
 }
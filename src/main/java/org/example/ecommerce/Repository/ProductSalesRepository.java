@@ -0,0 +1,35 @@
+package org.example.ecommerce.Repository;
+
+import org.example.ecommerce.DTO.ProductSalesRowDto;
+import org.example.ecommerce.Model.ProductSales;
+import org.example.ecommerce.Model.ProductSalesId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProductSalesRepository extends JpaRepository<ProductSales, ProductSalesId> {
+
+    // one statement whether or not the bucket exists yet, concurrent checkouts add up instead of overwriting
+    @Modifying
+    @Query(value = "INSERT INTO product_sales (product_id, sales_day, quantity) VALUES (:productId, :salesDay, :quantity) " +
+            "ON CONFLICT (product_id, sales_day) DO UPDATE SET quantity = product_sales.quantity + EXCLUDED.quantity",
+            nativeQuery = true)
+    void addSales(Long productId, LocalDate salesDay, long quantity);
+
+    // both windows in one pass over the buckets of the long one
+    @Query("SELECT new org.example.ecommerce.DTO.ProductSalesRowDto(p.category.id, p.id, p.productName, " +
+            "SUM(CASE WHEN s.id.salesDay >= :weekStart THEN s.quantity ELSE 0L END), SUM(s.quantity)) " +
+            "FROM ProductSales s JOIN Product p ON p.id = s.id.productId " +
+            "WHERE s.id.salesDay >= :monthStart " +
+            "GROUP BY p.category.id, p.id, p.productName")
+    List<ProductSalesRowDto> sumSalesSince(LocalDate weekStart, LocalDate monthStart);
+
+    @Modifying
+    @Query("DELETE FROM ProductSales s WHERE s.id.salesDay < :before")
+    int deleteOlderThan(LocalDate before);
+}
@@ -0,0 +1,16 @@
+package org.example.ecommerce.Repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Resolved product filter. A category matches its own products and, through the materialized path,
+ * those of every descendant: their stored path starts with {@code categorySubtreePath}. {@code null}
+ * fields do not restrict the result.
+ */
+public record ProductSearchCriteria(Long categoryId,
+                                    String categorySubtreePath,
+                                    BigDecimal minPrice,
+                                    BigDecimal maxPrice,
+                                    boolean inStockOnly,
+                                    String namePrefix) {
+}
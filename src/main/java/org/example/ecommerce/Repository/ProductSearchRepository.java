@@ -0,0 +1,20 @@
+package org.example.ecommerce.Repository;
+
+import org.example.ecommerce.DTO.ProductFacetsDto;
+import org.example.ecommerce.DTO.ShowProductDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ProductSearchRepository {
+
+    Page<ShowProductDto> search(ProductSearchCriteria criteria, Pageable pageable);
+
+    /**
+     * Counts the matching products per category and per price bucket in a single aggregate query.
+     * {@code bucketBounds} must be ascending, n bounds make n + 1 buckets.
+     */
+    ProductFacetsDto findFacets(ProductSearchCriteria criteria, List<BigDecimal> bucketBounds);
+}
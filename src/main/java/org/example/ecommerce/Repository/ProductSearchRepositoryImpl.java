@@ -0,0 +1,156 @@
+package org.example.ecommerce.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.DTO.CategoryFacetDto;
+import org.example.ecommerce.DTO.PriceBucketFacetDto;
+import org.example.ecommerce.DTO.ProductFacetsDto;
+import org.example.ecommerce.DTO.ShowProductDto;
+import org.example.ecommerce.Model.Category;
+import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Model.ReviewSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<ShowProductDto> search(ProductSearchCriteria criteria, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+
+        // a tuple of the listed columns, no Product is hydrated
+        query.multiselect(product.get("productName"), product.get("description"), product.get("price"),
+                        product.get("reviewSummary"))
+                .where(predicates(cb, product, criteria))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), product, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<ShowProductDto> content = typedQuery.getResultList().stream()
+                .map(tuple -> new ShowProductDto(tuple.get(0, String.class), tuple.get(1, String.class),
+                        tuple.get(2, BigDecimal.class).doubleValue(), tuple.get(3, ReviewSummary.class)))
+                .toList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(criteria));
+    }
+
+    private long count(ProductSearchCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(cb.count(product)).where(predicates(cb, product, criteria));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<Product> product, ProductSearchCriteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.categoryId() != null) {
+            // the path LIKE is a range scan of idx_category_path, however deep the subtree is
+            Join<Product, Category> category = product.join("category");
+            predicates.add(cb.or(cb.equal(category.get("id"), criteria.categoryId()),
+                    cb.like(category.get("path"), criteria.categorySubtreePath() + "%")));
+        }
+        if (criteria.minPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.get("price"), criteria.minPrice()));
+        }
+        if (criteria.maxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(product.get("price"), criteria.maxPrice()));
+        }
+        if (criteria.inStockOnly()) {
+            predicates.add(cb.greaterThan(product.get("availableQuantity"), 0));
+        }
+        if (criteria.namePrefix() != null) {
+            predicates.add(cb.like(cb.lower(product.get("productName")), prefixPattern(criteria.namePrefix()), LIKE_ESCAPE));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    @Override
+    public ProductFacetsDto findFacets(ProductSearchCriteria criteria, List<BigDecimal> bucketBounds) {
+        // the bounds are numbers from the configuration and safe to inline, the same expression is grouped on
+        String bounds = bucketBounds.stream().map(BigDecimal::toPlainString).collect(Collectors.joining(","));
+        String bucket = "width_bucket(p.price, CAST(ARRAY[" + bounds + "] AS numeric[]))";
+
+        StringBuilder where = new StringBuilder("WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        if (criteria.categoryId() != null) {
+            where.append(" AND (c.id = :categoryId OR c.path LIKE :categorySubtreePath)");
+            parameters.put("categoryId", criteria.categoryId());
+            parameters.put("categorySubtreePath", criteria.categorySubtreePath() + "%");
+        }
+        if (criteria.minPrice() != null) {
+            where.append(" AND p.price >= :minPrice");
+            parameters.put("minPrice", criteria.minPrice());
+        }
+        if (criteria.maxPrice() != null) {
+            where.append(" AND p.price <= :maxPrice");
+            parameters.put("maxPrice", criteria.maxPrice());
+        }
+        if (criteria.inStockOnly()) {
+            where.append(" AND p.available_quantity > 0");
+        }
+        if (criteria.namePrefix() != null) {
+            where.append(" AND lower(p.product_name) LIKE :namePrefix ESCAPE '\\'");
+            parameters.put("namePrefix", prefixPattern(criteria.namePrefix()));
+        }
+
+        // both facets in one scan: GROUPING(c.id) is 1 on the price bucket rows and 0 on the category rows
+        Query query = entityManager.createNativeQuery("""
+                SELECT GROUPING(c.id), c.id, c.category_name, %1$s, count(*)
+                FROM product p LEFT JOIN category c ON c.id = p.category_id
+                %2$s
+                GROUP BY GROUPING SETS ((c.id, c.category_name), (%1$s))
+                """.formatted(bucket, where));
+        parameters.forEach(query::setParameter);
+
+        List<CategoryFacetDto> categories = new ArrayList<>();
+        List<PriceBucketFacetDto> priceBuckets = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            long count = ((Number) columns[4]).longValue();
+            if (((Number) columns[0]).intValue() == 0) {
+                Long categoryId = columns[1] == null ? null : ((Number) columns[1]).longValue();
+                categories.add(new CategoryFacetDto(categoryId, (String) columns[2], count));
+            } else {
+                int index = ((Number) columns[3]).intValue();
+                BigDecimal from = index == 0 ? null : bucketBounds.get(index - 1);
+                BigDecimal to = index == bucketBounds.size() ? null : bucketBounds.get(index);
+                priceBuckets.add(new PriceBucketFacetDto(from, to, count));
+            }
+        }
+
+        categories.sort(Comparator.comparingLong(CategoryFacetDto::count).reversed()
+                .thenComparing(CategoryFacetDto::categoryName, Comparator.nullsLast(Comparator.naturalOrder())));
+        priceBuckets.sort(Comparator.comparing(PriceBucketFacetDto::from, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return new ProductFacetsDto(categories, priceBuckets);
+    }
+
+    private static String prefixPattern(String prefix) {
+        String escaped = prefix.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return escaped + "%";
+    }
+}
@@ -14,4 +14,7 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     Optional<Review> findById(Long aLong);
 
     Page<Review> findByProduct(Product product, Pageable pageable);
+
+    // only the author may delete a review
+    Optional<Review> findByIdAndProductIdAndUserId(Long id, Long productId, Long userId);
 }
@@ -0,0 +1,29 @@
+package org.example.ecommerce.Repository;
+
+import org.example.ecommerce.Model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveTokenIds(Instant now);
+
+    // the primary key decides which of two concurrent revocations of the same token gets the row
+    @Modifying
+    @Query(value = "INSERT INTO revoked_token (token_id, expires_at) VALUES (:tokenId, :expiresAt) "
+            + "ON CONFLICT (token_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(String tokenId, Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(Instant now);
+}
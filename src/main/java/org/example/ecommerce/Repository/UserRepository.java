@@ -1,10 +1,15 @@
 package org.example.ecommerce.Repository;
 
 import org.example.ecommerce.Model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -13,4 +18,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     @Override
     Optional<User> findById(Long aLong);
+
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(String username);
+
+    boolean existsByUsername(String username);
+
+    boolean existsByEmail(String email);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(Long id);
+
+    @EntityGraph(attributePaths = {"cart", "cart.cartItems", "cart.cartItems.product"})
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findWithCartById(Long id);
+
+    @EntityGraph(attributePaths = {"addresses"})
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findWithAddressesById(Long id);
+
+    @EntityGraph(attributePaths = {"wishlist", "wishlist.wishlistItems", "wishlist.wishlistItems.product"})
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findWithWishlistById(Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(String username, String password);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(Long id);
 }
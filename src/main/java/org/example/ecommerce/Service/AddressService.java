@@ -10,9 +10,6 @@ import org.example.ecommerce.Mappers.AddressMapper;
 import org.example.ecommerce.Model.Address;
 import org.example.ecommerce.Model.User;
 import org.example.ecommerce.Repository.AddressRepository;
-import org.example.ecommerce.Repository.UserRepository;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,11 +22,11 @@ public class AddressService {
 
     private final AddressRepository addressRepository;
     private final AddressMapper addressMapper;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @Transactional
     public ShowAddressDto addAddressToCurrentUser(AddAddressDto addAddressDto) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.getCurrentUser(UserFetchPlan.ADDRESSES);
         Address address = addressMapper.addAddressDtoToAddress(addAddressDto);
 
         if (user.getAddresses().isEmpty()) {
@@ -59,7 +56,7 @@ public class AddressService {
 
     @Transactional
     public void deleteAddressOfCurrentUser(Long addressId) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.getCurrentUser(UserFetchPlan.ADDRESSES);
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new AddressNotFoundException("Address not found"));
 
@@ -73,11 +70,11 @@ public class AddressService {
 
     @Transactional(readOnly = true)
     public ShowAddressDto getAddressOfCurrentUserByAddressId(Long addressId) {
-        User user = getCurrentUser();
+        Long userId = currentUserResolver.getCurrentUserId();
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new AddressNotFoundException("Address not found"));
 
-        if (!address.getUser().getId().equals(user.getId())) {
+        if (!address.getUser().getId().equals(userId)) {
             throw new AddressDoesNotMatchUserException("You are not authorized to perform this action");
         }
 
@@ -86,7 +83,7 @@ public class AddressService {
 
     @Transactional(readOnly = true)
     public List<ShowAddressDto> getAllAddressesOfCurrentUser() {
-        User user = getCurrentUser();
+        User user = currentUserResolver.getCurrentUser(UserFetchPlan.ADDRESSES);
         List<Address> addresses = user.getAddresses();
 
         if (addresses.isEmpty()) {
@@ -97,11 +94,4 @@ public class AddressService {
                 .map(addressMapper::addressToShowAddressDto)
                 .toList();
     }
-
-    // The current user is the one who is logged in
-    private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
-    }
 }
@@ -1,16 +1,21 @@
 package org.example.ecommerce.Service;
 
-import lombok.RequiredArgsConstructor;
 import org.example.ecommerce.DTO.AddProductDto;
+import org.example.ecommerce.DTO.BulkProductUpdateDto;
+import org.example.ecommerce.DTO.BulkProductUpdateResultDto;
+import org.example.ecommerce.DTO.CursorPageDto;
 import org.example.ecommerce.Mappers.ProductMapper;
+import org.example.ecommerce.DTO.ProductPriceStockUpdateDto;
 import org.example.ecommerce.DTO.ShowAdminProductDto;
 import org.example.ecommerce.Exception.CategoryNotFoundException;
+import org.example.ecommerce.Exception.InvalidBulkUpdateException;
 import org.example.ecommerce.Exception.ProductAlreadyExistsException;
 import org.example.ecommerce.Exception.ProductNotFoundException;
 import org.example.ecommerce.Model.Category;
 import org.example.ecommerce.Model.Product;
 import org.example.ecommerce.Repository.CategoryRepository;
 import org.example.ecommerce.Repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -18,14 +23,42 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 
 @Service
-@RequiredArgsConstructor
 public class AdminProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final CategoryRepository categoryRepository;
+    private final ProductKeysetPager productKeysetPager;
+    private final ProductViewCache productViewCache;
+    private final ProductSuggestService productSuggestService;
+    private final ProductTextSearchService productTextSearchService;
+    private final int bulkUpdateChunkSize;
+
+    public AdminProductService(ProductRepository productRepository,
+                               ProductMapper productMapper,
+                               CategoryRepository categoryRepository,
+                               ProductKeysetPager productKeysetPager,
+                               ProductViewCache productViewCache,
+                               ProductSuggestService productSuggestService,
+                               ProductTextSearchService productTextSearchService,
+                               @Value("${catalog.bulk-update.chunk-size:1000}") int bulkUpdateChunkSize) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.categoryRepository = categoryRepository;
+        this.productKeysetPager = productKeysetPager;
+        this.productViewCache = productViewCache;
+        this.productSuggestService = productSuggestService;
+        this.productTextSearchService = productTextSearchService;
+        this.bulkUpdateChunkSize = bulkUpdateChunkSize;
+    }
 
     @Transactional
     public ShowAdminProductDto createProduct(AddProductDto addProductDto) {
@@ -40,14 +73,19 @@ public class AdminProductService {
         Product product = productMapper.addProductDtoToProduct(addProductDto);
         product.setCategory(category);
         product = productRepository.save(product);
+        productSuggestService.productSavedAfterCommit(product);
+        productTextSearchService.productSavedAfterCommit(product);
 
         return productMapper.productToShowAdminProductDto(product);
     }
 
+    @Transactional(readOnly = true)
     public Page<ShowAdminProductDto> getAllProducts(Pageable pageable) {
-        Page<Product> products = productRepository.findAll(pageable);
+        return productRepository.findAllShowAdminProductDtos(pageable);
+    }
 
-        return products.map(productMapper::productToShowAdminProductDto);
+    public CursorPageDto<ShowAdminProductDto> scrollProducts(String sort, String direction, String cursor, int size) {
+        return productKeysetPager.scroll(sort, direction, cursor, size, productMapper::productToShowAdminProductDto);
     }
 
     @Transactional
@@ -57,13 +95,14 @@ public class AdminProductService {
         }
 
         productRepository.deleteById(id);
+        productSuggestService.productRemovedAfterCommit(id);
+        productTextSearchService.productRemovedAfterCommit(id);
     }
 
+    @Transactional(readOnly = true)
     public ShowAdminProductDto getProductById(Long id){
-        Product product = productRepository.findById(id).
-                orElseThrow(() -> new ProductNotFoundException("Product with id " + id + " does not exist"));
-
-        return productMapper.productToShowAdminProductDto(product);
+        return productRepository.findShowAdminProductDtoById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product with id " + id + " does not exist"));
     }
 
     @Transactional
@@ -79,7 +118,40 @@ public class AdminProductService {
         product.setCategory(category);
 
         productRepository.save(product);
+        productSuggestService.productSavedAfterCommit(product);
+        productTextSearchService.productSavedAfterCommit(product);
 
         return productMapper.productToShowAdminProductDto(product);
     }
+
+    /**
+     * Applies price and stock changes to many products at once: one UPDATE per chunk, all chunks in one
+     * transaction, so either every valid change is applied or none is. The cached views of the updated
+     * products are dropped together after the commit, and their new prices reach the text index.
+     */
+    @Transactional
+    public BulkProductUpdateResultDto bulkUpdate(BulkProductUpdateDto bulkProductUpdateDto) {
+        List<ProductPriceStockUpdateDto> updates = bulkProductUpdateDto.products();
+        Set<Long> requestedIds = new LinkedHashSet<>();
+        for (ProductPriceStockUpdateDto update : updates) {
+            if (!requestedIds.add(update.id())) {
+                throw new InvalidBulkUpdateException("Product with id " + update.id() + " appears more than once");
+            }
+        }
+
+        Instant modifiedAt = Instant.now();
+        Set<Long> updatedIds = new HashSet<>();
+        for (int from = 0; from < updates.size(); from += bulkUpdateChunkSize) {
+            List<ProductPriceStockUpdateDto> chunk = updates.subList(from, Math.min(from + bulkUpdateChunkSize, updates.size()));
+            updatedIds.addAll(switch (bulkProductUpdateDto.mode()) {
+                case ABSOLUTE -> productRepository.setPricesAndStock(chunk, modifiedAt);
+                case RELATIVE -> productRepository.adjustPricesAndStock(chunk, modifiedAt);
+            });
+        }
+        productViewCache.evictAllAfterCommit(updatedIds);
+        productTextSearchService.productsUpdatedAfterCommit(updatedIds);
+
+        List<Long> notUpdated = requestedIds.stream().filter(id -> !updatedIds.contains(id)).toList();
+        return new BulkProductUpdateResultDto(updatedIds.size(), notUpdated);
+    }
 }
@@ -1,20 +1,29 @@
 package org.example.ecommerce.Service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.example.ecommerce.DTO.JwtResponseDto;
+import org.example.ecommerce.DTO.RefreshTokenDto;
 import org.example.ecommerce.DTO.RegisteredUserDto;
 import org.example.ecommerce.DTO.UserLoginDto;
 import org.example.ecommerce.Mappers.UserMapper;
 import org.example.ecommerce.DTO.UserRegistrationDto;
+import org.example.ecommerce.Exception.InvalidRefreshTokenException;
 import org.example.ecommerce.Exception.UserAlreadyExistsException;
 import org.example.ecommerce.Jwt.JwtUtils;
 import org.example.ecommerce.Model.User;
 import org.example.ecommerce.Repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -24,43 +33,170 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AuthenticationService {
 
+    private static final String INVALID_REFRESH_TOKEN = "Refresh token is invalid or has been revoked";
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
+    private final LoginThrottle loginThrottle;
+    private final CustomUserDetailsService userDetailsService;
+    private final RevokedTokenService revokedTokenService;
+    private final TokenVersionService tokenVersionService;
 
     public RegisteredUserDto registerUser(UserRegistrationDto userRegistrationDto){
 
-        if (userRepository.findByUsername(userRegistrationDto.username()).isPresent()) {
-            throw new UserAlreadyExistsException("User with username " + userRegistrationDto.username() + " already exists");
+        User user = userMapper.toUser(userRegistrationDto);
+        user.setPassword(passwordEncoder.encode(userRegistrationDto.password()));
+
+        // the unique constraints decide, looking the username and email up first costs two queries and still races
+        try {
+            return userMapper.userToRegisteredUserDto(userRepository.saveAndFlush(user));
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUser(userRegistrationDto, e);
         }
+    }
 
-        if (userRepository.findByEmail(userRegistrationDto.email()).isPresent()) {
-            throw new UserAlreadyExistsException("User with email " + userRegistrationDto.email() + " already exists");
+    private RuntimeException duplicateUser(UserRegistrationDto userRegistrationDto, DataIntegrityViolationException e) {
+        String constraintName = violatedConstraint(e);
+
+        boolean duplicateUsername;
+        if (User.USERNAME_CONSTRAINT.equalsIgnoreCase(constraintName)) {
+            duplicateUsername = true;
+        } else if (User.EMAIL_CONSTRAINT.equalsIgnoreCase(constraintName)) {
+            duplicateUsername = false;
+        } else if (userRepository.existsByUsername(userRegistrationDto.username())) {
+            // constraints created before they were named, only reached when the insert failed
+            duplicateUsername = true;
+        } else if (userRepository.existsByEmail(userRegistrationDto.email())) {
+            duplicateUsername = false;
+        } else {
+            return e;
         }
 
-        User user = userMapper.toUser(userRegistrationDto);
-        user.setPassword(passwordEncoder.encode(userRegistrationDto.password()));
+        return duplicateUsername
+                ? new UserAlreadyExistsException("User with username " + userRegistrationDto.username() + " already exists")
+                : new UserAlreadyExistsException("User with email " + userRegistrationDto.email() + " already exists");
+    }
 
-        return userMapper.userToRegisteredUserDto(userRepository.save(user));
+    private static String violatedConstraint(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
     }
 
-    public JwtResponseDto loginUser(UserLoginDto userLoginDto){
+    public JwtResponseDto loginUser(UserLoginDto userLoginDto, String clientIp){
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(userLoginDto.username(), userLoginDto.password())
-        );
+        // rejected attempts never reach the user lookup or the password hash
+        loginThrottle.checkAllowed(userLoginDto.username(), clientIp);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(userLoginDto.username(), userLoginDto.password())
+            );
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(userLoginDto.username(), clientIp);
+            throw e;
+        }
+        loginThrottle.recordSuccess(userLoginDto.username(), clientIp);
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
+        return issueTokens(authentication);
+
+    }
+
+    /**
+     * Exchanges a refresh token for a new access and refresh token. Refresh tokens are rotated:
+     * the presented token is revoked, so each one can be used only once. The revocation is what
+     * claims the token: of two concurrent requests with the same token only the one that inserted the
+     * revocation gets new tokens.
+     */
+    public JwtResponseDto refreshToken(RefreshTokenDto refreshTokenDto) {
+        Claims claims = verifyRefreshToken(refreshTokenDto.refreshToken());
+        UserSecuritySnapshot user = refreshTokenOwner(claims);
+
+        if (!revokedTokenService.revoke(claims.getId(), claims.getExpiration().toInstant())) {
+            throw new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN);
+        }
+
+        return issueTokens(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    /**
+     * Revokes the refresh token and, when one is given, the access token of the session.
+     */
+    public void logout(RefreshTokenDto refreshTokenDto, String accessToken) {
+        Claims refreshClaims = verifyRefreshToken(refreshTokenDto.refreshToken());
+        revokedTokenService.revoke(refreshClaims.getId(), refreshClaims.getExpiration().toInstant());
+
+        if (accessToken != null) {
+            try {
+                Claims accessClaims = jwtUtils.parseClaims(accessToken);
+                if (JwtUtils.TOKEN_TYPE_ACCESS.equals(accessClaims.get(JwtUtils.CLAIM_TOKEN_TYPE, String.class))
+                        && refreshClaims.getSubject().equals(accessClaims.getSubject())) {
+                    revokedTokenService.revoke(accessClaims.getId(), accessClaims.getExpiration().toInstant());
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // an invalid access token cannot be used anyway
+            }
+        }
+    }
+
+    /**
+     * Logs the owner of the refresh token out on every device: all access and refresh tokens issued
+     * to them so far stop being accepted.
+     */
+    public void logoutEverywhere(RefreshTokenDto refreshTokenDto) {
+        UserSecuritySnapshot user = refreshTokenOwner(verifyRefreshToken(refreshTokenDto.refreshToken()));
+        tokenVersionService.revokeAllTokens(user.id());
+    }
+
+    private UserSecuritySnapshot refreshTokenOwner(Claims claims) {
+        UserSecuritySnapshot user;
+        try {
+            user = (UserSecuritySnapshot) userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            throw new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN);
+        }
+
+        // TokenVersionService.revokeAllTokens invalidates refresh tokens as well, and the role is read again from the user
+        Integer tokenVersion = claims.get(JwtUtils.CLAIM_TOKEN_VERSION, Integer.class);
+        if (tokenVersion == null || tokenVersion != user.tokenVersion() || !user.isEnabled()) {
+            throw new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN);
+        }
+        return user;
+    }
+
+    private Claims verifyRefreshToken(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtUtils.parseClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN);
+        }
+
+        if (!JwtUtils.TOKEN_TYPE_REFRESH.equals(claims.get(JwtUtils.CLAIM_TOKEN_TYPE, String.class))
+                || claims.getExpiration() == null
+                || revokedTokenService.isRevoked(claims.getId())) {
+            throw new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN);
+        }
+        return claims;
+    }
+
+    private JwtResponseDto issueTokens(Authentication authentication) {
         String jwt = jwtUtils.generateJwtToken(authentication);
+        String refreshToken = jwtUtils.generateRefreshToken(authentication);
 
-        User user = (User) authentication.getPrincipal();
+        UserDetails user = (UserDetails) authentication.getPrincipal();
         List<String> roles = user.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .toList();
 
-        return new JwtResponseDto(jwt, user.getUsername(), roles);
-
+        return new JwtResponseDto(jwt, refreshToken, user.getUsername(), roles);
     }
 }
@@ -0,0 +1,108 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.DTO.BestsellerDto;
+import org.example.ecommerce.DTO.ProductSalesRowDto;
+
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable top-K lists of the best selling products, per category and per window. Each list is
+ * picked with a bounded min-heap, so building costs O(n log K) and memory stays at K entries per
+ * category. A product belongs to one category, so the best sellers of a category subtree are
+ * always among the lists of its categories and are found by merging them.
+ */
+public final class BestsellerRanking {
+
+    private static final Comparator<BestsellerDto> BEST_FIRST = Comparator.comparingLong(BestsellerDto::unitsSold)
+            .reversed()
+            .thenComparing(BestsellerDto::productId);
+
+    private final Map<BestsellerWindow, Map<Long, List<BestsellerDto>>> byCategory;
+    private final Map<BestsellerWindow, List<BestsellerDto>> overall;
+
+    private BestsellerRanking(Map<BestsellerWindow, Map<Long, List<BestsellerDto>>> byCategory,
+                              Map<BestsellerWindow, List<BestsellerDto>> overall) {
+        this.byCategory = byCategory;
+        this.overall = overall;
+    }
+
+    public static BestsellerRanking empty() {
+        return build(List.of(), 1);
+    }
+
+    public static BestsellerRanking build(Collection<ProductSalesRowDto> rows, int topK) {
+        Map<BestsellerWindow, Map<Long, List<BestsellerDto>>> byCategory = new EnumMap<>(BestsellerWindow.class);
+        Map<BestsellerWindow, List<BestsellerDto>> overall = new EnumMap<>(BestsellerWindow.class);
+        for (BestsellerWindow window : BestsellerWindow.values()) {
+            ToLongFunction<ProductSalesRowDto> units = quantityOf(window);
+
+            Map<Long, PriorityQueue<BestsellerDto>> heaps = new HashMap<>();
+            PriorityQueue<BestsellerDto> overallHeap = new PriorityQueue<>(BEST_FIRST.reversed());
+            for (ProductSalesRowDto row : rows) {
+                long unitsSold = units.applyAsLong(row);
+                if (unitsSold <= 0) {
+                    continue;
+                }
+                BestsellerDto bestseller = new BestsellerDto(row.productId(), row.productName(), unitsSold);
+                offer(heaps.computeIfAbsent(row.categoryId(), id -> new PriorityQueue<>(BEST_FIRST.reversed())),
+                        bestseller, topK);
+                offer(overallHeap, bestseller, topK);
+            }
+
+            Map<Long, List<BestsellerDto>> lists = new HashMap<>();
+            heaps.forEach((categoryId, heap) -> lists.put(categoryId, sorted(heap)));
+            byCategory.put(window, Map.copyOf(lists));
+            overall.put(window, sorted(overallHeap));
+        }
+        return new BestsellerRanking(byCategory, overall);
+    }
+
+    public List<BestsellerDto> top(BestsellerWindow window, int limit) {
+        List<BestsellerDto> list = overall.get(window);
+        return list.subList(0, Math.min(limit, list.size()));
+    }
+
+    public List<BestsellerDto> top(BestsellerWindow window, Collection<Long> categoryIds, int limit) {
+        Map<Long, List<BestsellerDto>> lists = byCategory.get(window);
+        if (categoryIds.size() == 1) {
+            List<BestsellerDto> list = lists.getOrDefault(categoryIds.iterator().next(), List.of());
+            return list.subList(0, Math.min(limit, list.size()));
+        }
+
+        PriorityQueue<BestsellerDto> heap = new PriorityQueue<>(BEST_FIRST.reversed());
+        for (Long categoryId : categoryIds) {
+            for (BestsellerDto bestseller : lists.getOrDefault(categoryId, List.of())) {
+                // the lists are sorted, the rest of this one cannot make it into the heap either
+                if (heap.size() == limit && BEST_FIRST.compare(bestseller, heap.peek()) >= 0) {
+                    break;
+                }
+                offer(heap, bestseller, limit);
+            }
+        }
+        return sorted(heap);
+    }
+
+    private static ToLongFunction<ProductSalesRowDto> quantityOf(BestsellerWindow window) {
+        return switch (window) {
+            case LAST_7_DAYS -> ProductSalesRowDto::weekQuantity;
+            case LAST_30_DAYS -> ProductSalesRowDto::monthQuantity;
+        };
+    }
+
+    // the heap keeps the worst of the best at its head, a better entry replaces it once the heap is full
+    private static void offer(PriorityQueue<BestsellerDto> heap, BestsellerDto bestseller, int capacity) {
+        if (heap.size() < capacity) {
+            heap.add(bestseller);
+        } else if (BEST_FIRST.compare(bestseller, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(bestseller);
+        }
+    }
+
+    private static List<BestsellerDto> sorted(PriorityQueue<BestsellerDto> heap) {
+        List<BestsellerDto> list = new ArrayList<>(heap);
+        list.sort(BEST_FIRST);
+        return List.copyOf(list);
+    }
+}
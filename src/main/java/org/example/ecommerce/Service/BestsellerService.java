@@ -0,0 +1,100 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.DTO.BestsellerDto;
+import org.example.ecommerce.Model.Order;
+import org.example.ecommerce.Model.OrderItem;
+import org.example.ecommerce.Repository.ProductSalesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Counts checked out units in daily buckets and serves the best sellers from an in-memory
+ * {@link BestsellerRanking}. The ranking is rebuilt from the buckets periodically, so a checkout
+ * shows up in it after at most one refresh interval, on every instance.
+ */
+@Service
+public class BestsellerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BestsellerService.class);
+
+    private final ProductSalesRepository productSalesRepository;
+    private final CategoryService categoryService;
+    private final Clock clock;
+    private final int topK;
+    private final AtomicReference<BestsellerRanking> ranking = new AtomicReference<>();
+    private final Object refreshLock = new Object();
+
+    @Autowired
+    public BestsellerService(ProductSalesRepository productSalesRepository,
+                             CategoryService categoryService,
+                             @Value("${catalog.bestsellers.top-k:100}") int topK) {
+        this(productSalesRepository, categoryService, Clock.systemUTC(), topK);
+    }
+
+    public BestsellerService(ProductSalesRepository productSalesRepository, CategoryService categoryService, Clock clock,
+                             int topK) {
+        this.productSalesRepository = productSalesRepository;
+        this.categoryService = categoryService;
+        this.clock = clock;
+        this.topK = topK;
+    }
+
+    // runs inside the checkout transaction, the units only count if the order is placed
+    public void recordSales(Order order) {
+        LocalDate today = LocalDate.now(clock);
+        for (OrderItem orderItem : order.getOrderItems()) {
+            productSalesRepository.addSales(orderItem.getProduct().getId(), today, orderItem.getQuantity());
+        }
+    }
+
+    // categoryId includes its subcategories, without one the ranking covers the whole catalog
+    public List<BestsellerDto> getBestsellers(Long categoryId, BestsellerWindow window, int limit) {
+        int size = Math.max(1, Math.min(limit, topK));
+        if (categoryId == null) {
+            return current().top(window, size);
+        }
+        return current().top(window, categoryService.getSubtreeIds(categoryId), size);
+    }
+
+    public BestsellerRanking current() {
+        BestsellerRanking current = ranking.get();
+        return current != null ? current : refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.bestsellers.refresh-interval:1m}")
+    public BestsellerRanking refresh() {
+        synchronized (refreshLock) {
+            LocalDate today = LocalDate.now(clock);
+            BestsellerRanking refreshed = BestsellerRanking.build(productSalesRepository.sumSalesSince(
+                    windowStart(today, BestsellerWindow.LAST_7_DAYS),
+                    windowStart(today, BestsellerWindow.LAST_30_DAYS)), topK);
+            ranking.set(refreshed);
+            return refreshed;
+        }
+    }
+
+    // the buckets of the longest window are all the ranking reads
+    @Scheduled(fixedDelayString = "${catalog.bestsellers.purge-interval:1h}")
+    @Transactional
+    public void purgeExpiredSales() {
+        int purged = productSalesRepository.deleteOlderThan(windowStart(LocalDate.now(clock), BestsellerWindow.LAST_30_DAYS));
+        if (purged > 0) {
+            logger.info("Purged {} expired product sales buckets", purged);
+        }
+    }
+
+    // a window of n days covers today and the n - 1 days before it
+    private static LocalDate windowStart(LocalDate today, BestsellerWindow window) {
+        return today.minusDays(window.days() - 1L);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.Exception.InvalidBestsellerWindowException;
+
+public enum BestsellerWindow {
+    LAST_7_DAYS("7d", 7),
+    LAST_30_DAYS("30d", 30);
+
+    private final String parameter;
+    private final int days;
+
+    BestsellerWindow(String parameter, int days) {
+        this.parameter = parameter;
+        this.days = days;
+    }
+
+    public int days() {
+        return days;
+    }
+
+    public static BestsellerWindow fromParameter(String parameter) {
+        for (BestsellerWindow window : values()) {
+            if (window.parameter.equalsIgnoreCase(parameter)) {
+                return window;
+            }
+        }
+        throw new InvalidBestsellerWindowException("Unknown bestseller window " + parameter + ", use 7d or 30d");
+    }
+}
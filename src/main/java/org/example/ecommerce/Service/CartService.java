@@ -1,29 +1,34 @@
 package org.example.ecommerce.Service;
 
 import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.DTO.CartItemQuantityDto;
 import org.example.ecommerce.DTO.ShowCartDto;
 import org.example.ecommerce.DTO.ShowCartItemDto;
+import org.example.ecommerce.DTO.UpdateCartDto;
 import org.example.ecommerce.Exception.EmptyCartException;
+import org.example.ecommerce.Exception.InvalidCartUpdateException;
 import org.example.ecommerce.Exception.OutOfStockException;
 import org.example.ecommerce.Exception.ProductNotFoundException;
 import org.example.ecommerce.Mappers.CartItemMapper;
 import org.example.ecommerce.Model.Cart;
 import org.example.ecommerce.Model.CartItem;
+import org.example.ecommerce.Model.CentsConverter;
 import org.example.ecommerce.Model.Product;
-import org.example.ecommerce.Model.User;
 import org.example.ecommerce.Repository.CartItemRepository;
 import org.example.ecommerce.Repository.CartRepository;
 import org.example.ecommerce.Repository.ProductRepository;
 import org.example.ecommerce.Repository.UserRepository;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -34,134 +39,172 @@ public class CartService {
     private final CartItemMapper cartItemMapper;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @Transactional
     public ShowCartItemDto addProductToCart(Long productId) {
-        User user = getCurrentUser();
+        Long userId = currentUserResolver.getCurrentUserId();
+        Cart cart = findCart(userId);
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException("Product with id " + productId + " does not exist"));
-
-        Cart cart = user.getCart();
-        if (cart == null) {
-            cart = new Cart();
-            cart.setUser(user);
-            cart.setTotalPrice(BigDecimal.ZERO);
-            cartRepository.save(cart);
-        }
-
-        Optional<CartItem> existingItem = cart.getCartItems().stream()
-                .filter(item -> item.getProduct().getId().equals(product.getId()))
-                .findFirst();
+        Optional<CartItem> existingItem = cart == null ? Optional.empty() : findItem(cart, productId);
 
         CartItem cartItem;
 
         if (existingItem.isPresent()) {
             cartItem = existingItem.get();
-            cartItem.setQuantity(cartItem.getQuantity() + 1);
+            cart.changeQuantity(cartItem, cartItem.getQuantity() + 1);
         } else {
+            // only a product that is not in the cart yet needs to be read
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ProductNotFoundException("Product with id " + productId + " does not exist"));
+
+            if (cart == null) {
+                cart = new Cart();
+                cart.setUser(userRepository.getReferenceById(userId));
+                cartRepository.save(cart);
+            }
+
             cartItem = new CartItem();
             cartItem.setProduct(product);
             cartItem.setCart(cart);
             cartItem.setQuantity(1);
-            cart.getCartItems().add(cartItem);
+            cartItem.setUnitPriceCents(CentsConverter.toCents(product.getPrice()));
+            cart.addItem(cartItem);
         }
 
         cartItem = cartItemRepository.save(cartItem);
-        recalculateCartTotal(cart);
         cartRepository.save(cart);
 
         return cartItemMapper.cartItemToShowCartItemDto(cartItem);
     }
 
-    @Transactional(readOnly = true)
+    // not read-only: a price change since the last visit is written back with the new total
+    @Transactional
     public ShowCartDto showCart() {
-        User user = getCurrentUser();
-        Cart cart = user.getCart();
+        Cart cart = getCartOfCurrentUser();
 
         if (cart == null) {
-            return new ShowCartDto(Collections.emptyList());
+            return new ShowCartDto(Collections.emptyList(), BigDecimal.ZERO);
         }
+        return toShowCartDto(cart);
+    }
 
-        List<ShowCartItemDto> showCartItemDtos = cart.getCartItems().stream()
-                .map(cartItemMapper::cartItemToShowCartItemDto)
-                .toList();
+    /**
+     * Sets the quantity of every listed product, all or nothing: the cart is read with one statement, the
+     * stock of all listed products with another, and the item changes are flushed as JDBC batches.
+     * Products that are not listed keep their quantity.
+     */
+    @Transactional
+    public ShowCartDto updateCart(UpdateCartDto updateCartDto) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartItemQuantityDto item : updateCartDto.items()) {
+            if (quantities.put(item.productId(), item.quantity()) != null) {
+                throw new InvalidCartUpdateException("Product with id " + item.productId() + " appears more than once");
+            }
+        }
+
+        Long userId = currentUserResolver.getCurrentUserId();
+        Cart cart = findCart(userId);
+
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        quantities.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new ProductNotFoundException("Product with id " + productId + " does not exist");
+            }
+            Integer available = product.getAvailableQuantity();
+            if (quantity > 0 && (available == null || available < quantity)) {
+                throw new OutOfStockException("Product " + product.getProductName() + " is out of stock");
+            }
+        });
+
+        if (cart == null) {
+            cart = new Cart();
+            cart.setUser(userRepository.getReferenceById(userId));
+            cartRepository.save(cart);
+        }
+
+        Map<Long, CartItem> items = cart.getCartItems().stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getId(), Function.identity()));
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            CartItem item = items.get(entry.getKey());
+            int quantity = entry.getValue();
+            if (item == null && quantity > 0) {
+                item = new CartItem();
+                item.setProduct(products.get(entry.getKey()));
+                item.setCart(cart);
+                item.setQuantity(quantity);
+                item.setUnitPriceCents(CentsConverter.toCents(item.getProduct().getPrice()));
+                // persisted by the cascade at flush, so all new items go out in one batch
+                cart.addItem(item);
+            } else if (item != null && quantity == 0) {
+                cart.removeItem(item);
+            } else if (item != null) {
+                cart.changeQuantity(item, quantity);
+            }
+        }
 
-        return new ShowCartDto(showCartItemDtos);
+        return toShowCartDto(cart);
     }
 
     @Transactional
     public void deleteItemFromCart(Long productId) {
-        User user = getCurrentUser();
-        Cart cart = user.getCart();
+        Cart cart = getCartOfCurrentUser();
 
         if (cart == null) {
             throw new EmptyCartException("Cart is empty");
         }
-        cart.getCartItems().removeIf(item -> item.getProduct().getId().equals(productId));
-        recalculateCartTotal(cart);
-        cartRepository.save(cart);
+        removeItem(cart, productId);
     }
 
     @Transactional
     public void increaseQuantityOfProductInCart(Long productId) {
-        User user = getCurrentUser();
-        Cart cart = user.getCart();
+        Cart cart = getCartOfCurrentUser();
 
         if (cart == null) {
             throw new EmptyCartException("Cart is empty");
         }
 
-        CartItem cartItem = cart.getCartItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst().orElseThrow(
+        CartItem cartItem = findItem(cart, productId).orElseThrow(
                         () -> new ProductNotFoundException("Product with id " + productId + " does not exist in cart"));
 
         Product product = cartItem.getProduct();
 
         if (product.getAvailableQuantity() >= cartItem.getQuantity() + 1) {
-            cartItem.setQuantity(cartItem.getQuantity() + 1);
+            cart.changeQuantity(cartItem, cartItem.getQuantity() + 1);
         } else {
             throw new OutOfStockException("Product " + product.getProductName() + " is out of stock");
         }
-        recalculateCartTotal(cart);
     }
 
     @Transactional
     public void decreaseQuantityOfProductInCart(Long productId) {
-        User user = getCurrentUser();
-        Cart cart = user.getCart();
+        Cart cart = getCartOfCurrentUser();
 
         if (cart == null) {
             throw new EmptyCartException("Cart is empty");
         }
 
-        CartItem cartItem = cart.getCartItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst().orElseThrow(
+        CartItem cartItem = findItem(cart, productId).orElseThrow(
                         () -> new ProductNotFoundException("Product with id " + productId + " does not exist in cart"));
 
         if (cartItem.getQuantity() > 1) {
-            cartItem.setQuantity(cartItem.getQuantity() - 1);
+            cart.changeQuantity(cartItem, cartItem.getQuantity() - 1);
         } else {
-            deleteItemFromCart(productId);
-            return;
+            cart.removeItem(cartItem);
         }
-        recalculateCartTotal(cart);
-
     }
 
     @Transactional
     public void clearCart() {
-        User user = getCurrentUser();
-        Cart cart = user.getCart();
+        Cart cart = getCartOfCurrentUser();
 
         if (cart == null) {
             throw new EmptyCartException("Cart is empty");
         }
 
-        cart.getCartItems().clear();
-        cart.setTotalPrice(BigDecimal.ZERO);
+        cart.clear();
         cartRepository.save(cart);
     }
 
@@ -170,29 +213,43 @@ public class CartService {
         if (cart == null) {
             throw new EmptyCartException("Cart is empty");
         }
-        if (cart.getCartItems().isEmpty()) {
-            cart.setTotalPrice(BigDecimal.ZERO);
-            return;
-        }
+        cart.clear();
+    }
 
-        cart.getCartItems().clear();
-        cart.setTotalPrice(BigDecimal.ZERO);
+    private ShowCartDto toShowCartDto(Cart cart) {
+        List<ShowCartItemDto> showCartItemDtos = cart.getCartItems().stream()
+                .map(cartItemMapper::cartItemToShowCartItemDto)
+                .toList();
+
+        return new ShowCartDto(showCartItemDtos, cart.getTotalPrice());
     }
 
-    private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+    private Cart getCartOfCurrentUser() {
+        return findCart(currentUserResolver.getCurrentUserId());
     }
 
-    private void recalculateCartTotal(Cart cart) {
-        if (cart == null) {
-            return;
+    /**
+     * Every cart operation starts from this single statement, whatever the number of items. The items are
+     * repriced before any quantity delta is applied: a delta is the unit price the total was summed with, so
+     * a stale price, or the 0 of an item added before unit prices were kept, would leave the total wrong.
+     */
+    private Cart findCart(Long userId) {
+        Cart cart = cartRepository.findWithItemsByUserId(userId).orElse(null);
+        if (cart != null) {
+            cart.reprice();
         }
-        BigDecimal total = cart.getCartItems().stream()
-                .map(CartItem::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        cart.setTotalPrice(total);
+        return cart;
+    }
+
+    private static Optional<CartItem> findItem(Cart cart, Long productId) {
+        return cart.getCartItems().stream()
+                .filter(item -> item.getProduct().getId().equals(productId))
+                .findFirst();
+    }
+
+    private void removeItem(Cart cart, Long productId) {
+        findItem(cart, productId).ifPresent(cart::removeItem);
+        cartRepository.save(cart);
     }
 
 }
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.example.ecommerce.DTO.AdminCategoryDto;
 import org.example.ecommerce.Mappers.CategoryMapper;
 import org.example.ecommerce.Exception.CategoryNotFoundException;
+import org.example.ecommerce.Exception.InvalidCategoryMoveException;
 import org.example.ecommerce.Model.Category;
 import org.example.ecommerce.Repository.CategoryRepository;
 import org.springframework.data.domain.Page;
@@ -13,7 +14,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 
 
 @Service
@@ -22,10 +25,19 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final CategoryTreeSnapshot categoryTreeSnapshot;
 
     @Transactional
-    public AdminCategoryDto createCategory(String categoryName) {
-        Category category = categoryRepository.save(categoryMapper.categoryNameToCategory(categoryName));
+    public AdminCategoryDto createCategory(String categoryName, Long parentId) {
+        Category category = categoryMapper.categoryNameToCategory(categoryName);
+        if (parentId != null) {
+            Category parent = getCategory(parentId);
+            category.setParentCategory(parent);
+            category.setPath(parent.subtreePath());
+        }
+
+        category = categoryRepository.save(category);
+        categoryTreeSnapshot.rebuildAfterCommit();
 
         return categoryMapper.categoryToAdminCategoryDto(category);
     }
@@ -44,6 +56,7 @@ public class CategoryService {
         }
 
         categoryRepository.deleteById(id);
+        categoryTreeSnapshot.rebuildAfterCommit();
     }
 
     @Transactional
@@ -54,14 +67,63 @@ public class CategoryService {
         categoryMapper.updateCategory(categoryName, category);
 
         categoryRepository.save(category);
+        categoryTreeSnapshot.rebuildAfterCommit();
+
+        return categoryMapper.categoryToAdminCategoryDto(category);
+    }
+
+    /**
+     * Moves a category with all of its descendants below another category, or to the top level
+     * when {@code parentId} is null. The paths of the whole subtree are rewritten by one update.
+     */
+    @Transactional
+    public AdminCategoryDto moveCategory(Long id, Long parentId) {
+        Category category = getCategory(id);
+        Category parent = parentId == null ? null : getCategory(parentId);
+
+        if (parent != null && (parent.getId().equals(id) || parent.getPath().startsWith(category.subtreePath()))) {
+            throw new InvalidCategoryMoveException("Category " + id + " cannot be moved below itself or its subcategory " + parentId);
+        }
+
+        String oldSubtreePath = category.subtreePath();
+        category.setParentCategory(parent);
+        category.setPath(parent == null ? "/" : parent.subtreePath());
+        categoryRepository.save(category);
+        categoryRepository.moveSubtree(oldSubtreePath, category.subtreePath(), Instant.now());
+        categoryTreeSnapshot.rebuildAfterCommit();
 
         return categoryMapper.categoryToAdminCategoryDto(category);
     }
 
-    @Transactional(readOnly = true)
+    // from the top level category down to the requested one
+    public List<AdminCategoryDto> getBreadcrumb(Long id) {
+        return categoryTreeSnapshot.current().breadcrumb(id)
+                .orElseThrow(() -> new CategoryNotFoundException("Category with id " + id + " does not exist"));
+    }
+
+    // the path every category below the requested one is stored with, see Category#subtreePath
+    public String getSubtreePath(Long id) {
+        return categoryTreeSnapshot.current().path(id)
+                .map(path -> path + id + "/")
+                .orElseThrow(() -> new CategoryNotFoundException("Category with id " + id + " does not exist"));
+    }
+
+    public Set<Long> getSubtreeIds(Long id) {
+        return categoryTreeSnapshot.current().subtreeIds(id)
+                .orElseThrow(() -> new CategoryNotFoundException("Category with id " + id + " does not exist"));
+    }
+
+    // of the snapshot getAllCategories serves, not of the table, which may be ahead of it
+    public String getCategoriesETag() {
+        return categoryTreeSnapshot.current().version().eTag("categories");
+    }
+
     public List<AdminCategoryDto> getAllCategories() {
-        List<Category> categories = categoryRepository.findAll();
+        return categoryTreeSnapshot.current().categories();
+    }
 
-        return categories.stream().map(categoryMapper::categoryToAdminCategoryDto).toList();
+    private Category getCategory(Long id) {
+        return categoryRepository.findById(id).orElseThrow(
+                () -> new CategoryNotFoundException("Category with id " + id + " does not exist"));
     }
 }
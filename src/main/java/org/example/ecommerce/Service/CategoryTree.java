@@ -0,0 +1,105 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.DTO.AdminCategoryDto;
+import org.example.ecommerce.DTO.CategoryRowDto;
+import org.example.ecommerce.DTO.CollectionVersionDto;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Immutable snapshot of the category hierarchy. The subtree and the breadcrumb of every category
+ * are computed once when the snapshot is built, so lookups are a single map access.
+ * The parent links are the source of truth; categories caught in a cycle are left out.
+ */
+public final class CategoryTree {
+
+    private final Map<Long, Node> nodes;
+    private final List<AdminCategoryDto> categories;
+    // taken from the same rows as the tree, so an ETag built from it always matches what is served
+    private final CollectionVersionDto version;
+
+    private CategoryTree(Map<Long, Node> nodes, List<AdminCategoryDto> categories, CollectionVersionDto version) {
+        this.nodes = nodes;
+        this.categories = categories;
+        this.version = version;
+    }
+
+    public static CategoryTree build(Collection<CategoryRowDto> rows) {
+        Map<Long, CategoryRowDto> byId = new HashMap<>();
+        Map<Long, List<Long>> children = new HashMap<>();
+        List<Long> roots = new ArrayList<>();
+        for (CategoryRowDto row : rows) {
+            byId.put(row.id(), row);
+        }
+        for (CategoryRowDto row : rows) {
+            if (row.parentId() == null || !byId.containsKey(row.parentId())) {
+                roots.add(row.id());
+            } else {
+                children.computeIfAbsent(row.parentId(), parentId -> new ArrayList<>()).add(row.id());
+            }
+        }
+
+        Map<Long, Node> nodes = new HashMap<>();
+        for (Long root : roots) {
+            addSubtree(root, List.of(), "/", byId, children, nodes);
+        }
+
+        List<AdminCategoryDto> categories = nodes.values().stream()
+                .map(Node::category)
+                .sorted(Comparator.comparing(AdminCategoryDto::id))
+                .toList();
+        Instant lastModified = rows.stream()
+                .map(CategoryRowDto::lastModified)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return new CategoryTree(Map.copyOf(nodes), categories, new CollectionVersionDto((long) rows.size(), lastModified));
+    }
+
+    // depth first, returns the ids of the subtree so the parent can include them in its own
+    private static Set<Long> addSubtree(Long id, List<AdminCategoryDto> ancestors, String path,
+                                        Map<Long, CategoryRowDto> byId, Map<Long, List<Long>> children,
+                                        Map<Long, Node> nodes) {
+        AdminCategoryDto category = new AdminCategoryDto(id, byId.get(id).categoryName());
+        List<AdminCategoryDto> breadcrumb = new ArrayList<>(ancestors);
+        breadcrumb.add(category);
+
+        Set<Long> subtree = new HashSet<>();
+        subtree.add(id);
+        for (Long child : children.getOrDefault(id, List.of())) {
+            subtree.addAll(addSubtree(child, breadcrumb, path + id + "/", byId, children, nodes));
+        }
+
+        nodes.put(id, new Node(category, path, List.copyOf(breadcrumb), Set.copyOf(subtree)));
+        return subtree;
+    }
+
+    public List<AdminCategoryDto> categories() {
+        return categories;
+    }
+
+    public CollectionVersionDto version() {
+        return version;
+    }
+
+    public Optional<Set<Long>> subtreeIds(Long id) {
+        return Optional.ofNullable(nodes.get(id)).map(Node::subtreeIds);
+    }
+
+    // from the root down to the category itself
+    public Optional<List<AdminCategoryDto>> breadcrumb(Long id) {
+        return Optional.ofNullable(nodes.get(id)).map(Node::breadcrumb);
+    }
+
+    // the materialized path the parent links imply, see Category#getPath
+    public Optional<String> path(Long id) {
+        return Optional.ofNullable(nodes.get(id)).map(Node::path);
+    }
+
+    private record Node(AdminCategoryDto category,
+                        String path,
+                        List<AdminCategoryDto> breadcrumb,
+                        Set<Long> subtreeIds) {
+    }
+}
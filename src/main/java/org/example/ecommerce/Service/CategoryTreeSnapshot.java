@@ -0,0 +1,74 @@
+package org.example.ecommerce.Service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.DTO.CategoryRowDto;
+import org.example.ecommerce.Repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link CategoryTree}. Every committed category write replaces it with a freshly
+ * loaded one; readers never see a half built tree. The periodic refresh picks up writes made
+ * through other instances.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoryTreeSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryTreeSnapshot.class);
+
+    private final CategoryRepository categoryRepository;
+    private final AtomicReference<CategoryTree> tree = new AtomicReference<>();
+    private final Object rebuildLock = new Object();
+
+    public CategoryTree current() {
+        CategoryTree current = tree.get();
+        return current != null ? current : rebuild();
+    }
+
+    // serialized, so a rebuild that loaded older rows can never replace a newer tree
+    @Scheduled(fixedDelayString = "${catalog.category-tree.refresh-interval:1m}")
+    public CategoryTree rebuild() {
+        synchronized (rebuildLock) {
+            CategoryTree rebuilt = CategoryTree.build(categoryRepository.findAllRows());
+            tree.set(rebuilt);
+            return rebuilt;
+        }
+    }
+
+    public void rebuildAfterCommit() {
+        TransactionCallbacks.afterCommit(this::rebuild);
+    }
+
+    /**
+     * Rewrites stored paths that disagree with the parent links, e.g. for categories created
+     * before the path column existed or parents changed directly in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void repairPaths() {
+        List<CategoryRowDto> rows = categoryRepository.findAllRows();
+        CategoryTree built = CategoryTree.build(rows);
+
+        int repaired = 0;
+        for (CategoryRowDto row : rows) {
+            String expected = built.path(row.id()).orElse(null);
+            if (expected != null && !expected.equals(row.path())) {
+                categoryRepository.updatePath(row.id(), expected);
+                repaired++;
+            }
+        }
+        if (repaired > 0) {
+            logger.info("Repaired the path of {} categories", repaired);
+        }
+        rebuildAfterCommit();
+    }
+}
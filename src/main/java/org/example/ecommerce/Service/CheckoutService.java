@@ -10,30 +10,30 @@ import org.example.ecommerce.Mappers.OrderMapper;
 import org.example.ecommerce.Model.Order;
 import org.example.ecommerce.Model.OrderItem;
 import org.example.ecommerce.Model.OrderStatus;
-import org.example.ecommerce.Model.User;
 import org.example.ecommerce.Repository.OrderRepository;
 import org.example.ecommerce.Repository.ProductRepository;
-import org.example.ecommerce.Repository.UserRepository;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+
 @Service
 @RequiredArgsConstructor
 public class CheckoutService {
 
-    private final UserRepository userRepository;
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final ProductRepository productRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final ProductViewCache productViewCache;
+    private final BestsellerService bestsellerService;
 
     @Transactional
     public ShowCheckoutOrderDto checkout(Long orderId) {
-        User user = getCurrentUser();
+        Long userId = currentUserResolver.getCurrentUserId();
         Order order = getOrderById(orderId);
 
-        if (!orderIsOfUser(user, order)) {
+        if (!orderIsOfUser(userId, order)) {
             throw new UnauthorizedOrderAccessException("You don't have permission to checkout this order");
         }
 
@@ -42,6 +42,7 @@ public class CheckoutService {
         }
 
         decreaseStockForOrder(order);
+        bestsellerService.recordSales(order);
 
         order.setOrderStatus(OrderStatus.IN_PROGRESS);
 
@@ -51,14 +52,8 @@ public class CheckoutService {
 
 
 
-    private User getCurrentUser(){
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
-    }
-
-    private boolean orderIsOfUser(User user, Order order) {
-        return order.getUser().getId().equals(user.getId());
+    private boolean orderIsOfUser(Long userId, Order order) {
+        return order.getUser().getId().equals(userId);
     }
 
     private Order getOrderById(Long orderId) {
@@ -71,14 +66,18 @@ public class CheckoutService {
     }
 
     private void decreaseStockForOrder(Order order) throws OutOfStockException {
+        Instant now = Instant.now();
         for (OrderItem orderItem : order.getOrderItems()) {
             int updateRows = productRepository.decreaseAvailableQuantity(
                     orderItem.getProduct().getId(),
-                    orderItem.getQuantity());
+                    orderItem.getQuantity(),
+                    now);
 
             if (updateRows == 0) {
                 throw new OutOfStockException("Product " + orderItem.getProduct().getProductName() + " is out of stock");
             }
+            // the bulk update bypasses the entity listener
+            productViewCache.evictAfterCommit(orderItem.getProduct().getId());
         }
     }
 
@@ -0,0 +1,101 @@
+package org.example.ecommerce.Service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The part of the CSV and NDJSON imports that does not depend on what is imported. A file is read line by
+ * line, every line is parsed into a row, and the rows are handed on in chunks, each inserted in its own
+ * transaction. Only one chunk is held in memory, however large the file.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChunkedImporter {
+
+    private final Validator validator;
+    private final EntityManager entityManager;
+
+    @FunctionalInterface
+    public interface RowParser<R> {
+        // null when the line was reported as failed
+        R parse(long lineNumber, String line, ImportReport report);
+    }
+
+    @FunctionalInterface
+    public interface ChunkInserter<R> {
+        void insert(List<R> chunk, ImportReport report);
+    }
+
+    /**
+     * Imports the lines left in the reader; {@code linesBefore} is the number of lines already read, such as
+     * a header, so errors are reported with the line numbers of the file. Blank lines are skipped.
+     */
+    public <R> ImportReport run(BufferedReader reader, long linesBefore, int chunkSize,
+                                RowParser<R> parser, ChunkInserter<R> inserter) throws IOException {
+        ImportReport report = new ImportReport();
+
+        List<R> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = linesBefore;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            R row = parser.parse(lineNumber, line, report);
+            if (row != null) {
+                chunk.add(row);
+            }
+            if (chunk.size() == chunkSize) {
+                inserter.insert(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            inserter.insert(chunk, report);
+        }
+        return report;
+    }
+
+    // reports the bean validation messages of a row, sorted so the report does not depend on their order
+    public boolean validate(long lineNumber, Object row, ImportReport report) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return true;
+        }
+        report.fail(lineNumber, violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", ")));
+        return false;
+    }
+
+    /**
+     * Runs the batched insert of one chunk. When it fails on a constraint the whole chunk was rolled back and
+     * each of its lines is reported with {@code rollbackMessage}.
+     */
+    public void save(List<Long> lineNumbers, Runnable insert, String rollbackMessage, ImportReport report) {
+        try {
+            // one transaction per chunk, the inserts are sent in JDBC batches
+            insert.run();
+            report.addImported(lineNumbers.size());
+        } catch (DataIntegrityViolationException e) {
+            lineNumbers.forEach(lineNumber -> report.fail(lineNumber, rollbackMessage));
+        } finally {
+            // the inserted entities are not needed any more, don't let them pile up in the persistence context
+            entityManager.clear();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.Exception.InvalidImportFileException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Positions of the columns of an import file, taken from its header line. Names are matched ignoring case
+ * and the columns may come in any order; a column that is not required may be missing.
+ */
+public final class CsvColumns {
+
+    private final Map<String, Integer> indexes;
+
+    private CsvColumns(Map<String, Integer> indexes) {
+        this.indexes = indexes;
+    }
+
+    public static CsvColumns readHeader(BufferedReader reader, List<String> required) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new InvalidImportFileException("The import file is empty");
+        }
+
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> names = CsvLineParser.parse(header);
+        for (int i = 0; i < names.size(); i++) {
+            indexes.putIfAbsent(names.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        if (!required.stream().allMatch(name -> indexes.containsKey(name.toLowerCase(Locale.ROOT)))) {
+            throw new InvalidImportFileException("The header must contain the columns "
+                    + String.join(", ", required.subList(0, required.size() - 1)) + " and " + required.getLast());
+        }
+        return new CsvColumns(indexes);
+    }
+
+    // null for a missing column and for a line with fewer fields than the header
+    public String field(List<String> fields, String column) {
+        Integer index = indexes.get(column.toLowerCase(Locale.ROOT));
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+}
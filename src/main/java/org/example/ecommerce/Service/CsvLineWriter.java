@@ -0,0 +1,37 @@
+package org.example.ecommerce.Service;
+
+import java.util.List;
+
+/**
+ * Joins fields into one CSV line, the counterpart of {@link CsvLineParser}. Fields containing a comma,
+ * a quote or a line break are quoted, quotes inside them are doubled. Null fields are written empty.
+ */
+public final class CsvLineWriter {
+
+    private CsvLineWriter() {
+    }
+
+    public static String format(List<?> fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object field = fields.get(i);
+            if (field != null) {
+                appendField(line, field.toString());
+            }
+        }
+        return line.toString();
+    }
+
+    private static void appendField(StringBuilder line, String field) {
+        boolean quote = field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0;
+        if (!quote) {
+            line.append(field);
+            return;
+        }
+        line.append('"').append(field.replace("\"", "\"\"")).append('"');
+    }
+}
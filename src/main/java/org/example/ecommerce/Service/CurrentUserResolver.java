@@ -0,0 +1,117 @@
+package org.example.ecommerce.Service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.Jwt.AuthenticatedUser;
+import org.example.ecommerce.Model.User;
+import org.example.ecommerce.Repository.UserRepository;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Resolves the logged-in user. Within an HTTP request the result is remembered, so the user
+ * is loaded at most once per request and per fetch plan no matter how many services ask for it.
+ * Outside a request (scheduled jobs, tests calling services directly) every call hits the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    private static final String RESOLVED_USER_ATTRIBUTE = CurrentUserResolver.class.getName() + ".RESOLVED_USER";
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+
+    // The current user is the one who is logged in
+    public Long getCurrentUserId() {
+        ResolvedUser resolved = resolvedUser();
+        if (resolved != null) {
+            return resolved.id;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long id;
+        if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            id = authenticatedUser.id();
+        } else if (authentication.getPrincipal() instanceof UserSecuritySnapshot snapshot) {
+            id = snapshot.id();
+        } else {
+            // principals that were not built from a JWT only carry the username
+            String username = authentication.getName();
+            id = userRepository.findIdByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        }
+
+        remember(new ResolvedUser(id));
+        return id;
+    }
+
+    /**
+     * Returns the current user with the associations of the given plan initialized.
+     * A user already loaded in this request with the same plan is returned without a query.
+     */
+    public User getCurrentUser(UserFetchPlan fetchPlan) {
+        Long id = getCurrentUserId();
+        ResolvedUser resolved = resolvedUser();
+
+        // the remembered entity is only reusable while it is still attached to the persistence context
+        if (resolved != null && resolved.user != null && resolved.loadedPlans.contains(fetchPlan)
+                && entityManager.contains(resolved.user)) {
+            return resolved.user;
+        }
+
+        User user = load(id, fetchPlan)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+
+        if (resolved != null) {
+            if (resolved.user != user) {
+                resolved.loadedPlans.clear();
+            }
+            resolved.user = user;
+            resolved.loadedPlans.add(fetchPlan);
+        }
+        return user;
+    }
+
+    private Optional<User> load(Long id, UserFetchPlan fetchPlan) {
+        return switch (fetchPlan) {
+            case USER -> userRepository.findById(id);
+            case CART -> userRepository.findWithCartById(id);
+            case ADDRESSES -> userRepository.findWithAddressesById(id);
+            case WISHLIST -> userRepository.findWithWishlistById(id);
+        };
+    }
+
+    private ResolvedUser resolvedUser() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (ResolvedUser) attributes.getAttribute(RESOLVED_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private void remember(ResolvedUser resolved) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(RESOLVED_USER_ATTRIBUTE, resolved, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static final class ResolvedUser {
+        private final Long id;
+        private final Set<UserFetchPlan> loadedPlans = EnumSet.noneOf(UserFetchPlan.class);
+        private User user;
+
+        private ResolvedUser(Long id) {
+            this.id = id;
+        }
+    }
+}
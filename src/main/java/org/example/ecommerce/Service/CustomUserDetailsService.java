@@ -1,23 +1,117 @@
 package org.example.ecommerce.Service;
 
-import lombok.RequiredArgsConstructor;
-import org.example.ecommerce.Model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.example.ecommerce.Repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-@RequiredArgsConstructor
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Loads users for authentication through a bounded cache of {@link UserSecuritySnapshot}s.
+ * Entries are dropped after every committed write to the user (see {@link UserCacheInvalidationListener})
+ * and expire after the configured TTL as a safety net for writes that bypass the entity,
+ * such as bulk JPQL updates. Unknown usernames are never cached.
+ */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    static final String CACHE_NAME = "userDetails";
 
     private final UserRepository userRepository;
+    private final Cache<String, UserSecuritySnapshot> snapshots;
+    // cached usernames per user id, so evicting by id drops its entries instead of scanning the cache;
+    // more than one only while an entry under a username from before a rename is still cached
+    private final ConcurrentMap<Long, Set<String>> usernames = new ConcurrentHashMap<>();
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${security.user-details-cache.ttl:10m}") Duration ttl,
+                                    @Value("${security.user-details-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                // runs inside the eviction, before the username can be loaded and mapped again
+                .evictionListener((String username, UserSecuritySnapshot snapshot, RemovalCause cause) -> {
+                    if (snapshot != null) {
+                        unmapUsername(snapshot.id(), username);
+                    }
+                })
+                .build();
+
+        // exposes cache.gets{result=hit|miss}, cache.evictions and cache.size
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, CACHE_NAME);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserSecuritySnapshot snapshot = snapshots.get(username, this::loadSnapshot);
+
+        if (snapshot == null) {
+            throw new UsernameNotFoundException("User not found with username: " + username);
+        }
+        return snapshot;
+    }
+
+    // called by the authentication provider after a login with an outdated password hash
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+
+        // the bulk update bypasses the entity listener
+        TransactionCallbacks.afterCommit(() -> evict(user.getUsername()));
+
+        UserSecuritySnapshot snapshot = (UserSecuritySnapshot) user;
+        return new UserSecuritySnapshot(snapshot.id(), snapshot.username(), newPassword, snapshot.role(),
+                snapshot.tokenVersion(), snapshot.accountNonExpired(), snapshot.accountNonLocked(),
+                snapshot.credentialsNonExpired(), snapshot.enabled());
+    }
+
+    public void evict(String username) {
+        UserSecuritySnapshot snapshot = snapshots.asMap().remove(username);
+        if (snapshot != null) {
+            unmapUsername(snapshot.id(), username);
+        }
+    }
+
+    // the username of a user may have changed, so entries are also found by id
+    public void evict(Long userId) {
+        Set<String> cachedUsernames = usernames.remove(userId);
+        if (cachedUsernames != null) {
+            snapshots.invalidateAll(cachedUsernames);
+        }
+    }
+
+    // called while the cache holds the lock of the username, the mapping is in place once the entry is
+    private UserSecuritySnapshot loadSnapshot(String username) {
+        UserSecuritySnapshot snapshot = userRepository.findByUsername(username)
+                .map(UserSecuritySnapshot::of)
+                .orElse(null);
+        if (snapshot != null) {
+            usernames.computeIfAbsent(snapshot.id(), id -> ConcurrentHashMap.newKeySet()).add(username);
+        }
+        return snapshot;
+    }
 
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+    private void unmapUsername(Long userId, String username) {
+        usernames.computeIfPresent(userId, (id, cachedUsernames) -> {
+            cachedUsernames.remove(username);
+            return cachedUsernames.isEmpty() ? null : cachedUsernames;
+        });
     }
 }
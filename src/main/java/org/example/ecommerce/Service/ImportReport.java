@@ -0,0 +1,47 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.DTO.ImportRowErrorDto;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Running outcome of an import. The counts are exact; the details are capped so a broken file cannot blow
+ * up the response, and keep the lowest failing lines whatever order they fail in (rows rejected while a
+ * chunk is inserted fail after the parse errors of later lines).
+ */
+public final class ImportReport {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    // the highest line on top, it is the one dropped once the cap is exceeded
+    private final PriorityQueue<ImportRowErrorDto> errors =
+            new PriorityQueue<>(Comparator.comparingLong(ImportRowErrorDto::line).reversed());
+    private int imported;
+    private int failed;
+
+    public void addImported(int rows) {
+        imported += rows;
+    }
+
+    public void fail(long lineNumber, String message) {
+        failed++;
+        errors.add(new ImportRowErrorDto(lineNumber, message));
+        if (errors.size() > MAX_REPORTED_ERRORS) {
+            errors.poll();
+        }
+    }
+
+    public int imported() {
+        return imported;
+    }
+
+    public int failed() {
+        return failed;
+    }
+
+    public List<ImportRowErrorDto> errors() {
+        return errors.stream().sorted(Comparator.comparingLong(ImportRowErrorDto::line)).toList();
+    }
+}
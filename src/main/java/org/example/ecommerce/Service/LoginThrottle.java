@@ -0,0 +1,153 @@
+package org.example.ecommerce.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.ecommerce.Exception.TooManyLoginAttemptsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sliding-window limit on failed logins, checked before the user is loaded or a password is hashed.
+ * Failures are counted per username and client IP (guessing one account's password) and per client
+ * IP alone (trying many accounts from one source). Counters are lock-free and at most
+ * {@code maxTrackedKeys} of them are kept per dimension; a successful login clears the
+ * username and IP counter.
+ */
+@Service
+public class LoginThrottle {
+
+    private final Clock clock;
+    private final long windowMillis;
+    private final int maxFailuresPerUsernameAndIp;
+    private final int maxFailuresPerIp;
+    private final Cache<String, SlidingWindowCounter> usernameAndIpFailures;
+    private final Cache<String, SlidingWindowCounter> ipFailures;
+    private final Counter usernameAndIpRejections;
+    private final Counter ipRejections;
+
+    @Autowired
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${security.login-throttle.window:1m}") Duration window,
+                         @Value("${security.login-throttle.max-failures-per-username-and-ip:5}") int maxFailuresPerUsernameAndIp,
+                         @Value("${security.login-throttle.max-failures-per-ip:50}") int maxFailuresPerIp,
+                         @Value("${security.login-throttle.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this(meterRegistry, window, maxFailuresPerUsernameAndIp, maxFailuresPerIp, maxTrackedKeys, Clock.systemUTC());
+    }
+
+    public LoginThrottle(MeterRegistry meterRegistry, Duration window, int maxFailuresPerUsernameAndIp,
+                         int maxFailuresPerIp, long maxTrackedKeys, Clock clock) {
+        this.clock = clock;
+        this.windowMillis = window.toMillis();
+        this.maxFailuresPerUsernameAndIp = maxFailuresPerUsernameAndIp;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+
+        // a counter is meaningless once two windows have passed without a failure
+        this.usernameAndIpFailures = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .build();
+        this.ipFailures = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .build();
+
+        this.usernameAndIpRejections = Counter.builder("auth.login.throttled")
+                .tag("key", "username_ip")
+                .description("Login attempts rejected by the throttle")
+                .register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login.throttled")
+                .tag("key", "ip")
+                .description("Login attempts rejected by the throttle")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.throttle.tracked", usernameAndIpFailures, Cache::estimatedSize)
+                .tag("key", "username_ip")
+                .description("Keys with failed logins in the current window")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.throttle.tracked", ipFailures, Cache::estimatedSize)
+                .tag("key", "ip")
+                .description("Keys with failed logins in the current window")
+                .register(meterRegistry);
+    }
+
+    public void checkAllowed(String username, String clientIp) {
+        long now = clock.millis();
+
+        if (isOverLimit(ipFailures, clientIp, maxFailuresPerIp, now)) {
+            ipRejections.increment();
+            throw new TooManyLoginAttemptsException("Too many failed login attempts, please try again later");
+        }
+        if (isOverLimit(usernameAndIpFailures, usernameAndIpKey(username, clientIp), maxFailuresPerUsernameAndIp, now)) {
+            usernameAndIpRejections.increment();
+            throw new TooManyLoginAttemptsException("Too many failed login attempts, please try again later");
+        }
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        long now = clock.millis();
+
+        ipFailures.get(clientIp, key -> new SlidingWindowCounter()).increment(now, windowMillis);
+        usernameAndIpFailures.get(usernameAndIpKey(username, clientIp), key -> new SlidingWindowCounter())
+                .increment(now, windowMillis);
+    }
+
+    public void recordSuccess(String username, String clientIp) {
+        usernameAndIpFailures.invalidate(usernameAndIpKey(username, clientIp));
+    }
+
+    private boolean isOverLimit(Cache<String, SlidingWindowCounter> failures, String key, int limit, long now) {
+        SlidingWindowCounter counter = failures.getIfPresent(key);
+        return counter != null && counter.estimate(now, windowMillis) >= limit;
+    }
+
+    private static String usernameAndIpKey(String username, String clientIp) {
+        return username.trim().toLowerCase(Locale.ROOT) + '|' + clientIp;
+    }
+
+    /**
+     * Approximates a sliding window from the counts of the current and the previous fixed window,
+     * weighting the previous one by how much of it still overlaps the sliding window.
+     */
+    private static final class SlidingWindowCounter {
+
+        private record State(long windowStart, int previous, int current) {
+        }
+
+        private final AtomicReference<State> state = new AtomicReference<>(new State(0, 0, 0));
+
+        void increment(long now, long windowMillis) {
+            State current;
+            State next;
+            do {
+                current = state.get();
+                State rolled = roll(current, now, windowMillis);
+                next = new State(rolled.windowStart(), rolled.previous(), rolled.current() + 1);
+            } while (!state.compareAndSet(current, next));
+        }
+
+        double estimate(long now, long windowMillis) {
+            State rolled = roll(state.get(), now, windowMillis);
+            double previousWeight = 1.0 - (double) (now - rolled.windowStart()) / windowMillis;
+            return rolled.previous() * previousWeight + rolled.current();
+        }
+
+        private static State roll(State state, long now, long windowMillis) {
+            long windowStart = now - Math.floorMod(now, windowMillis);
+            if (windowStart == state.windowStart()) {
+                return state;
+            }
+            if (windowStart - state.windowStart() == windowMillis) {
+                return new State(windowStart, state.current(), 0);
+            }
+            return new State(windowStart, 0, 0);
+        }
+    }
+}
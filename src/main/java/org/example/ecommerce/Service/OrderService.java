@@ -8,49 +8,41 @@ import org.example.ecommerce.Exception.EmptyCartException;
 import org.example.ecommerce.Mappers.OrderItemMapper;
 import org.example.ecommerce.Mappers.OrderMapper;
 import org.example.ecommerce.Model.*;
+import org.example.ecommerce.Repository.AddressRepository;
 import org.example.ecommerce.Repository.OrderRepository;
-import org.example.ecommerce.Repository.UserRepository;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
     private final OrderItemMapper orderItemMapper;
     private final OrderMapper orderMapper;
     private final CartService cartService;
+    private final AddressRepository addressRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     //TODO Refactor this method to do only one thing
     @Transactional
     public ShowOrderDto createOrder(CreateOrderRequest request) {
-        User user = getCurrentUser();
-        Cart cart = user.getCart();
-        Address userAddress = user.getAddresses().stream()
-                .filter(address -> address.getId().equals(request.addressId()))
-                .findAny()
+        Long userId = currentUserResolver.getCurrentUserId();
+        Address userAddress = addressRepository.findByIdAndUserId(request.addressId(), userId)
                 .orElseThrow(() -> new AddressNotFoundException("Address not found"));
+        User user = currentUserResolver.getCurrentUser(UserFetchPlan.CART);
+        Cart cart = user.getCart();
 
         if (cart == null || cart.getCartItems().isEmpty()) {
             throw new EmptyCartException("Cart is empty");
         }
 
-        // total price of the whole cart without shipping
-        BigDecimal totalPrice = cart.getTotalPrice();
-        if (totalPrice == null) {
-            totalPrice = cart.getCartItems().stream()
-                    .map(CartItem::getSubtotal)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-        }
+        // total price of the whole cart without shipping, at the prices the order items are charged
+        BigDecimal totalPrice = cart.recalculateTotal();
 
         List<OrderItem> orderItems = cart.getCartItems().stream()
                 .map(orderItemMapper::cartItemToOrderItem).toList();
@@ -74,18 +66,11 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public List<ShowOrderDto> getAllOrdersOfCurrentUser() {
-        User user = getCurrentUser();
-        Set<Order> orders = user.getOrders();
+        List<Order> orders = orderRepository.findByUserId(currentUserResolver.getCurrentUserId());
 
         return orders.stream().map(orderMapper::orderToShowOrderDto).toList();
     }
 
-    private User getCurrentUser(){
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
-    }
-
     private BigDecimal shippingCostForShippingType(ShippingType shippingType) {
        return switch (shippingType) {
            case EXPRESS -> new BigDecimal("12.99");
@@ -0,0 +1,25 @@
+package org.example.ecommerce.Service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.Model.Product;
+
+/**
+ * Drops the cached view of a product once a write to that product has committed, which covers
+ * creating, updating and deleting products through the admin API. Bulk JPQL updates bypass it.
+ * Instantiated by Hibernate through Spring, which injects the constructor arguments.
+ */
+@RequiredArgsConstructor
+public class ProductCacheInvalidationListener {
+
+    private final ProductViewCache productViewCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void productWritten(Product product) {
+        productViewCache.evictAfterCommit(product.getId());
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.Exception.InvalidCursorException;
+import org.example.ecommerce.Model.Product;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Position in a product listing: the sort key and id of the last product returned. Clients get it
+ * as an opaque URL-safe token and send it back unchanged to fetch the products that follow, the
+ * sort order travels inside the token.
+ */
+public record ProductCursor(ProductSortKey sortKey,
+                            Sort.Direction direction,
+                            Object key,
+                            Long id) {
+
+    private static final String VERSION = "v1";
+
+    public static ProductCursor after(ProductSortKey sortKey, Sort.Direction direction, Product product) {
+        return new ProductCursor(sortKey, direction, sortKey.keyOf(product), product.getId());
+    }
+
+    public String encode() {
+        // the key goes last, names may contain the separator
+        String payload = String.join(":", VERSION, sortKey.name(), direction.name(), id.toString(),
+                key == null ? "" : key.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = payload.split(":", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+
+            ProductSortKey sortKey = ProductSortKey.valueOf(parts[1]);
+            return new ProductCursor(sortKey, Sort.Direction.valueOf(parts[2]), sortKey.parseKey(parts[4]),
+                    Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+
+    public KeysetScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (key != null) {
+            keys.put(sortKey.property(), key);
+        }
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.Exception.InvalidExportFormatException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+// both formats can be fed back into the product import, extra columns are ignored there
+public enum ProductExportFormat {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    ProductExportFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String fileExtension() {
+        return fileExtension;
+    }
+
+    public static ProductExportFormat fromParameter(String parameter) {
+        try {
+            return valueOf(parameter.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidExportFormatException("Products can only be exported as ndjson or csv");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.ecommerce.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.ecommerce.DTO.ProductExportDto;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog, or the products changed after a given instant, to a stream. The rows are read
+ * through a forward-only cursor and projected straight into {@link ProductExportDto}, so no entity is put
+ * in the persistence context and the heap stays flat however large the catalog is.
+ * <p>
+ * An incremental export contains the products changed after {@code since} and every product of a category
+ * changed after it, since a category rename changes the exported {@code categoryName} without touching the
+ * product rows. Deleted products are not part of an incremental export. {@code lastModified} is stamped when
+ * a row is written, not when its transaction commits, so a row stamped before an export started may only
+ * become visible after it. An incremental export therefore reaches back by {@code catalog.export.overlap},
+ * which has to cover the longest product or category write transaction; the rows in the overlap are exported
+ * again, and consumers apply the export as an upsert by id. The instant to pass as {@code since} next time is
+ * {@link #highWaterMark()}, taken before the export reads anything.
+ */
+@Service
+public class ProductExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductExportService.class);
+
+    private static final List<String> CSV_HEADER =
+            List.of("id", "productName", "description", "price", "availableQuantity", "categoryName", "lastModified");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ProductRepository productRepository;
+    private final ObjectWriter jsonWriter;
+    private final Clock clock;
+    private final Duration overlap;
+
+    @Autowired
+    public ProductExportService(ProductRepository productRepository, ObjectMapper objectMapper,
+                                @Value("${catalog.export.overlap:5m}") Duration overlap) {
+        this(productRepository, objectMapper, Clock.systemUTC(), overlap);
+    }
+
+    public ProductExportService(ProductRepository productRepository, ObjectMapper objectMapper, Clock clock,
+                                Duration overlap) {
+        this.productRepository = productRepository;
+        this.jsonWriter = objectMapper.writerFor(ProductExportDto.class);
+        this.clock = clock;
+        this.overlap = overlap;
+    }
+
+    // every row committed before this instant is part of an export started now, or of the overlap of the next one
+    public Instant highWaterMark() {
+        return clock.instant();
+    }
+
+    // the cursor only streams inside a transaction, outside of one the driver reads the whole result at once
+    @Transactional(readOnly = true)
+    public long export(ProductExportFormat format, Instant since, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long exported = 0;
+
+        try (Stream<ProductExportDto> products = since == null
+                ? productRepository.streamAllForExport()
+                : productRepository.streamModifiedForExport(since.minus(overlap))) {
+            if (format == ProductExportFormat.CSV) {
+                writer.write(CsvLineWriter.format(CSV_HEADER));
+                writer.write('\n');
+            }
+
+            Iterator<ProductExportDto> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                writer.write(format(format, iterator.next()));
+                writer.write('\n');
+                exported++;
+            }
+        }
+
+        // flushed but not closed, the response stream belongs to the container
+        writer.flush();
+        logger.info("Exported {} products as {}", exported, format);
+        return exported;
+    }
+
+    private String format(ProductExportFormat format, ProductExportDto product) throws IOException {
+        return switch (format) {
+            case NDJSON -> jsonWriter.writeValueAsString(product);
+            case CSV -> CsvLineWriter.format(Arrays.asList(product.id(), product.productName(), product.description(),
+                    product.price().toPlainString(), product.availableQuantity(), product.categoryName(),
+                    product.lastModified()));
+        };
+    }
+}
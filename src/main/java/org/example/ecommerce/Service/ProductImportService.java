@@ -0,0 +1,187 @@
+package org.example.ecommerce.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.ecommerce.DTO.AddProductDto;
+import org.example.ecommerce.DTO.ProductImportResultDto;
+import org.example.ecommerce.Mappers.ProductMapper;
+import org.example.ecommerce.Model.Category;
+import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Repository.CategoryRepository;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports products from a CSV stream with the columns {@code productName,description,price,availableQuantity,categoryName}
+ * or from NDJSON with one {@link AddProductDto} per line. The stream is read in chunks (see {@link ChunkedImporter});
+ * each chunk is validated, checked against existing product names with one query, and inserted with JDBC batching.
+ * Category names are looked up once per import and remembered. Invalid and duplicate rows are reported by line
+ * and skipped.
+ * <p>
+ * Memory does not grow with the file: a name repeated within a chunk is caught while the chunk is built, a name
+ * repeated in a later chunk is found by the existence query because the earlier chunk is already committed.
+ */
+@Service
+public class ProductImportService {
+
+    private static final List<String> COLUMNS =
+            List.of("productName", "description", "price", "availableQuantity", "categoryName");
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final ChunkedImporter chunkedImporter;
+    private final int chunkSize;
+
+    public ProductImportService(ProductRepository productRepository,
+                                CategoryRepository categoryRepository,
+                                ProductMapper productMapper,
+                                ObjectMapper objectMapper,
+                                ChunkedImporter chunkedImporter,
+                                @Value("${catalog.product-import.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.productMapper = productMapper;
+        this.objectMapper = objectMapper;
+        this.chunkedImporter = chunkedImporter;
+        this.chunkSize = chunkSize;
+    }
+
+    public ProductImportResultDto importCsv(InputStream csv) throws IOException {
+        BufferedReader reader = reader(csv);
+        CsvColumns columns = CsvColumns.readHeader(reader, COLUMNS);
+
+        return importRows(reader, 1, line -> toProduct(columns, CsvLineParser.parse(line)));
+    }
+
+    public ProductImportResultDto importNdjson(InputStream ndjson) throws IOException {
+        return importRows(reader(ndjson), 0, this::parseJson);
+    }
+
+    private ProductImportResultDto importRows(BufferedReader reader, long linesBefore,
+                                              Function<String, AddProductDto> parser) throws IOException {
+        CategoryLookup categories = new CategoryLookup();
+        ImportReport report = chunkedImporter.run(reader, linesBefore, chunkSize,
+                (lineNumber, line, progress) -> parseRow(lineNumber, line, parser, progress),
+                (chunk, progress) -> insertChunk(chunk, categories, progress));
+        return new ProductImportResultDto(report.imported(), report.failed(), report.errors());
+    }
+
+    private ImportRow parseRow(long lineNumber, String line, Function<String, AddProductDto> parser,
+                               ImportReport report) {
+        AddProductDto product;
+        try {
+            product = parser.apply(line);
+        } catch (IllegalArgumentException e) {
+            report.fail(lineNumber, e.getMessage());
+            return null;
+        }
+
+        return chunkedImporter.validate(lineNumber, product, report) ? new ImportRow(lineNumber, product) : null;
+    }
+
+    private AddProductDto parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, AddProductDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static AddProductDto toProduct(CsvColumns columns, List<String> fields) {
+        return new AddProductDto(columns.field(fields, "productName"), columns.field(fields, "description"),
+                number(columns.field(fields, "price"), "price", Double::valueOf),
+                number(columns.field(fields, "availableQuantity"), "availableQuantity", Integer::valueOf),
+                columns.field(fields, "categoryName"));
+    }
+
+    // empty numbers are left to the validation, so they get the same message as a missing JSON property
+    private static <T> T number(String value, String column, Function<String, T> parser) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The " + column + " " + value + " is not a number");
+        }
+    }
+
+    private void insertChunk(List<ImportRow> chunk, CategoryLookup categories, ImportReport report) {
+        Set<String> existingNames = productRepository.findExistingProductNames(
+                chunk.stream().map(row -> row.product().productName()).toList());
+        categories.load(chunk.stream().map(row -> row.product().categoryName()).toList());
+
+        Set<String> chunkNames = new HashSet<>();
+        List<Long> lineNumbers = new ArrayList<>(chunk.size());
+        List<Product> products = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            String productName = row.product().productName();
+            Category category = categories.get(row.product().categoryName());
+            if (existingNames.contains(productName)) {
+                report.fail(row.lineNumber(), "Product with name " + productName + " already exists");
+            } else if (!chunkNames.add(productName)) {
+                report.fail(row.lineNumber(), "Product " + productName + " appears more than once in the file");
+            } else if (category == null) {
+                report.fail(row.lineNumber(), "Category with name " + row.product().categoryName() + " does not exist");
+            } else {
+                Product product = productMapper.addProductDtoToProduct(row.product());
+                product.setCategory(category);
+                lineNumbers.add(row.lineNumber());
+                products.add(product);
+            }
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+
+        // e.g. a category deleted while the import was running rolls the chunk back
+        chunkedImporter.save(lineNumbers, () -> productRepository.saveAll(products),
+                "Product could not be imported, the chunk it was part of was rolled back", report);
+    }
+
+    private static BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    private record ImportRow(long lineNumber, AddProductDto product) {
+    }
+
+    /**
+     * Categories by name, each name is queried at most once per import. Only the categories the file
+     * refers to are kept, so the map is bounded by the number of categories.
+     */
+    private final class CategoryLookup {
+        private final Map<String, Category> found = new HashMap<>();
+        private final Set<String> missing = new HashSet<>();
+
+        private void load(Collection<String> categoryNames) {
+            Set<String> unknown = categoryNames.stream()
+                    .filter(name -> !found.containsKey(name) && !missing.contains(name))
+                    .collect(Collectors.toSet());
+            if (unknown.isEmpty()) {
+                return;
+            }
+
+            for (Category category : categoryRepository.findAllByCategoryNameIn(unknown)) {
+                found.putIfAbsent(category.getCategoryName(), category);
+            }
+            unknown.stream().filter(name -> !found.containsKey(name)).forEach(missing::add);
+        }
+
+        private Category get(String categoryName) {
+            return found.get(categoryName);
+        }
+    }
+}
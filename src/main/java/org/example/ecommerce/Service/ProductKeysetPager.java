@@ -0,0 +1,66 @@
+package org.example.ecommerce.Service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.DTO.CursorPageDto;
+import org.example.ecommerce.Exception.InvalidCursorException;
+import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination over products. Each page continues after the sort key and id of the previous
+ * one; Spring Data's keyset scrolling expands that to {@code WHERE key > ? OR (key = ? AND id > ?)}
+ * ({@code <} for a descending sort). That is not the single index seek a row-value comparison would
+ * get, but the database still reads the {@code (key, id)} index from the last row on instead of
+ * skipping rows with OFFSET, and no count query is run.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductKeysetPager {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Specification<Product> ALL_PRODUCTS = (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
+
+    private final ProductRepository productRepository;
+
+    /**
+     * Returns the products after the cursor, or the first products when there is none. A cursor
+     * carries its own sort order, {@code sort} and {@code direction} only apply to the first page.
+     */
+    @Transactional(readOnly = true)
+    public <T> CursorPageDto<T> scroll(String sort, String direction, String cursor, int size, Function<Product, T> mapper) {
+        ProductCursor start = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor);
+        ProductSortKey sortKey = start != null ? start.sortKey() : ProductSortKey.fromParameter(sort);
+        Sort.Direction sortDirection = start != null ? start.direction() : parseDirection(direction);
+        int limit = Math.clamp(size, 1, MAX_PAGE_SIZE);
+
+        Sort order = sortKey == ProductSortKey.ID
+                ? Sort.by(sortDirection, "id")
+                : Sort.by(sortDirection, sortKey.property()).and(Sort.by(sortDirection, "id"));
+        ScrollPosition position = start != null ? start.toScrollPosition() : ScrollPosition.keyset();
+
+        Window<Product> window = productRepository.findBy(ALL_PRODUCTS,
+                query -> query.sortBy(order).limit(limit).scroll(position));
+
+        List<Product> products = window.getContent();
+        String nextCursor = window.hasNext() && !products.isEmpty()
+                ? ProductCursor.after(sortKey, sortDirection, products.getLast()).encode()
+                : null;
+
+        return new CursorPageDto<>(products.stream().map(mapper).toList(), nextCursor);
+    }
+
+    private static Sort.Direction parseDirection(String direction) {
+        return Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new InvalidCursorException("Direction must be asc or desc"));
+    }
+}
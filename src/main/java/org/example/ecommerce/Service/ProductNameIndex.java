@@ -0,0 +1,221 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.DTO.ProductSuggestRowDto;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.LongPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable prefix index over product names. The normalized names are sorted and packed into one
+ * char array, so a prefix is a contiguous range found by two binary searches. A segment tree over
+ * the popularity of the sorted entries returns the most popular entry of any range in O(log n),
+ * which yields the top k of a range without visiting the rest of it, however many names match.
+ */
+public final class ProductNameIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int size;
+    private final char[] keyChars;
+    private final int[] keyOffsets;
+    private final long[] ids;
+    private final String[] names;
+    private final long[] popularity;
+    // tree[size + i] is entry i, every inner node holds the more popular entry of its two children
+    private final int[] tree;
+
+    private ProductNameIndex(char[] keyChars, int[] keyOffsets, long[] ids, String[] names, long[] popularity) {
+        this.size = ids.length;
+        this.keyChars = keyChars;
+        this.keyOffsets = keyOffsets;
+        this.ids = ids;
+        this.names = names;
+        this.popularity = popularity;
+        this.tree = new int[2 * size];
+        for (int i = 0; i < size; i++) {
+            tree[size + i] = i;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    public static ProductNameIndex build(Collection<ProductSuggestRowDto> rows) {
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (ProductSuggestRowDto row : rows) {
+            String key = normalize(row.productName());
+            if (!key.isEmpty()) {
+                entries.add(new Entry(row.id(), row.productName(), key, row.popularity()));
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::key));
+
+        int n = entries.size();
+        int[] keyOffsets = new int[n + 1];
+        long[] ids = new long[n];
+        String[] names = new String[n];
+        long[] popularity = new long[n];
+        int length = 0;
+        for (int i = 0; i < n; i++) {
+            keyOffsets[i] = length;
+            length += entries.get(i).key().length();
+        }
+        keyOffsets[n] = length;
+
+        char[] keyChars = new char[length];
+        for (int i = 0; i < n; i++) {
+            Entry entry = entries.get(i);
+            entry.key().getChars(0, entry.key().length(), keyChars, keyOffsets[i]);
+            ids[i] = entry.id();
+            names[i] = entry.name();
+            popularity[i] = entry.popularity();
+        }
+        return new ProductNameIndex(keyChars, keyOffsets, ids, names, popularity);
+    }
+
+    // case, accents and repeated whitespace do not count: "Crème  Brûlée" and "creme brulee" are the same key
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // the arrays of the index, without the names, which the products share with the rest of the JVM
+    public long estimatedSizeInBytes() {
+        return 2L * keyChars.length + 4L * keyOffsets.length + 8L * ids.length + 8L * popularity.length
+                + 4L * tree.length + 4L * names.length;
+    }
+
+    /**
+     * The {@code limit} most popular entries whose key starts with the normalized prefix, most popular
+     * first and alphabetical among equals. Entries whose id is {@code excluded} are skipped.
+     */
+    public List<Entry> top(String normalizedPrefix, int limit, LongPredicate excluded) {
+        int from = lowerBound(normalizedPrefix);
+        int to = prefixEnd(from, normalizedPrefix);
+        List<Entry> result = new ArrayList<>(Math.min(limit, to - from));
+
+        // each queued range is represented by its best entry; taking one splits its range in two
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compareEntries(a[2], b[2]));
+        enqueue(ranges, from, to);
+        while (result.size() < limit && !ranges.isEmpty()) {
+            int[] range = ranges.poll();
+            int best = range[2];
+            if (!excluded.test(ids[best])) {
+                result.add(entry(best));
+            }
+            enqueue(ranges, range[0], best);
+            enqueue(ranges, best + 1, range[1]);
+        }
+        return result;
+    }
+
+    private void enqueue(PriorityQueue<int[]> ranges, int from, int to) {
+        if (from < to) {
+            ranges.add(new int[]{from, to, best(from, to)});
+        }
+    }
+
+    // most popular entry in [from, to), iterative bottom-up segment tree query
+    private int best(int from, int to) {
+        int best = -1;
+        for (int left = from + size, right = to + size; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                best = best < 0 ? tree[left] : better(best, tree[left]);
+                left++;
+            }
+            if ((right & 1) == 1) {
+                right--;
+                best = best < 0 ? tree[right] : better(best, tree[right]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int a, int b) {
+        return compareEntries(a, b) <= 0 ? a : b;
+    }
+
+    private int compareEntries(int a, int b) {
+        int byPopularity = Long.compare(popularity[b], popularity[a]);
+        return byPopularity != 0 ? byPopularity : Integer.compare(a, b);
+    }
+
+    // first entry whose key is not smaller than the prefix
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareKey(middle, prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // the keys starting with the prefix directly follow the lower bound
+    private int prefixEnd(int from, String prefix) {
+        int low = from;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (startsWith(middle, prefix)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compareKey(int index, String other) {
+        int start = keyOffsets[index];
+        int length = keyOffsets[index + 1] - start;
+        int common = Math.min(length, other.length());
+        for (int i = 0; i < common; i++) {
+            int difference = keyChars[start + i] - other.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - other.length();
+    }
+
+    private boolean startsWith(int index, String prefix) {
+        int start = keyOffsets[index];
+        if (keyOffsets[index + 1] - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (keyChars[start + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Entry entry(int index) {
+        return new Entry(ids[index], names[index],
+                new String(keyChars, keyOffsets[index], keyOffsets[index + 1] - keyOffsets[index]), popularity[index]);
+    }
+
+    public record Entry(long id, String name, String key, long popularity) {
+
+        // same order as the index: most popular first, then by key
+        public static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::popularity).reversed()
+                .thenComparing(Entry::key);
+    }
+}
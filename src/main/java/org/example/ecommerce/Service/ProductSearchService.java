@@ -0,0 +1,73 @@
+package org.example.ecommerce.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.ecommerce.DTO.ProductFacetsDto;
+import org.example.ecommerce.DTO.ProductFilterDto;
+import org.example.ecommerce.DTO.ShowProductDto;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.example.ecommerce.Repository.ProductSearchCriteria;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Filtered product listings and their facet counts. Facets are computed by one aggregate query
+ * and kept for a short TTL per filter, they are a browsing aid and may lag behind writes briefly.
+ */
+@Service
+public class ProductSearchService {
+
+    static final String FACET_CACHE_NAME = "productFacets";
+
+    private final ProductRepository productRepository;
+    private final CategoryService categoryService;
+    private final List<BigDecimal> priceBucketBounds;
+    private final Cache<ProductFilterDto, ProductFacetsDto> facets;
+
+    public ProductSearchService(ProductRepository productRepository,
+                                CategoryService categoryService,
+                                MeterRegistry meterRegistry,
+                                @Value("${catalog.facets.price-buckets:10,25,50,100,250,500,1000}") List<BigDecimal> priceBucketBounds,
+                                @Value("${catalog.facets.ttl:30s}") Duration ttl,
+                                @Value("${catalog.facets.max-size:1000}") long maxSize) {
+        this.productRepository = productRepository;
+        this.categoryService = categoryService;
+        this.priceBucketBounds = priceBucketBounds.stream().sorted().distinct().toList();
+        this.facets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, facets, FACET_CACHE_NAME);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ShowProductDto> search(ProductFilterDto filter, Pageable pageable) {
+        return productRepository.search(toCriteria(filter), pageable);
+    }
+
+    public ProductFacetsDto getFacets(ProductFilterDto filter) {
+        return facets.get(filter, key -> productRepository.findFacets(toCriteria(key), priceBucketBounds));
+    }
+
+    private ProductSearchCriteria toCriteria(ProductFilterDto filter) {
+        String namePrefix = filter.namePrefix() == null || filter.namePrefix().isBlank() ? null : filter.namePrefix().trim();
+        return new ProductSearchCriteria(
+                filter.categoryId(),
+                filter.categoryId() == null ? null : categoryService.getSubtreePath(filter.categoryId()),
+                filter.minPrice(),
+                filter.maxPrice(),
+                filter.inStockOnly(),
+                namePrefix);
+    }
+}
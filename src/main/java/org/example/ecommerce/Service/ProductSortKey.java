@@ -0,0 +1,70 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.Exception.InvalidCursorException;
+import org.example.ecommerce.Model.Product;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Columns product listings can be scrolled by. Every key is combined with the id as a tie-breaker,
+ * so the position of a product in the listing is unique.
+ */
+public enum ProductSortKey {
+
+    ID("id") {
+        @Override
+        Object keyOf(Product product) {
+            return null;
+        }
+
+        @Override
+        Object parseKey(String value) {
+            return null;
+        }
+    },
+    PRICE("price") {
+        @Override
+        Object keyOf(Product product) {
+            return product.getPrice();
+        }
+
+        @Override
+        Object parseKey(String value) {
+            return new BigDecimal(value);
+        }
+    },
+    NAME("productName") {
+        @Override
+        Object keyOf(Product product) {
+            return product.getProductName();
+        }
+
+        @Override
+        Object parseKey(String value) {
+            return value;
+        }
+    };
+
+    private final String property;
+
+    ProductSortKey(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    abstract Object keyOf(Product product);
+
+    abstract Object parseKey(String value);
+
+    public static ProductSortKey fromParameter(String parameter) {
+        try {
+            return valueOf(parameter.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Products can only be sorted by id, price or name");
+        }
+    }
+}
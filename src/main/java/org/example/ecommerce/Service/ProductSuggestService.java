@@ -0,0 +1,91 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.DTO.ProductSuggestionDto;
+import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Typeahead over product names. Lookups go to an immutable {@link ProductNameIndex} plus a small overlay
+ * of the products written through the admin API since the index was built; an overlay entry replaces
+ * the indexed entry of the same product, a removed product hides it. The periodic rebuild folds the
+ * overlay into a new index and picks up changes made by imports or other instances.
+ */
+@Service
+public class ProductSuggestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestService.class);
+
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final ProductRepository productRepository;
+    private final AtomicReference<ProductNameIndex> index = new AtomicReference<>();
+    // product id to its latest entry, an empty Optional for a deleted product
+    private final Map<Long, Optional<ProductNameIndex.Entry>> overlay = new ConcurrentHashMap<>();
+    private final Object rebuildLock = new Object();
+
+    public ProductSuggestService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    public List<ProductSuggestionDto> suggest(String query, int limit) {
+        String prefix = ProductNameIndex.normalize(query);
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        List<ProductNameIndex.Entry> candidates = new ArrayList<>(current().top(prefix, size, overlay::containsKey));
+        for (Optional<ProductNameIndex.Entry> written : overlay.values()) {
+            written.filter(entry -> entry.key().startsWith(prefix)).ifPresent(candidates::add);
+        }
+        candidates.sort(ProductNameIndex.Entry.RANKING);
+
+        return candidates.stream()
+                .limit(size)
+                .map(entry -> new ProductSuggestionDto(entry.id(), entry.name()))
+                .toList();
+    }
+
+    public void productSavedAfterCommit(Product product) {
+        ProductNameIndex.Entry entry = new ProductNameIndex.Entry(product.getId(), product.getProductName(),
+                ProductNameIndex.normalize(product.getProductName()), product.getReviewSummary().getReviewCount());
+        TransactionCallbacks.afterCommit(() -> overlay.put(entry.id(), Optional.of(entry)));
+    }
+
+    public void productRemovedAfterCommit(Long productId) {
+        TransactionCallbacks.afterCommit(() -> overlay.put(productId, Optional.empty()));
+    }
+
+    public ProductNameIndex current() {
+        ProductNameIndex current = index.get();
+        return current != null ? current : rebuild();
+    }
+
+    // also runs right after startup, the first lookup before that builds the index itself
+    @Scheduled(fixedDelayString = "${catalog.suggest.rebuild-interval:10m}")
+    public ProductNameIndex rebuild() {
+        synchronized (rebuildLock) {
+            // everything in the overlay now was committed before the rows are read, so the new index has it
+            Map<Long, Optional<ProductNameIndex.Entry>> folded = Map.copyOf(overlay);
+            long start = System.nanoTime();
+            ProductNameIndex rebuilt = ProductNameIndex.build(productRepository.findAllForSuggest());
+            index.set(rebuilt);
+            // conditional removal, an entry written during the build stays until the next one
+            folded.forEach(overlay::remove);
+            logger.info("Built the product name index of {} products in {} ms", rebuilt.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return rebuilt;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.ecommerce.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns product text and search queries into index terms: accents and case are dropped, the text is
+ * split on anything that is not a letter or digit, stop words are removed and every word is reduced
+ * to a stem, so "Running Shoes" and "run shoe" produce the same terms.
+ * <p>
+ * The stemmer is a light English suffix stripper covering plurals and the common verb and adjective
+ * endings; it conflates fewer forms than Porter but never maps unrelated words together.
+ */
+public final class ProductTextAnalyzer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    // longer runs are part numbers or noise, never worth a dictionary entry
+    private static final int MAX_WORD_LENGTH = 64;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or",
+            "the", "this", "that", "to", "with");
+
+    private ProductTextAnalyzer() {
+    }
+
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String word : NON_WORD.split(folded)) {
+            if (!word.isEmpty() && word.length() <= MAX_WORD_LENGTH && !STOP_WORDS.contains(word)) {
+                terms.add(stem(word));
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 3 || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        String stem = stripSuffix(stripPlural(word));
+        // charge and charged both become charg
+        if (stem.length() > 4 && stem.endsWith("e") && !stem.endsWith("ee")) {
+            return stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    private static String stripPlural(String word) {
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("sses") || word.endsWith("shes") || word.endsWith("ches") || word.endsWith("xes")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private static String stripSuffix(String word) {
+        for (String suffix : new String[]{"ingly", "edly", "ing", "ed", "ly"}) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= 3) {
+                String stem = word.substring(0, word.length() - suffix.length());
+                if (!containsVowel(stem)) {
+                    return word;
+                }
+                // running -> run, hopped -> hop
+                if (stem.length() > 3 && isDoubledConsonant(stem) && !stem.endsWith("ll") && !stem.endsWith("ss")) {
+                    return stem.substring(0, stem.length() - 1);
+                }
+                return stem;
+            }
+        }
+        return word;
+    }
+
+    private static boolean containsVowel(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if ("aeiouy".indexOf(text.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDoubledConsonant(String text) {
+        char last = text.charAt(text.length() - 1);
+        return last == text.charAt(text.length() - 2) && "aeiou".indexOf(last) < 0;
+    }
+}
@@ -0,0 +1,286 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.DTO.ProductTextRowDto;
+import org.example.ecommerce.Model.CentsConverter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Inverted index over product names and descriptions, ranked with BM25. Every product is a document
+ * numbered in insertion order; a term's postings are two parallel int arrays of document numbers and
+ * term frequencies, so a posting costs eight bytes and no object. A product that changes gets a new
+ * document and the old one is marked deleted; {@link #compacted()} drops deleted documents and
+ * renumbers the rest. Category and price are kept per document so results are filtered without the
+ * database.
+ * <p>
+ * Not thread safe, {@link ProductTextSearchService} guards it with a read-write lock.
+ */
+public final class ProductTextIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // a word of the name counts like three words of the description
+    private static final int NAME_WEIGHT = 3;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> documentOfProduct = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] productIds = new long[16];
+    private long[] categoryIds = new long[16];
+    private long[] priceCents = new long[16];
+    private int[] lengths = new int[16];
+    private int documents;
+    private int liveDocuments;
+    private long liveLength;
+
+    public int size() {
+        return liveDocuments;
+    }
+
+    public boolean needsCompaction() {
+        return documents - liveDocuments > liveDocuments;
+    }
+
+    public void put(ProductTextRowDto product) {
+        remove(product.id());
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : ProductTextAnalyzer.terms(product.productName())) {
+            frequencies.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : ProductTextAnalyzer.terms(product.description())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+
+        int length = 0;
+        int document = addDocument(product.id(), product.categoryId(), CentsConverter.toCents(product.price()));
+        for (Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+            postings.computeIfAbsent(frequency.getKey(), term -> new Postings()).add(document, frequency.getValue());
+            length += frequency.getValue();
+        }
+        lengths[document] = length;
+        liveLength += length;
+    }
+
+    public void remove(long productId) {
+        Integer document = documentOfProduct.remove(productId);
+        if (document != null) {
+            deleted.set(document);
+            liveDocuments--;
+            liveLength -= lengths[document];
+        }
+    }
+
+    public Set<Long> productIds() {
+        return Set.copyOf(documentOfProduct.keySet());
+    }
+
+    // drops every product that is not in the given set, e.g. products deleted while the index was offline
+    public void retainProducts(Set<Long> productIds) {
+        for (Long productId : List.copyOf(documentOfProduct.keySet())) {
+            if (!productIds.contains(productId)) {
+                remove(productId);
+            }
+        }
+    }
+
+    /**
+     * Ranks the products matching any of the query terms by BM25, best first and by product id among
+     * equal scores, and returns one page of their ids. {@code categoryIds} and the price bounds are
+     * optional filters; they do not change the scores, only which products are counted.
+     */
+    public Hits search(List<String> queryTerms, Set<Long> categoryIds, Long minPriceCents, Long maxPriceCents,
+                       long offset, int limit) {
+        float[] scores = new float[documents];
+        BitSet matched = new BitSet(documents);
+        float averageLength = liveDocuments == 0 ? 1 : (float) liveLength / liveDocuments;
+
+        for (String term : new LinkedHashSet<>(queryTerms)) {
+            Postings termPostings = postings.get(term);
+            if (termPostings == null) {
+                continue;
+            }
+            int documentFrequency = 0;
+            for (int i = 0; i < termPostings.size; i++) {
+                if (!deleted.get(termPostings.documents[i])) {
+                    documentFrequency++;
+                }
+            }
+            double idf = Math.log(1 + (liveDocuments - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+            for (int i = 0; i < termPostings.size; i++) {
+                int document = termPostings.documents[i];
+                if (deleted.get(document) || !matches(document, categoryIds, minPriceCents, maxPriceCents)) {
+                    continue;
+                }
+                int frequency = termPostings.frequencies[i];
+                float norm = K1 * (1 - B + B * lengths[document] / averageLength);
+                scores[document] += (float) (idf * frequency * (K1 + 1) / (frequency + norm));
+                matched.set(document);
+            }
+        }
+
+        int total = matched.cardinality();
+        if (offset >= total) {
+            return new Hits(total, List.of());
+        }
+
+        // keeps the offset + limit best documents, the worst of them at the head
+        Comparator<Integer> ranking = (a, b) -> {
+            int byScore = Float.compare(scores[b], scores[a]);
+            return byScore != 0 ? byScore : Long.compare(productIds[a], productIds[b]);
+        };
+        int wanted = (int) Math.min(offset + limit, total);
+        PriorityQueue<Integer> best = new PriorityQueue<>(wanted, ranking.reversed());
+        for (int document = matched.nextSetBit(0); document >= 0; document = matched.nextSetBit(document + 1)) {
+            if (best.size() < wanted) {
+                best.add(document);
+            } else if (ranking.compare(document, best.peek()) < 0) {
+                best.poll();
+                best.add(document);
+            }
+        }
+
+        List<Integer> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+        List<Long> page = ranked.stream().skip(offset).map(document -> productIds[document]).toList();
+        return new Hits(total, page);
+    }
+
+    // a copy without deleted documents, numbered from zero in their current order
+    public ProductTextIndex compacted() {
+        ProductTextIndex copy = new ProductTextIndex();
+        int[] renumbered = new int[documents];
+        for (int document = 0; document < documents; document++) {
+            if (deleted.get(document)) {
+                renumbered[document] = -1;
+            } else {
+                renumbered[document] = copy.addDocument(productIds[document], categoryIds[document], priceCents[document]);
+                copy.lengths[renumbered[document]] = lengths[document];
+                copy.liveLength += lengths[document];
+            }
+        }
+        postings.forEach((term, termPostings) -> {
+            Postings copied = new Postings();
+            for (int i = 0; i < termPostings.size; i++) {
+                int document = renumbered[termPostings.documents[i]];
+                if (document >= 0) {
+                    copied.add(document, termPostings.frequencies[i]);
+                }
+            }
+            if (copied.size > 0) {
+                copied.trim();
+                copy.postings.put(term, copied);
+            }
+        });
+        return copy;
+    }
+
+    // writes the live documents only, in the layout readFrom expects
+    public void writeTo(DataOutput out) throws IOException {
+        ProductTextIndex compact = documents == liveDocuments ? this : compacted();
+        out.writeInt(compact.documents);
+        for (int document = 0; document < compact.documents; document++) {
+            out.writeLong(compact.productIds[document]);
+            out.writeLong(compact.categoryIds[document]);
+            out.writeLong(compact.priceCents[document]);
+            out.writeInt(compact.lengths[document]);
+        }
+        out.writeInt(compact.postings.size());
+        for (Map.Entry<String, Postings> entry : compact.postings.entrySet()) {
+            Postings termPostings = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeInt(termPostings.size);
+            for (int i = 0; i < termPostings.size; i++) {
+                out.writeInt(termPostings.documents[i]);
+                out.writeInt(termPostings.frequencies[i]);
+            }
+        }
+    }
+
+    public static ProductTextIndex readFrom(DataInput in) throws IOException {
+        ProductTextIndex index = new ProductTextIndex();
+        int documents = in.readInt();
+        for (int i = 0; i < documents; i++) {
+            int document = index.addDocument(in.readLong(), in.readLong(), in.readLong());
+            index.lengths[document] = in.readInt();
+            index.liveLength += index.lengths[document];
+        }
+        int terms = in.readInt();
+        for (int i = 0; i < terms; i++) {
+            String term = in.readUTF();
+            int size = in.readInt();
+            Postings termPostings = new Postings(size);
+            for (int j = 0; j < size; j++) {
+                int document = in.readInt();
+                if (document < 0 || document >= documents) {
+                    throw new IOException("Posting of term " + term + " points to unknown document " + document);
+                }
+                termPostings.add(document, in.readInt());
+            }
+            index.postings.put(term, termPostings);
+        }
+        return index;
+    }
+
+    private boolean matches(int document, Set<Long> categoryIds, Long minPriceCents, Long maxPriceCents) {
+        return (categoryIds == null || categoryIds.contains(this.categoryIds[document]))
+                && (minPriceCents == null || priceCents[document] >= minPriceCents)
+                && (maxPriceCents == null || priceCents[document] <= maxPriceCents);
+    }
+
+    private int addDocument(long productId, long categoryId, long price) {
+        if (documents == productIds.length) {
+            int capacity = documents + (documents >> 1);
+            productIds = Arrays.copyOf(productIds, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        int document = documents++;
+        productIds[document] = productId;
+        categoryIds[document] = categoryId;
+        priceCents[document] = price;
+        documentOfProduct.put(productId, document);
+        liveDocuments++;
+        return document;
+    }
+
+    public record Hits(long total, List<Long> productIds) {
+    }
+
+    private static final class Postings {
+        private int[] documents;
+        private int[] frequencies;
+        private int size;
+
+        Postings() {
+            this(4);
+        }
+
+        Postings(int capacity) {
+            documents = new int[Math.max(1, capacity)];
+            frequencies = new int[Math.max(1, capacity)];
+        }
+
+        // documents are only ever appended in increasing order, so the postings stay sorted
+        void add(int document, int frequency) {
+            if (size == documents.length) {
+                int capacity = size + (size >> 1) + 1;
+                documents = Arrays.copyOf(documents, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            documents[size] = document;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        void trim() {
+            documents = Arrays.copyOf(documents, size);
+            frequencies = Arrays.copyOf(frequencies, size);
+        }
+    }
+}
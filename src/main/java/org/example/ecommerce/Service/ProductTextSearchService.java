@@ -0,0 +1,311 @@
+package org.example.ecommerce.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.ecommerce.DTO.ProductTextRowDto;
+import org.example.ecommerce.DTO.ProductViewDto;
+import org.example.ecommerce.DTO.ProductTextSearchDto;
+import org.example.ecommerce.DTO.ShowProductDto;
+import org.example.ecommerce.Model.CentsConverter;
+import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over product names and descriptions, answered from a {@link ProductTextIndex} in memory.
+ * Admin writes update the index once they commit; imports and writes on other instances are picked up by
+ * the periodic sync, which reads the products modified since the previous one. Products deleted on
+ * another instance leave no modified row behind: a search that hits one drops it from the index and reads
+ * the page again, and the periodic reconcile drops the rest, so they do not linger in the totals.
+ * <p>
+ * The index is saved to {@code catalog.text-search.index-file} so a restart only reads the products changed
+ * since the save instead of the whole catalog. An empty path keeps the index in memory only.
+ */
+@Service
+public class ProductTextSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductTextSearchService.class);
+
+    private static final int FILE_MAGIC = 0x50545849;
+    // bump when ProductTextAnalyzer changes, a file of an older version is rebuilt instead of loaded
+    private static final int FILE_VERSION = 1;
+    // rows committed shortly before a sync can carry an older timestamp than the sync, they are read twice instead of missed
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+    private static final int BUILD_PAGE_SIZE = 1000;
+    // each attempt drops the deleted products it hit, so a page is only read again after concurrent deletes
+    private static final int MAX_SEARCH_ATTEMPTS = 3;
+
+    private final ProductRepository productRepository;
+    private final CategoryService categoryService;
+    private final Clock clock;
+    private final Path indexFile;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // guarded by lock, null until loaded
+    private ProductTextIndex index;
+    private volatile Instant syncedUpTo;
+    private volatile boolean dirty;
+
+    @Autowired
+    public ProductTextSearchService(ProductRepository productRepository,
+                                    CategoryService categoryService,
+                                    @Value("${catalog.text-search.index-file:}") String indexFile) {
+        this(productRepository, categoryService, Clock.systemUTC(),
+                indexFile.isBlank() ? null : Path.of(indexFile));
+    }
+
+    public ProductTextSearchService(ProductRepository productRepository, CategoryService categoryService,
+                                    Clock clock, Path indexFile) {
+        this.productRepository = productRepository;
+        this.categoryService = categoryService;
+        this.clock = clock;
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Returns the products matching any word of the query, most relevant first; the sort of the pageable is
+     * ignored. The category filter includes the subcategories of the given category.
+     */
+    @Transactional(readOnly = true)
+    public Page<ShowProductDto> search(ProductTextSearchDto query, Pageable pageable) {
+        List<String> terms = ProductTextAnalyzer.terms(query.q());
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Set<Long> categoryIds = query.categoryId() == null ? null : categoryService.getSubtreeIds(query.categoryId());
+        Long minPriceCents = query.minPrice() == null ? null : CentsConverter.toCents(query.minPrice());
+        Long maxPriceCents = query.maxPrice() == null ? null : CentsConverter.toCents(query.maxPrice());
+
+        for (int attempt = 1; ; attempt++) {
+            ProductTextIndex.Hits hits;
+            lock.readLock().lock();
+            try {
+                hits = loaded().search(terms, categoryIds, minPriceCents, maxPriceCents, pageable.getOffset(),
+                        pageable.getPageSize());
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            if (hits.productIds().isEmpty()) {
+                return new PageImpl<>(List.of(), pageable, hits.total());
+            }
+            // projected, the hits are shown and never changed, so no entity is loaded
+            Map<Long, ProductViewDto> products = productRepository.findProductViewsByIdIn(hits.productIds()).stream()
+                    .collect(Collectors.toMap(ProductViewDto::id, Function.identity()));
+            List<Long> deleted = hits.productIds().stream().filter(id -> !products.containsKey(id)).toList();
+            if (!deleted.isEmpty()) {
+                // deleted on another instance, the sync never sees them
+                change(index -> deleted.forEach(index::remove));
+            }
+            if (deleted.isEmpty() || attempt == MAX_SEARCH_ATTEMPTS) {
+                List<ShowProductDto> content = hits.productIds().stream()
+                        .map(products::get)
+                        .filter(Objects::nonNull)
+                        .map(ProductViewDto::toShowProductDto)
+                        .toList();
+                return new PageImpl<>(content, pageable, hits.total() - deleted.size());
+            }
+        }
+    }
+
+    public void productSavedAfterCommit(Product product) {
+        ProductTextRowDto row = new ProductTextRowDto(product.getId(), product.getProductName(),
+                product.getDescription(), product.getCategory().getId(), product.getPrice());
+        TransactionCallbacks.afterCommit(() -> change(index -> index.put(row)));
+    }
+
+    public void productRemovedAfterCommit(Long productId) {
+        TransactionCallbacks.afterCommit(() -> change(index -> index.remove(productId)));
+    }
+
+    // for writes that bypass the entities, such as the bulk price update
+    public void productsUpdatedAfterCommit(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(productIds);
+        TransactionCallbacks.afterCommit(() -> {
+            List<ProductTextRowDto> rows = productRepository.findTextRowsByIdIn(ids);
+            change(index -> rows.forEach(index::put));
+        });
+    }
+
+    // the first search before startup has finished loads the index itself
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            if (index == null) {
+                index = readIndexFile().orElseGet(this::build);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.text-search.sync-interval:1m}")
+    public void sync() {
+        Instant since = syncedUpTo;
+        if (since == null) {
+            return;
+        }
+        Instant now = clock.instant();
+        List<ProductTextRowDto> rows = productRepository.findTextRowsModifiedSince(since.minus(SYNC_OVERLAP));
+        change(index -> rows.forEach(index::put));
+        syncedUpTo = now;
+    }
+
+    /**
+     * Drops the products deleted on other instances that no search has hit yet. Only products indexed before
+     * the ids are read can be dropped, so one created in the meantime is not taken for a deleted one.
+     */
+    @Scheduled(fixedDelayString = "${catalog.text-search.reconcile-interval:1h}",
+            initialDelayString = "${catalog.text-search.reconcile-interval:1h}")
+    public void reconcile() {
+        Set<Long> indexed;
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return;
+            }
+            indexed = index.productIds();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Set<Long> existing = productRepository.findAllIds();
+        List<Long> deleted = indexed.stream().filter(id -> !existing.contains(id)).toList();
+        if (!deleted.isEmpty()) {
+            change(index -> deleted.forEach(index::remove));
+            logger.info("Dropped {} deleted products from the product text index", deleted.size());
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${catalog.text-search.save-interval:5m}")
+    public void save() throws IOException {
+        if (indexFile == null || !dirty) {
+            return;
+        }
+        Path parent = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, indexFile.getFileName().toString(), ".tmp");
+
+        // the read lock keeps writers out, so the saved index is exactly the one marked clean
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeLong(syncedUpTo.toEpochMilli());
+            index.writeTo(out);
+            dirty = false;
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Saved the product text index to {}", indexFile);
+    }
+
+    // callers hold the read lock; upgrading is not possible, so a missing index is loaded in between
+    private ProductTextIndex loaded() {
+        if (index == null) {
+            lock.readLock().unlock();
+            try {
+                load();
+            } finally {
+                lock.readLock().lock();
+            }
+        }
+        return index;
+    }
+
+    private void change(Consumer<ProductTextIndex> change) {
+        lock.writeLock().lock();
+        try {
+            // not loaded yet, the load reads the change from the database
+            if (index == null) {
+                return;
+            }
+            change.accept(index);
+            if (index.needsCompaction()) {
+                index = index.compacted();
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ProductTextIndex build() {
+        long start = System.nanoTime();
+        syncedUpTo = clock.instant();
+        ProductTextIndex built = new ProductTextIndex();
+        long afterId = 0;
+        List<ProductTextRowDto> rows;
+        do {
+            rows = productRepository.findTextRowsAfter(afterId, PageRequest.of(0, BUILD_PAGE_SIZE));
+            rows.forEach(built::put);
+            afterId = rows.isEmpty() ? afterId : rows.getLast().id();
+        } while (rows.size() == BUILD_PAGE_SIZE);
+        dirty = true;
+        logger.info("Built the product text index of {} products in {} ms", built.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    // a missing, outdated or damaged file is not an error, the index is rebuilt from the database
+    private Optional<ProductTextIndex> readIndexFile() {
+        if (indexFile == null || !Files.exists(indexFile)) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                logger.info("Ignoring the product text index in {}, it was written by another version", indexFile);
+                return Optional.empty();
+            }
+            Instant savedAt = Instant.ofEpochMilli(in.readLong());
+            ProductTextIndex loaded = ProductTextIndex.readFrom(in);
+
+            Instant now = clock.instant();
+            loaded.retainProducts(productRepository.findAllIds());
+            List<ProductTextRowDto> changed = productRepository.findTextRowsModifiedSince(savedAt.minus(SYNC_OVERLAP));
+            changed.forEach(loaded::put);
+            syncedUpTo = now;
+            dirty = !changed.isEmpty();
+            logger.info("Loaded the product text index of {} products from {}, {} changed since it was saved",
+                    loaded.size(), indexFile, changed.size());
+            return Optional.of(loaded.needsCompaction() ? loaded.compacted() : loaded);
+        } catch (IOException e) {
+            logger.warn("Could not read the product text index in {}, rebuilding it", indexFile, e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.ecommerce.Service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.ecommerce.DTO.ProductViewDto;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Bounded cache of the customer view of single products, together with their version. Entries are dropped once a write to the
+ * product has committed (see {@link ProductCacheInvalidationListener}) or its stock was changed by
+ * a bulk update, and expire after the configured TTL as a safety net. Unknown ids are never cached.
+ */
+@Service
+public class ProductViewCache {
+
+    static final String CACHE_NAME = "productViews";
+
+    private final LoadingCache<Long, ProductViewDto> views;
+
+    public ProductViewCache(ProductRepository productRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${catalog.product-cache.ttl:5m}") Duration ttl,
+                            @Value("${catalog.product-cache.max-size:10000}") long maxSize) {
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(id -> productRepository.findProductViewById(id).orElse(null));
+
+        // exposes cache.gets{result=hit|miss}, cache.evictions, cache.size and cache.load.duration
+        CaffeineCacheMetrics.monitor(meterRegistry, views, CACHE_NAME);
+    }
+
+    public Optional<ProductViewDto> get(Long productId) {
+        return Optional.ofNullable(views.get(productId));
+    }
+
+    public void evict(Long productId) {
+        views.invalidate(productId);
+    }
+
+    public void evictAfterCommit(Long productId) {
+        TransactionCallbacks.afterCommit(() -> evict(productId));
+    }
+
+    // one pass over the cache for all ids of a bulk update
+    public void evictAllAfterCommit(Collection<Long> productIds) {
+        TransactionCallbacks.afterCommit(() -> views.invalidateAll(productIds));
+    }
+}
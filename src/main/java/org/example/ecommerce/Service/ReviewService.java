@@ -2,6 +2,7 @@ package org.example.ecommerce.Service;
 
 import lombok.RequiredArgsConstructor;
 import org.example.ecommerce.DTO.AddReviewDto;
+import org.example.ecommerce.Exception.ReviewNotFoundException;
 import org.example.ecommerce.Mappers.ReviewMapper;
 import org.example.ecommerce.DTO.ShowReviewDto;
 import org.example.ecommerce.Exception.ProductNotFoundException;
@@ -10,42 +11,53 @@ import org.example.ecommerce.Model.Review;
 import org.example.ecommerce.Model.User;
 import org.example.ecommerce.Repository.ProductRepository;
 import org.example.ecommerce.Repository.ReviewRepository;
+import org.example.ecommerce.Repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ReviewService.class);
+
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
     private final ReviewMapper reviewMapper;
+    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final ProductViewCache productViewCache;
 
     //TODO refactor these methods
     // Create a method that gets single review by id from a product
 
+    /**
+     * Stores the review and counts it in the review summary of the product. Neither the product nor its
+     * reviews are loaded, the summary is changed by one UPDATE which also tells whether the product exists.
+     */
     @Transactional
     public ShowReviewDto addReview(Long productId, AddReviewDto reviewDto) {
+        if (productRepository.updateReviewSummary(productId, reviewDto.rating(), 1, Instant.now()) == 0) {
+            throw new ProductNotFoundException("Product with id " + productId + " does not exist");
+        }
 
-        Product product = productRepository.findById(productId).orElseThrow(
-                () -> new ProductNotFoundException("Product with id " + productId + " does not exist"));
-
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = (User) authentication.getPrincipal();
+        User user = userRepository.getReferenceById(currentUserResolver.getCurrentUserId());
 
         Review review = reviewMapper.reviewDtoToReview(reviewDto);
         review.setUser(user);
-        review.setProduct(product);
+        review.setProduct(productRepository.getReferenceById(productId));
         reviewRepository.save(review);
 
-        product.getReviews().add(review);
-
+        productViewCache.evictAfterCommit(productId);
         return reviewMapper.reviewToShowReviewDto(review);
     }
 
@@ -58,4 +70,33 @@ public class ReviewService {
 
         return reviews.map(reviewMapper::reviewToShowReviewDto);
     }
+
+    @Transactional
+    public void deleteReview(Long productId, Long reviewId) {
+        Review review = reviewRepository.findByIdAndProductIdAndUserId(reviewId, productId,
+                currentUserResolver.getCurrentUserId()).orElseThrow(
+                () -> new ReviewNotFoundException("Review with id " + reviewId + " does not exist"));
+
+        reviewRepository.delete(review);
+        // reviews written before ratings existed were counted without one
+        int rating = review.getRating() == null ? 0 : review.getRating();
+        productRepository.updateReviewSummary(productId, rating, -1, Instant.now());
+
+        productViewCache.evictAfterCommit(productId);
+    }
+
+    // products reviewed before the summary columns existed start with an empty summary
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillReviewSummaries() {
+        // the bulk update bypasses the entity listener that evicts the cached views
+        List<Long> productIds = productRepository.findIdsWithoutReviewSummary();
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        int backfilled = productRepository.backfillReviewSummaries(Instant.now());
+        productViewCache.evictAllAfterCommit(productIds);
+        logger.info("Backfilled the review summary of {} products", backfilled);
+    }
 }
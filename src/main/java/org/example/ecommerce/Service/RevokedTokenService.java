@@ -0,0 +1,108 @@
+package org.example.ecommerce.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.ecommerce.Repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps track of individually revoked tokens (logout, used refresh tokens) by their {@code jti}.
+ * The ids of all unexpired revocations are held in a Bloom filter, so checking a token that was
+ * never revoked costs a few hash probes and no query; only a possible hit is confirmed against the
+ * {@code revoked_token} table. The filter is rebuilt from the table periodically, which also picks
+ * up revocations made on other instances and drops expired ones.
+ */
+@Service
+public class RevokedTokenService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int minimumCapacity;
+    private final double falsePositiveRate;
+    private final Counter confirmedLookups;
+    private final Counter falsePositiveLookups;
+
+    // guards rebuilding and adding, so a revocation committed during a rebuild is not lost
+    private final Object filterLock = new Object();
+    // null until the first rebuild, every check goes to the database until then
+    private volatile BloomFilter filter;
+
+    public RevokedTokenService(RevokedTokenRepository revokedTokenRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.revocation.filter.min-capacity:10000}") int minimumCapacity,
+                               @Value("${jwt.revocation.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.minimumCapacity = minimumCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.confirmedLookups = Counter.builder("jwt.revocation.lookups")
+                .tag("result", "revoked")
+                .description("Revocation checks that reached the database")
+                .register(meterRegistry);
+        this.falsePositiveLookups = Counter.builder("jwt.revocation.lookups")
+                .tag("result", "false_positive")
+                .description("Revocation checks that reached the database")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(tokenId)) {
+            return false;
+        }
+
+        boolean revoked = revokedTokenRepository.existsById(tokenId);
+        (revoked ? confirmedLookups : falsePositiveLookups).increment();
+        return revoked;
+    }
+
+    /**
+     * Revokes the token in a single insert that does nothing when the row exists already.
+     *
+     * @return whether this call revoked the token; false when it was revoked before, possibly by a
+     * concurrent request, or when there is nothing to revoke
+     */
+    @Transactional
+    public boolean revoke(String tokenId, Instant expiresAt) {
+        // an expired token is rejected by its signature check already
+        if (tokenId == null || !expiresAt.isAfter(Instant.now())) {
+            return false;
+        }
+
+        if (revokedTokenRepository.insertIfAbsent(tokenId, expiresAt) == 0) {
+            return false;
+        }
+
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (filterLock) {
+                BloomFilter current = filter;
+                if (current != null) {
+                    current.add(tokenId);
+                }
+            }
+        });
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:1m}")
+    public void rebuild() {
+        synchronized (filterLock) {
+            Instant now = Instant.now();
+            revokedTokenRepository.deleteExpired(now);
+            List<String> tokenIds = revokedTokenRepository.findActiveTokenIds(now);
+
+            // sized with headroom for the revocations added before the next rebuild
+            BloomFilter rebuilt = BloomFilter.create(Math.max(minimumCapacity, tokenIds.size() * 2), falsePositiveRate);
+            tokenIds.forEach(rebuilt::add);
+            filter = rebuilt;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.ecommerce.Service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.example.ecommerce.Exception.UserNotFoundException;
+import org.example.ecommerce.Jwt.AuthenticatedUser;
+import org.example.ecommerce.Repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+/**
+ * Decides whether a token is still honoured by comparing its version claim with the
+ * user's current token version. Versions are cached briefly, so a revocation takes
+ * effect on other instances within the configured TTL.
+ */
+@Service
+public class TokenVersionService {
+
+    private static final int UNKNOWN_USER = -1;
+
+    private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final LoadingCache<Long, Integer> currentVersions;
+
+    public TokenVersionService(UserRepository userRepository,
+                               CustomUserDetailsService userDetailsService,
+                               @Value("${jwt.token-version-cache.ttl:30s}") Duration ttl,
+                               @Value("${jwt.token-version-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.currentVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build(userId -> userRepository.findTokenVersionById(userId).orElse(UNKNOWN_USER));
+    }
+
+    public boolean isCurrent(AuthenticatedUser user) {
+        return currentVersions.get(user.id()) == user.tokenVersion();
+    }
+
+    /**
+     * Invalidates every access and refresh token issued to the user so far, on logout from all
+     * devices or when an administrator locks a session out.
+     */
+    @Transactional
+    public void revokeAllTokens(Long userId) {
+        if (userRepository.incrementTokenVersion(userId) == 0) {
+            throw new UserNotFoundException("User with id " + userId + " does not exist");
+        }
+        // the bulk update bypasses the entity listener, the cached login snapshot still has the old version
+        TransactionCallbacks.afterCommit(() -> {
+            currentVersions.invalidate(userId);
+            userDetailsService.evict(userId);
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.ecommerce.Service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.Model.User;
+
+/**
+ * Drops the cached security snapshot of a user once a write to that user has committed,
+ * so registrations and later profile or role changes are picked up on the next login.
+ * Instantiated by Hibernate through Spring, which injects the constructor arguments.
+ */
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final CustomUserDetailsService userDetailsService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void userWritten(User user) {
+        Long id = user.getId();
+        String username = user.getUsername();
+
+        TransactionCallbacks.afterCommit(() -> {
+            userDetailsService.evict(username);
+            userDetailsService.evict(id);
+        });
+    }
+}
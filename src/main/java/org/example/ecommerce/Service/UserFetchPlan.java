@@ -0,0 +1,11 @@
+package org.example.ecommerce.Service;
+
+/**
+ * Associations of the current user that are loaded together with it in a single query.
+ */
+public enum UserFetchPlan {
+    USER,
+    CART,        // cart, its items and their products
+    ADDRESSES,
+    WISHLIST     // wishlist, its items and their products
+}
@@ -0,0 +1,140 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.Config.BoundedPasswordEncoder;
+import org.example.ecommerce.DTO.UserImportResultDto;
+import org.example.ecommerce.DTO.UserRegistrationDto;
+import org.example.ecommerce.Mappers.UserMapper;
+import org.example.ecommerce.Model.User;
+import org.example.ecommerce.Model.UserRole;
+import org.example.ecommerce.Repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Imports users from a CSV stream with the columns {@code username,email,password} and an optional
+ * {@code role}. The stream is read in chunks (see {@link ChunkedImporter}); each chunk is validated, checked
+ * against existing usernames and emails with one query per column, hashed in parallel on the password
+ * hashing pool and inserted with JDBC batching. Invalid and duplicate rows are reported by line and skipped.
+ */
+@Service
+public class UserImportService {
+
+    private static final List<String> COLUMNS = List.of("username", "email", "password");
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final ChunkedImporter chunkedImporter;
+    private final int chunkSize;
+    private final int hashingParallelism;
+
+    public UserImportService(UserRepository userRepository,
+                             UserMapper userMapper,
+                             BoundedPasswordEncoder passwordEncoder,
+                             ChunkedImporter chunkedImporter,
+                             @Value("${security.user-import.chunk-size:500}") int chunkSize,
+                             @Value("${security.user-import.hashing-parallelism:2}") int hashingParallelism) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.chunkedImporter = chunkedImporter;
+        this.chunkSize = chunkSize;
+        this.hashingParallelism = hashingParallelism;
+    }
+
+    public UserImportResultDto importUsers(InputStream csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        CsvColumns columns = CsvColumns.readHeader(reader, COLUMNS);
+
+        // the same username or email twice in one file, the first row wins
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        ImportReport report = chunkedImporter.run(reader, 1, chunkSize,
+                (lineNumber, line, progress) -> parseRow(lineNumber, line, columns, seenUsernames, seenEmails, progress),
+                this::insertChunk);
+        return new UserImportResultDto(report.imported(), report.failed(), report.errors());
+    }
+
+    private ImportRow parseRow(long lineNumber, String line, CsvColumns columns,
+                               Set<String> seenUsernames, Set<String> seenEmails, ImportReport report) {
+        List<String> fields;
+        try {
+            fields = CsvLineParser.parse(line);
+        } catch (IllegalArgumentException e) {
+            report.fail(lineNumber, e.getMessage());
+            return null;
+        }
+
+        UserRegistrationDto user = new UserRegistrationDto(columns.field(fields, "username"),
+                columns.field(fields, "email"), columns.field(fields, "password"));
+        if (!chunkedImporter.validate(lineNumber, user, report)) {
+            return null;
+        }
+
+        String roleName = columns.field(fields, "role");
+        UserRole role;
+        try {
+            role = roleName == null || roleName.isEmpty() ? UserRole.CUSTOMER : UserRole.valueOf(roleName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            report.fail(lineNumber, "Unknown role " + roleName);
+            return null;
+        }
+
+        if (!seenUsernames.add(user.username())) {
+            report.fail(lineNumber, "Username " + user.username() + " appears more than once in the file");
+            return null;
+        }
+        if (!seenEmails.add(user.email())) {
+            report.fail(lineNumber, "Email " + user.email() + " appears more than once in the file");
+            return null;
+        }
+
+        return new ImportRow(lineNumber, user, role);
+    }
+
+    private void insertChunk(List<ImportRow> chunk, ImportReport report) {
+        Set<String> existingUsernames = userRepository.findExistingUsernames(
+                chunk.stream().map(row -> row.user().username()).toList());
+        Set<String> existingEmails = userRepository.findExistingEmails(
+                chunk.stream().map(row -> row.user().email()).toList());
+
+        List<ImportRow> newRows = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (existingUsernames.contains(row.user().username())) {
+                report.fail(row.lineNumber(), "User with username " + row.user().username() + " already exists");
+            } else if (existingEmails.contains(row.user().email())) {
+                report.fail(row.lineNumber(), "User with email " + row.user().email() + " already exists");
+            } else {
+                newRows.add(row);
+            }
+        }
+        if (newRows.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordEncoder.encodeAll(newRows.stream().map(row -> row.user().password()).toList(),
+                hashingParallelism);
+
+        List<User> users = new ArrayList<>(newRows.size());
+        for (int i = 0; i < newRows.size(); i++) {
+            User user = userMapper.toUser(newRows.get(i).user());
+            user.setPassword(hashes.get(i));
+            user.setRole(newRows.get(i).role());
+            users.add(user);
+        }
+
+        // a user registered between the duplicate check and the insert rolls the chunk back
+        chunkedImporter.save(newRows.stream().map(ImportRow::lineNumber).toList(), () -> userRepository.saveAll(users),
+                "User could not be imported, a user with the same username or email was created concurrently", report);
+    }
+
+    private record ImportRow(long lineNumber, UserRegistrationDto user, UserRole role) {
+    }
+}
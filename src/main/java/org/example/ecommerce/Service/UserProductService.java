@@ -1,9 +1,14 @@
 package org.example.ecommerce.Service;
 
 import lombok.RequiredArgsConstructor;
+import org.example.ecommerce.DTO.CursorPageDto;
+import org.example.ecommerce.DTO.ProductFacetsDto;
+import org.example.ecommerce.DTO.ProductFilterDto;
+import org.example.ecommerce.DTO.ProductViewDto;
 import org.example.ecommerce.Mappers.ProductMapper;
 import org.example.ecommerce.DTO.ShowProductDto;
 import org.example.ecommerce.Exception.ProductNotFoundException;
+import org.example.ecommerce.Repository.CategoryRepository;
 import org.example.ecommerce.Repository.ProductRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,15 +21,49 @@ public class UserProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ProductKeysetPager productKeysetPager;
+    private final ProductViewCache productViewCache;
+    private final ProductSearchService productSearchService;
+    private final CategoryRepository categoryRepository;
 
     @Transactional(readOnly = true)
     public Page<ShowProductDto> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable).map(productMapper::productToShowProductDto);
+        return productRepository.findAllShowProductDtos(pageable);
     }
 
     @Transactional(readOnly = true)
+    public Page<ShowProductDto> searchProducts(ProductFilterDto filter, Pageable pageable) {
+        if (filter.isEmpty()) {
+            return getAllProducts(pageable);
+        }
+        return productSearchService.search(filter, pageable);
+    }
+
+    public ProductFacetsDto getFacets(ProductFilterDto filter) {
+        return productSearchService.getFacets(filter);
+    }
+
+    public CursorPageDto<ShowProductDto> scrollProducts(String sort, String direction, String cursor, int size) {
+        return productKeysetPager.scroll(sort, direction, cursor, size, productMapper::productToShowProductDto);
+    }
+
     public ShowProductDto getProductByProductName(Long productId) {
-        return productMapper.productToShowProductDto(productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException("Product with id " + productId + " does not exist")));
+        return getProductView(productId).toShowProductDto();
+    }
+
+    public ProductViewDto getProductView(Long productId) {
+        return productViewCache.get(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Product with id " + productId + " does not exist"));
+    }
+
+    // one aggregate query, answers a conditional GET of any product page without loading it
+    @Transactional(readOnly = true)
+    public String getCatalogETag(ProductFilterDto filter) {
+        String tag = productRepository.findCatalogVersion().tag("products");
+        // moving a category changes which products a category filter matches
+        if (filter.categoryId() != null) {
+            tag += "-" + categoryRepository.findCategoriesVersion().tag("categories");
+        }
+        return "\"" + tag + "\"";
     }
 }
@@ -0,0 +1,73 @@
+package org.example.ecommerce.Service;
+
+import org.example.ecommerce.Model.User;
+import org.example.ecommerce.Model.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable copy of the security-relevant fields of a {@link User}. Safe to share between
+ * requests and threads, unlike the managed entity it is taken from.
+ */
+public record UserSecuritySnapshot(Long id,
+                                   String username,
+                                   String password,
+                                   UserRole role,
+                                   int tokenVersion,
+                                   boolean accountNonExpired,
+                                   boolean accountNonLocked,
+                                   boolean credentialsNonExpired,
+                                   boolean enabled) implements UserDetails {
+
+    public static UserSecuritySnapshot of(User user) {
+        return new UserSecuritySnapshot(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getRole(),
+                user.getTokenVersion(),
+                user.isAccountNonExpired(),
+                user.isAccountNonLocked(),
+                user.isCredentialsNonExpired(),
+                user.isEnabled());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return accountNonExpired;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return credentialsNonExpired;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -14,8 +14,6 @@ import org.example.ecommerce.Repository.ProductRepository;
 import org.example.ecommerce.Repository.UserRepository;
 import org.example.ecommerce.Repository.WishlistItemRepository;
 import org.example.ecommerce.Repository.WishlistRepository;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,13 +32,14 @@ public class WishListService {
     private final UserRepository userRepository;
 
     private final WishlistRepository wishlistRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     //TODO REFACTOR ALL THE METHODS IN THIS CLASS
     // This method might need to be rewritten!!!
     @Transactional
     public ShowWishlistDto addProductToWishListOfCurrentUser(Long productId){
         // Get current user from security context
-        User user = getCurrentUser();
+        User user = currentUserResolver.getCurrentUser(UserFetchPlan.WISHLIST);
 
         Wishlist wishlist = user.getWishlist();
         if (wishlist == null) {
@@ -75,8 +74,7 @@ public class WishListService {
 
     @Transactional
     public void deleteItemFromWishlist(Long productId) {
-        User user = getCurrentUser();
-        Wishlist wishlist = user.getWishlist();
+        Wishlist wishlist = getWishlistOfCurrentUser();
 
         if (wishlist != null) {
             Optional<WishlistItem> itemToDelete = wishlist.getWishlistItems().stream()
@@ -94,14 +92,14 @@ public class WishListService {
 
     @Transactional(readOnly = true)
     public WishlistResponseDto showWishlistOfCurrentUser() {
-        User user = getCurrentUser();
+        Wishlist wishlist = getWishlistOfCurrentUser();
 
-        if (user.getWishlist() == null) {
+        if (wishlist == null) {
             // if there are no products in the wishlist, we will return an empty list
             return new WishlistResponseDto(Collections.emptyList());
         }
 
-        return wishlistMapper.wishlistToWishlistResponseDto(user.getWishlist());
+        return wishlistMapper.wishlistToWishlistResponseDto(wishlist);
     }
     //TODO change this method
     @Transactional(readOnly = true)
@@ -116,10 +114,7 @@ public class WishListService {
         return wishlistMapper.wishlistToWishlistResponseDto(user.getWishlist());
     }
 
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+    private Wishlist getWishlistOfCurrentUser() {
+        return currentUserResolver.getCurrentUser(UserFetchPlan.WISHLIST).getWishlist();
     }
 }
@@ -0,0 +1,10 @@
+-- Indexes JPA cannot declare. Runs after Hibernate has created or updated the tables.
+
+-- case-insensitive name prefix filter: lower(product_name) LIKE 'abc%'
+CREATE INDEX IF NOT EXISTS idx_product_name_prefix ON product (lower(product_name) text_pattern_ops);
+
+-- in-stock filter, optionally combined with a category and a price range
+CREATE INDEX IF NOT EXISTS idx_product_in_stock_category_price ON product (category_id, price) WHERE available_quantity > 0;
+
+-- subtree lookups and rewrites on the materialized category path: path LIKE '/1/5/%'
+CREATE INDEX IF NOT EXISTS idx_category_path ON category (path text_pattern_ops);
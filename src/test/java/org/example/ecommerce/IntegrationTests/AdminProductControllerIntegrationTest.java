@@ -1,9 +1,11 @@
 package org.example.ecommerce.IntegrationTests;
 
 import jakarta.transaction.Transactional;
+import org.example.ecommerce.Controller.AdminProductController;
 import org.example.ecommerce.DTO.*;
 import org.example.ecommerce.Model.Address;
 import org.example.ecommerce.Model.Category;
+import org.example.ecommerce.Model.Product;
 import org.example.ecommerce.Model.User;
 import org.example.ecommerce.Model.UserRole;
 import org.example.ecommerce.Repository.CategoryRepository;
@@ -20,6 +22,7 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,9 +31,16 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -50,6 +60,8 @@ public class AdminProductControllerIntegrationTest {
     private UserRepository userRepository;
     @Autowired
     private CategoryRepository categoryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
 
     @AfterEach
@@ -393,6 +405,159 @@ public class AdminProductControllerIntegrationTest {
     }
 
 
+    @Test
+    void importProducts_fromCsv_insertsValidRowsAndReportsTheRest() {
+        createCategory("Books");
+        createProduct("Existing", "Books");
+        String jwt = loginAndGetJwt("test123", "test123");
+
+        ResponseEntity<ProductImportResultDto> response = testRestTemplate.exchange(
+                "/api/admin/products/import",
+                HttpMethod.POST,
+                new HttpEntity<>("""
+                        productName,description,price,availableQuantity,categoryName
+                        Dune,"A novel, about sand",9.99,5,Books
+                        Existing,Duplicate,1,1,Books
+                        Emma,Classic,7.50,3,Toys
+                        """, headers(jwt, MediaType.parseMediaType("text/csv"))),
+                ProductImportResultDto.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().imported()).isEqualTo(1);
+        assertThat(response.getBody().failed()).isEqualTo(2);
+        assertThat(response.getBody().errors()).extracting(ImportRowErrorDto::line).containsExactly(3L, 4L);
+        assertThat(productRepository.findByProductName("Dune")).hasValueSatisfying(product ->
+                assertThat(product.getDescription()).isEqualTo("A novel, about sand"));
+    }
+
+    @Test
+    void importProducts_fromNdjson_insertsProducts() {
+        createCategory("Books");
+        String jwt = loginAndGetJwt("test123", "test123");
+
+        ResponseEntity<ProductImportResultDto> response = testRestTemplate.exchange(
+                "/api/admin/products/import",
+                HttpMethod.POST,
+                new HttpEntity<>("""
+                        {"productName":"Dune","description":"Sand","price":9.99,"availableQuantity":5,"categoryName":"Books"}
+                        {"productName":"Emma","description":"Classic","price":7.5,"availableQuantity":3,"categoryName":"Books"}
+                        """, headers(jwt, MediaType.parseMediaType("application/x-ndjson"))),
+                ProductImportResultDto.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().imported()).isEqualTo(2);
+        assertThat(productRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void exportProducts_asNdjson_streamsEveryProductWithItsCategory() {
+        createCategory("Books");
+        createProduct("Dune", "Books");
+        createProduct("Emma", "Books");
+        String jwt = loginAndGetJwt("test123", "test123");
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                "/api/admin/products/export",
+                HttpMethod.GET,
+                new HttpEntity<>(bearerHeaders(jwt)),
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+        assertThat(response.getBody().lines().toList()).hasSize(2)
+                .allSatisfy(line -> assertThat(line).contains("\"categoryName\":\"Books\""));
+    }
+
+    @Test
+    void exportProducts_asGzippedCsvSince_containsOnlyChangesWithinTheOverlap() throws Exception {
+        createCategory("Books");
+        createProduct("Dune", "Books");
+        Instant since = Instant.now();
+        // older than since by more than catalog.export.overlap
+        setLastModified("Dune", since.minus(Duration.ofMinutes(6)));
+        setCategoryLastModified("Books", since.minus(Duration.ofMinutes(6)));
+        createProduct("Emma", "Books");
+        String jwt = loginAndGetJwt("test123", "test123");
+
+        HttpHeaders headers = bearerHeaders(jwt);
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> response = testRestTemplate.exchange(
+                "/api/admin/products/export?format=csv&since=" + since,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> lines = csv.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("id,productName,");
+        assertThat(lines.get(1)).contains("Emma");
+    }
+
+    @Test
+    void exportProducts_since_includesARowCommittedAfterThePreviousExport() {
+        createCategory("Books");
+        createProduct("Dune", "Books");
+        String jwt = loginAndGetJwt("test123", "test123");
+        ResponseEntity<String> first = export(jwt, null);
+        Instant highWaterMark = Instant.parse(first.getHeaders().getFirst(AdminProductController.EXPORT_HIGH_WATER_MARK));
+
+        // stamped before the first export started, but its transaction committed only after it
+        createProduct("Emma", "Books");
+        setLastModified("Emma", highWaterMark.minusSeconds(1));
+        ResponseEntity<String> second = export(jwt, highWaterMark);
+
+        assertThat(first.getBody()).doesNotContain("Emma");
+        assertThat(second.getBody()).contains("\"productName\":\"Emma\"");
+    }
+
+    @Test
+    void exportProducts_since_includesTheProductsOfARenamedCategory() {
+        createCategory("Books");
+        createProduct("Dune", "Books");
+        Instant since = Instant.now();
+        setLastModified("Dune", since.minus(Duration.ofMinutes(6)));
+        setCategoryLastModified("Books", since.minus(Duration.ofMinutes(6)));
+        String jwt = loginAndGetJwt("test123", "test123");
+        assertThat(export(jwt, since).getBody()).doesNotContain("Dune");
+
+        Category books = categoryRepository.findByCategoryName("Books").orElseThrow();
+        books.setCategoryName("Novels");
+        categoryRepository.save(books);
+        ResponseEntity<String> response = export(jwt, since);
+
+        assertThat(response.getBody()).contains("\"productName\":\"Dune\"").contains("\"categoryName\":\"Novels\"");
+    }
+
+    private ResponseEntity<String> export(String jwt, Instant since) {
+        return testRestTemplate.exchange(
+                "/api/admin/products/export" + (since == null ? "" : "?since=" + since),
+                HttpMethod.GET,
+                new HttpEntity<>(bearerHeaders(jwt)),
+                String.class
+        );
+    }
+
+    // what a slow write transaction leaves behind, lastModified is stamped when the row is written
+    private void setLastModified(String productName, Instant lastModified) {
+        jdbcTemplate.update("UPDATE product SET last_modified = ? WHERE product_name = ?",
+                Timestamp.from(lastModified), productName);
+    }
+
+    private void setCategoryLastModified(String categoryName, Instant lastModified) {
+        jdbcTemplate.update("UPDATE category SET last_modified = ? WHERE category_name = ?",
+                Timestamp.from(lastModified), categoryName);
+    }
+
     private String loginAndGetJwt(String username, String password) {
         registerUser(username, password);
 
@@ -439,6 +604,23 @@ public class AdminProductControllerIntegrationTest {
         return headers;
     }
 
+    private HttpHeaders headers(String jwt, MediaType contentType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        headers.setBearerAuth(jwt);
+        return headers;
+    }
+
+    private void createProduct(String productName, String categoryName) {
+        Product product = new Product();
+        product.setProductName(productName);
+        product.setDescription("desc");
+        product.setPrice(BigDecimal.TEN);
+        product.setAvailableQuantity(1);
+        product.setCategory(categoryRepository.findByCategoryName(categoryName).orElseThrow());
+        productRepository.save(product);
+    }
+
     private void createCategory(String categoryName) {
         Category category = new Category();
         category.setCategoryName(categoryName);
@@ -2,6 +2,12 @@ package org.example.ecommerce.IntegrationTests;
 
 import jakarta.transaction.Transactional;
 import org.example.ecommerce.DTO.AddProductDto;
+import org.example.ecommerce.DTO.BulkProductUpdateDto;
+import org.example.ecommerce.DTO.BulkProductUpdateResultDto;
+import org.example.ecommerce.DTO.ProductPriceStockUpdateDto;
+import org.example.ecommerce.DTO.ProductSuggestionDto;
+import org.example.ecommerce.DTO.ProductTextSearchDto;
+import org.example.ecommerce.DTO.ShowProductDto;
 import org.example.ecommerce.DTO.ShowAdminProductDto;
 import org.example.ecommerce.Exception.CategoryNotFoundException;
 import org.example.ecommerce.Exception.ProductAlreadyExistsException;
@@ -15,6 +21,9 @@ import org.example.ecommerce.Repository.CategoryRepository;
 import org.example.ecommerce.Repository.ProductRepository;
 import org.example.ecommerce.Repository.UserRepository;
 import org.example.ecommerce.Service.AdminProductService;
+import org.example.ecommerce.Service.ProductSuggestService;
+import org.example.ecommerce.Service.ProductTextSearchService;
+import org.example.ecommerce.Service.UserProductService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -50,11 +59,17 @@ public class AdminProductServiceIntegrationTest {
     @Autowired
     private AdminProductService adminProductService;
     @Autowired
+    private UserProductService userProductService;
+    @Autowired
     private ProductRepository productRepository;
     @Autowired
     private UserRepository userRepository;
     @Autowired
     private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductSuggestService productSuggestService;
+    @Autowired
+    private ProductTextSearchService productTextSearchService;
 
     @BeforeEach
     void setUp() {
@@ -214,6 +229,62 @@ public class AdminProductServiceIntegrationTest {
         assertThat(response.productName()).isEqualTo(updatedDto.productName());
     }
 
+    @Test
+    void updateAndDeleteProduct_evictCachedProductView() {
+        createUser();
+        createCategory("cat");
+        Long id = adminProductService.createProduct(new AddProductDto("name", "desc", 10.0, 3, "cat")).id();
+
+        assertThat(userProductService.getProductByProductName(id).productName()).isEqualTo("name");
+
+        adminProductService.updateProduct(id, new AddProductDto("Newname", "NEWdesc", 12.0, 3, "cat"));
+        assertThat(userProductService.getProductByProductName(id).productName()).isEqualTo("Newname");
+
+        adminProductService.deleteProduct(id);
+        assertThrows(ProductNotFoundException.class, () -> userProductService.getProductByProductName(id));
+    }
+
+    @Test
+    void createUpdateAndDeleteProduct_updateSuggestionsWithoutRebuild() {
+        createUser();
+        createCategory("cat");
+        productSuggestService.rebuild();
+
+        Long id = adminProductService.createProduct(new AddProductDto("Crème Brûlée", "desc", 10.0, 3, "cat")).id();
+        assertThat(productSuggestService.suggest("CREME", 10)).extracting(ProductSuggestionDto::id).containsExactly(id);
+
+        adminProductService.updateProduct(id, new AddProductDto("Custard", "desc", 10.0, 3, "cat"));
+        assertThat(productSuggestService.suggest("creme", 10)).isEmpty();
+        assertThat(productSuggestService.suggest("cus", 10)).extracting(ProductSuggestionDto::productName)
+                .containsExactly("Custard");
+
+        adminProductService.deleteProduct(id);
+        assertThat(productSuggestService.suggest("cus", 10)).isEmpty();
+    }
+
+    @Test
+    void createUpdateAndDeleteProduct_updateTextSearchWithoutSync() {
+        createUser();
+        createCategory("cat");
+        ProductTextSearchDto hiking = new ProductTextSearchDto("hiking boots", null, null, null);
+
+        Long id = adminProductService.createProduct(
+                new AddProductDto("Trail Boot", "Waterproof boot for hiking", 10.0, 3, "cat")).id();
+        adminProductService.createProduct(new AddProductDto("Hiking Boots Pro", "Leather", 20.0, 3, "cat"));
+        assertThat(productTextSearchService.search(hiking, PageRequest.of(0, 10)).getContent())
+                .extracting(ShowProductDto::productName).containsExactly("Hiking Boots Pro", "Trail Boot");
+        assertThat(productTextSearchService.search(new ProductTextSearchDto("boot", null, null, new BigDecimal("15")),
+                PageRequest.of(0, 10)).getContent()).extracting(ShowProductDto::productName).containsExactly("Trail Boot");
+
+        adminProductService.updateProduct(id, new AddProductDto("Trail Sandal", "Light", 10.0, 3, "cat"));
+        assertThat(productTextSearchService.search(new ProductTextSearchDto("sandals", null, null, null),
+                PageRequest.of(0, 10)).getContent()).extracting(ShowProductDto::productName).containsExactly("Trail Sandal");
+
+        adminProductService.deleteProduct(id);
+        assertThat(productTextSearchService.search(new ProductTextSearchDto("trail", null, null, null),
+                PageRequest.of(0, 10)).getTotalElements()).isZero();
+    }
+
     @Test
     @Transactional
     void updateProduct_whenProductDoesNotExist_throwsException() {
@@ -272,6 +343,67 @@ public class AdminProductServiceIntegrationTest {
         assertThat(page.getContent().get(0).productName()).isEqualTo("p1");
     }
 
+    @Test
+    void bulkUpdate_absolute_setsGivenColumnsAndSkipsUnknownIds() {
+        createCategory("cat");
+        Category category = categoryRepository.findByCategoryName("cat").orElseThrow();
+        createProduct("p1", category);
+        createProduct("p2", category);
+        Long p1 = productRepository.findByProductName("p1").orElseThrow().getId();
+        Long p2 = productRepository.findByProductName("p2").orElseThrow().getId();
+
+        BulkProductUpdateResultDto result = adminProductService.bulkUpdate(new BulkProductUpdateDto(
+                BulkProductUpdateDto.Mode.ABSOLUTE, List.of(
+                        new ProductPriceStockUpdateDto(p1, new BigDecimal("12.50"), null),
+                        new ProductPriceStockUpdateDto(p2, null, 40),
+                        new ProductPriceStockUpdateDto(-1L, BigDecimal.ONE, 1))));
+
+        assertThat(result.updated()).isEqualTo(2);
+        assertThat(result.notUpdated()).containsExactly(-1L);
+        Product updated1 = productRepository.findById(p1).orElseThrow();
+        Product updated2 = productRepository.findById(p2).orElseThrow();
+        assertThat(updated1.getPrice()).isEqualByComparingTo("12.50");
+        assertThat(updated1.getAvailableQuantity()).isEqualTo(3);
+        assertThat(updated1.getVersion()).isEqualTo(1L);
+        assertThat(updated2.getPrice()).isEqualByComparingTo("10.00");
+        assertThat(updated2.getAvailableQuantity()).isEqualTo(40);
+    }
+
+    @Test
+    void bulkUpdate_relative_adjustsByPercentAndDeltaAndRejectsNegativeStock() {
+        createCategory("cat");
+        Category category = categoryRepository.findByCategoryName("cat").orElseThrow();
+        createProduct("p1", category);
+        createProduct("p2", category);
+        Long p1 = productRepository.findByProductName("p1").orElseThrow().getId();
+        Long p2 = productRepository.findByProductName("p2").orElseThrow().getId();
+
+        BulkProductUpdateResultDto result = adminProductService.bulkUpdate(new BulkProductUpdateDto(
+                BulkProductUpdateDto.Mode.RELATIVE, List.of(
+                        new ProductPriceStockUpdateDto(p1, BigDecimal.TEN, 100),
+                        new ProductPriceStockUpdateDto(p2, BigDecimal.TEN, -4))));
+
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.notUpdated()).containsExactly(p2);
+        Product updated = productRepository.findById(p1).orElseThrow();
+        assertThat(updated.getPrice()).isEqualByComparingTo("11.00");
+        assertThat(updated.getAvailableQuantity()).isEqualTo(103);
+        assertThat(productRepository.findById(p2).orElseThrow().getPrice()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void bulkUpdate_evictsCachedProductViews() {
+        createCategory("cat");
+        Category category = categoryRepository.findByCategoryName("cat").orElseThrow();
+        createProduct("p1", category);
+        Long p1 = productRepository.findByProductName("p1").orElseThrow().getId();
+        assertThat(userProductService.getProductView(p1).price()).isEqualTo(10.0);
+
+        adminProductService.bulkUpdate(new BulkProductUpdateDto(BulkProductUpdateDto.Mode.ABSOLUTE,
+                List.of(new ProductPriceStockUpdateDto(p1, new BigDecimal("15.00"), null))));
+
+        assertThat(userProductService.getProductView(p1).price()).isEqualTo(15.0);
+    }
 
     private void createUser() {
         User user = new User();
@@ -0,0 +1,175 @@
+package org.example.ecommerce.IntegrationTests;
+
+import org.example.ecommerce.DTO.JwtResponseDto;
+import org.example.ecommerce.DTO.UserImportResultDto;
+import org.example.ecommerce.DTO.UserLoginDto;
+import org.example.ecommerce.DTO.UserRegistrationDto;
+import org.example.ecommerce.Model.UserRole;
+import org.example.ecommerce.Repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class AdminUserControllerIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.4");
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importUsers_createsUsersThatCanLogIn() {
+        String jwt = loginAsAdmin("admin");
+
+        ResponseEntity<UserImportResultDto> response = testRestTemplate.exchange(
+                "/api/admin/users/import",
+                HttpMethod.POST,
+                new HttpEntity<>("""
+                        username,email,password
+                        imported1,imported1@example.com,password123
+                        imported2,imported2@example.com,password123
+                        admin,someone@example.com,password123
+                        """, csvHeaders(jwt)),
+                UserImportResultDto.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().imported()).isEqualTo(2);
+        assertThat(response.getBody().failed()).isEqualTo(1);
+        assertThat(response.getBody().errors().get(0).line()).isEqualTo(4);
+
+        ResponseEntity<JwtResponseDto> login = testRestTemplate.postForEntity(
+                "/api/auth/login",
+                new UserLoginDto("imported2", "password123"),
+                JwtResponseDto.class
+        );
+        assertThat(login.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void importUsers_asCustomer_isForbidden() {
+        registerUser("customer");
+        String jwt = login("customer");
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                "/api/admin/users/import",
+                HttpMethod.POST,
+                new HttpEntity<>("username,email,password\n", csvHeaders(jwt)),
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void registerUser_whenUsernameTakenConcurrently_returnsBadRequest() {
+        registerUser("racer");
+
+        ResponseEntity<String> response = testRestTemplate.postForEntity(
+                "/api/auth/registration",
+                new UserRegistrationDto("racer", "racer2@example.com", "password123"),
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo("User with username racer already exists");
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void revokeTokens_rejectsEveryTokenIssuedToTheUserBefore() {
+        registerUser("compromised");
+        String customerJwt = login("compromised");
+        Long customerId = userRepository.findByUsername("compromised").orElseThrow().getId();
+        String adminJwt = loginAsAdmin("admin");
+
+        ResponseEntity<Void> response = testRestTemplate.exchange(
+                "/api/admin/users/" + customerId + "/revoke-tokens",
+                HttpMethod.POST,
+                new HttpEntity<>(bearerHeaders(adminJwt)),
+                Void.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        ResponseEntity<String> cart = testRestTemplate.exchange(
+                "/api/cart",
+                HttpMethod.GET,
+                new HttpEntity<>(bearerHeaders(customerJwt)),
+                String.class
+        );
+        assertThat(cart.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void revokeTokens_ofUnknownUser_returnsNotFound() {
+        String jwt = loginAsAdmin("admin");
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                "/api/admin/users/999999/revoke-tokens",
+                HttpMethod.POST,
+                new HttpEntity<>(bearerHeaders(jwt)),
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private String loginAsAdmin(String username) {
+        registerUser(username);
+        userRepository.findByUsername(username).ifPresent(user -> {
+            user.setRole(UserRole.ADMIN);
+            userRepository.save(user);
+        });
+        return login(username);
+    }
+
+    private void registerUser(String username) {
+        ResponseEntity<String> response = testRestTemplate.postForEntity(
+                "/api/auth/registration",
+                new UserRegistrationDto(username, username + "@example.com", "password123"),
+                String.class
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
+
+    private String login(String username) {
+        return testRestTemplate.postForEntity(
+                "/api/auth/login",
+                new UserLoginDto(username, "password123"),
+                JwtResponseDto.class
+        ).getBody().jwtToken();
+    }
+
+    private HttpHeaders bearerHeaders(String jwt) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwt);
+        return headers;
+    }
+
+    private HttpHeaders csvHeaders(String jwt) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setBearerAuth(jwt);
+        return headers;
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.ecommerce.IntegrationTests;
 
 import org.example.ecommerce.DTO.JwtResponseDto;
+import org.example.ecommerce.DTO.RefreshTokenDto;
 import org.example.ecommerce.DTO.RegisteredUserDto;
 import org.example.ecommerce.DTO.UserLoginDto;
 import org.example.ecommerce.DTO.UserRegistrationDto;
@@ -12,6 +13,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -215,4 +218,128 @@ public class AuthenticationControllerIntegrationTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
     }
+
+    @Test
+    void shouldReturn429AfterTooManyFailedLogins() {
+        testRestTemplate.postForEntity(
+                "/api/auth/registration",
+                new UserRegistrationDto("throttled", "throttled@gmail.com", "password123"),
+                String.class
+        );
+        UserLoginDto wrongPassword = new UserLoginDto("throttled", "wrongpassword");
+
+        for (int i = 0; i < 5; i++) {
+            ResponseEntity<String> response = testRestTemplate.postForEntity("/api/auth/login", wrongPassword, String.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        }
+
+        // even the right password is rejected until the window has passed
+        ResponseEntity<String> response = testRestTemplate.postForEntity(
+                "/api/auth/login",
+                new UserLoginDto("throttled", "password123"),
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void refreshTokenShouldBeUsableOnlyOnce() {
+        JwtResponseDto login = registerAndLogin("refresher");
+
+        ResponseEntity<JwtResponseDto> refreshed = testRestTemplate.postForEntity(
+                "/api/auth/refresh",
+                new RefreshTokenDto(login.refreshToken()),
+                JwtResponseDto.class
+        );
+
+        assertThat(refreshed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(refreshed.getBody().jwtToken()).isNotEqualTo(login.jwtToken());
+        assertThat(refreshed.getBody().refreshToken()).isNotEqualTo(login.refreshToken());
+
+        ResponseEntity<String> reused = testRestTemplate.postForEntity(
+                "/api/auth/refresh",
+                new RefreshTokenDto(login.refreshToken()),
+                String.class
+        );
+
+        assertThat(reused.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void logoutShouldRevokeAccessAndRefreshToken() {
+        JwtResponseDto login = registerAndLogin("leaving");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(login.jwtToken());
+
+        ResponseEntity<Void> logout = testRestTemplate.exchange(
+                "/api/auth/logout",
+                HttpMethod.POST,
+                new HttpEntity<>(new RefreshTokenDto(login.refreshToken()), headers),
+                Void.class
+        );
+        assertThat(logout.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        ResponseEntity<String> cart = testRestTemplate.exchange(
+                "/api/cart",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class
+        );
+        assertThat(cart.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+        ResponseEntity<String> refresh = testRestTemplate.postForEntity(
+                "/api/auth/refresh",
+                new RefreshTokenDto(login.refreshToken()),
+                String.class
+        );
+        assertThat(refresh.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void logoutAllShouldRevokeTheTokensOfEverySession() {
+        JwtResponseDto phone = registerAndLogin("everywhere");
+        JwtResponseDto laptop = testRestTemplate.postForEntity(
+                "/api/auth/login",
+                new UserLoginDto("everywhere", "password123"),
+                JwtResponseDto.class
+        ).getBody();
+
+        ResponseEntity<Void> logoutAll = testRestTemplate.postForEntity(
+                "/api/auth/logout-all",
+                new RefreshTokenDto(phone.refreshToken()),
+                Void.class
+        );
+        assertThat(logoutAll.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(laptop.jwtToken());
+        ResponseEntity<String> cart = testRestTemplate.exchange(
+                "/api/cart",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class
+        );
+        assertThat(cart.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+        ResponseEntity<String> refresh = testRestTemplate.postForEntity(
+                "/api/auth/refresh",
+                new RefreshTokenDto(laptop.refreshToken()),
+                String.class
+        );
+        assertThat(refresh.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    private JwtResponseDto registerAndLogin(String username) {
+        testRestTemplate.postForEntity(
+                "/api/auth/registration",
+                new UserRegistrationDto(username, username + "@gmail.com", "password123"),
+                String.class
+        );
+        return testRestTemplate.postForEntity(
+                "/api/auth/login",
+                new UserLoginDto(username, "password123"),
+                JwtResponseDto.class
+        ).getBody();
+    }
 }
@@ -9,8 +9,11 @@ import org.example.ecommerce.DTO.UserLoginDto;
 import org.example.ecommerce.DTO.UserRegistrationDto;
 import org.example.ecommerce.Exception.UserAlreadyExistsException;
 import org.example.ecommerce.Jwt.JwtUtils;
+import org.example.ecommerce.Model.User;
+import org.example.ecommerce.Model.UserRole;
 import org.example.ecommerce.Repository.UserRepository;
 import org.example.ecommerce.Service.AuthenticationService;
+import org.example.ecommerce.Service.CustomUserDetailsService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,12 +22,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -48,6 +53,9 @@ public class AuthenticationServiceIntegrationTest {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -77,6 +85,20 @@ public class AuthenticationServiceIntegrationTest {
         assertThat(response.username()).isEqualTo(userRegistrationDto.username());
     }
 
+    @Test
+    void cachedUserDetailsAreRefreshedAfterRoleChange() {
+        authenticationService.registerUser(new UserRegistrationDto("testuser", "test123@gmail.com", "password123"));
+        assertThat(AuthorityUtils.authorityListToSet(userDetailsService.loadUserByUsername("testuser").getAuthorities()))
+                .isEqualTo(Set.of("CUSTOMER"));
+
+        User user = userRepository.findByUsername("testuser").orElseThrow();
+        user.setRole(UserRole.ADMIN);
+        userRepository.save(user);
+
+        assertThat(AuthorityUtils.authorityListToSet(userDetailsService.loadUserByUsername("testuser").getAuthorities()))
+                .isEqualTo(Set.of("ADMIN"));
+    }
+
     @Test
     void shouldNotRegisterUserWithExistingUsername() {
         UserRegistrationDto userRegistrationDto = new UserRegistrationDto(
@@ -134,7 +156,7 @@ public class AuthenticationServiceIntegrationTest {
                 "testuser",
                 "password123"
         );
-        var response = authenticationService.loginUser(loginDto);
+        var response = authenticationService.loginUser(loginDto, "127.0.0.1");
 
         // Basic assertions
         assertNotNull(response);
@@ -171,7 +193,7 @@ public class AuthenticationServiceIntegrationTest {
                 "wrongPassword"
         );
 
-        assertThrows(BadCredentialsException.class, () -> authenticationService.loginUser(wrongPasswordDto));
+        assertThrows(BadCredentialsException.class, () -> authenticationService.loginUser(wrongPasswordDto, "127.0.0.1"));
 
         // Attempt login with non-existent username
         UserLoginDto nonExistentUserDto = new UserLoginDto(
@@ -179,6 +201,6 @@ public class AuthenticationServiceIntegrationTest {
                 "password123"
         );
 
-        assertThrows(BadCredentialsException.class, () -> authenticationService.loginUser(nonExistentUserDto));
+        assertThrows(BadCredentialsException.class, () -> authenticationService.loginUser(nonExistentUserDto, "127.0.0.1"));
     }
 }
@@ -1,11 +1,14 @@
 package org.example.ecommerce.IntegrationTests;
 
+import jakarta.persistence.EntityManagerFactory;
 import org.example.ecommerce.DTO.*;
 import org.example.ecommerce.Model.Category;
 import org.example.ecommerce.Model.Product;
 import org.example.ecommerce.Repository.CategoryRepository;
 import org.example.ecommerce.Repository.ProductRepository;
 import org.example.ecommerce.Repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,6 +44,9 @@ public class CartControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @AfterEach
     void cleanUp() {
         productRepository.deleteAll();
@@ -110,6 +116,33 @@ public class CartControllerIntegrationTest {
         assertThat(clearCartResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
 
+    @Test
+    void showCart_readsUserCartAndProductsInOneStatement() {
+        Product book = createProduct("Book");
+        Product pen = createProduct("Pen");
+        String jwt = loginAndGetJwt("test123", "test123");
+
+        for (Product product : new Product[]{book, pen}) {
+            testRestTemplate.exchange("/api/cart/" + product.getId(), HttpMethod.POST,
+                    new HttpEntity<>(bearerHeaders(jwt)), String.class);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<ShowCartDto> showResponse = testRestTemplate.exchange(
+                "/api/cart",
+                HttpMethod.GET,
+                new HttpEntity<>(bearerHeaders(jwt)),
+                ShowCartDto.class
+        );
+
+        assertThat(showResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(showResponse.getBody().cart()).hasSize(2);
+        // the token version is cached by the earlier requests and the user is resolved once
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
     private String loginAndGetJwt(String username, String password) {
         registerUser(username, password);
 
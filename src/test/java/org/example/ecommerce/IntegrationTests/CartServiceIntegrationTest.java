@@ -1,6 +1,14 @@
 package org.example.ecommerce.IntegrationTests;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.example.ecommerce.DTO.CartItemQuantityDto;
 import org.example.ecommerce.DTO.ShowCartDto;
+import org.example.ecommerce.DTO.ShowCartItemDto;
+import org.example.ecommerce.DTO.UpdateCartDto;
+import org.example.ecommerce.Exception.OutOfStockException;
+import org.example.ecommerce.Jwt.AuthenticatedUser;
+import org.example.ecommerce.Model.Cart;
+import org.example.ecommerce.Model.CartItem;
 import org.example.ecommerce.Model.Category;
 import org.example.ecommerce.Model.Product;
 import org.example.ecommerce.Model.User;
@@ -11,12 +19,15 @@ import org.example.ecommerce.Repository.CategoryRepository;
 import org.example.ecommerce.Repository.ProductRepository;
 import org.example.ecommerce.Repository.UserRepository;
 import org.example.ecommerce.Service.CartService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -24,8 +35,11 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Testcontainers
 @SpringBootTest
@@ -53,6 +67,11 @@ public class CartServiceIntegrationTest {
     @Autowired
     private CartItemRepository cartItemRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private static final int CART_SIZE = 30;
+
     private User user;
     private Product product;
 
@@ -114,6 +133,140 @@ public class CartServiceIntegrationTest {
         assertThat(cart.cart()).hasSize(1);
     }
 
+    @Test
+    void showCart_loadsCartItemsAndProductsInOneStatement() {
+        fillCart(CART_SIZE);
+        authenticateWithJwtPrincipal();
+
+        Statistics statistics = statistics();
+        ShowCartDto cart = cartService.showCart();
+
+        assertThat(cart.cart()).hasSize(CART_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void increaseAndDecreaseQuantity_readTheCartOnceWhateverItsSize() {
+        List<Product> products = fillCart(CART_SIZE);
+        authenticateWithJwtPrincipal();
+
+        // one read, the item update and the cart total update
+        Statistics statistics = statistics();
+        cartService.increaseQuantityOfProductInCart(products.getLast().getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        statistics.clear();
+        cartService.decreaseQuantityOfProductInCart(products.getLast().getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void deleteItemFromCart_readsTheCartOnceWhateverItsSize() {
+        List<Product> products = fillCart(CART_SIZE);
+        authenticateWithJwtPrincipal();
+
+        Statistics statistics = statistics();
+        cartService.deleteItemFromCart(products.getFirst().getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(cartItemRepository.count()).isEqualTo(CART_SIZE - 1);
+    }
+
+    @Test
+    void addProductToCart_readsTheCartOnceWhateverItsSize() {
+        List<Product> products = fillCart(CART_SIZE);
+        Product pen = createProduct("Pen");
+        authenticateWithJwtPrincipal();
+
+        // a product already in the cart is not read again
+        Statistics statistics = statistics();
+        cartService.addProductToCart(products.getFirst().getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        // the product read and the insert, plus a sequence call once every 50 items
+        statistics.clear();
+        cartService.addProductToCart(pen.getId());
+        assertThat(statistics.getPrepareStatementCount()).isBetween(4L, 5L);
+    }
+
+    @Test
+    void updateCart_syncsTwentyItemsWithAFixedNumberOfStatements() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            products.add(createProduct("Item " + i));
+        }
+        authenticateWithJwtPrincipal();
+
+        // new cart: cart read, product read, the cart insert and one batch of item inserts, plus sequence calls
+        Statistics statistics = statistics();
+        ShowCartDto created = cartService.updateCart(new UpdateCartDto(
+                products.stream().map(item -> new CartItemQuantityDto(item.getId(), 2)).toList()));
+        assertThat(created.cart()).hasSize(20);
+        assertThat(created.totalPrice()).isEqualByComparingTo("400.00");
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+
+        // existing cart: cart read, product read, one batch of item updates and the cart total update
+        statistics.clear();
+        ShowCartDto updated = cartService.updateCart(new UpdateCartDto(
+                products.stream().map(item -> new CartItemQuantityDto(item.getId(), 3)).toList()));
+        assertThat(updated.cart()).extracting(ShowCartItemDto::quantity).containsOnly(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(cartItemRepository.count()).isEqualTo(20);
+    }
+
+    @Test
+    void updateCart_whenOneProductIsOutOfStock_rollsBackEveryChange() {
+        cartService.addProductToCart(product.getId());
+        Product pen = createProduct("Pen");
+
+        assertThrows(OutOfStockException.class, () -> cartService.updateCart(new UpdateCartDto(List.of(
+                new CartItemQuantityDto(product.getId(), 0), new CartItemQuantityDto(pen.getId(), 11)))));
+
+        assertThat(cartItemRepository.findAll()).singleElement()
+                .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(1));
+    }
+
+    @Test
+    void concurrentChangesOfTheSameCart_secondOneIsRejectedInsteadOfLosingItsDelta() {
+        cartService.addProductToCart(product.getId());
+        Cart first = cartRepository.findWithItemsByUserId(user.getId()).orElseThrow();
+        Cart second = cartRepository.findWithItemsByUserId(user.getId()).orElseThrow();
+
+        CartItem firstItem = first.getCartItems().getFirst();
+        first.changeQuantity(firstItem, firstItem.getQuantity() + 1);
+        cartRepository.save(first);
+
+        CartItem secondItem = second.getCartItems().getFirst();
+        second.changeQuantity(secondItem, secondItem.getQuantity() + 1);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> cartRepository.save(second));
+
+        assertThat(cartRepository.findWithItemsByUserId(user.getId()).orElseThrow().getTotalPrice())
+                .isEqualByComparingTo("20.00");
+    }
+
+    private List<Product> fillCart(int size) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Product item = createProduct("Item " + i);
+            cartService.addProductToCart(item.getId());
+            products.add(item);
+        }
+        return products;
+    }
+
+    // a JWT principal carries the user id, so no lookup by username is needed
+    private void authenticateWithJwtPrincipal() {
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getUsername(), UserRole.CUSTOMER, 0);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
     private User createUser(String username) {
         User user = new User();
         user.setUsername(username);
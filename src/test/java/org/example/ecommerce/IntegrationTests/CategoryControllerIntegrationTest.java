@@ -4,6 +4,7 @@ import org.example.ecommerce.DTO.*;
 import org.example.ecommerce.Model.UserRole;
 import org.example.ecommerce.Repository.CategoryRepository;
 import org.example.ecommerce.Repository.UserRepository;
+import org.example.ecommerce.Service.CategoryTreeSnapshot;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +35,9 @@ public class CategoryControllerIntegrationTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryTreeSnapshot categoryTreeSnapshot;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -41,6 +45,8 @@ public class CategoryControllerIntegrationTest {
     void cleanUp() {
         categoryRepository.deleteAll();
         userRepository.deleteAll();
+        // the rows were removed behind the service, so the tree has to be reloaded
+        categoryTreeSnapshot.rebuild();
     }
 
     @Test
@@ -116,6 +122,54 @@ public class CategoryControllerIntegrationTest {
         assertThat(getAllResponse.getBody()).hasSize(1);
     }
 
+    @Test
+    void moveCategory_thenBreadcrumb_followsTheNewParent() {
+        String jwt = loginAndGetJwt("test123", "test123");
+
+        Long electronicsId = createCategory("Electronics", null, jwt);
+        Long phonesId = createCategory("Phones", electronicsId, jwt);
+        Long gadgetsId = createCategory("Gadgets", null, jwt);
+
+        ResponseEntity<AdminCategoryDto> moveResponse = testRestTemplate.exchange(
+                "/api/categories/" + phonesId + "/parent?parentId=" + gadgetsId,
+                HttpMethod.PUT,
+                new HttpEntity<>(bearerHeaders(jwt)),
+                AdminCategoryDto.class
+        );
+
+        assertThat(moveResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<List<AdminCategoryDto>> breadcrumbResponse = testRestTemplate.exchange(
+                "/api/categories/" + phonesId + "/breadcrumb",
+                HttpMethod.GET,
+                new HttpEntity<>(bearerHeaders(jwt)),
+                new ParameterizedTypeReference<List<AdminCategoryDto>>() {}
+        );
+
+        assertThat(breadcrumbResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(breadcrumbResponse.getBody()).extracting(AdminCategoryDto::id).containsExactly(gadgetsId, phonesId);
+
+        ResponseEntity<String> invalidMoveResponse = testRestTemplate.exchange(
+                "/api/categories/" + gadgetsId + "/parent?parentId=" + phonesId,
+                HttpMethod.PUT,
+                new HttpEntity<>(bearerHeaders(jwt)),
+                String.class
+        );
+
+        assertThat(invalidMoveResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private Long createCategory(String categoryName, Long parentId, String jwt) {
+        String url = parentId == null ? "/api/categories" : "/api/categories?parentId=" + parentId;
+        ResponseEntity<AdminCategoryDto> response = testRestTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                new HttpEntity<>(categoryName, textHeaders(jwt)),
+                AdminCategoryDto.class
+        );
+        return response.getBody().id();
+    }
+
     private String loginAndGetJwt(String username, String password) {
         registerUser(username, password);
 
@@ -2,7 +2,9 @@ package org.example.ecommerce.IntegrationTests;
 
 import org.example.ecommerce.DTO.AdminCategoryDto;
 import org.example.ecommerce.Exception.CategoryNotFoundException;
+import org.example.ecommerce.Exception.InvalidCategoryMoveException;
 import org.example.ecommerce.Repository.CategoryRepository;
+import org.example.ecommerce.Service.CategoryTreeSnapshot;
 import org.example.ecommerce.Service.CategoryService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -32,14 +34,19 @@ public class CategoryServiceIntegrationTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryTreeSnapshot categoryTreeSnapshot;
+
     @AfterEach
     void cleanUp() {
         categoryRepository.deleteAll();
+        // the rows were removed behind the service, so the tree has to be reloaded
+        categoryTreeSnapshot.rebuild();
     }
 
     @Test
     void createCategory_persistsCategory() {
-        AdminCategoryDto dto = categoryService.createCategory("Books");
+        AdminCategoryDto dto = categoryService.createCategory("Books", null);
 
         assertThat(dto).isNotNull();
         assertThat(dto.categoryName()).isEqualTo("Books");
@@ -53,7 +60,7 @@ public class CategoryServiceIntegrationTest {
 
     @Test
     void updateCategory_updatesName() {
-        AdminCategoryDto created = categoryService.createCategory("Books");
+        AdminCategoryDto created = categoryService.createCategory("Books", null);
 
         AdminCategoryDto updated = categoryService.updateCategory(created.id(), "Movies");
 
@@ -62,7 +69,7 @@ public class CategoryServiceIntegrationTest {
 
     @Test
     void deleteCategory_removesCategory() {
-        AdminCategoryDto created = categoryService.createCategory("Books");
+        AdminCategoryDto created = categoryService.createCategory("Books", null);
 
         categoryService.deleteCategory(created.id());
 
@@ -71,11 +78,48 @@ public class CategoryServiceIntegrationTest {
 
     @Test
     void getAllCategories_returnsAll() {
-        categoryService.createCategory("Books");
-        categoryService.createCategory("Movies");
+        categoryService.createCategory("Books", null);
+        categoryService.createCategory("Movies", null);
 
         List<AdminCategoryDto> result = categoryService.getAllCategories();
 
         assertThat(result).hasSize(2);
     }
+
+    @Test
+    void createCategory_belowParent_storesPathAndBreadcrumb() {
+        AdminCategoryDto electronics = categoryService.createCategory("Electronics", null);
+        AdminCategoryDto phones = categoryService.createCategory("Phones", electronics.id());
+        AdminCategoryDto android = categoryService.createCategory("Android", phones.id());
+
+        assertThat(categoryRepository.findById(android.id()).orElseThrow().getPath())
+                .isEqualTo("/" + electronics.id() + "/" + phones.id() + "/");
+        assertThat(categoryService.getBreadcrumb(android.id())).containsExactly(electronics, phones, android);
+        assertThat(categoryService.getSubtreeIds(electronics.id()))
+                .containsExactlyInAnyOrder(electronics.id(), phones.id(), android.id());
+    }
+
+    @Test
+    void moveCategory_rewritesPathsOfTheWholeSubtree() {
+        AdminCategoryDto electronics = categoryService.createCategory("Electronics", null);
+        AdminCategoryDto phones = categoryService.createCategory("Phones", electronics.id());
+        AdminCategoryDto android = categoryService.createCategory("Android", phones.id());
+        AdminCategoryDto gadgets = categoryService.createCategory("Gadgets", null);
+
+        categoryService.moveCategory(phones.id(), gadgets.id());
+
+        assertThat(categoryRepository.findById(android.id()).orElseThrow().getPath())
+                .isEqualTo("/" + gadgets.id() + "/" + phones.id() + "/");
+        assertThat(categoryService.getSubtreeIds(electronics.id())).containsExactly(electronics.id());
+        assertThat(categoryService.getSubtreeIds(gadgets.id()))
+                .containsExactlyInAnyOrder(gadgets.id(), phones.id(), android.id());
+    }
+
+    @Test
+    void moveCategory_belowItsOwnDescendant_throwsException() {
+        AdminCategoryDto electronics = categoryService.createCategory("Electronics", null);
+        AdminCategoryDto phones = categoryService.createCategory("Phones", electronics.id());
+
+        assertThrows(InvalidCategoryMoveException.class, () -> categoryService.moveCategory(electronics.id(), phones.id()));
+    }
 }
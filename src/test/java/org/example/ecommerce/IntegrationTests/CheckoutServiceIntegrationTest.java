@@ -1,9 +1,13 @@
 package org.example.ecommerce.IntegrationTests;
 
+import org.example.ecommerce.DTO.BestsellerDto;
 import org.example.ecommerce.DTO.ShowCheckoutOrderDto;
 import org.example.ecommerce.Exception.OutOfStockException;
 import org.example.ecommerce.Model.*;
 import org.example.ecommerce.Repository.*;
+import org.example.ecommerce.Service.BestsellerService;
+import org.example.ecommerce.Service.BestsellerWindow;
+import org.example.ecommerce.Service.CategoryTreeSnapshot;
 import org.example.ecommerce.Service.CheckoutService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -52,6 +56,15 @@ public class CheckoutServiceIntegrationTest {
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private BestsellerService bestsellerService;
+
+    @Autowired
+    private CategoryTreeSnapshot categoryTreeSnapshot;
+
     private User user;
 
     @BeforeEach
@@ -64,6 +77,7 @@ public class CheckoutServiceIntegrationTest {
     @AfterEach
     void cleanUp() {
         SecurityContextHolder.clearContext();
+        productSalesRepository.deleteAll();
         orderItemRepository.deleteAll();
         orderRepository.deleteAll();
         productRepository.deleteAll();
@@ -90,6 +104,28 @@ public class CheckoutServiceIntegrationTest {
         Order order = createOrderWithItem(user, product, 2);
 
         assertThrows(OutOfStockException.class, () -> checkoutService.checkout(order.getId()));
+        assertThat(productSalesRepository.count()).isZero();
+    }
+
+    @Test
+    void checkout_countsSoldUnitsForTheBestsellerRanking() {
+        Product book = createProduct("Book", 10);
+        Product novel = createProduct("Novel", 10);
+        checkoutService.checkout(createOrderWithItem(user, book, 2).getId());
+        checkoutService.checkout(createOrderWithItem(user, novel, 1).getId());
+        checkoutService.checkout(createOrderWithItem(user, book, 3).getId());
+
+        // both checkouts of the book land in the same daily bucket
+        assertThat(productSalesRepository.count()).isEqualTo(2);
+
+        bestsellerService.refresh();
+        // the categories were saved through the repository, which does not rebuild the tree
+        categoryTreeSnapshot.rebuild();
+        assertThat(bestsellerService.getBestsellers(null, BestsellerWindow.LAST_7_DAYS, 10)).containsExactly(
+                new BestsellerDto(book.getId(), "Book", 5),
+                new BestsellerDto(novel.getId(), "Novel", 1));
+        assertThat(bestsellerService.getBestsellers(book.getCategory().getId(), BestsellerWindow.LAST_30_DAYS, 10))
+                .extracting(BestsellerDto::productId).containsExactly(book.getId());
     }
 
     private User createUser(String username) {
@@ -162,7 +162,6 @@ public class OrderControllerIntegrationTest {
     private Cart createCartWithItem(User user, Product product, int quantity) {
         Cart cart = new Cart();
         cart.setUser(user);
-        cart.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
         cart = cartRepository.save(cart);
         user.setCart(cart);
         userRepository.save(user);
@@ -171,8 +170,9 @@ public class OrderControllerIntegrationTest {
         item.setCart(cart);
         item.setProduct(product);
         item.setQuantity(quantity);
+        item.setUnitPriceCents(CentsConverter.toCents(product.getPrice()));
         cartItemRepository.save(item);
-        cart.getCartItems().add(item);
+        cart.addItem(item);
         cartRepository.save(cart);
         return cart;
     }
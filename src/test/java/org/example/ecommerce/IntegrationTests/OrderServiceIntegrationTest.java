@@ -137,7 +137,6 @@ public class OrderServiceIntegrationTest {
     private Cart createCartWithItem(User user, Product product, int quantity) {
         Cart cart = new Cart();
         cart.setUser(user);
-        cart.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
         cart = cartRepository.save(cart);
         user.setCart(cart);
         userRepository.save(user);
@@ -146,8 +145,9 @@ public class OrderServiceIntegrationTest {
         item.setCart(cart);
         item.setProduct(product);
         item.setQuantity(quantity);
+        item.setUnitPriceCents(CentsConverter.toCents(product.getPrice()));
         cartItemRepository.save(item);
-        cart.getCartItems().add(item);
+        cart.addItem(item);
         cartRepository.save(cart);
         return cart;
     }
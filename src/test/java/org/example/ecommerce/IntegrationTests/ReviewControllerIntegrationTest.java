@@ -60,7 +60,7 @@ public class ReviewControllerIntegrationTest {
         ResponseEntity<ShowReviewDto> createResponse = testRestTemplate.exchange(
                 "/api/products/" + product.getId() + "/reviews",
                 HttpMethod.POST,
-                new HttpEntity<>(new AddReviewDto("Great"), bearerHeaders(jwt)),
+                new HttpEntity<>(new AddReviewDto("Great", 4), bearerHeaders(jwt)),
                 ShowReviewDto.class
         );
 
@@ -77,6 +77,25 @@ public class ReviewControllerIntegrationTest {
 
         assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(((List<?>) getResponse.getBody().get("content"))).isNotEmpty();
+
+        ResponseEntity<ShowProductDto> productResponse = testRestTemplate.exchange(
+                "/api/products/" + product.getId(),
+                HttpMethod.GET,
+                new HttpEntity<>(bearerHeaders(jwt)),
+                ShowProductDto.class
+        );
+
+        assertThat(productResponse.getBody().reviews().reviewCount()).isEqualTo(1);
+        assertThat(productResponse.getBody().reviews().averageRating()).isEqualTo(4.0);
+
+        ResponseEntity<Void> deleteResponse = testRestTemplate.exchange(
+                "/api/products/" + product.getId() + "/reviews/" + createResponse.getBody().id(),
+                HttpMethod.DELETE,
+                new HttpEntity<>(bearerHeaders(jwt)),
+                Void.class
+        );
+
+        assertThat(deleteResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
 
     private String loginAndGetJwt(String username, String password) {
@@ -1,16 +1,20 @@
 package org.example.ecommerce.IntegrationTests;
 
 import org.example.ecommerce.DTO.AddReviewDto;
+import org.example.ecommerce.DTO.ReviewSummaryDto;
 import org.example.ecommerce.DTO.ShowReviewDto;
 import org.example.ecommerce.Exception.ProductNotFoundException;
+import org.example.ecommerce.Exception.ReviewNotFoundException;
 import org.example.ecommerce.Model.Category;
 import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Model.Review;
 import org.example.ecommerce.Model.User;
 import org.example.ecommerce.Model.UserRole;
 import org.example.ecommerce.Repository.CategoryRepository;
 import org.example.ecommerce.Repository.ProductRepository;
 import org.example.ecommerce.Repository.ReviewRepository;
 import org.example.ecommerce.Repository.UserRepository;
+import org.example.ecommerce.Service.ProductViewCache;
 import org.example.ecommerce.Service.ReviewService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +31,7 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -54,6 +59,9 @@ public class ReviewServiceIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProductViewCache productViewCache;
+
     private User user;
 
     @BeforeEach
@@ -76,7 +84,7 @@ public class ReviewServiceIntegrationTest {
     void addReview_persistsReview() {
         Product product = createProduct("Book");
 
-        ShowReviewDto dto = reviewService.addReview(product.getId(), new AddReviewDto("Great"));
+        ShowReviewDto dto = reviewService.addReview(product.getId(), new AddReviewDto("Great", 5));
 
         assertThat(dto.reviewText()).isEqualTo("Great");
         assertThat(reviewRepository.findAll()).hasSize(1);
@@ -85,13 +93,13 @@ public class ReviewServiceIntegrationTest {
     @Test
     void addReview_whenProductMissing_throwsException() {
         assertThrows(ProductNotFoundException.class,
-                () -> reviewService.addReview(999L, new AddReviewDto("Great")));
+                () -> reviewService.addReview(999L, new AddReviewDto("Great", 5)));
     }
 
     @Test
     void getAllReviews_returnsPage() {
         Product product = createProduct("Book");
-        reviewService.addReview(product.getId(), new AddReviewDto("Great"));
+        reviewService.addReview(product.getId(), new AddReviewDto("Great", 5));
 
         Page<ShowReviewDto> page = reviewService.getAllReviews(product.getId(), PageRequest.of(0, 10));
 
@@ -99,6 +107,74 @@ public class ReviewServiceIntegrationTest {
         assertThat(page.getContent().get(0).reviewText()).isEqualTo("Great");
     }
 
+    @Test
+    void addAndDeleteReview_maintainReviewSummary() {
+        Product product = createProduct("Book");
+        reviewService.addReview(product.getId(), new AddReviewDto("Great", 5));
+        ShowReviewDto poor = reviewService.addReview(product.getId(), new AddReviewDto("Poor", 2));
+
+        ReviewSummaryDto summary = productRepository.findProductViewById(product.getId()).orElseThrow().reviews();
+        assertThat(summary.reviewCount()).isEqualTo(2);
+        assertThat(summary.averageRating()).isEqualTo(3.5);
+        assertThat(summary.ratingHistogram()).containsExactly(0L, 1L, 0L, 0L, 1L);
+
+        reviewService.deleteReview(product.getId(), poor.id());
+
+        summary = productRepository.findProductViewById(product.getId()).orElseThrow().reviews();
+        assertThat(summary.reviewCount()).isEqualTo(1);
+        assertThat(summary.averageRating()).isEqualTo(5.0);
+        assertThat(summary.ratingHistogram()).containsExactly(0L, 0L, 0L, 0L, 1L);
+    }
+
+    @Test
+    void deleteReview_byAnotherUser_throwsException() {
+        Product product = createProduct("Book");
+        ShowReviewDto review = reviewService.addReview(product.getId(), new AddReviewDto("Great", 5));
+
+        User other = createUser("other123");
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(other, "other123"));
+
+        assertThrows(ReviewNotFoundException.class, () -> reviewService.deleteReview(product.getId(), review.id()));
+        assertThat(reviewRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void backfillReviewSummaries_countsReviewsWrittenBeforeTheSummary() {
+        Product product = createProduct("Book");
+        reviewRepository.save(review(product, null));
+        reviewRepository.save(review(product, 4));
+
+        reviewService.backfillReviewSummaries();
+
+        ReviewSummaryDto summary = productRepository.findProductViewById(product.getId()).orElseThrow().reviews();
+        assertThat(summary.reviewCount()).isEqualTo(2);
+        assertThat(summary.averageRating()).isEqualTo(4.0);
+        assertThat(summary.ratingHistogram()).containsExactly(0L, 0L, 0L, 1L, 0L);
+    }
+
+    @Test
+    void backfillReviewSummaries_refreshesCachedViewAndLastModified() {
+        Product product = createProduct("Book");
+        reviewRepository.save(review(product, 5));
+        Instant modifiedBefore = productRepository.findById(product.getId()).orElseThrow().getLastModified();
+        assertThat(productViewCache.get(product.getId()).orElseThrow().reviews().reviewCount()).isZero();
+
+        reviewService.backfillReviewSummaries();
+
+        assertThat(productViewCache.get(product.getId()).orElseThrow().reviews().reviewCount()).isEqualTo(1);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getLastModified()).isAfter(modifiedBefore);
+    }
+
+    private Review review(Product product, Integer rating) {
+        Review review = new Review();
+        review.setReviewText("Written directly");
+        review.setRating(rating);
+        review.setProduct(product);
+        review.setUser(user);
+        return review;
+    }
+
     private User createUser(String username) {
         User user = new User();
         user.setUsername(username);
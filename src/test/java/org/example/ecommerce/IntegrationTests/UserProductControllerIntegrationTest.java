@@ -88,6 +88,97 @@ public class UserProductControllerIntegrationTest {
         assertThat(response.getBody().productName()).isEqualTo("Book");
     }
 
+    @Test
+    void getAllProducts_withCurrentETag_returnsNotModifiedUntilAProductChanges() {
+        Category category = createCategory("Books");
+        Product product = createProduct("Book", category);
+
+        String jwt = loginAndGetJwt("test123", "test123");
+
+        ResponseEntity<String> first = getWithETag(jwt, "/api/products?page=0&size=5", null);
+        String eTag = first.getHeaders().getETag();
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(eTag).isNotNull();
+
+        assertThat(getWithETag(jwt, "/api/products?page=0&size=5", eTag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        product.setDescription("new desc");
+        productRepository.save(product);
+
+        ResponseEntity<String> changed = getWithETag(jwt, "/api/products?page=0&size=5", eTag);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getHeaders().getETag()).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void getProductById_withCurrentETag_returnsNotModified() {
+        Category category = createCategory("Books");
+        Product product = createProduct("Book", category);
+
+        String jwt = loginAndGetJwt("test123", "test123");
+
+        String eTag = getWithETag(jwt, "/api/products/" + product.getId(), null).getHeaders().getETag();
+
+        assertThat(getWithETag(jwt, "/api/products/" + product.getId(), eTag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void scrollProducts_byPrice_walksAllPagesInOrder() {
+        Category category = createCategory("Books");
+        createProduct("Cheap", category, "5.00");
+        createProduct("Same price A", category, "10.00");
+        createProduct("Same price B", category, "10.00");
+        createProduct("Expensive", category, "20.00");
+
+        String jwt = loginAndGetJwt("test123", "test123");
+
+        CursorPageDto<ShowProductDto> first = scroll(jwt, "/api/products/scroll?sort=price&size=2");
+        assertThat(first.content()).extracting(ShowProductDto::productName).containsExactly("Cheap", "Same price A");
+        assertThat(first.nextCursor()).isNotNull();
+
+        // the cursor keeps the sort order, the other parameters are ignored
+        CursorPageDto<ShowProductDto> second = scroll(jwt, "/api/products/scroll?sort=name&direction=desc&size=2&cursor=" + first.nextCursor());
+        assertThat(second.content()).extracting(ShowProductDto::productName).containsExactly("Same price B", "Expensive");
+
+        CursorPageDto<ShowProductDto> last = scroll(jwt, "/api/products/scroll?size=2&cursor=" + second.nextCursor());
+        assertThat(last.content()).isEmpty();
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    @Test
+    void scrollProducts_withInvalidCursor_returnsBadRequest() {
+        String jwt = loginAndGetJwt("test123", "test123");
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                "/api/products/scroll?cursor=not-a-cursor",
+                HttpMethod.GET,
+                new HttpEntity<>(bearerHeaders(jwt)),
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private ResponseEntity<String> getWithETag(String jwt, String url, String eTag) {
+        HttpHeaders headers = bearerHeaders(jwt);
+        if (eTag != null) {
+            headers.setIfNoneMatch(eTag);
+        }
+        return testRestTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private CursorPageDto<ShowProductDto> scroll(String jwt, String url) {
+        ResponseEntity<CursorPageDto<ShowProductDto>> response = testRestTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                new HttpEntity<>(bearerHeaders(jwt)),
+                new ParameterizedTypeReference<CursorPageDto<ShowProductDto>>() {}
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
     private String loginAndGetJwt(String username, String password) {
         registerUser(username, password);
 
@@ -134,10 +225,14 @@ public class UserProductControllerIntegrationTest {
     }
 
     private Product createProduct(String name, Category category) {
+        return createProduct(name, category, "10.00");
+    }
+
+    private Product createProduct(String name, Category category, String price) {
         Product product = new Product();
         product.setProductName(name);
         product.setDescription("desc");
-        product.setPrice(new BigDecimal("10.00"));
+        product.setPrice(new BigDecimal(price));
         product.setAvailableQuantity(10);
         product.setCategory(category);
         return productRepository.save(product);
@@ -1,12 +1,20 @@
 package org.example.ecommerce.IntegrationTests;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.example.ecommerce.DTO.CategoryFacetDto;
+import org.example.ecommerce.DTO.PriceBucketFacetDto;
+import org.example.ecommerce.DTO.ProductFacetsDto;
+import org.example.ecommerce.DTO.ProductFilterDto;
 import org.example.ecommerce.DTO.ShowProductDto;
 import org.example.ecommerce.Exception.ProductNotFoundException;
 import org.example.ecommerce.Model.Category;
 import org.example.ecommerce.Model.Product;
 import org.example.ecommerce.Repository.CategoryRepository;
 import org.example.ecommerce.Repository.ProductRepository;
+import org.example.ecommerce.Service.CategoryService;
 import org.example.ecommerce.Service.UserProductService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +22,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -40,6 +49,12 @@ public class UserProductServiceIntegrationTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @AfterEach
     void cleanUp() {
         productRepository.deleteAll();
@@ -57,6 +72,91 @@ public class UserProductServiceIntegrationTest {
         assertThat(page.getContent().get(0).productName()).isEqualTo("Book");
     }
 
+    @Test
+    void getAllProducts_projectsRowsWithoutLoadingEntities() {
+        Category category = createCategory("Books");
+        for (int i = 0; i < 20; i++) {
+            createProduct("Book " + i, category);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // a short last page needs no count query
+        Page<ShowProductDto> page = userProductService.getAllProducts(PageRequest.of(0, 50));
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // the entity query this replaced hydrates and dirty-tracks every product of the page
+        statistics.clear();
+        productRepository.findAll(PageRequest.of(0, 50));
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(20);
+    }
+
+    @Test
+    void searchProducts_matchesDescendantCategoriesPriceStockAndPrefix() {
+        // through the service, which keeps the category tree snapshot current
+        Category books = categoryRepository.findById(categoryService.createCategory("Books", null).id()).orElseThrow();
+        Category fiction = categoryRepository.findById(categoryService.createCategory("Fiction", books.getId()).id()).orElseThrow();
+        Category toys = createCategory("Toys");
+
+        createProduct("Book of sand", books, "12.00", 3);
+        createProduct("Book of dreams", fiction, "30.00", 1);
+        createProduct("Bookend", fiction, "30.00", 0);
+        createProduct("Board game", toys, "30.00", 5);
+
+        Page<ShowProductDto> page = userProductService.searchProducts(
+                new ProductFilterDto(books.getId(), new BigDecimal("10"), new BigDecimal("40"), true, "BOOK"),
+                PageRequest.of(0, 10, Sort.by("price")));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(ShowProductDto::productName).containsExactly("Book of sand", "Book of dreams");
+    }
+
+    @Test
+    void searchProducts_afterMovingASubtree_followsTheRewrittenPaths() {
+        Category books = categoryRepository.findById(categoryService.createCategory("Books", null).id()).orElseThrow();
+        Category fiction = categoryRepository.findById(categoryService.createCategory("Fiction", books.getId()).id()).orElseThrow();
+        Category fantasy = categoryRepository.findById(categoryService.createCategory("Fantasy", fiction.getId()).id()).orElseThrow();
+        Category media = categoryRepository.findById(categoryService.createCategory("Media", null).id()).orElseThrow();
+        createProduct("Book of sand", books, "12.00", 3);
+        createProduct("Book of dreams", fantasy, "30.00", 1);
+
+        categoryService.moveCategory(fiction.getId(), media.getId());
+
+        assertThat(userProductService.searchProducts(new ProductFilterDto(books.getId(), null, null, null, null),
+                PageRequest.of(0, 10)).getContent()).extracting(ShowProductDto::productName).containsExactly("Book of sand");
+        assertThat(userProductService.searchProducts(new ProductFilterDto(media.getId(), null, null, null, null),
+                PageRequest.of(0, 10)).getContent()).extracting(ShowProductDto::productName).containsExactly("Book of dreams");
+        assertThat(userProductService.getFacets(new ProductFilterDto(media.getId(), null, null, null, null)).categories())
+                .containsExactly(new CategoryFacetDto(fantasy.getId(), "Fantasy", 1));
+    }
+
+    @Test
+    void getFacets_countsCategoriesAndPriceBucketsOfTheFilteredProducts() {
+        Category books = createCategory("Books");
+        Category toys = createCategory("Toys");
+        createProduct("Cheap book", books, "5.00", 1);
+        createProduct("Book", books, "20.00", 1);
+        createProduct("Game", toys, "20.00", 1);
+        createProduct("Sold out", toys, "20.00", 0);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ProductFacetsDto facets = userProductService.getFacets(new ProductFilterDto(null, null, null, true, null));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(facets.categories()).containsExactly(
+                new CategoryFacetDto(books.getId(), "Books", 2),
+                new CategoryFacetDto(toys.getId(), "Toys", 1));
+        assertThat(facets.priceBuckets()).containsExactly(
+                new PriceBucketFacetDto(null, new BigDecimal("10"), 1),
+                new PriceBucketFacetDto(new BigDecimal("10"), new BigDecimal("25"), 2));
+    }
+
     @Test
     void getProductByProductName_whenMissing_throwsException() {
         assertThrows(ProductNotFoundException.class, () -> userProductService.getProductByProductName(1L));
@@ -79,11 +179,15 @@ public class UserProductServiceIntegrationTest {
     }
 
     private Product createProduct(String name, Category category) {
+        return createProduct(name, category, "10.00", 10);
+    }
+
+    private Product createProduct(String name, Category category, String price, int availableQuantity) {
         Product product = new Product();
         product.setProductName(name);
         product.setDescription("desc");
-        product.setPrice(new BigDecimal("10.00"));
-        product.setAvailableQuantity(10);
+        product.setPrice(new BigDecimal(price));
+        product.setAvailableQuantity(availableQuantity);
         product.setCategory(category);
         return productRepository.save(product);
     }
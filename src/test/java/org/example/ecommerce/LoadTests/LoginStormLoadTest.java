@@ -0,0 +1,191 @@
+package org.example.ecommerce.LoadTests;
+
+import org.example.ecommerce.DTO.JwtResponseDto;
+import org.example.ecommerce.DTO.UserLoginDto;
+import org.example.ecommerce.DTO.UserRegistrationDto;
+import org.example.ecommerce.Model.Category;
+import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Repository.CategoryRepository;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.example.ecommerce.Repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the p99 latency of GET /api/products alone and while a login storm is running.
+ * Hashing is made deliberately expensive; with the bounded hashing pool the storm is answered
+ * with 503s instead of taking the CPU away from catalog requests. Run with {@code ./gradlew loadTest}.
+ */
+@Tag("load")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "security.password-hashing.bcrypt-strength=12",
+        "security.password-hashing.pool-size=1",
+        "security.password-hashing.queue-capacity=4",
+        "security.password-hashing.timeout=2s",
+        // the storm comes from one address with wrong passwords, keep the login throttle out of the way
+        "security.login-throttle.max-failures-per-username-and-ip=1000000",
+        "security.login-throttle.max-failures-per-ip=1000000",
+        "spring.jpa.show-sql=false"
+})
+public class LoginStormLoadTest {
+
+    private static final int WARMUP_REQUESTS = 100;
+    private static final int MEASURED_REQUESTS = 500;
+    private static final int STORM_CLIENTS = 32;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.4");
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void loginStorm_doesNotDegradeProductListingP99() throws Exception {
+        createProduct("Book");
+        String jwt = loginAndGetJwt("shopper", "password123");
+        registerUser("victim", "password123");
+
+        measureProductListing(jwt, WARMUP_REQUESTS);
+        Duration baselineP99 = p99(measureProductListing(jwt, MEASURED_REQUESTS));
+
+        AtomicBoolean storming = new AtomicBoolean(true);
+        AtomicInteger rejectedLogins = new AtomicInteger();
+        ExecutorService stormClients = Executors.newFixedThreadPool(STORM_CLIENTS);
+        for (int i = 0; i < STORM_CLIENTS; i++) {
+            stormClients.submit(() -> {
+                while (storming.get()) {
+                    ResponseEntity<String> response = testRestTemplate.postForEntity("/api/auth/login",
+                            new UserLoginDto("victim", "wrong-password"), String.class);
+                    if (response.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
+                        rejectedLogins.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        List<Duration> underStorm;
+        try {
+            Thread.sleep(1_000);
+            underStorm = measureProductListing(jwt, MEASURED_REQUESTS);
+        } finally {
+            storming.set(false);
+            stormClients.shutdown();
+            stormClients.awaitTermination(30, TimeUnit.SECONDS);
+        }
+        Duration stormP99 = p99(underStorm);
+
+        System.out.printf("GET /api/products p99: %d ms alone, %d ms during login storm (%d logins rejected)%n",
+                baselineP99.toMillis(), stormP99.toMillis(), rejectedLogins.get());
+
+        assertThat(rejectedLogins.get()).isPositive();
+        assertThat(stormP99).isLessThanOrEqualTo(max(baselineP99.multipliedBy(3), baselineP99.plusMillis(100)));
+    }
+
+    private List<Duration> measureProductListing(String jwt, int requests) {
+        HttpEntity<Void> entity = new HttpEntity<>(bearerHeaders(jwt));
+        List<Duration> latencies = new ArrayList<>(requests);
+
+        for (int i = 0; i < requests; i++) {
+            long start = System.nanoTime();
+            ResponseEntity<String> response = testRestTemplate.exchange(
+                    "/api/products?page=0&size=20", HttpMethod.GET, entity, String.class);
+            latencies.add(Duration.ofNanos(System.nanoTime() - start));
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        return latencies;
+    }
+
+    private static Duration p99(List<Duration> latencies) {
+        List<Duration> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+
+    private static Duration max(Duration first, Duration second) {
+        return first.compareTo(second) >= 0 ? first : second;
+    }
+
+    private String loginAndGetJwt(String username, String password) {
+        registerUser(username, password);
+
+        ResponseEntity<JwtResponseDto> response = testRestTemplate.postForEntity(
+                "/api/auth/login",
+                new UserLoginDto(username, password),
+                JwtResponseDto.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody().jwtToken();
+    }
+
+    private void registerUser(String username, String password) {
+        ResponseEntity<String> response = testRestTemplate.postForEntity(
+                "/api/auth/registration",
+                new UserRegistrationDto(username, username + "@example.com", password),
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
+
+    private HttpHeaders bearerHeaders(String jwt) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(jwt);
+        return headers;
+    }
+
+    private void createProduct(String name) {
+        Category category = new Category();
+        category.setCategoryName("Books");
+        category = categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription("desc");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setAvailableQuantity(10);
+        product.setCategory(category);
+        productRepository.save(product);
+    }
+}
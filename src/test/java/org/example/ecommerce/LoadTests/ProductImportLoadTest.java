@@ -0,0 +1,131 @@
+package org.example.ecommerce.LoadTests;
+
+import org.example.ecommerce.DTO.JwtResponseDto;
+import org.example.ecommerce.DTO.ProductImportResultDto;
+import org.example.ecommerce.DTO.UserLoginDto;
+import org.example.ecommerce.DTO.UserRegistrationDto;
+import org.example.ecommerce.Model.Category;
+import org.example.ecommerce.Model.UserRole;
+import org.example.ecommerce.Repository.CategoryRepository;
+import org.example.ecommerce.Repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports 60,000 products through POST /api/admin/products/import and checks the import keeps up
+ * with at least 50,000 rows per minute. Run with {@code ./gradlew loadTest}.
+ */
+@Tag("load")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+public class ProductImportLoadTest {
+
+    private static final int PRODUCTS = 60_000;
+    private static final int CATEGORIES = 20;
+    private static final int MIN_ROWS_PER_MINUTE = 50_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.4");
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM product");
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importProducts_sustainsFiftyThousandRowsPerMinute() {
+        for (int i = 0; i < CATEGORIES; i++) {
+            Category category = new Category();
+            category.setCategoryName("Category " + i);
+            categoryRepository.save(category);
+        }
+        String jwt = loginAsAdminAndGetJwt("importer", "password123");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setBearerAuth(jwt);
+
+        long start = System.nanoTime();
+        ResponseEntity<ProductImportResultDto> response = testRestTemplate.exchange(
+                "/api/admin/products/import",
+                HttpMethod.POST,
+                new HttpEntity<>(csv(), headers),
+                ProductImportResultDto.class
+        );
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().imported()).isEqualTo(PRODUCTS);
+
+        long rowsPerMinute = PRODUCTS * 60_000L / Math.max(1, elapsed.toMillis());
+        System.out.printf("imported %d products in %d ms, %d rows/minute%n", PRODUCTS, elapsed.toMillis(), rowsPerMinute);
+
+        assertThat(rowsPerMinute).isGreaterThanOrEqualTo(MIN_ROWS_PER_MINUTE);
+    }
+
+    private byte[] csv() {
+        StringBuilder csv = new StringBuilder("productName,description,price,availableQuantity,categoryName\n");
+        for (int i = 0; i < PRODUCTS; i++) {
+            csv.append("Product ").append(i).append(",Imported product,")
+                    .append(i % 1000).append(".99,")
+                    .append(i % 50).append(",Category ").append(i % CATEGORIES).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String loginAsAdminAndGetJwt(String username, String password) {
+        ResponseEntity<String> registration = testRestTemplate.postForEntity(
+                "/api/auth/registration",
+                new UserRegistrationDto(username, username + "@example.com", password),
+                String.class
+        );
+        assertThat(registration.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        userRepository.findByUsername(username).ifPresent(user -> {
+            user.setRole(UserRole.ADMIN);
+            userRepository.save(user);
+        });
+
+        ResponseEntity<JwtResponseDto> response = testRestTemplate.postForEntity(
+                "/api/auth/login",
+                new UserLoginDto(username, password),
+                JwtResponseDto.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody().jwtToken();
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.ecommerce.LoadTests;
+
+import org.example.ecommerce.DTO.JwtResponseDto;
+import org.example.ecommerce.DTO.UserLoginDto;
+import org.example.ecommerce.DTO.UserRegistrationDto;
+import org.example.ecommerce.Model.Category;
+import org.example.ecommerce.Repository.CategoryRepository;
+import org.example.ecommerce.Repository.UserRepository;
+import org.example.ecommerce.Service.ProductCursor;
+import org.example.ecommerce.Service.ProductSortKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the median latency of page 1 and page 10,000 (20 products per page) between the
+ * offset based GET /api/products and the keyset based GET /api/products/scroll. Offset pages get
+ * slower the deeper they are, keyset pages should not. Run with {@code ./gradlew loadTest}.
+ */
+@Tag("load")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false"
+})
+public class ProductPaginationLoadTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 9_999;
+    private static final int PRODUCTS = (DEEP_PAGE + 1) * PAGE_SIZE;
+    private static final int WARMUP_REQUESTS = 20;
+    private static final int MEASURED_REQUESTS = 100;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.4");
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM product");
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void keysetPagination_staysFlatOnDeepPages() {
+        seedProducts();
+        String jwt = loginAndGetJwt("shopper", "password123");
+
+        Duration offsetFirst = median(jwt, "/api/products?page=0&size=" + PAGE_SIZE + "&sort=price&sort=id");
+        Duration offsetDeep = median(jwt, "/api/products?page=" + DEEP_PAGE + "&size=" + PAGE_SIZE + "&sort=price&sort=id");
+        Duration keysetFirst = median(jwt, "/api/products/scroll?sort=price&size=" + PAGE_SIZE);
+        Duration keysetDeep = median(jwt, "/api/products/scroll?size=" + PAGE_SIZE + "&cursor=" + cursorBeforePage(DEEP_PAGE));
+
+        System.out.printf("page 1 / page %d median: offset %d ms / %d ms, keyset %d ms / %d ms%n",
+                DEEP_PAGE + 1, offsetFirst.toMillis(), offsetDeep.toMillis(), keysetFirst.toMillis(), keysetDeep.toMillis());
+
+        assertThat(keysetDeep).isLessThan(offsetDeep);
+        assertThat(keysetDeep).isLessThanOrEqualTo(keysetFirst.multipliedBy(3).plusMillis(20));
+    }
+
+    private void seedProducts() {
+        Category category = new Category();
+        category.setCategoryName("Books");
+        category = categoryRepository.save(category);
+
+        // a single set-based insert, saving 200,000 entities one by one would dominate the run time
+        jdbcTemplate.update("""
+                INSERT INTO product (id, product_name, description, price, available_quantity, category_id)
+                SELECT g, 'Product ' || lpad(g::text, 7, '0'), 'desc', (g % 5000) / 10.0 + 0.99, 10, ?
+                FROM generate_series(1, ?) AS g
+                """, category.getId(), PRODUCTS);
+        jdbcTemplate.execute("ANALYZE product");
+    }
+
+    // the cursor a client holds after scrolling through the given number of pages by price
+    private String cursorBeforePage(int page) {
+        Map<String, Object> last = jdbcTemplate.queryForMap(
+                "SELECT id, price FROM product ORDER BY price, id OFFSET ? LIMIT 1", page * PAGE_SIZE - 1);
+        return new ProductCursor(ProductSortKey.PRICE, Sort.Direction.ASC,
+                (BigDecimal) last.get("price"), ((Number) last.get("id")).longValue()).encode();
+    }
+
+    private Duration median(String jwt, String url) {
+        HttpEntity<Void> entity = new HttpEntity<>(bearerHeaders(jwt));
+        List<Duration> latencies = new ArrayList<>(MEASURED_REQUESTS);
+
+        for (int i = 0; i < WARMUP_REQUESTS + MEASURED_REQUESTS; i++) {
+            long start = System.nanoTime();
+            ResponseEntity<String> response = testRestTemplate.exchange(url, HttpMethod.GET, entity, String.class);
+            Duration latency = Duration.ofNanos(System.nanoTime() - start);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            if (i >= WARMUP_REQUESTS) {
+                latencies.add(latency);
+            }
+        }
+
+        Collections.sort(latencies);
+        return latencies.get(latencies.size() / 2);
+    }
+
+    private String loginAndGetJwt(String username, String password) {
+        ResponseEntity<String> registration = testRestTemplate.postForEntity(
+                "/api/auth/registration",
+                new UserRegistrationDto(username, username + "@example.com", password),
+                String.class
+        );
+        assertThat(registration.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        ResponseEntity<JwtResponseDto> response = testRestTemplate.postForEntity(
+                "/api/auth/login",
+                new UserLoginDto(username, password),
+                JwtResponseDto.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody().jwtToken();
+    }
+
+    private HttpHeaders bearerHeaders(String jwt) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(jwt);
+        return headers;
+    }
+}
@@ -9,8 +9,9 @@ import org.example.ecommerce.Mappers.AddressMapper;
 import org.example.ecommerce.Model.Address;
 import org.example.ecommerce.Model.User;
 import org.example.ecommerce.Repository.AddressRepository;
-import org.example.ecommerce.Repository.UserRepository;
 import org.example.ecommerce.Service.AddressService;
+import org.example.ecommerce.Service.CurrentUserResolver;
+import org.example.ecommerce.Service.UserFetchPlan;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,7 +38,7 @@ public class AddressServiceTest {
     @Mock
     private AddressMapper addressMapper;
     @Mock
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUserResolver;
     @Mock
     private User user;
     @Mock
@@ -65,7 +66,7 @@ public class AddressServiceTest {
     void addAddressToCurrentUser_firstAddress_savesAndAddsToUser_andReturnsDto() {
         // given
         when(user.getAddresses()).thenReturn(new ArrayList<>());
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUser(UserFetchPlan.ADDRESSES)).thenReturn(user);
 
         Address newAddress = mock(Address.class);
         when(addressMapper.addAddressDtoToAddress(addAddressDto)).thenReturn(newAddress);
@@ -91,7 +92,7 @@ public class AddressServiceTest {
         // given
         when(address.getStreetAddress()).thenReturn("duplicate street");
         when(user.getAddresses()).thenReturn(List.of(address));
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUser(UserFetchPlan.ADDRESSES)).thenReturn(user);
 
         Address newAddress = mock(Address.class);
         when(newAddress.getStreetAddress()).thenReturn("duplicate street");
@@ -107,7 +108,7 @@ public class AddressServiceTest {
     @Test
     void addAddressToCurrentUser_whenNewStreet_savesAndAddsToUser_andReturnsDto() {
         // given
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUser(UserFetchPlan.ADDRESSES)).thenReturn(user);
 
         List<Address> addresses = new ArrayList<>();
         addresses.add(address);
@@ -138,7 +139,7 @@ public class AddressServiceTest {
         // given
         List<Address> addresses = new ArrayList<>();
         when(user.getAddresses()).thenReturn(addresses);
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUser(UserFetchPlan.ADDRESSES)).thenReturn(user);
 
         Address address = mock(Address.class);
         when(address.getUser()).thenReturn(user);
@@ -158,7 +159,7 @@ public class AddressServiceTest {
     @Test
     void deleteAddressOfCurrentUser_whenAddressMissing_throws_andDoesNotDelete() {
         // given
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUser(UserFetchPlan.ADDRESSES)).thenReturn(user);
 
         when(addressRepository.findById(10L)).thenReturn(Optional.empty());
 
@@ -170,7 +171,7 @@ public class AddressServiceTest {
     @Test
     void deleteAddressOfCurrentUser_whenNotOwner_throws_andDoesNotDelete() {
         // given
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUser(UserFetchPlan.ADDRESSES)).thenReturn(user);
         when(user.getId()).thenReturn(1L);
 
         User owner = mock(User.class);
@@ -187,8 +188,7 @@ public class AddressServiceTest {
     @Test
     void getAddressOfCurrentUser_whenBelongsToUser_ByAddressId_returnsDto() {
         // given
-        when(user.getId()).thenReturn(1L);
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
 
         User owner = mock(User.class);
         when(owner.getId()).thenReturn(1L);
@@ -211,8 +211,7 @@ public class AddressServiceTest {
     @Test
     void getAddressOfCurrentUser_whenDifferentUser_ByAddressId_throwsException() {
         // given
-        when(user.getId()).thenReturn(1L);
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
 
         User owner = mock(User.class);
         when(owner.getId()).thenReturn(2L);
@@ -232,7 +231,7 @@ public class AddressServiceTest {
     void getAllAddressesOfCurrentUser_whenEmpty_returnsEmptyList() {
         // given
         when(user.getAddresses()).thenReturn(new ArrayList<>());
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUser(UserFetchPlan.ADDRESSES)).thenReturn(user);
 
         // when
         List<ShowAddressDto> result = addressService.getAllAddressesOfCurrentUser();
@@ -246,7 +245,7 @@ public class AddressServiceTest {
     @Test
     void getAllAddressesOfCurrentUser_whenHasAddresses_mapsAll() {
         // given
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUser(UserFetchPlan.ADDRESSES)).thenReturn(user);
 
         Address a1 = mock(Address.class);
         Address a2 = mock(Address.class);
@@ -1,19 +1,28 @@
 package org.example.ecommerce.UnitTests;
 
 import org.example.ecommerce.DTO.AddProductDto;
+import org.example.ecommerce.DTO.BulkProductUpdateDto;
+import org.example.ecommerce.DTO.BulkProductUpdateResultDto;
+import org.example.ecommerce.DTO.ProductPriceStockUpdateDto;
 import org.example.ecommerce.DTO.ShowAdminProductDto;
 import org.example.ecommerce.Exception.CategoryNotFoundException;
+import org.example.ecommerce.Exception.InvalidBulkUpdateException;
 import org.example.ecommerce.Exception.ProductAlreadyExistsException;
 import org.example.ecommerce.Exception.ProductNotFoundException;
 import org.example.ecommerce.Mappers.ProductMapper;
 import org.example.ecommerce.Model.Category;
 import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Model.ReviewSummary;
 import org.example.ecommerce.Repository.CategoryRepository;
 import org.example.ecommerce.Repository.ProductRepository;
 import org.example.ecommerce.Service.AdminProductService;
+import org.example.ecommerce.Service.ProductKeysetPager;
+import org.example.ecommerce.Service.ProductSuggestService;
+import org.example.ecommerce.Service.ProductTextSearchService;
+import org.example.ecommerce.Service.ProductViewCache;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -21,14 +30,20 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,13 +60,27 @@ public class AdminProductServiceTest {
     @Mock
     private Category category;
 
-    @InjectMocks
+    @Mock
+    private ProductKeysetPager productKeysetPager;
+    @Mock
+    private ProductViewCache productViewCache;
+    @Mock
+    private ProductSuggestService productSuggestService;
+    @Mock
+    private ProductTextSearchService productTextSearchService;
+
     private AdminProductService adminProductService;
 
+    @BeforeEach
+    void setUp() {
+        adminProductService = new AdminProductService(productRepository, productMapper, categoryRepository,
+                productKeysetPager, productViewCache, productSuggestService, productTextSearchService, 2);
+    }
+
     @Test
     void createProduct_whenCalled_returnsProductDto() {
         AddProductDto addProductDto = new AddProductDto("name", "desc", 10.0, 3, "cat");
-        ShowAdminProductDto showAdminProductDto = new ShowAdminProductDto(1L, "name", "desc", 10.0, 3);
+        ShowAdminProductDto showAdminProductDto = new ShowAdminProductDto(1L, "name", "desc", 10.0, 3, new ReviewSummary());
 
         when(productRepository.existsByProductName("name")).thenReturn(false);
         when(categoryRepository.findByCategoryName("cat")).thenReturn(Optional.of(category));
@@ -66,6 +95,8 @@ public class AdminProductServiceTest {
         verify(productRepository).save(product);
         verify(productMapper).addProductDtoToProduct(addProductDto);
         verify(productMapper).productToShowAdminProductDto(product);
+        verify(productSuggestService).productSavedAfterCommit(product);
+        verify(productTextSearchService).productSavedAfterCommit(product);
     }
 
     @Test
@@ -90,22 +121,20 @@ public class AdminProductServiceTest {
     }
 
     @Test
-    void getAllProducts_whenCalled_returnsMappedPage() {
+    void getAllProducts_whenCalled_returnsProjectedPage() {
         Pageable pageable = PageRequest.of(0, 2);
-        Product productTwo = new Product();
-        ShowAdminProductDto dtoOne = new ShowAdminProductDto(1L, "p1", "d1", 11.0, 1);
-        ShowAdminProductDto dtoTwo = new ShowAdminProductDto(2L, "p2", "d2", 12.0, 2);
-        Page<Product> products = new PageImpl<>(List.of(product, productTwo), pageable, 2);
+        ShowAdminProductDto dtoOne = new ShowAdminProductDto(1L, "p1", "d1", 11.0, 1, new ReviewSummary());
+        ShowAdminProductDto dtoTwo = new ShowAdminProductDto(2L, "p2", "d2", 12.0, 2, new ReviewSummary());
+        Page<ShowAdminProductDto> products = new PageImpl<>(List.of(dtoOne, dtoTwo), pageable, 2);
 
-        when(productRepository.findAll(pageable)).thenReturn(products);
-        when(productMapper.productToShowAdminProductDto(product)).thenReturn(dtoOne);
-        when(productMapper.productToShowAdminProductDto(productTwo)).thenReturn(dtoTwo);
+        when(productRepository.findAllShowAdminProductDtos(pageable)).thenReturn(products);
 
         Page<ShowAdminProductDto> result = adminProductService.getAllProducts(pageable);
 
         assertEquals(2, result.getContent().size());
         assertSame(dtoOne, result.getContent().get(0));
         assertSame(dtoTwo, result.getContent().get(1));
+        verifyNoInteractions(productMapper);
     }
 
     @Test
@@ -115,6 +144,8 @@ public class AdminProductServiceTest {
         adminProductService.deleteProduct(1L);
 
         verify(productRepository).deleteById(1L);
+        verify(productSuggestService).productRemovedAfterCommit(1L);
+        verify(productTextSearchService).productRemovedAfterCommit(1L);
     }
 
     @Test
@@ -127,10 +158,9 @@ public class AdminProductServiceTest {
 
     @Test
     void getProductById_whenExists_returnsDto() {
-        ShowAdminProductDto showAdminProductDto = new ShowAdminProductDto(1L, "name", "desc", 10.0, 3);
+        ShowAdminProductDto showAdminProductDto = new ShowAdminProductDto(1L, "name", "desc", 10.0, 3, new ReviewSummary());
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(productMapper.productToShowAdminProductDto(product)).thenReturn(showAdminProductDto);
+        when(productRepository.findShowAdminProductDtoById(1L)).thenReturn(Optional.of(showAdminProductDto));
 
         ShowAdminProductDto response = adminProductService.getProductById(1L);
 
@@ -139,7 +169,7 @@ public class AdminProductServiceTest {
 
     @Test
     void getProductById_whenMissing_throwsProductNotFoundException() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findShowAdminProductDtoById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ProductNotFoundException.class, () -> adminProductService.getProductById(1L));
     }
@@ -147,7 +177,7 @@ public class AdminProductServiceTest {
     @Test
     void updateProduct_whenExists_updatesAndReturnsDto() {
         AddProductDto addProductDto = new AddProductDto("name", "desc", 10.0, 3, "cat");
-        ShowAdminProductDto showAdminProductDto = new ShowAdminProductDto(1L, "name", "desc", 10.0, 3);
+        ShowAdminProductDto showAdminProductDto = new ShowAdminProductDto(1L, "name", "desc", 10.0, 3, new ReviewSummary());
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
         when(categoryRepository.findByCategoryName("cat")).thenReturn(Optional.of(category));
@@ -159,6 +189,8 @@ public class AdminProductServiceTest {
         verify(productMapper).updateProductFromDto(addProductDto, product);
         verify(product).setCategory(category);
         verify(productRepository).save(product);
+        verify(productSuggestService).productSavedAfterCommit(product);
+        verify(productTextSearchService).productSavedAfterCommit(product);
     }
 
     @Test
@@ -170,4 +202,46 @@ public class AdminProductServiceTest {
         assertThrows(ProductNotFoundException.class, () -> adminProductService.updateProduct(1L, addProductDto));
         verify(productRepository, never()).save(product);
     }
+
+    @Test
+    void bulkUpdate_absolute_updatesInChunksAndEvictsUpdatedIdsOnce() {
+        List<ProductPriceStockUpdateDto> updates = List.of(
+                new ProductPriceStockUpdateDto(1L, BigDecimal.TEN, 5),
+                new ProductPriceStockUpdateDto(2L, null, 7),
+                new ProductPriceStockUpdateDto(3L, BigDecimal.ONE, null));
+
+        when(productRepository.setPricesAndStock(eq(updates.subList(0, 2)), any(Instant.class))).thenReturn(List.of(1L, 2L));
+        when(productRepository.setPricesAndStock(eq(updates.subList(2, 3)), any(Instant.class))).thenReturn(List.of());
+
+        BulkProductUpdateResultDto result = adminProductService.bulkUpdate(
+                new BulkProductUpdateDto(BulkProductUpdateDto.Mode.ABSOLUTE, updates));
+
+        assertEquals(2, result.updated());
+        assertEquals(List.of(3L), result.notUpdated());
+        verify(productViewCache).evictAllAfterCommit(Set.of(1L, 2L));
+        verify(productTextSearchService).productsUpdatedAfterCommit(Set.of(1L, 2L));
+        verify(productRepository, never()).adjustPricesAndStock(any(), any());
+    }
+
+    @Test
+    void bulkUpdate_relative_adjustsPricesAndStock() {
+        List<ProductPriceStockUpdateDto> updates = List.of(new ProductPriceStockUpdateDto(1L, BigDecimal.TEN, 100));
+        when(productRepository.adjustPricesAndStock(eq(updates), any(Instant.class))).thenReturn(List.of(1L));
+
+        BulkProductUpdateResultDto result = adminProductService.bulkUpdate(
+                new BulkProductUpdateDto(BulkProductUpdateDto.Mode.RELATIVE, updates));
+
+        assertEquals(1, result.updated());
+        assertEquals(List.of(), result.notUpdated());
+    }
+
+    @Test
+    void bulkUpdate_withDuplicateIds_throwsException() {
+        BulkProductUpdateDto bulkUpdate = new BulkProductUpdateDto(BulkProductUpdateDto.Mode.ABSOLUTE, List.of(
+                new ProductPriceStockUpdateDto(1L, BigDecimal.TEN, null),
+                new ProductPriceStockUpdateDto(1L, BigDecimal.ONE, null)));
+
+        assertThrows(InvalidBulkUpdateException.class, () -> adminProductService.bulkUpdate(bulkUpdate));
+        verifyNoInteractions(productViewCache);
+    }
 }
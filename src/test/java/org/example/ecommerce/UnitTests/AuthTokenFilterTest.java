@@ -0,0 +1,163 @@
+package org.example.ecommerce.UnitTests;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import org.example.ecommerce.Jwt.AuthTokenFilter;
+import org.example.ecommerce.Jwt.AuthenticatedUser;
+import org.example.ecommerce.Jwt.JwtUtils;
+import org.example.ecommerce.Jwt.VerifiedTokenCache;
+import org.example.ecommerce.Model.UserRole;
+import org.example.ecommerce.Service.RevokedTokenService;
+import org.example.ecommerce.Service.TokenVersionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthTokenFilterTest {
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private RevokedTokenService revokedTokenService;
+
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    private AuthTokenFilter authTokenFilter;
+
+    @BeforeEach
+    void setUp() {
+        authTokenFilter = new AuthTokenFilter(new VerifiedTokenCache(jwtUtils, 100), revokedTokenService, tokenVersionService,
+                PathPatternRequestMatcher.withDefaults().matcher("/api/auth/**"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenSetsAuthentication() throws Exception {
+        when(jwtUtils.parseClaims("token")).thenReturn(claimsFor("testuser"));
+        when(tokenVersionService.isCurrent(any(AuthenticatedUser.class))).thenReturn(true);
+
+        authTokenFilter.doFilter(requestWithToken("/api/products", "token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("testuser");
+        assertThat(authentication.getPrincipal()).isEqualTo(new AuthenticatedUser(1L, "testuser", UserRole.CUSTOMER, 0));
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("CUSTOMER");
+    }
+
+    @Test
+    void revokedTokenVersionLeavesContextEmpty() throws Exception {
+        when(jwtUtils.parseClaims("token")).thenReturn(claimsFor("testuser"));
+        when(tokenVersionService.isCurrent(any(AuthenticatedUser.class))).thenReturn(false);
+
+        authTokenFilter.doFilter(requestWithToken("/api/products", "token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void revokedTokenIdLeavesContextEmpty() throws Exception {
+        when(jwtUtils.parseClaims("token")).thenReturn(claimsFor("testuser"));
+        when(revokedTokenService.isRevoked("token-id")).thenReturn(true);
+
+        authTokenFilter.doFilter(requestWithToken("/api/products", "token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(tokenVersionService);
+    }
+
+    @Test
+    void refreshTokenIsNotAcceptedAsAccessToken() throws Exception {
+        Claims claims = claimsFor("testuser");
+        claims.put(JwtUtils.CLAIM_TOKEN_TYPE, JwtUtils.TOKEN_TYPE_REFRESH);
+        when(jwtUtils.parseClaims("refresh")).thenReturn(claims);
+
+        authTokenFilter.doFilter(requestWithToken("/api/products", "refresh"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(tokenVersionService);
+    }
+
+    @Test
+    void tokenWithoutUserClaimsIsRejected() throws Exception {
+        Claims claims = Jwts.claims().setSubject("testuser");
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        when(jwtUtils.parseClaims("legacy")).thenReturn(claims);
+
+        authTokenFilter.doFilter(requestWithToken("/api/products", "legacy"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(tokenVersionService);
+    }
+
+    @Test
+    void repeatedTokenIsVerifiedOnlyOnce() throws Exception {
+        when(jwtUtils.parseClaims("token")).thenReturn(claimsFor("testuser"));
+        when(tokenVersionService.isCurrent(any(AuthenticatedUser.class))).thenReturn(true);
+
+        authTokenFilter.doFilter(requestWithToken("/api/products", "token"), new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        authTokenFilter.doFilter(requestWithToken("/api/cart", "token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        verify(jwtUtils, times(1)).parseClaims("token");
+    }
+
+    @Test
+    void invalidTokenLeavesContextEmpty() throws Exception {
+        when(jwtUtils.parseClaims("bad")).thenThrow(new MalformedJwtException("bad token"));
+
+        authTokenFilter.doFilter(requestWithToken("/api/products", "bad"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(tokenVersionService);
+    }
+
+    @Test
+    void publicEndpointSkipsTokenVerification() throws Exception {
+        authTokenFilter.doFilter(requestWithToken("/api/auth/login", "token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(jwtUtils, never()).parseClaims(anyString());
+    }
+
+    private MockHttpServletRequest requestWithToken(String uri, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private Claims claimsFor(String username) {
+        Claims claims = Jwts.claims().setSubject(username);
+        claims.setId("token-id");
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        claims.put(JwtUtils.CLAIM_TOKEN_TYPE, JwtUtils.TOKEN_TYPE_ACCESS);
+        claims.put(JwtUtils.CLAIM_USER_ID, 1L);
+        claims.put(JwtUtils.CLAIM_ROLE, UserRole.CUSTOMER.name());
+        claims.put(JwtUtils.CLAIM_TOKEN_VERSION, 0);
+        return claims;
+    }
+}
@@ -2,10 +2,12 @@ package org.example.ecommerce.UnitTests;
 
 import org.example.ecommerce.Controller.AuthenticationController;
 import org.example.ecommerce.DTO.JwtResponseDto;
+import org.example.ecommerce.DTO.RefreshTokenDto;
 import org.example.ecommerce.DTO.RegisteredUserDto;
 import org.example.ecommerce.DTO.UserLoginDto;
 import org.example.ecommerce.DTO.UserRegistrationDto;
 import org.example.ecommerce.Exception.GlobalExceptionHandler;
+import org.example.ecommerce.Exception.InvalidRefreshTokenException;
 import org.example.ecommerce.Exception.UserAlreadyExistsException;
 import org.example.ecommerce.Service.AuthenticationService;
 import org.junit.jupiter.api.Test;
@@ -119,10 +121,11 @@ public class AuthenticationControllerTest {
         ,"password123");
 
         JwtResponseDto jwtResponseDto = new JwtResponseDto("mockJwtToken",
+                "mockRefreshToken",
                 "test123",
                 List.of("CUSTOMER"));
 
-        when(authenticationService.loginUser(userLoginDto)).thenReturn(jwtResponseDto);
+        when(authenticationService.loginUser(eq(userLoginDto), anyString())).thenReturn(jwtResponseDto);
 
         mockMvc.perform(post("/api/auth/login").
                 contentType(MediaType.APPLICATION_JSON)
@@ -134,6 +137,7 @@ public class AuthenticationControllerTest {
             """)).andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.jwtToken").value("mockJwtToken"))
+                .andExpect(jsonPath("$.refreshToken").value("mockRefreshToken"))
                 .andExpect(jsonPath("$.username").value("test123"))
                 .andExpect(jsonPath("$.roles[0]").value("CUSTOMER"));
     }
@@ -141,7 +145,7 @@ public class AuthenticationControllerTest {
     @Test
     void loginUserWhenInvalidUserShouldReturn401() throws Exception {
 
-        when(authenticationService.loginUser(any())).thenThrow(new BadCredentialsException("Invalid credentials"));
+        when(authenticationService.loginUser(any(), anyString())).thenThrow(new BadCredentialsException("Invalid credentials"));
 
         mockMvc.perform(post("/api/auth/login").
                 contentType(MediaType.APPLICATION_JSON)
@@ -151,7 +155,7 @@ public class AuthenticationControllerTest {
                     "password": "password123"
                 }
             """)).andExpect(status().isUnauthorized());
-        verify(authenticationService, times(1)).loginUser(any());
+        verify(authenticationService, times(1)).loginUser(any(), any());
     }
 
     @Test
@@ -164,7 +168,7 @@ public class AuthenticationControllerTest {
                     "password": "password123"
                 }
             """)).andExpect(status().isBadRequest());
-        verify(authenticationService, never()).loginUser(any());
+        verify(authenticationService, never()).loginUser(any(), any());
     }
 
     @Test
@@ -178,7 +182,80 @@ public class AuthenticationControllerTest {
                 }
                 """)
         ).andExpect(status().isBadRequest());
-        verify(authenticationService, never()).loginUser(any());
+        verify(authenticationService, never()).loginUser(any(), any());
     }
 
+
+    @Test
+    void refreshTokenWhenValidShouldReturnNewTokens() throws Exception {
+        RefreshTokenDto refreshTokenDto = new RefreshTokenDto("oldRefreshToken");
+        when(authenticationService.refreshToken(refreshTokenDto))
+                .thenReturn(new JwtResponseDto("newJwtToken", "newRefreshToken", "test123", List.of("CUSTOMER")));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                {
+                    "refreshToken": "oldRefreshToken"
+                }
+            """)).andExpect(status().isOk())
+                .andExpect(jsonPath("$.jwtToken").value("newJwtToken"))
+                .andExpect(jsonPath("$.refreshToken").value("newRefreshToken"));
+    }
+
+    @Test
+    void refreshTokenWhenRevokedShouldReturn401() throws Exception {
+        when(authenticationService.refreshToken(any()))
+                .thenThrow(new InvalidRefreshTokenException("Refresh token is invalid or has been revoked"));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                {
+                    "refreshToken": "usedRefreshToken"
+                }
+            """)).andExpect(status().isUnauthorized())
+                .andExpect(content().string("Refresh token is invalid or has been revoked"));
+    }
+
+    @Test
+    void logoutShouldRevokeRefreshAndAccessToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                .header("Authorization", "Bearer accessToken")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                {
+                    "refreshToken": "refreshToken"
+                }
+            """)).andExpect(status().isNoContent());
+
+        verify(authenticationService).logout(new RefreshTokenDto("refreshToken"), "accessToken");
+    }
+
+    @Test
+    void logoutAllShouldRevokeEveryTokenOfTheUser() throws Exception {
+        mockMvc.perform(post("/api/auth/logout-all")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                {
+                    "refreshToken": "refreshToken"
+                }
+            """)).andExpect(status().isNoContent());
+
+        verify(authenticationService).logoutEverywhere(new RefreshTokenDto("refreshToken"));
+    }
+
+    @Test
+    void logoutAllWithRevokedRefreshTokenShouldReturnUnauthorized() throws Exception {
+        doThrow(new InvalidRefreshTokenException("Refresh token is invalid or has been revoked"))
+                .when(authenticationService).logoutEverywhere(new RefreshTokenDto("refreshToken"));
+
+        mockMvc.perform(post("/api/auth/logout-all")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                {
+                    "refreshToken": "refreshToken"
+                }
+            """)).andExpect(status().isUnauthorized());
+    }
 }
@@ -1,27 +1,42 @@
 package org.example.ecommerce.UnitTests;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.example.ecommerce.DTO.JwtResponseDto;
+import org.example.ecommerce.DTO.RefreshTokenDto;
 import org.example.ecommerce.DTO.RegisteredUserDto;
 import org.example.ecommerce.DTO.UserLoginDto;
 import org.example.ecommerce.Mappers.UserMapper;
 import org.example.ecommerce.DTO.UserRegistrationDto;
+import org.example.ecommerce.Exception.InvalidRefreshTokenException;
+import org.example.ecommerce.Exception.TooManyLoginAttemptsException;
 import org.example.ecommerce.Exception.UserAlreadyExistsException;
 import org.example.ecommerce.Jwt.JwtUtils;
 import org.example.ecommerce.Model.User;
 import org.example.ecommerce.Model.UserRole;
 import org.example.ecommerce.Repository.UserRepository;
 import org.example.ecommerce.Service.AuthenticationService;
+import org.example.ecommerce.Service.CustomUserDetailsService;
+import org.example.ecommerce.Service.LoginThrottle;
+import org.example.ecommerce.Service.RevokedTokenService;
+import org.example.ecommerce.Service.TokenVersionService;
+import org.example.ecommerce.Service.UserSecuritySnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -48,6 +63,14 @@ public class AuthenticationServiceTest {
     private Authentication authentication;
     @Mock
     private AuthenticationManager authenticationManager;
+    @Mock
+    private LoginThrottle loginThrottle;
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+    @Mock
+    private RevokedTokenService revokedTokenService;
+    @Mock
+    private TokenVersionService tokenVersionService;
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -83,11 +106,9 @@ public class AuthenticationServiceTest {
     @Test
     void registerUserWhenValidUserShouldReturnCreated() {
         // Given
-        when(userRepository.findByUsername(validUserDto.username())).thenReturn(Optional.empty());
-        when(userRepository.findByEmail(validUserDto.email())).thenReturn(Optional.empty());
         when(userMapper.toUser(validUserDto)).thenReturn(user);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
         when(userMapper.userToRegisteredUserDto(any(User.class))).thenReturn(registeredUserDto);
 
         // When
@@ -96,47 +117,77 @@ public class AuthenticationServiceTest {
         // Then
         assertThat(response).isNotNull();
 
-        verify(userRepository).findByUsername(validUserDto.username());
-        verify(userRepository).findByEmail(validUserDto.email());
         verify(userMapper).toUser(validUserDto);
         verify(passwordEncoder).encode("password123");
-        verify(userRepository).save(user);
-
+        verify(userRepository).saveAndFlush(user);
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository, never()).findByEmail(anyString());
     }
 
     @Test
     void registerUserWithExistingUsernameShouldThrowUserAlreadyExistsException() {
         // Given
-        User existingUser = new User();
-        existingUser.setUsername("testuser");
-        when(userRepository.findByUsername(validUserDto.username())).thenReturn(Optional.of(existingUser));
+        when(userMapper.toUser(validUserDto)).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation(User.USERNAME_CONSTRAINT));
 
         // When & Then
         assertThatThrownBy(() -> authenticationService.registerUser(validUserDto))
                 .isInstanceOf(UserAlreadyExistsException.class)
                 .hasMessage("User with username testuser already exists");
 
-        verify(userRepository).findByUsername(validUserDto.username());
-        verify(userRepository, never()).findByEmail(anyString());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).existsByUsername(anyString());
     }
 
     @Test
     void registerUserWithExistingEmailShouldThrowUserAlreadyExistsException() {
         // Given
-        User existingUser = new User();
-        existingUser.setEmail("test@gmail.com");
-        when(userRepository.findByUsername(validUserDto.username())).thenReturn(Optional.empty());
-        when(userRepository.findByEmail(validUserDto.email())).thenReturn(Optional.of(existingUser));
+        when(userMapper.toUser(validUserDto)).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation(User.EMAIL_CONSTRAINT));
 
         // When & Then
         assertThatThrownBy(() -> authenticationService.registerUser(validUserDto))
                 .isInstanceOf(UserAlreadyExistsException.class)
                 .hasMessage("User with email test@gmail.com already exists");
+    }
 
-        verify(userRepository).findByUsername(validUserDto.username());
-        verify(userRepository).findByEmail(validUserDto.email());
-        verify(userRepository, never()).save(any(User.class));
+    @Test
+    void registerUserWithUnnamedConstraintShouldLookUpWhichValueExists() {
+        // Given
+        when(userMapper.toUser(validUserDto)).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation("uk_legacy_name"));
+        when(userRepository.existsByUsername("testuser")).thenReturn(false);
+        when(userRepository.existsByEmail("test@gmail.com")).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> authenticationService.registerUser(validUserDto))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessage("User with email test@gmail.com already exists");
+    }
+
+    @Test
+    void registerUserShouldCheckUsernameBeforeEmail() {
+        // Given
+        when(userMapper.toUser(validUserDto)).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation("uk_legacy_name"));
+        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> authenticationService.registerUser(validUserDto))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessage("User with username testuser already exists");
+
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void registerUserWithOtherIntegrityViolationShouldRethrowIt() {
+        // Given
+        when(userMapper.toUser(validUserDto)).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation("some_check"));
+
+        // When & Then
+        assertThatThrownBy(() -> authenticationService.registerUser(validUserDto))
+                .isInstanceOf(DataIntegrityViolationException.class);
     }
 
     @Test
@@ -145,11 +196,9 @@ public class AuthenticationServiceTest {
         String rawPassword = "password123";
         String encodedPassword = "encodedPassword123";
 
-        when(userRepository.findByUsername(validUserDto.username())).thenReturn(Optional.empty());
-        when(userRepository.findByEmail(validUserDto.email())).thenReturn(Optional.empty());
         when(userMapper.toUser(validUserDto)).thenReturn(user);
         when(passwordEncoder.encode(rawPassword)).thenReturn(encodedPassword);
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
         // When
         authenticationService.registerUser(validUserDto);
@@ -157,17 +206,15 @@ public class AuthenticationServiceTest {
         // Then
         verify(passwordEncoder).encode(rawPassword);
         assertThat(user.getPassword()).isEqualTo(encodedPassword);
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
     }
 
     @Test
     void registerUserShouldCallUserMapperToConvertDto() {
         // Given
-        when(userRepository.findByUsername(validUserDto.username())).thenReturn(Optional.empty());
-        when(userRepository.findByEmail(validUserDto.email())).thenReturn(Optional.empty());
         when(userMapper.toUser(validUserDto)).thenReturn(user);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
         // When
         authenticationService.registerUser(validUserDto);
@@ -176,21 +223,6 @@ public class AuthenticationServiceTest {
         verify(userMapper).toUser(validUserDto);
     }
 
-    @Test
-    void registerUserShouldCheckUsernameBeforeEmail() {
-        // Given
-        User existingUser = new User();
-        existingUser.setUsername("testuser");
-        when(userRepository.findByUsername(validUserDto.username())).thenReturn(Optional.of(existingUser));
-
-        // When & Then
-        assertThatThrownBy(() -> authenticationService.registerUser(validUserDto))
-                .isInstanceOf(UserAlreadyExistsException.class);
-
-        verify(userRepository).findByUsername(validUserDto.username());
-        verify(userRepository, never()).findByEmail(anyString());
-    }
-
     @Test
     void loginUserWhenValidUserShouldReturnJwtResponseDto() {
         // Given
@@ -200,7 +232,7 @@ public class AuthenticationServiceTest {
         when(jwtUtils.generateJwtToken(authentication)).thenReturn("mockJwtToken");
 
         //when
-        JwtResponseDto response = authenticationService.loginUser(userLoginDto);
+        JwtResponseDto response = authenticationService.loginUser(userLoginDto, "127.0.0.1");
 
         //then
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
@@ -219,9 +251,150 @@ public class AuthenticationServiceTest {
                 .thenThrow(new RuntimeException("Invalid credentials"));
 
         // then
-        assertThrows(RuntimeException.class, () -> authenticationService.loginUser(userLoginDto));
+        assertThrows(RuntimeException.class, () -> authenticationService.loginUser(userLoginDto, "127.0.0.1"));
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verifyNoInteractions(jwtUtils);
     }
+
+    @Test
+    void loginUserWhenThrottledDoesNotAuthenticate() {
+        doThrow(new TooManyLoginAttemptsException("Too many failed login attempts, please try again later"))
+                .when(loginThrottle).checkAllowed("testuser", "127.0.0.1");
+
+        assertThrows(TooManyLoginAttemptsException.class, () -> authenticationService.loginUser(userLoginDto, "127.0.0.1"));
+
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    void loginUserWithBadCredentialsRecordsFailure() {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThrows(BadCredentialsException.class, () -> authenticationService.loginUser(userLoginDto, "127.0.0.1"));
+
+        verify(loginThrottle).recordFailure("testuser", "127.0.0.1");
+        verify(loginThrottle, never()).recordSuccess(anyString(), anyString());
+    }
+
+    @Test
+    void refreshTokenWhenValidShouldRevokeItAndIssueNewTokens() {
+        user.setId(1L);
+        Claims claims = refreshClaims("refresh-id", 0);
+        when(jwtUtils.parseClaims("refreshToken")).thenReturn(claims);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(UserSecuritySnapshot.of(user));
+        when(jwtUtils.generateJwtToken(any(Authentication.class))).thenReturn("newJwtToken");
+        when(jwtUtils.generateRefreshToken(any(Authentication.class))).thenReturn("newRefreshToken");
+        when(revokedTokenService.revoke("refresh-id", claims.getExpiration().toInstant())).thenReturn(true);
+
+        JwtResponseDto response = authenticationService.refreshToken(new RefreshTokenDto("refreshToken"));
+
+        assertEquals("newJwtToken", response.jwtToken());
+        assertEquals("newRefreshToken", response.refreshToken());
+        assertEquals(List.of("CUSTOMER"), response.roles());
+        verify(revokedTokenService).revoke("refresh-id", claims.getExpiration().toInstant());
+    }
+
+    @Test
+    void refreshTokenWhenAlreadyUsedShouldThrowInvalidRefreshTokenException() {
+        when(jwtUtils.parseClaims("refreshToken")).thenReturn(refreshClaims("refresh-id", 0));
+        when(revokedTokenService.isRevoked("refresh-id")).thenReturn(true);
+
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> authenticationService.refreshToken(new RefreshTokenDto("refreshToken")));
+
+        verifyNoInteractions(userDetailsService);
+        verify(revokedTokenService, never()).revoke(anyString(), any());
+    }
+
+    @Test
+    void refreshTokenWhenUsedConcurrentlyShouldIssueNoTokensToTheLoser() {
+        user.setId(1L);
+        Claims claims = refreshClaims("refresh-id", 0);
+        when(jwtUtils.parseClaims("refreshToken")).thenReturn(claims);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(UserSecuritySnapshot.of(user));
+        // the check passed, but another request inserted the revocation first
+        when(revokedTokenService.revoke("refresh-id", claims.getExpiration().toInstant())).thenReturn(false);
+
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> authenticationService.refreshToken(new RefreshTokenDto("refreshToken")));
+
+        verify(jwtUtils, never()).generateJwtToken(any(Authentication.class));
+        verify(jwtUtils, never()).generateRefreshToken(any(Authentication.class));
+    }
+
+    @Test
+    void refreshTokenWithAccessTokenShouldThrowInvalidRefreshTokenException() {
+        Claims claims = refreshClaims("access-id", 0);
+        claims.put(JwtUtils.CLAIM_TOKEN_TYPE, JwtUtils.TOKEN_TYPE_ACCESS);
+        when(jwtUtils.parseClaims("accessToken")).thenReturn(claims);
+
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> authenticationService.refreshToken(new RefreshTokenDto("accessToken")));
+    }
+
+    @Test
+    void refreshTokenAfterAllTokensWereRevokedShouldThrowInvalidRefreshTokenException() {
+        user.setId(1L);
+        user.setTokenVersion(1);
+        when(jwtUtils.parseClaims("refreshToken")).thenReturn(refreshClaims("refresh-id", 0));
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(UserSecuritySnapshot.of(user));
+
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> authenticationService.refreshToken(new RefreshTokenDto("refreshToken")));
+    }
+
+    @Test
+    void logoutShouldRevokeRefreshAndAccessToken() {
+        Claims refreshClaims = refreshClaims("refresh-id", 0);
+        Claims accessClaims = refreshClaims("access-id", 0);
+        accessClaims.put(JwtUtils.CLAIM_TOKEN_TYPE, JwtUtils.TOKEN_TYPE_ACCESS);
+        when(jwtUtils.parseClaims("refreshToken")).thenReturn(refreshClaims);
+        when(jwtUtils.parseClaims("accessToken")).thenReturn(accessClaims);
+
+        authenticationService.logout(new RefreshTokenDto("refreshToken"), "accessToken");
+
+        verify(revokedTokenService).revoke("refresh-id", refreshClaims.getExpiration().toInstant());
+        verify(revokedTokenService).revoke("access-id", accessClaims.getExpiration().toInstant());
+    }
+
+    @Test
+    void logoutEverywhereShouldRevokeAllTokensOfTheOwner() {
+        user.setId(1L);
+        when(jwtUtils.parseClaims("refreshToken")).thenReturn(refreshClaims("refresh-id", 0));
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(UserSecuritySnapshot.of(user));
+
+        authenticationService.logoutEverywhere(new RefreshTokenDto("refreshToken"));
+
+        verify(tokenVersionService).revokeAllTokens(1L);
+    }
+
+    @Test
+    void logoutEverywhereWithRevokedRefreshTokenShouldThrowInvalidRefreshTokenException() {
+        when(jwtUtils.parseClaims("refreshToken")).thenReturn(refreshClaims("refresh-id", 0));
+        when(revokedTokenService.isRevoked("refresh-id")).thenReturn(true);
+
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> authenticationService.logoutEverywhere(new RefreshTokenDto("refreshToken")));
+
+        verifyNoInteractions(tokenVersionService);
+    }
+
+    private Claims refreshClaims(String tokenId, int tokenVersion) {
+        Claims claims = Jwts.claims().setSubject("testuser");
+        claims.setId(tokenId);
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        claims.put(JwtUtils.CLAIM_TOKEN_TYPE, JwtUtils.TOKEN_TYPE_REFRESH);
+        claims.put(JwtUtils.CLAIM_USER_ID, 1L);
+        claims.put(JwtUtils.CLAIM_ROLE, UserRole.CUSTOMER.name());
+        claims.put(JwtUtils.CLAIM_TOKEN_VERSION, tokenVersion);
+        return claims;
+    }
+
+    private DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key value violates unique constraint",
+                        new SQLException("duplicate key value", "23505"), constraintName));
+    }
 }
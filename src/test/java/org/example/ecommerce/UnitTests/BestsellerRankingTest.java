@@ -0,0 +1,54 @@
+package org.example.ecommerce.UnitTests;
+
+import org.example.ecommerce.DTO.BestsellerDto;
+import org.example.ecommerce.DTO.ProductSalesRowDto;
+import org.example.ecommerce.Service.BestsellerRanking;
+import org.example.ecommerce.Service.BestsellerWindow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BestsellerRankingTest {
+
+    private final BestsellerRanking ranking = BestsellerRanking.build(List.of(
+            new ProductSalesRowDto(1L, 10L, "Phone", 5L, 5L),
+            new ProductSalesRowDto(1L, 11L, "Tablet", 1L, 40L),
+            new ProductSalesRowDto(1L, 12L, "Charger", 9L, 12L),
+            new ProductSalesRowDto(2L, 20L, "Dune", 7L, 20L),
+            new ProductSalesRowDto(2L, 21L, "Emma", 0L, 3L)), 2);
+
+    @Test
+    void top_keepsTheBestSellersOfEachWindow() {
+        assertThat(ranking.top(BestsellerWindow.LAST_7_DAYS, 10)).extracting(BestsellerDto::productId)
+                .containsExactly(12L, 20L);
+        assertThat(ranking.top(BestsellerWindow.LAST_30_DAYS, 10)).extracting(BestsellerDto::productId)
+                .containsExactly(11L, 20L);
+    }
+
+    @Test
+    void top_perCategory_keepsOnlyTopK() {
+        assertThat(ranking.top(BestsellerWindow.LAST_30_DAYS, Set.of(1L), 10))
+                .containsExactly(new BestsellerDto(11L, "Tablet", 40L), new BestsellerDto(12L, "Charger", 12L));
+    }
+
+    @Test
+    void top_overSeveralCategories_mergesTheirLists() {
+        assertThat(ranking.top(BestsellerWindow.LAST_7_DAYS, Set.of(1L, 2L), 3)).extracting(BestsellerDto::productId)
+                .containsExactly(12L, 20L, 10L);
+    }
+
+    @Test
+    void top_leavesOutProductsWithoutSalesInTheWindow() {
+        assertThat(ranking.top(BestsellerWindow.LAST_7_DAYS, Set.of(2L), 10)).extracting(BestsellerDto::productId)
+                .containsExactly(20L);
+    }
+
+    @Test
+    void top_ofCategoryWithoutSales_isEmpty() {
+        assertThat(ranking.top(BestsellerWindow.LAST_7_DAYS, Set.of(99L), 10)).isEmpty();
+        assertThat(BestsellerRanking.empty().top(BestsellerWindow.LAST_30_DAYS, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.ecommerce.UnitTests;
+
+import org.example.ecommerce.DTO.BestsellerDto;
+import org.example.ecommerce.DTO.ProductSalesRowDto;
+import org.example.ecommerce.Exception.CategoryNotFoundException;
+import org.example.ecommerce.Exception.InvalidBestsellerWindowException;
+import org.example.ecommerce.Model.Order;
+import org.example.ecommerce.Model.OrderItem;
+import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Repository.ProductSalesRepository;
+import org.example.ecommerce.Service.BestsellerService;
+import org.example.ecommerce.Service.BestsellerWindow;
+import org.example.ecommerce.Service.CategoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BestsellerServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 31);
+
+    @Mock
+    private ProductSalesRepository productSalesRepository;
+    @Mock
+    private CategoryService categoryService;
+
+    private BestsellerService bestsellerService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2026-03-31T12:00:00Z"), ZoneOffset.UTC);
+        bestsellerService = new BestsellerService(productSalesRepository, categoryService, clock, 3);
+        lenient().when(productSalesRepository.sumSalesSince(TODAY.minusDays(6), TODAY.minusDays(29))).thenReturn(List.of(
+                new ProductSalesRowDto(1L, 10L, "Phone", 5L, 8L),
+                new ProductSalesRowDto(2L, 20L, "Dune", 7L, 7L)));
+    }
+
+    @Test
+    void recordSales_addsEachItemToTodaysBucket() {
+        Order order = new Order();
+        order.setOrderItems(List.of(orderItem(10L, 2), orderItem(20L, 1)));
+
+        bestsellerService.recordSales(order);
+
+        verify(productSalesRepository).addSales(10L, TODAY, 2);
+        verify(productSalesRepository).addSales(20L, TODAY, 1);
+    }
+
+    @Test
+    void getBestsellers_readsTheRankingOnceAndServesItFromMemory() {
+        assertThat(bestsellerService.getBestsellers(null, BestsellerWindow.LAST_7_DAYS, 10))
+                .extracting(BestsellerDto::productId).containsExactly(20L, 10L);
+        assertThat(bestsellerService.getBestsellers(null, BestsellerWindow.LAST_30_DAYS, 1))
+                .extracting(BestsellerDto::productId).containsExactly(10L);
+
+        verify(productSalesRepository, times(1)).sumSalesSince(any(), any());
+    }
+
+    @Test
+    void getBestsellers_ofCategory_includesItsSubcategories() {
+        when(categoryService.getSubtreeIds(1L)).thenReturn(Set.of(1L, 2L));
+
+        assertThat(bestsellerService.getBestsellers(1L, BestsellerWindow.LAST_7_DAYS, 10)).hasSize(2);
+    }
+
+    @Test
+    void getBestsellers_ofUnknownCategory_throwsException() {
+        when(categoryService.getSubtreeIds(99L)).thenThrow(new CategoryNotFoundException("Category with id 99 does not exist"));
+
+        assertThrows(CategoryNotFoundException.class,
+                () -> bestsellerService.getBestsellers(99L, BestsellerWindow.LAST_7_DAYS, 10));
+    }
+
+    @Test
+    void purgeExpiredSales_dropsBucketsOutsideTheLongestWindow() {
+        bestsellerService.purgeExpiredSales();
+
+        verify(productSalesRepository).deleteOlderThan(TODAY.minusDays(29));
+    }
+
+    @Test
+    void fromParameter_withUnknownWindow_throwsException() {
+        assertThat(BestsellerWindow.fromParameter("30d")).isEqualTo(BestsellerWindow.LAST_30_DAYS);
+        assertThrows(InvalidBestsellerWindowException.class, () -> BestsellerWindow.fromParameter("1y"));
+    }
+
+    private static OrderItem orderItem(Long productId, int quantity) {
+        Product product = new Product();
+        product.setId(productId);
+        OrderItem orderItem = new OrderItem();
+        orderItem.setProduct(product);
+        orderItem.setQuantity(quantity);
+        return orderItem;
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.ecommerce.UnitTests;
+
+import org.example.ecommerce.Config.BoundedPasswordEncoder;
+import org.example.ecommerce.Config.PasswordEncoderConfig;
+import org.example.ecommerce.Exception.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void encodeAndMatches_delegateToWrappedEncoder() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, Duration.ofSeconds(5));
+
+        String hash = encoder.encode("password123");
+
+        assertThat(encoder.matches("password123", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        encoder.close();
+    }
+
+    @Test
+    void matches_whenPoolIsBusyPastTimeout_throwsUnavailable() throws Exception {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, Duration.ofMillis(100));
+
+        CompletableFuture.runAsync(() -> encoder.encode("first"));
+        started.await();
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> encoder.matches("second", "hash"));
+        encoder.close();
+    }
+
+    @Test
+    void encodeAll_hashesEveryPasswordInOrder() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 1, Duration.ofSeconds(5));
+
+        List<String> hashes = encoder.encodeAll(List.of("first", "second", "third", "fourth"), 2);
+
+        assertThat(hashes).hasSize(4);
+        assertThat(encoder.matches("first", hashes.get(0))).isTrue();
+        assertThat(encoder.matches("fourth", hashes.get(3))).isTrue();
+        encoder.close();
+    }
+
+    @Test
+    void encodeAll_whenPoolIsFull_hashesOnCallingThread() throws Exception {
+        AtomicReference<String> fallbackThread = new AtomicReference<>();
+        CountDownLatch fallbackDone = new CountDownLatch(1);
+        PasswordEncoder delegate = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (rawPassword.toString().startsWith("block")) {
+                    return blockingEncoder().encode(rawPassword);
+                }
+                fallbackThread.set(Thread.currentThread().getName());
+                fallbackDone.countDown();
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        };
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5));
+        CompletableFuture.runAsync(() -> encoder.encode("block-running"));
+        started.await();
+
+        // block-queued fills the queue, so the second password cannot be submitted
+        CompletableFuture<List<String>> hashes = CompletableFuture.supplyAsync(
+                () -> encoder.encodeAll(List.of("block-queued", "fallback"), 2));
+
+        assertThat(fallbackDone.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fallbackThread.get()).doesNotStartWith("password-hashing-");
+
+        release.countDown();
+        assertThat(hashes.get(5, TimeUnit.SECONDS)).containsExactly("block-queued", "fallback");
+        encoder.close();
+    }
+
+    @Test
+    void configuredEncoder_verifiesLegacyHashesAndAsksToUpgradeThem() {
+        PasswordEncoder encoder = new PasswordEncoderConfig().passwordEncoder(5, 1, 1, Duration.ofSeconds(5));
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password123");
+
+        assertThat(encoder.matches("password123", legacyHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacyHash)).isTrue();
+    }
+
+    @Test
+    void configuredEncoder_asksToUpgradeHashesWithLowerCost() {
+        String weakHash = new PasswordEncoderConfig().passwordEncoder(4, 1, 1, Duration.ofSeconds(5)).encode("password123");
+        PasswordEncoder encoder = new PasswordEncoderConfig().passwordEncoder(5, 1, 1, Duration.ofSeconds(5));
+        String currentHash = encoder.encode("password123");
+
+        assertThat(currentHash).startsWith("{bcrypt}");
+        assertThat(encoder.matches("password123", weakHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(weakHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(currentHash)).isFalse();
+    }
+
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                // keeps the worker busy even when the first caller times out and cancels it
+                boolean interrupted = false;
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -1,8 +1,10 @@
 package org.example.ecommerce.UnitTests;
 
 import org.example.ecommerce.Controller.CartController;
+import org.example.ecommerce.DTO.CartItemQuantityDto;
 import org.example.ecommerce.DTO.ShowCartDto;
 import org.example.ecommerce.DTO.ShowCartItemDto;
+import org.example.ecommerce.DTO.UpdateCartDto;
 import org.example.ecommerce.Exception.GlobalExceptionHandler;
 import org.example.ecommerce.Service.CartService;
 import org.junit.jupiter.api.Test;
@@ -14,9 +16,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -46,7 +50,7 @@ public class CartControllerTest {
 
     @Test
     void showCart_returnsCart() throws Exception {
-        ShowCartDto dto = new ShowCartDto(List.of(new ShowCartItemDto(1L, "Product", "desc", 10.0, 1)));
+        ShowCartDto dto = new ShowCartDto(List.of(new ShowCartItemDto(1L, "Product", "desc", 10.0, 1)), new BigDecimal("10.00"));
         when(cartService.showCart()).thenReturn(dto);
 
         mockMvc.perform(get("/api/cart"))
@@ -55,6 +59,34 @@ public class CartControllerTest {
                 .andExpect(jsonPath("$.cart.length()").value(1));
     }
 
+    @Test
+    void updateCart_returnsUpdatedCart() throws Exception {
+        UpdateCartDto update = new UpdateCartDto(List.of(new CartItemQuantityDto(1L, 3), new CartItemQuantityDto(2L, 0)));
+        when(cartService.updateCart(update)).thenReturn(
+                new ShowCartDto(List.of(new ShowCartItemDto(1L, "Product", "desc", 10.0, 3)), new BigDecimal("30.00")));
+
+        mockMvc.perform(patch("/api/cart")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"items":[{"productId":1,"quantity":3},{"productId":2,"quantity":0}]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cart[0].quantity").value(3))
+                .andExpect(jsonPath("$.totalPrice").value(30.0));
+    }
+
+    @Test
+    void updateCart_withNegativeQuantity_returnsBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/cart")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"items":[{"productId":1,"quantity":-1}]}
+                                """))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(cartService);
+    }
+
     @Test
     void deleteItemFromCart_returnsNoContent() throws Exception {
         doNothing().when(cartService).deleteItemFromCart(1L);
@@ -1,7 +1,10 @@
 package org.example.ecommerce.UnitTests;
 
+import org.example.ecommerce.DTO.CartItemQuantityDto;
 import org.example.ecommerce.DTO.ShowCartItemDto;
+import org.example.ecommerce.DTO.UpdateCartDto;
 import org.example.ecommerce.Exception.EmptyCartException;
+import org.example.ecommerce.Exception.InvalidCartUpdateException;
 import org.example.ecommerce.Exception.OutOfStockException;
 import org.example.ecommerce.Exception.ProductNotFoundException;
 import org.example.ecommerce.Mappers.CartItemMapper;
@@ -14,6 +17,7 @@ import org.example.ecommerce.Repository.CartRepository;
 import org.example.ecommerce.Repository.ProductRepository;
 import org.example.ecommerce.Repository.UserRepository;
 import org.example.ecommerce.Service.CartService;
+import org.example.ecommerce.Service.CurrentUserResolver;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -48,6 +52,8 @@ public class CartServiceTest {
     private ProductRepository productRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private CurrentUserResolver currentUserResolver;
 
     @InjectMocks
     private CartService cartService;
@@ -61,8 +67,11 @@ public class CartServiceTest {
         SecurityContextHolder.getContext().setAuthentication(auth);
 
         user = new User();
+        user.setId(1L);
         user.setUsername("test123");
         user.setCart(null);
+        lenient().when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
+        lenient().when(cartRepository.findWithItemsByUserId(1L)).thenAnswer(invocation -> Optional.ofNullable(user.getCart()));
 
         product = new Product();
         product.setId(1L);
@@ -78,7 +87,6 @@ public class CartServiceTest {
 
     @Test
     void addProductToCart_whenCartIsNull_createsCartAndAddsItem() {
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
         when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(cartItemRepository.save(any(CartItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -86,16 +94,17 @@ public class CartServiceTest {
         ShowCartItemDto showCartItemDto = new ShowCartItemDto(1L, "Test Product", "desc", 10.0, 1);
         when(cartItemMapper.cartItemToShowCartItemDto(any(CartItem.class))).thenReturn(showCartItemDto);
 
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
         ShowCartItemDto result = cartService.addProductToCart(1L);
 
         assertThat(result).isEqualTo(showCartItemDto);
-        verify(cartRepository, atLeastOnce()).save(any(Cart.class));
+        verify(cartRepository, atLeastOnce()).save(argThat((Cart cart) -> cart.getUser() == user));
         verify(cartItemRepository).save(any(CartItem.class));
     }
 
     @Test
     void addProductToCart_whenProductMissing_throwsException() {
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ProductNotFoundException.class, () -> cartService.addProductToCart(1L));
@@ -113,8 +122,6 @@ public class CartServiceTest {
         cart.getCartItems().add(cartItem);
         user.setCart(cart);
 
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
         when(cartItemRepository.save(any(CartItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(cartItemMapper.cartItemToShowCartItemDto(any(CartItem.class)))
                 .thenReturn(new ShowCartItemDto(1L, "Test Product", "desc", 10.0, 2));
@@ -123,11 +130,11 @@ public class CartServiceTest {
 
         assertThat(cartItem.getQuantity()).isEqualTo(2);
         verify(cartItemRepository).save(cartItem);
+        verify(productRepository, never()).findById(anyLong());
     }
 
     @Test
     void showCart_whenCartIsNull_returnsEmptyList() {
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
 
         var response = cartService.showCart();
 
@@ -148,7 +155,6 @@ public class CartServiceTest {
 
         user.setCart(cart);
 
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
         when(cartItemMapper.cartItemToShowCartItemDto(cartItem))
                 .thenReturn(new ShowCartItemDto(1L, "Test Product", "desc", 10.0, 1));
 
@@ -159,7 +165,6 @@ public class CartServiceTest {
 
     @Test
     void deleteItemFromCart_whenCartIsNull_throwsException() {
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
 
         assertThrows(EmptyCartException.class, () -> cartService.deleteItemFromCart(1L));
         verify(cartRepository, never()).save(any(Cart.class));
@@ -178,7 +183,6 @@ public class CartServiceTest {
 
         user.setCart(cart);
 
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
 
         cartService.deleteItemFromCart(1L);
 
@@ -188,7 +192,6 @@ public class CartServiceTest {
 
     @Test
     void increaseQuantity_whenCartMissing_throwsException() {
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
 
         assertThrows(EmptyCartException.class, () -> cartService.increaseQuantityOfProductInCart(1L));
     }
@@ -199,7 +202,6 @@ public class CartServiceTest {
         cart.setUser(user);
         user.setCart(cart);
 
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
 
         assertThrows(ProductNotFoundException.class, () -> cartService.increaseQuantityOfProductInCart(1L));
     }
@@ -211,6 +213,7 @@ public class CartServiceTest {
 
         Product lowStock = new Product();
         lowStock.setId(1L);
+        lowStock.setPrice(new BigDecimal("10.00"));
         lowStock.setAvailableQuantity(1);
 
         CartItem cartItem = new CartItem();
@@ -220,7 +223,6 @@ public class CartServiceTest {
         cart.getCartItems().add(cartItem);
 
         user.setCart(cart);
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
 
         assertThrows(OutOfStockException.class, () -> cartService.increaseQuantityOfProductInCart(1L));
         assertThat(cartItem.getQuantity()).isEqualTo(1);
@@ -238,7 +240,6 @@ public class CartServiceTest {
         cart.getCartItems().add(cartItem);
 
         user.setCart(cart);
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
 
         cartService.increaseQuantityOfProductInCart(1L);
 
@@ -257,7 +258,6 @@ public class CartServiceTest {
         cart.getCartItems().add(cartItem);
 
         user.setCart(cart);
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
 
         cartService.decreaseQuantityOfProductInCart(1L);
 
@@ -276,7 +276,6 @@ public class CartServiceTest {
         cart.getCartItems().add(cartItem);
 
         user.setCart(cart);
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
 
         cartService.decreaseQuantityOfProductInCart(1L);
 
@@ -285,7 +284,6 @@ public class CartServiceTest {
 
     @Test
     void clearCart_whenCartMissing_throwsException() {
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
 
         assertThrows(EmptyCartException.class, () -> cartService.clearCart());
     }
@@ -298,12 +296,12 @@ public class CartServiceTest {
         CartItem cartItem = new CartItem();
         cartItem.setProduct(product);
         cartItem.setQuantity(1);
+        cartItem.setUnitPriceCents(1000);
         cartItem.setCart(cart);
-        cart.getCartItems().add(cartItem);
-        cart.setTotalPrice(new BigDecimal("10.00"));
+        cart.addItem(cartItem);
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo("10.00");
 
         user.setCart(cart);
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
 
         cartService.clearCart();
 
@@ -315,10 +313,126 @@ public class CartServiceTest {
     void clearCartWithCart_whenEmpty_setsTotalToZero() {
         Cart cart = new Cart();
         cart.setUser(user);
-        cart.setTotalPrice(new BigDecimal("5.00"));
 
         cartService.clearCart(cart);
 
         assertThat(cart.getTotalPrice()).isEqualByComparingTo(BigDecimal.ZERO);
     }
+
+    @Test
+    void mutations_keepTheTotalAsARunningSumOfUnitPrices() {
+        Cart cart = new Cart();
+        cart.setUser(user);
+        user.setCart(cart);
+        Product pen = new Product();
+        pen.setId(2L);
+        pen.setPrice(new BigDecimal("1.25"));
+        pen.setAvailableQuantity(5);
+        when(productRepository.findById(anyLong())).thenAnswer(invocation ->
+                Optional.of(invocation.<Long>getArgument(0) == 1L ? product : pen));
+        when(cartItemRepository.save(any(CartItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        cartService.addProductToCart(1L);
+        cartService.addProductToCart(2L);
+        cartService.increaseQuantityOfProductInCart(2L);
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo("12.50");
+
+        cartService.decreaseQuantityOfProductInCart(2L);
+        cartService.deleteItemFromCart(1L);
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo("1.25");
+    }
+
+    @Test
+    void showCart_afterPriceChange_repricesTheItemsAndTotal() {
+        Cart cart = new Cart();
+        cart.setUser(user);
+        CartItem cartItem = new CartItem();
+        cartItem.setProduct(product);
+        cartItem.setQuantity(3);
+        cartItem.setUnitPriceCents(1000);
+        cartItem.setCart(cart);
+        cart.addItem(cartItem);
+        user.setCart(cart);
+
+        product.setPrice(new BigDecimal("8.99"));
+        var response = cartService.showCart();
+
+        assertThat(response.totalPrice()).isEqualByComparingTo("26.97");
+        assertThat(cartItem.getUnitPriceCents()).isEqualTo(899);
+    }
+
+    @Test
+    void increaseQuantity_ofAnItemWithoutUnitPrice_repricesBeforeApplyingTheDelta() {
+        // an item added before unit prices were kept: the column was added with 0 and the total summed without it
+        Cart cart = new Cart();
+        cart.setUser(user);
+        CartItem cartItem = new CartItem();
+        cartItem.setProduct(product);
+        cartItem.setQuantity(1);
+        cartItem.setCart(cart);
+        cart.getCartItems().add(cartItem);
+        user.setCart(cart);
+
+        cartService.increaseQuantityOfProductInCart(1L);
+
+        assertThat(cartItem.getUnitPriceCents()).isEqualTo(1000);
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void updateCart_setsAddsAndRemovesItemsWithOneProductQuery() {
+        Cart cart = new Cart();
+        cart.setUser(user);
+        CartItem cartItem = new CartItem();
+        cartItem.setProduct(product);
+        cartItem.setQuantity(1);
+        cartItem.setUnitPriceCents(1000);
+        cartItem.setCart(cart);
+        cart.addItem(cartItem);
+        user.setCart(cart);
+        Product pen = new Product();
+        pen.setId(2L);
+        pen.setPrice(new BigDecimal("1.25"));
+        pen.setAvailableQuantity(5);
+        when(productRepository.findAllById(any())).thenReturn(List.of(product, pen));
+
+        var response = cartService.updateCart(new UpdateCartDto(List.of(
+                new CartItemQuantityDto(2L, 4), new CartItemQuantityDto(1L, 3))));
+
+        assertThat(cart.getCartItems()).extracting(CartItem::getQuantity).containsExactly(3, 4);
+        assertThat(response.totalPrice()).isEqualByComparingTo("35.00");
+        verify(productRepository, times(1)).findAllById(any());
+
+        cartService.updateCart(new UpdateCartDto(List.of(new CartItemQuantityDto(1L, 0))));
+        assertThat(cart.getCartItems()).extracting(item -> item.getProduct().getId()).containsExactly(2L);
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void updateCart_whenOneProductIsOutOfStock_changesNothing() {
+        Cart cart = new Cart();
+        cart.setUser(user);
+        user.setCart(cart);
+        Product pen = new Product();
+        pen.setId(2L);
+        pen.setProductName("Pen");
+        pen.setPrice(new BigDecimal("1.25"));
+        pen.setAvailableQuantity(1);
+        when(productRepository.findAllById(any())).thenReturn(List.of(product, pen));
+
+        assertThrows(OutOfStockException.class, () -> cartService.updateCart(new UpdateCartDto(List.of(
+                new CartItemQuantityDto(1L, 2), new CartItemQuantityDto(2L, 2)))));
+
+        assertThat(cart.getCartItems()).isEmpty();
+    }
+
+    @Test
+    void updateCart_withUnknownOrRepeatedProduct_throwsException() {
+        when(productRepository.findAllById(any())).thenReturn(List.of());
+
+        assertThrows(ProductNotFoundException.class, () -> cartService.updateCart(
+                new UpdateCartDto(List.of(new CartItemQuantityDto(9L, 1)))));
+        assertThrows(InvalidCartUpdateException.class, () -> cartService.updateCart(
+                new UpdateCartDto(List.of(new CartItemQuantityDto(1L, 1), new CartItemQuantityDto(1L, 2)))));
+    }
 }
@@ -3,12 +3,14 @@ package org.example.ecommerce.UnitTests;
 import org.example.ecommerce.Controller.CategoryController;
 import org.example.ecommerce.DTO.AdminCategoryDto;
 import org.example.ecommerce.Exception.GlobalExceptionHandler;
+import org.example.ecommerce.Exception.InvalidCategoryMoveException;
 import org.example.ecommerce.Service.CategoryService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -18,6 +20,8 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,7 +40,7 @@ public class CategoryControllerTest {
     @Test
     void createCategory_returnsCreated() throws Exception {
         AdminCategoryDto dto = new AdminCategoryDto(1L, "Books");
-        when(categoryService.createCategory("Books")).thenReturn(dto);
+        when(categoryService.createCategory("Books", null)).thenReturn(dto);
 
         mockMvc.perform(post("/api/categories")
                         .contentType(MediaType.TEXT_PLAIN)
@@ -67,16 +71,59 @@ public class CategoryControllerTest {
                 .andExpect(jsonPath("$.categoryName").value("Books"));
     }
 
+    @Test
+    void moveCategory_returnsOk() throws Exception {
+        AdminCategoryDto dto = new AdminCategoryDto(2L, "Phones");
+        when(categoryService.moveCategory(2L, 1L)).thenReturn(dto);
+
+        mockMvc.perform(put("/api/categories/2/parent").param("parentId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(2));
+    }
+
+    @Test
+    void moveCategory_belowDescendant_returnsBadRequest() throws Exception {
+        when(categoryService.moveCategory(1L, 2L))
+                .thenThrow(new InvalidCategoryMoveException("Category 1 cannot be moved below itself or its subcategory 2"));
+
+        mockMvc.perform(put("/api/categories/1/parent").param("parentId", "2"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getBreadcrumb_returnsCategoriesFromTheRoot() throws Exception {
+        when(categoryService.getBreadcrumb(2L))
+                .thenReturn(List.of(new AdminCategoryDto(1L, "Electronics"), new AdminCategoryDto(2L, "Phones")));
+
+        mockMvc.perform(get("/api/categories/2/breadcrumb"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].id").value(2));
+    }
+
     @Test
     void getAllCategories_returnsList() throws Exception {
+        when(categoryService.getCategoriesETag()).thenReturn("\"categories-1-100\"");
         when(categoryService.getAllCategories()).thenReturn(List.of(new AdminCategoryDto(1L, "Books")));
 
         mockMvc.perform(get("/api/categories"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"categories-1-100\""))
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].id").value(1));
     }
 
+    @Test
+    void getAllCategories_whenETagMatches_returnsNotModifiedWithoutLoadingCategories() throws Exception {
+        when(categoryService.getCategoriesETag()).thenReturn("\"categories-1-100\"");
+
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, "\"categories-1-100\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(categoryService, never()).getAllCategories();
+    }
+
     @Test
     void getCategoryById_returnsOk() throws Exception {
         AdminCategoryDto dto = new AdminCategoryDto(1L, "Books");
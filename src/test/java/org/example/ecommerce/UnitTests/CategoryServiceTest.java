@@ -1,11 +1,15 @@
 package org.example.ecommerce.UnitTests;
 
 import org.example.ecommerce.DTO.AdminCategoryDto;
+import org.example.ecommerce.DTO.CategoryRowDto;
 import org.example.ecommerce.Exception.CategoryNotFoundException;
+import org.example.ecommerce.Exception.InvalidCategoryMoveException;
 import org.example.ecommerce.Mappers.CategoryMapper;
 import org.example.ecommerce.Model.Category;
 import org.example.ecommerce.Repository.CategoryRepository;
 import org.example.ecommerce.Service.CategoryService;
+import org.example.ecommerce.Service.CategoryTree;
+import org.example.ecommerce.Service.CategoryTreeSnapshot;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -14,6 +18,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +34,8 @@ public class CategoryServiceTest {
     private CategoryRepository categoryRepository;
     @Mock
     private CategoryMapper categoryMapper;
+    @Mock
+    private CategoryTreeSnapshot categoryTreeSnapshot;
 
     @InjectMocks
     private CategoryService categoryService;
@@ -42,7 +49,7 @@ public class CategoryServiceTest {
         when(categoryRepository.save(category)).thenReturn(category);
         when(categoryMapper.categoryToAdminCategoryDto(category)).thenReturn(dto);
 
-        AdminCategoryDto result = categoryService.createCategory("Books");
+        AdminCategoryDto result = categoryService.createCategory("Books", null);
 
         assertThat(result).isEqualTo(dto);
     }
@@ -108,15 +115,94 @@ public class CategoryServiceTest {
     }
 
     @Test
-    void getAllCategories_returnsMappedList() {
+    void createCategory_withParent_storesPathBelowParent() {
+        Category parent = category(1L, "/");
         Category category = new Category();
-        AdminCategoryDto dto = new AdminCategoryDto(1L, "Books");
 
-        when(categoryRepository.findAll()).thenReturn(List.of(category));
-        when(categoryMapper.categoryToAdminCategoryDto(category)).thenReturn(dto);
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(parent));
+        when(categoryMapper.categoryNameToCategory("Phones")).thenReturn(category);
+        when(categoryRepository.save(category)).thenReturn(category);
+
+        categoryService.createCategory("Phones", 1L);
+
+        assertThat(category.getParentCategory()).isSameAs(parent);
+        assertThat(category.getPath()).isEqualTo("/1/");
+        verify(categoryTreeSnapshot).rebuildAfterCommit();
+    }
+
+    @Test
+    void moveCategory_rewritesPathOfSubtree() {
+        Category category = category(2L, "/1/");
+        Category parent = category(3L, "/");
+
+        when(categoryRepository.findById(2L)).thenReturn(Optional.of(category));
+        when(categoryRepository.findById(3L)).thenReturn(Optional.of(parent));
+
+        categoryService.moveCategory(2L, 3L);
+
+        assertThat(category.getPath()).isEqualTo("/3/");
+        verify(categoryRepository).moveSubtree(eq("/1/2/"), eq("/3/2/"), any(Instant.class));
+        verify(categoryTreeSnapshot).rebuildAfterCommit();
+    }
+
+    @Test
+    void moveCategory_belowDescendant_throwsException() {
+        Category category = category(1L, "/");
+        Category descendant = category(5L, "/1/2/");
+
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.findById(5L)).thenReturn(Optional.of(descendant));
+
+        assertThrows(InvalidCategoryMoveException.class, () -> categoryService.moveCategory(1L, 5L));
+        verify(categoryRepository, never()).moveSubtree(any(), any(), any());
+    }
+
+    @Test
+    void getBreadcrumb_whenMissing_throwsException() {
+        when(categoryTreeSnapshot.current()).thenReturn(CategoryTree.build(List.of()));
+
+        assertThrows(CategoryNotFoundException.class, () -> categoryService.getBreadcrumb(1L));
+    }
+
+    @Test
+    void getSubtreePath_appendsTheCategoryToItsPath() {
+        when(categoryTreeSnapshot.current()).thenReturn(CategoryTree.build(List.of(
+                new CategoryRowDto(1L, "Electronics", null, "/", null),
+                new CategoryRowDto(2L, "Phones", 1L, "/1/", null))));
+
+        assertThat(categoryService.getSubtreePath(1L)).isEqualTo("/1/");
+        assertThat(categoryService.getSubtreePath(2L)).isEqualTo("/1/2/");
+        assertThrows(CategoryNotFoundException.class, () -> categoryService.getSubtreePath(3L));
+    }
+
+    @Test
+    void getAllCategories_returnsCategoriesOfSnapshot() {
+        when(categoryTreeSnapshot.current()).thenReturn(CategoryTree.build(List.of(
+                new CategoryRowDto(2L, "Phones", 1L, "/1/", null),
+                new CategoryRowDto(1L, "Electronics", null, "/", null))));
 
         List<AdminCategoryDto> result = categoryService.getAllCategories();
 
-        assertThat(result).containsExactly(dto);
+        assertThat(result).containsExactly(new AdminCategoryDto(1L, "Electronics"), new AdminCategoryDto(2L, "Phones"));
+    }
+
+    @Test
+    void getCategoriesETag_isTakenFromTheSnapshotServed() {
+        Instant modified = Instant.parse("2026-01-01T10:00:00Z");
+        when(categoryTreeSnapshot.current()).thenReturn(CategoryTree.build(List.of(
+                new CategoryRowDto(1L, "Electronics", null, "/", modified.minusSeconds(60)),
+                new CategoryRowDto(2L, "Phones", 1L, "/1/", modified))));
+
+        String eTag = categoryService.getCategoriesETag();
+
+        assertThat(eTag).isEqualTo("\"categories-2-" + modified.toEpochMilli() * 1000 + "\"");
+        verifyNoInteractions(categoryRepository);
+    }
+
+    private Category category(Long id, String path) {
+        Category category = new Category();
+        category.setId(id);
+        category.setPath(path);
+        return category;
     }
 }
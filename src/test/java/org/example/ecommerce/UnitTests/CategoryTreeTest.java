@@ -0,0 +1,63 @@
+package org.example.ecommerce.UnitTests;
+
+import org.example.ecommerce.DTO.AdminCategoryDto;
+import org.example.ecommerce.DTO.CategoryRowDto;
+import org.example.ecommerce.Service.CategoryTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CategoryTreeTest {
+
+    private final CategoryTree tree = CategoryTree.build(List.of(
+            new CategoryRowDto(1L, "Electronics", null, "/", null),
+            new CategoryRowDto(2L, "Phones", 1L, "/1/", null),
+            new CategoryRowDto(3L, "Android", 2L, "/1/2/", null),
+            new CategoryRowDto(4L, "Laptops", 1L, "/1/", null),
+            new CategoryRowDto(5L, "Books", null, "/", null)));
+
+    @Test
+    void subtreeIds_containCategoryAndAllDescendants() {
+        assertThat(tree.subtreeIds(1L)).hasValueSatisfying(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 2L, 3L, 4L));
+        assertThat(tree.subtreeIds(2L)).hasValueSatisfying(ids -> assertThat(ids).containsExactlyInAnyOrder(2L, 3L));
+        assertThat(tree.subtreeIds(5L)).hasValueSatisfying(ids -> assertThat(ids).containsExactly(5L));
+    }
+
+    @Test
+    void breadcrumb_goesFromRootToCategory() {
+        assertThat(tree.breadcrumb(3L)).hasValue(List.of(
+                new AdminCategoryDto(1L, "Electronics"),
+                new AdminCategoryDto(2L, "Phones"),
+                new AdminCategoryDto(3L, "Android")));
+    }
+
+    @Test
+    void path_listsAncestorIds() {
+        assertThat(tree.path(1L)).hasValue("/");
+        assertThat(tree.path(3L)).hasValue("/1/2/");
+    }
+
+    @Test
+    void unknownCategory_isEmpty() {
+        assertThat(tree.subtreeIds(99L)).isEmpty();
+        assertThat(tree.breadcrumb(99L)).isEmpty();
+    }
+
+    @Test
+    void categories_areSortedById() {
+        assertThat(tree.categories()).extracting(AdminCategoryDto::id).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void build_leavesOutCategoriesInACycle() {
+        CategoryTree cyclic = CategoryTree.build(List.of(
+                new CategoryRowDto(1L, "Electronics", null, "/", null),
+                new CategoryRowDto(2L, "Phones", 3L, "/", null),
+                new CategoryRowDto(3L, "Android", 2L, "/", null)));
+
+        assertThat(cyclic.categories()).extracting(AdminCategoryDto::id).containsExactly(1L);
+        assertThat(cyclic.subtreeIds(2L)).isEmpty();
+    }
+}
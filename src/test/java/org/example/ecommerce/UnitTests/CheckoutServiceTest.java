@@ -9,8 +9,10 @@ import org.example.ecommerce.Mappers.OrderMapper;
 import org.example.ecommerce.Model.*;
 import org.example.ecommerce.Repository.OrderRepository;
 import org.example.ecommerce.Repository.ProductRepository;
-import org.example.ecommerce.Repository.UserRepository;
+import org.example.ecommerce.Service.BestsellerService;
 import org.example.ecommerce.Service.CheckoutService;
+import org.example.ecommerce.Service.CurrentUserResolver;
+import org.example.ecommerce.Service.ProductViewCache;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +23,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,13 +36,17 @@ import static org.mockito.Mockito.*;
 public class CheckoutServiceTest {
 
     @Mock
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUserResolver;
     @Mock
     private OrderRepository orderRepository;
     @Mock
     private OrderMapper orderMapper;
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private ProductViewCache productViewCache;
+    @Mock
+    private BestsellerService bestsellerService;
 
     @InjectMocks
     private CheckoutService checkoutService;
@@ -63,7 +70,7 @@ public class CheckoutServiceTest {
 
     @Test
     void checkout_whenOrderMissing_throwsException() {
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
         when(orderRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(OrderNotFoundException.class, () -> checkoutService.checkout(1L));
@@ -77,7 +84,7 @@ public class CheckoutServiceTest {
         Order order = new Order();
         order.setUser(otherUser);
 
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
 
         assertThrows(UnauthorizedOrderAccessException.class, () -> checkoutService.checkout(1L));
@@ -89,7 +96,7 @@ public class CheckoutServiceTest {
         order.setUser(user);
         order.setOrderStatus(OrderStatus.IN_PROGRESS);
 
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
 
         assertThrows(OrderAlreadyCheckedOutException.class, () -> checkoutService.checkout(1L));
@@ -109,11 +116,12 @@ public class CheckoutServiceTest {
         order.setOrderStatus(OrderStatus.PENDING);
         order.setOrderItems(List.of(orderItem));
 
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(productRepository.decreaseAvailableQuantity(10L, 5)).thenReturn(0);
+        when(productRepository.decreaseAvailableQuantity(eq(10L), eq(5), any(Instant.class))).thenReturn(0);
 
         assertThrows(OutOfStockException.class, () -> checkoutService.checkout(1L));
+        verifyNoInteractions(bestsellerService);
     }
 
     @Test
@@ -132,14 +140,16 @@ public class CheckoutServiceTest {
 
         ShowCheckoutOrderDto dto = new ShowCheckoutOrderDto("ORD-1", "PENDING", null, "STANDARD", 10.0);
 
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(productRepository.decreaseAvailableQuantity(10L, 1)).thenReturn(1);
+        when(productRepository.decreaseAvailableQuantity(eq(10L), eq(1), any(Instant.class))).thenReturn(1);
         when(orderMapper.orderToShowCheckoutOrderDto(order)).thenReturn(dto);
 
         ShowCheckoutOrderDto result = checkoutService.checkout(1L);
 
         assertThat(result).isEqualTo(dto);
         assertThat(order.getOrderStatus()).isEqualTo(OrderStatus.IN_PROGRESS);
+        verify(productViewCache).evictAfterCommit(10L);
+        verify(bestsellerService).recordSales(order);
     }
 }
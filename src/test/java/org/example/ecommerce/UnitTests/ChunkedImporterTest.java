@@ -0,0 +1,130 @@
+package org.example.ecommerce.UnitTests;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotBlank;
+import org.example.ecommerce.DTO.ImportRowErrorDto;
+import org.example.ecommerce.Exception.InvalidImportFileException;
+import org.example.ecommerce.Service.ChunkedImporter;
+import org.example.ecommerce.Service.CsvColumns;
+import org.example.ecommerce.Service.ImportReport;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChunkedImporterTest {
+
+    private static Validator validator;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ChunkedImporter chunkedImporter;
+
+    @BeforeAll
+    static void setUpValidator() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @BeforeEach
+    void setUp() {
+        chunkedImporter = new ChunkedImporter(validator, entityManager);
+    }
+
+    @Test
+    void run_handsOnRowsInChunksAndSkipsBlankLines() throws Exception {
+        List<List<Long>> chunks = new ArrayList<>();
+
+        ImportReport report = chunkedImporter.run(reader("a\n\nb\nc\n"), 1, 2,
+                (lineNumber, line, progress) -> lineNumber,
+                (chunk, progress) -> {
+                    chunks.add(List.copyOf(chunk));
+                    chunkedImporter.save(chunk, () -> { }, "rolled back", progress);
+                });
+
+        assertThat(chunks).containsExactly(List.of(2L, 4L), List.of(5L));
+        assertThat(report.imported()).isEqualTo(3);
+        assertThat(report.failed()).isZero();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void validate_reportsSortedMessages() {
+        ImportReport report = new ImportReport();
+
+        boolean valid = chunkedImporter.validate(7, new Row(" ", ""), report);
+
+        assertThat(valid).isFalse();
+        assertThat(report.errors()).containsExactly(new ImportRowErrorDto(7, "a is blank, b is blank"));
+    }
+
+    @Test
+    void save_whenTheChunkIsRolledBack_failsEveryLine() {
+        ImportReport report = new ImportReport();
+
+        chunkedImporter.save(List.of(2L, 3L), () -> {
+            throw new DataIntegrityViolationException("duplicate key");
+        }, "rolled back", report);
+
+        assertThat(report.imported()).isZero();
+        assertThat(report.errors()).containsExactly(new ImportRowErrorDto(2, "rolled back"),
+                new ImportRowErrorDto(3, "rolled back"));
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void report_withMoreErrorsThanReported_keepsTheLowestLines() {
+        ImportReport report = new ImportReport();
+        // a row rejected while its chunk is inserted fails after the parse errors of later lines
+        for (long line = 3; line < 153; line++) {
+            report.fail(line, "invalid");
+        }
+        report.fail(2, "exists");
+
+        assertThat(report.failed()).isEqualTo(151);
+        assertThat(report.errors()).hasSize(100);
+        assertThat(report.errors().get(0)).isEqualTo(new ImportRowErrorDto(2, "exists"));
+        assertThat(report.errors()).extracting(ImportRowErrorDto::line).isSorted().last().isEqualTo(101L);
+    }
+
+    @Test
+    void readHeader_matchesColumnsIgnoringCaseAndOrder() throws Exception {
+        CsvColumns columns = CsvColumns.readHeader(reader("Email,USERNAME\n"), List.of("username", "email"));
+
+        assertThat(columns.field(List.of("alice@example.com", "alice"), "username")).isEqualTo("alice");
+        assertThat(columns.field(List.of("alice@example.com"), "username")).isNull();
+        assertThat(columns.field(List.of("alice@example.com", "alice"), "role")).isNull();
+    }
+
+    @Test
+    void readHeader_withoutRequiredColumns_namesThemAll() {
+        assertThatThrownBy(() -> CsvColumns.readHeader(reader("username\n"), List.of("username", "email", "password")))
+                .isInstanceOf(InvalidImportFileException.class)
+                .hasMessage("The header must contain the columns username, email and password");
+        assertThatThrownBy(() -> CsvColumns.readHeader(reader(""), List.of("username")))
+                .isInstanceOf(InvalidImportFileException.class)
+                .hasMessage("The import file is empty");
+    }
+
+    private static BufferedReader reader(String content) {
+        return new BufferedReader(new StringReader(content));
+    }
+
+    private record Row(@NotBlank(message = "a is blank") String a, @NotBlank(message = "b is blank") String b) {
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.ecommerce.UnitTests;
+
+import jakarta.persistence.EntityManager;
+import org.example.ecommerce.Jwt.AuthenticatedUser;
+import org.example.ecommerce.Model.User;
+import org.example.ecommerce.Model.UserRole;
+import org.example.ecommerce.Repository.UserRepository;
+import org.example.ecommerce.Service.CurrentUserResolver;
+import org.example.ecommerce.Service.UserFetchPlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CurrentUserResolverTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private CurrentUserResolver currentUserResolver;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setUsername("test123");
+
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "test123", UserRole.CUSTOMER, 0);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getCurrentUserId_takesIdFromJwtPrincipal() {
+        assertThat(currentUserResolver.getCurrentUserId()).isEqualTo(1L);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getCurrentUserId_withUsernamePrincipal_looksUpIdOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("test123", "test123"));
+        when(userRepository.findIdByUsername("test123")).thenReturn(Optional.of(1L));
+
+        currentUserResolver.getCurrentUserId();
+        Long id = currentUserResolver.getCurrentUserId();
+
+        assertThat(id).isEqualTo(1L);
+        verify(userRepository, times(1)).findIdByUsername("test123");
+    }
+
+    @Test
+    void getCurrentUser_withinRequest_loadsEachPlanOnce() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userRepository.findWithCartById(1L)).thenReturn(Optional.of(user));
+        when(entityManager.contains(user)).thenReturn(true);
+
+        User first = currentUserResolver.getCurrentUser(UserFetchPlan.CART);
+        User second = currentUserResolver.getCurrentUser(UserFetchPlan.CART);
+
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findWithCartById(1L);
+    }
+
+    @Test
+    void getCurrentUser_withinRequest_loadsMissingPlan() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userRepository.findWithCartById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findWithAddressesById(1L)).thenReturn(Optional.of(user));
+
+        currentUserResolver.getCurrentUser(UserFetchPlan.CART);
+        currentUserResolver.getCurrentUser(UserFetchPlan.ADDRESSES);
+
+        verify(userRepository).findWithCartById(1L);
+        verify(userRepository).findWithAddressesById(1L);
+    }
+
+    @Test
+    void getCurrentUser_whenRememberedUserIsDetached_reloads() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userRepository.findWithCartById(1L)).thenReturn(Optional.of(user));
+        when(entityManager.contains(user)).thenReturn(false);
+
+        currentUserResolver.getCurrentUser(UserFetchPlan.CART);
+        currentUserResolver.getCurrentUser(UserFetchPlan.CART);
+
+        verify(userRepository, times(2)).findWithCartById(1L);
+    }
+
+    @Test
+    void getCurrentUser_outsideRequest_loadsEveryTime() {
+        when(userRepository.findWithCartById(1L)).thenReturn(Optional.of(user));
+
+        currentUserResolver.getCurrentUser(UserFetchPlan.CART);
+        currentUserResolver.getCurrentUser(UserFetchPlan.CART);
+
+        verify(userRepository, times(2)).findWithCartById(1L);
+        verifyNoInteractions(entityManager);
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.ecommerce.UnitTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.ecommerce.Model.User;
+import org.example.ecommerce.Model.UserRole;
+import org.example.ecommerce.Repository.UserRepository;
+import org.example.ecommerce.Service.CustomUserDetailsService;
+import org.example.ecommerce.Service.UserSecuritySnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CustomUserDetailsService userDetailsService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new CustomUserDetailsService(userRepository, meterRegistry, Duration.ofMinutes(10), 100);
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("test123");
+        user.setPassword("hash");
+        user.setRole(UserRole.CUSTOMER);
+    }
+
+    @Test
+    void loadUserByUsername_returnsSnapshotOfUser() {
+        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+
+        UserDetails details = userDetailsService.loadUserByUsername("test123");
+
+        assertThat(details).isEqualTo(UserSecuritySnapshot.of(user));
+        assertThat(details.getPassword()).isEqualTo("hash");
+        assertThat(details.getAuthorities()).extracting("authority").containsExactly("CUSTOMER");
+    }
+
+    @Test
+    void loadUserByUsername_secondCallIsServedFromCache() {
+        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("test123");
+        userDetailsService.loadUserByUsername("test123");
+
+        verify(userRepository, times(1)).findByUsername("test123");
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void loadUserByUsername_whenMissing_throwsAndDoesNotCacheTheMiss() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    void evictByUsername_forcesReload() {
+        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("test123");
+        userDetailsService.evict("test123");
+        userDetailsService.loadUserByUsername("test123");
+
+        verify(userRepository, times(2)).findByUsername("test123");
+    }
+
+    @Test
+    void evictById_dropsEntryCachedUnderOldUsername() {
+        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("test123");
+        userDetailsService.evict(1L);
+        userDetailsService.loadUserByUsername("test123");
+
+        verify(userRepository, times(2)).findByUsername("test123");
+    }
+
+    @Test
+    void evictById_dropsEntriesUnderTheOldAndTheNewUsername() {
+        User renamed = new User();
+        renamed.setId(1L);
+        renamed.setUsername("renamed");
+        renamed.setPassword("hash");
+        renamed.setRole(UserRole.CUSTOMER);
+        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(userRepository.findByUsername("renamed")).thenReturn(Optional.of(renamed));
+
+        userDetailsService.loadUserByUsername("test123");
+        userDetailsService.loadUserByUsername("renamed");
+        userDetailsService.evict(1L);
+        userDetailsService.loadUserByUsername("test123");
+        userDetailsService.loadUserByUsername("renamed");
+
+        verify(userRepository, times(2)).findByUsername("test123");
+        verify(userRepository, times(2)).findByUsername("renamed");
+    }
+
+    @Test
+    void evictById_keepsEntriesOfOtherUsers() {
+        User other = new User();
+        other.setId(2L);
+        other.setUsername("other");
+        other.setPassword("hash");
+        other.setRole(UserRole.CUSTOMER);
+        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(userRepository.findByUsername("other")).thenReturn(Optional.of(other));
+
+        userDetailsService.loadUserByUsername("test123");
+        userDetailsService.loadUserByUsername("other");
+        userDetailsService.evict(1L);
+        userDetailsService.loadUserByUsername("other");
+
+        verify(userRepository, times(1)).findByUsername("other");
+    }
+
+    @Test
+    void updatePassword_storesNewHashAndReturnsUpdatedSnapshot() {
+        UserSecuritySnapshot snapshot = UserSecuritySnapshot.of(user);
+
+        UserDetails updated = userDetailsService.updatePassword(snapshot, "{bcrypt}newhash");
+
+        verify(userRepository).updatePassword("test123", "{bcrypt}newhash");
+        assertThat(updated.getPassword()).isEqualTo("{bcrypt}newhash");
+        assertThat(updated.getUsername()).isEqualTo("test123");
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.ecommerce.UnitTests;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.example.ecommerce.Jwt.JwtKeyRing;
+import org.example.ecommerce.Jwt.JwtUtils;
+import org.example.ecommerce.Model.User;
+import org.example.ecommerce.Model.UserRole;
+import org.example.ecommerce.Service.UserSecuritySnapshot;
+import org.example.ecommerce.utils.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.Key;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtKeyRingTest {
+
+    private static final String SECRET_1 = secret("first-secret-first-secret-first-secret!!");
+    private static final String SECRET_2 = secret("second-secret-second-secret-second-secre");
+
+    @TempDir
+    private Path tempDir;
+
+    private Path keyRingFile;
+    private Authentication authentication;
+
+    @BeforeEach
+    void setUp() {
+        keyRingFile = tempDir.resolve("jwt-keys.properties");
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setRole(UserRole.CUSTOMER);
+        authentication = new UsernamePasswordAuthenticationToken(UserSecuritySnapshot.of(user), null, List.of());
+    }
+
+    @Test
+    void tokenNamesTheActiveKeyInItsHeader() {
+        JwtUtils jwtUtils = jwtUtils(new JwtKeyRing(SECRET_1, "k1", ""));
+
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        assertThat(Jwts.parserBuilder().setSigningKey(key(SECRET_1)).build().parseClaimsJws(token).getHeader().getKeyId())
+                .isEqualTo("k1");
+    }
+
+    @Test
+    void tokenWithoutKidIsVerifiedWithDefaultKey() {
+        JwtUtils jwtUtils = jwtUtils(new JwtKeyRing(SECRET_1, "k1", ""));
+        String legacyToken = Jwts.builder()
+                .setSubject("testuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(key(SECRET_1), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThat(jwtUtils.getUserNameFromJwtToken(legacyToken)).isEqualTo("testuser");
+    }
+
+    @Test
+    void rotationKeepsOldTokensValidUntilTheirKeyIsRemoved() throws IOException {
+        writeKeyRing(1, "active=k1", "key.k1=" + SECRET_1);
+        JwtKeyRing keyRing = new JwtKeyRing(SECRET_1, "default", keyRingFile.toString());
+        JwtUtils jwtUtils = jwtUtils(keyRing);
+        AtomicInteger removals = new AtomicInteger();
+        keyRing.onKeysRemoved(removals::incrementAndGet);
+        String oldToken = jwtUtils.generateJwtToken(authentication);
+
+        writeKeyRing(2, "active=k2", "key.k1=" + SECRET_1, "key.k2=" + SECRET_2);
+        keyRing.reloadIfChanged();
+        String newToken = jwtUtils.generateJwtToken(authentication);
+
+        assertThat(keyRing.signingKey().keyId()).isEqualTo("k2");
+        assertThat(jwtUtils.validateJwtToken(oldToken)).isTrue();
+        assertThat(jwtUtils.validateJwtToken(newToken)).isTrue();
+        assertThat(removals.get()).isZero();
+
+        writeKeyRing(3, "active=k2", "key.k2=" + SECRET_2);
+        keyRing.reloadIfChanged();
+
+        assertThat(jwtUtils.validateJwtToken(oldToken)).isFalse();
+        assertThat(jwtUtils.validateJwtToken(newToken)).isTrue();
+        assertThat(removals.get()).isEqualTo(1);
+    }
+
+    @Test
+    void brokenFileKeepsCurrentKeys() throws IOException {
+        writeKeyRing(1, "active=k1", "key.k1=" + SECRET_1);
+        JwtKeyRing keyRing = new JwtKeyRing(SECRET_1, "default", keyRingFile.toString());
+
+        writeKeyRing(2, "active=missing", "key.k1=" + SECRET_1);
+        keyRing.reloadIfChanged();
+
+        assertThat(keyRing.signingKey().keyId()).isEqualTo("k1");
+        assertThat(keyRing.keyIds()).isEqualTo(Set.of("k1"));
+    }
+
+    private JwtUtils jwtUtils(JwtKeyRing keyRing) {
+        JwtUtils jwtUtils = new JwtUtils(keyRing);
+        TestUtils.setField(jwtUtils, "jwtExpiration", 3600000);
+        return jwtUtils;
+    }
+
+    private void writeKeyRing(int version, String... lines) throws IOException {
+        Files.write(keyRingFile, List.of(lines));
+        // file systems with coarse timestamps would otherwise hide quick rewrites
+        Files.setLastModifiedTime(keyRingFile, FileTime.from(Instant.parse("2025-01-01T00:00:00Z").plusSeconds(version)));
+    }
+
+    private static String secret(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes());
+    }
+
+    private static Key key(String secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+}
@@ -1,14 +1,17 @@
 package org.example.ecommerce.UnitTests;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import org.example.ecommerce.Jwt.AuthenticatedUser;
+import org.example.ecommerce.Jwt.JwtKeyRing;
 import org.example.ecommerce.Jwt.JwtUtils;
 import org.example.ecommerce.Model.User;
 import org.example.ecommerce.Model.UserRole;
+import org.example.ecommerce.Service.UserSecuritySnapshot;
 import org.example.ecommerce.utils.TestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
@@ -22,18 +25,21 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 public class JwtUtilsTest {
 
+    private static final String SECRET_KEY = Base64.getEncoder().encodeToString("mysecretkey1234567890mysecretkey1234567890".getBytes());
+
     @Mock
     private Authentication authentication;
 
-    @InjectMocks
     private JwtUtils jwtUtils;
 
     private User user;
 
     @BeforeEach
     void setUp() {
+        jwtUtils = new JwtUtils(new JwtKeyRing(SECRET_KEY, "default", ""));
 
         user = new User();
+        user.setId(1L);
         user.setUsername("testuser");
         user.setEmail("test@example.com");
         user.setPassword("password123");
@@ -43,12 +49,10 @@ public class JwtUtilsTest {
     @Test
     void testGenerateAndValidateJwtTokenWithMockAuthentication() {
         // given
-        String secretKey = Base64.getEncoder().encodeToString("mysecretkey1234567890mysecretkey1234567890".getBytes());
-        TestUtils.setField(jwtUtils, "jwtSecret", secretKey);
         TestUtils.setField(jwtUtils, "jwtExpiration", 3600000); // 1 hour
 
         // mock authentication
-        when(authentication.getPrincipal()).thenReturn(user);
+        when(authentication.getPrincipal()).thenReturn(UserSecuritySnapshot.of(user));
 
         // when
         String token = jwtUtils.generateJwtToken(authentication);
@@ -59,10 +63,36 @@ public class JwtUtilsTest {
         assertEquals("testuser", jwtUtils.getUserNameFromJwtToken(token));
     }
 
+    @Test
+    void testGeneratedTokenCarriesPrincipalClaims() {
+        TestUtils.setField(jwtUtils, "jwtExpiration", 3600000);
+
+        when(authentication.getPrincipal()).thenReturn(UserSecuritySnapshot.of(user));
+
+        String token = jwtUtils.generateJwtToken(authentication);
+        AuthenticatedUser principal = AuthenticatedUser.fromClaims(jwtUtils.parseClaims(token)).orElseThrow();
+
+        assertEquals(new AuthenticatedUser(1L, "testuser", UserRole.CUSTOMER, 0), principal);
+    }
+
+    @Test
+    void testRefreshTokenIsNotAnAccessPrincipal() {
+        TestUtils.setField(jwtUtils, "jwtExpiration", 3600000);
+        TestUtils.setField(jwtUtils, "refreshExpiration", 7200000L);
+
+        when(authentication.getPrincipal()).thenReturn(UserSecuritySnapshot.of(user));
+
+        Claims accessClaims = jwtUtils.parseClaims(jwtUtils.generateJwtToken(authentication));
+        Claims refreshClaims = jwtUtils.parseClaims(jwtUtils.generateRefreshToken(authentication));
+
+        assertEquals(JwtUtils.TOKEN_TYPE_REFRESH, refreshClaims.get(JwtUtils.CLAIM_TOKEN_TYPE, String.class));
+        assertNotEquals(accessClaims.getId(), refreshClaims.getId());
+        assertTrue(refreshClaims.getExpiration().after(accessClaims.getExpiration()));
+        assertTrue(AuthenticatedUser.fromClaims(refreshClaims).isEmpty());
+    }
+
     @Test
     void testValidateJwtTokenInvalidTokenReturnsFalse() {
-        String secretKey = Base64.getEncoder().encodeToString("mysecretkey1234567890mysecretkey1234567890".getBytes());
-        TestUtils.setField(jwtUtils, "jwtSecret", secretKey);
         TestUtils.setField(jwtUtils, "jwtExpiration", 3600000);
 
         assertFalse(jwtUtils.validateJwtToken("invalid Token"));
@@ -71,14 +101,12 @@ public class JwtUtilsTest {
     @Test
     void testExpiredJwtToken() throws InterruptedException {
         // given
-        String secretKey = Base64.getEncoder().encodeToString("mysecretkey1234567890mysecretkey1234567890".getBytes());
-        TestUtils.setField(jwtUtils, "jwtSecret", secretKey);
 
         // set expiration to 1 second
         TestUtils.setField(jwtUtils, "jwtExpiration", 1000);
 
         // mock authentication
-        when(authentication.getPrincipal()).thenReturn(user);
+        when(authentication.getPrincipal()).thenReturn(UserSecuritySnapshot.of(user));
 
         // when
         String token = jwtUtils.generateJwtToken(authentication);
@@ -0,0 +1,114 @@
+package org.example.ecommerce.UnitTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.ecommerce.Exception.TooManyLoginAttemptsException;
+import org.example.ecommerce.Service.LoginThrottle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LoginThrottleTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        loginThrottle = new LoginThrottle(meterRegistry, Duration.ofMinutes(1), 3, 5, 1_000, clock);
+    }
+
+    @Test
+    void checkAllowed_belowLimit_doesNotThrow() {
+        loginThrottle.recordFailure("testuser", "10.0.0.1");
+        loginThrottle.recordFailure("testuser", "10.0.0.1");
+
+        assertDoesNotThrow(() -> loginThrottle.checkAllowed("testuser", "10.0.0.1"));
+    }
+
+    @Test
+    void checkAllowed_afterTooManyFailuresForUsernameAndIp_throws() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.recordFailure("testuser", "10.0.0.1");
+        }
+
+        assertThrows(TooManyLoginAttemptsException.class, () -> loginThrottle.checkAllowed("TestUser", "10.0.0.1"));
+        assertDoesNotThrow(() -> loginThrottle.checkAllowed("testuser", "10.0.0.2"));
+        assertThat(meterRegistry.get("auth.login.throttled").tag("key", "username_ip").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void checkAllowed_afterTooManyFailuresFromOneIp_throwsForEveryUsername() {
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        assertThrows(TooManyLoginAttemptsException.class, () -> loginThrottle.checkAllowed("someone-else", "10.0.0.1"));
+        assertThat(meterRegistry.get("auth.login.throttled").tag("key", "ip").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.login.throttle.tracked").tag("key", "username_ip").gauge().value()).isEqualTo(5);
+    }
+
+    @Test
+    void checkAllowed_failuresSlideOutOfTheWindow() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.recordFailure("testuser", "10.0.0.1");
+        }
+
+        // half of the previous window still overlaps the sliding window
+        clock.advance(Duration.ofSeconds(90));
+        assertDoesNotThrow(() -> loginThrottle.checkAllowed("testuser", "10.0.0.1"));
+
+        loginThrottle.recordFailure("testuser", "10.0.0.1");
+        loginThrottle.recordFailure("testuser", "10.0.0.1");
+        assertThrows(TooManyLoginAttemptsException.class, () -> loginThrottle.checkAllowed("testuser", "10.0.0.1"));
+    }
+
+    @Test
+    void recordSuccess_clearsUsernameAndIpFailures() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.recordFailure("testuser", "10.0.0.1");
+        }
+
+        loginThrottle.recordSuccess("testuser", "10.0.0.1");
+
+        assertDoesNotThrow(() -> loginThrottle.checkAllowed("testuser", "10.0.0.1"));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
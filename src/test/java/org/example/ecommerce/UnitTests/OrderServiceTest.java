@@ -7,10 +7,13 @@ import org.example.ecommerce.Exception.EmptyCartException;
 import org.example.ecommerce.Mappers.OrderItemMapper;
 import org.example.ecommerce.Mappers.OrderMapper;
 import org.example.ecommerce.Model.*;
+import org.example.ecommerce.Repository.AddressRepository;
 import org.example.ecommerce.Repository.OrderRepository;
 import org.example.ecommerce.Repository.UserRepository;
 import org.example.ecommerce.Service.CartService;
+import org.example.ecommerce.Service.CurrentUserResolver;
 import org.example.ecommerce.Service.OrderService;
+import org.example.ecommerce.Service.UserFetchPlan;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,7 +28,6 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -45,6 +47,10 @@ public class OrderServiceTest {
     private OrderMapper orderMapper;
     @Mock
     private CartService cartService;
+    @Mock
+    private AddressRepository addressRepository;
+    @Mock
+    private CurrentUserResolver currentUserResolver;
 
     @InjectMocks
     private OrderService orderService;
@@ -59,6 +65,7 @@ public class OrderServiceTest {
         user = new User();
         user.setId(1L);
         user.setUsername("test123");
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
     }
 
     @AfterEach
@@ -70,11 +77,10 @@ public class OrderServiceTest {
     void createOrder_whenAddressMissing_throwsException() {
         Cart cart = new Cart();
         cart.setUser(user);
-        cart.setTotalPrice(new BigDecimal("10.00"));
         cart.getCartItems().add(new CartItem());
         user.setCart(cart);
 
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(addressRepository.findByIdAndUserId(10L, 1L)).thenReturn(Optional.empty());
 
         CreateOrderRequest request = new CreateOrderRequest(10L, ShippingType.STANDARD);
 
@@ -88,7 +94,8 @@ public class OrderServiceTest {
         Address address = new Address();
         address.setId(1L);
         user.setAddresses(new ArrayList<>(List.of(address)));
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(addressRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(address));
+        when(currentUserResolver.getCurrentUser(UserFetchPlan.CART)).thenReturn(user);
 
         CreateOrderRequest request = new CreateOrderRequest(1L, ShippingType.STANDARD);
 
@@ -99,14 +106,14 @@ public class OrderServiceTest {
     void createOrder_whenCartEmpty_throwsException() {
         Cart cart = new Cart();
         cart.setUser(user);
-        cart.setTotalPrice(new BigDecimal("10.00"));
         user.setCart(cart);
 
         Address address = new Address();
         address.setId(1L);
         user.setAddresses(new ArrayList<>(List.of(address)));
 
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(addressRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(address));
+        when(currentUserResolver.getCurrentUser(UserFetchPlan.CART)).thenReturn(user);
 
         CreateOrderRequest request = new CreateOrderRequest(1L, ShippingType.STANDARD);
 
@@ -117,10 +124,11 @@ public class OrderServiceTest {
     void createOrder_whenValid_createsOrderAndClearsCart() {
         Cart cart = new Cart();
         cart.setUser(user);
-        cart.setTotalPrice(new BigDecimal("20.00"));
 
+        Product product = new Product();
+        product.setPrice(new BigDecimal("10.00"));
         CartItem cartItem = new CartItem();
-        cartItem.setProduct(new Product());
+        cartItem.setProduct(product);
         cartItem.setQuantity(2);
         cartItem.setCart(cart);
         cart.getCartItems().add(cartItem);
@@ -133,7 +141,8 @@ public class OrderServiceTest {
 
         OrderItem orderItem = new OrderItem();
 
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(addressRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(address));
+        when(currentUserResolver.getCurrentUser(UserFetchPlan.CART)).thenReturn(user);
         when(orderItemMapper.cartItemToOrderItem(cartItem)).thenReturn(orderItem);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
         ShowOrderDto showOrderDto = new ShowOrderDto(1L, null, "PENDING", "ORD-1", new BigDecimal("24.99"), "STANDARD");
@@ -144,7 +153,38 @@ public class OrderServiceTest {
 
         assertThat(result).isEqualTo(showOrderDto);
         verify(cartService).clearCart(cart);
-        verify(orderRepository).save(any(Order.class));
+        // the cart total is brought up to the product price before it is charged
+        verify(orderRepository).save(argThat((Order order) -> order.getTotalCostAmount().compareTo(new BigDecimal("24.99")) == 0));
+    }
+
+    @Test
+    void createOrder_whenRunningTotalDrifted_chargesSumOfSubtotals() {
+        Cart cart = new Cart();
+        cart.setUser(user);
+
+        Product product = new Product();
+        product.setPrice(new BigDecimal("10.00"));
+        CartItem cartItem = new CartItem();
+        cartItem.setProduct(product);
+        cartItem.setQuantity(2);
+        cartItem.setUnitPriceCents(1000);
+        cartItem.setCart(cart);
+        // bypasses addItem, so the running total stays at zero while the item is already at the current price
+        cart.getCartItems().add(cartItem);
+
+        user.setCart(cart);
+
+        Address address = new Address();
+        address.setId(1L);
+
+        when(addressRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(address));
+        when(currentUserResolver.getCurrentUser(UserFetchPlan.CART)).thenReturn(user);
+        when(orderItemMapper.cartItemToOrderItem(cartItem)).thenReturn(new OrderItem());
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.createOrder(new CreateOrderRequest(1L, ShippingType.STANDARD));
+
+        verify(orderRepository).save(argThat((Order order) -> order.getTotalCostAmount().compareTo(new BigDecimal("24.99")) == 0));
     }
 
     @Test
@@ -152,9 +192,7 @@ public class OrderServiceTest {
         Order order1 = new Order();
         Order order2 = new Order();
 
-        user.setOrders(Set.of(order1, order2));
-
-        when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        when(orderRepository.findByUserId(1L)).thenReturn(List.of(order1, order2));
 
         ShowOrderDto dto1 = new ShowOrderDto(1L, null, "PENDING", "ORD-1", BigDecimal.ONE, "STANDARD");
         ShowOrderDto dto2 = new ShowOrderDto(2L, null, "PENDING", "ORD-2", BigDecimal.TEN, "EXPRESS");
@@ -0,0 +1,119 @@
+package org.example.ecommerce.UnitTests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.ecommerce.DTO.ProductExportDto;
+import org.example.ecommerce.Exception.InvalidExportFormatException;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.example.ecommerce.Service.ProductExportFormat;
+import org.example.ecommerce.Service.ProductExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductExportServiceTest {
+
+    private static final Instant MODIFIED = Instant.parse("2026-01-02T03:04:05Z");
+    private static final Instant NOW = Instant.parse("2026-01-03T00:00:00Z");
+    private static final Duration OVERLAP = Duration.ofMinutes(5);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ObjectMapper objectMapper;
+    private ProductExportService productExportService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        productExportService = new ProductExportService(productRepository, objectMapper,
+                Clock.fixed(NOW, ZoneOffset.UTC), OVERLAP);
+    }
+
+    @Test
+    void export_asNdjson_writesOneObjectPerLine() throws Exception {
+        when(productRepository.streamAllForExport()).thenReturn(Stream.of(
+                new ProductExportDto(1L, "Dune", "Sand", new BigDecimal("9.99"), 5, "Books", MODIFIED),
+                new ProductExportDto(2L, "Emma", null, new BigDecimal("7.50"), 3, "Books", MODIFIED)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = productExportService.export(ProductExportFormat.NDJSON, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("productName").asText()).isEqualTo("Dune");
+        assertThat(first.get("categoryName").asText()).isEqualTo("Books");
+        assertThat(first.get("lastModified").asText()).isEqualTo("2026-01-02T03:04:05Z");
+    }
+
+    @Test
+    void export_asCsv_writesHeaderAndQuotesFields() throws Exception {
+        when(productRepository.streamAllForExport()).thenReturn(Stream.of(
+                new ProductExportDto(1L, "Dune", "A novel, about \"sand\"", new BigDecimal("9.99"), null, "Books", MODIFIED)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        productExportService.export(ProductExportFormat.CSV, null, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                id,productName,description,price,availableQuantity,categoryName,lastModified
+                1,Dune,"A novel, about ""sand\"\"",9.99,,Books,2026-01-02T03:04:05Z
+                """);
+    }
+
+    @Test
+    void export_since_readsOnlyModifiedProducts() throws Exception {
+        Instant since = Instant.parse("2026-01-01T00:00:00Z");
+        when(productRepository.streamModifiedForExport(since.minus(OVERLAP))).thenReturn(Stream.empty());
+
+        long exported = productExportService.export(ProductExportFormat.NDJSON, since, new ByteArrayOutputStream());
+
+        assertThat(exported).isZero();
+        verify(productRepository, never()).streamAllForExport();
+    }
+
+    @Test
+    void export_since_includesRowStampedBeforeThePreviousHighWaterMarkButCommittedAfterIt() throws Exception {
+        Instant previousHighWaterMark = productExportService.highWaterMark();
+        // written a minute before the previous export started, committed only after it had read its rows
+        ProductExportDto lateCommitted = new ProductExportDto(7L, "Dune", "Sand", new BigDecimal("9.99"), 5, "Books",
+                previousHighWaterMark.minusSeconds(60));
+        when(productRepository.streamModifiedForExport(previousHighWaterMark.minus(OVERLAP)))
+                .thenReturn(Stream.of(lateCommitted));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = productExportService.export(ProductExportFormat.NDJSON, previousHighWaterMark, out);
+
+        assertThat(exported).isEqualTo(1);
+        assertThat(objectMapper.readTree(out.toString(StandardCharsets.UTF_8)).get("id").asLong()).isEqualTo(7L);
+    }
+
+    @Test
+    void highWaterMark_isTheCurrentInstant() {
+        assertThat(productExportService.highWaterMark()).isEqualTo(NOW);
+    }
+
+    @Test
+    void fromParameter_withUnknownFormat_throwsException() {
+        assertThat(ProductExportFormat.fromParameter("csv")).isEqualTo(ProductExportFormat.CSV);
+        assertThrows(InvalidExportFormatException.class, () -> ProductExportFormat.fromParameter("xml"));
+    }
+}
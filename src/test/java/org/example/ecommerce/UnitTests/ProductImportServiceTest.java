@@ -0,0 +1,157 @@
+package org.example.ecommerce.UnitTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.example.ecommerce.DTO.AddProductDto;
+import org.example.ecommerce.DTO.ImportRowErrorDto;
+import org.example.ecommerce.DTO.ProductImportResultDto;
+import org.example.ecommerce.Exception.InvalidImportFileException;
+import org.example.ecommerce.Mappers.ProductMapper;
+import org.example.ecommerce.Model.Category;
+import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Repository.CategoryRepository;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.example.ecommerce.Service.ChunkedImporter;
+import org.example.ecommerce.Service.ProductImportService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceTest {
+
+    private static Validator validator;
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private ProductMapper productMapper;
+    @Mock
+    private EntityManager entityManager;
+
+    private ProductImportService productImportService;
+    private Category books;
+
+    @BeforeAll
+    static void setUpValidator() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @BeforeEach
+    void setUp() {
+        productImportService = new ProductImportService(productRepository, categoryRepository, productMapper,
+                new ObjectMapper(), new ChunkedImporter(validator, entityManager), 2);
+        books = new Category();
+        books.setId(1L);
+        books.setCategoryName("Books");
+
+        lenient().when(productMapper.addProductDtoToProduct(any(AddProductDto.class))).thenAnswer(invocation -> {
+            AddProductDto dto = invocation.getArgument(0);
+            Product product = new Product();
+            product.setProductName(dto.productName());
+            product.setPrice(BigDecimal.valueOf(dto.price()));
+            product.setAvailableQuantity(dto.availableQuantity());
+            return product;
+        });
+        lenient().when(productRepository.findExistingProductNames(anyCollection())).thenReturn(Set.of());
+        lenient().when(categoryRepository.findAllByCategoryNameIn(anyCollection())).thenReturn(List.of(books));
+    }
+
+    @Test
+    void importCsv_setsTheCategoryOfEachRow() throws Exception {
+        ProductImportResultDto result = productImportService.importCsv(stream("""
+                productName,description,price,availableQuantity,categoryName
+                Dune,"A novel, about sand",9.99,5,Books
+                Emma,Classic,7.50,3,Books
+                Ulysses,Long,12,1,Books
+                """));
+
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.failed()).isZero();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(productRepository, times(2)).saveAll(chunks.capture());
+        assertThat(chunks.getAllValues().get(0)).hasSize(2);
+        assertThat(chunks.getAllValues().get(0).get(0).getCategory()).isSameAs(books);
+    }
+
+    @Test
+    void importCsv_looksUpEachCategoryNameOnce() throws Exception {
+        productImportService.importCsv(stream("""
+                productName,description,price,availableQuantity,categoryName
+                Dune,Sand,9.99,5,Books
+                Emma,Classic,7.50,3,Books
+                Ulysses,Long,12,1,Books
+                """));
+
+        verify(categoryRepository, times(1)).findAllByCategoryNameIn(anyCollection());
+    }
+
+    @Test
+    void importCsv_reportsInvalidDuplicateAndUnknownCategoryRowsByLine() throws Exception {
+        when(productRepository.findExistingProductNames(anyCollection())).thenReturn(Set.of("Taken"));
+
+        ProductImportResultDto result = productImportService.importCsv(stream("""
+                productName,description,price,availableQuantity,categoryName
+                Taken,Exists,1,1,Books
+                Dune,Sand,cheap,5,Books
+                Emma,Classic,7.50,3,Toys
+                Odyssey,Epic,10,2,Books
+                Odyssey,Epic,10,2,Books
+                ,Nameless,1,1,Books
+                """));
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(5);
+        assertThat(result.errors()).extracting(ImportRowErrorDto::line).containsExactly(2L, 3L, 4L, 6L, 7L);
+        assertThat(result.errors().get(0).message()).isEqualTo("Product with name Taken already exists");
+        assertThat(result.errors().get(1).message()).isEqualTo("The price cheap is not a number");
+        assertThat(result.errors().get(2).message()).isEqualTo("Category with name Toys does not exist");
+    }
+
+    @Test
+    void importNdjson_parsesOneProductPerLine() throws Exception {
+        ProductImportResultDto result = productImportService.importNdjson(stream("""
+                {"productName":"Dune","description":"Sand","price":9.99,"availableQuantity":5,"categoryName":"Books"}
+                {"productName":"Emma","description":"Classic","price":7.5,"availableQuantity":3,"categoryName":"Books"}
+                {"productName":"Broken",
+                """));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.errors().get(0).line()).isEqualTo(3);
+        assertThat(result.errors().get(0).message()).startsWith("Invalid JSON");
+    }
+
+    @Test
+    void importCsv_withoutRequiredColumns_throws() {
+        assertThatThrownBy(() -> productImportService.importCsv(stream("productName,price\nDune,9.99\n")))
+                .isInstanceOf(InvalidImportFileException.class);
+
+        verifyNoInteractions(productRepository);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
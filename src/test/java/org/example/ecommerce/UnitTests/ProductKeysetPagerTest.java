@@ -0,0 +1,110 @@
+package org.example.ecommerce.UnitTests;
+
+import org.example.ecommerce.DTO.CursorPageDto;
+import org.example.ecommerce.Exception.InvalidCursorException;
+import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.example.ecommerce.Service.ProductCursor;
+import org.example.ecommerce.Service.ProductKeysetPager;
+import org.example.ecommerce.Service.ProductSortKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductKeysetPagerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductKeysetPager productKeysetPager;
+
+    @Test
+    void cursor_roundTripsThroughToken() {
+        ProductCursor cursor = new ProductCursor(ProductSortKey.NAME, Sort.Direction.DESC, "Name: with colon", 42L);
+
+        ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    void cursor_byPrice_becomesKeysetPositionOnPriceAndId() {
+        ProductCursor cursor = ProductCursor.decode(
+                new ProductCursor(ProductSortKey.PRICE, Sort.Direction.ASC, new BigDecimal("19.99"), 7L).encode());
+
+        KeysetScrollPosition position = cursor.toScrollPosition();
+
+        assertThat(position.getKeys()).containsExactly(Map.entry("price", new BigDecimal("19.99")), Map.entry("id", 7L));
+    }
+
+    @Test
+    void cursor_whenTampered_throwsException() {
+        assertThrows(InvalidCursorException.class, () -> ProductCursor.decode("not-a-cursor"));
+        assertThrows(InvalidCursorException.class, () -> ProductCursor.decode("djE6UFJJQ0U6QVNDOjE6YWJj"));
+    }
+
+    @Test
+    void scroll_whenMoreProductsExist_returnsCursorAfterLastProduct() {
+        Product first = product(1L, "10.00");
+        Product second = product(2L, "12.50");
+        when(productRepository.findBy(ArgumentMatchers.<Specification<Product>>any(), any()))
+                .thenReturn(Window.from(List.of(first, second), index -> ScrollPosition.offset(index), true));
+
+        CursorPageDto<Long> page = productKeysetPager.scroll("price", "asc", null, 2, Product::getId);
+
+        assertThat(page.content()).containsExactly(1L, 2L);
+        assertThat(ProductCursor.decode(page.nextCursor()))
+                .isEqualTo(new ProductCursor(ProductSortKey.PRICE, Sort.Direction.ASC, new BigDecimal("12.50"), 2L));
+    }
+
+    @Test
+    void scroll_onLastPage_returnsNoCursor() {
+        when(productRepository.findBy(ArgumentMatchers.<Specification<Product>>any(), any()))
+                .thenReturn(Window.from(List.of(product(1L, "10.00")), index -> ScrollPosition.offset(index), false));
+
+        CursorPageDto<Long> page = productKeysetPager.scroll("id", "asc", null, 20, Product::getId);
+
+        assertThat(page.content()).containsExactly(1L);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void scroll_withUnknownSortKey_throwsException() {
+        assertThrows(InvalidCursorException.class,
+                () -> productKeysetPager.scroll("description", "asc", null, 20, Product::getId));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void scroll_withUnknownDirection_throwsException() {
+        assertThrows(InvalidCursorException.class,
+                () -> productKeysetPager.scroll("id", "sideways", null, 20, Product::getId));
+        verifyNoInteractions(productRepository);
+    }
+
+    private static Product product(Long id, String price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setProductName("Product " + id);
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+}
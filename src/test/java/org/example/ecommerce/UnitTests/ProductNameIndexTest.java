@@ -0,0 +1,80 @@
+package org.example.ecommerce.UnitTests;
+
+import org.example.ecommerce.DTO.ProductSuggestRowDto;
+import org.example.ecommerce.Service.ProductNameIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProductNameIndexTest {
+
+    private final ProductNameIndex index = ProductNameIndex.build(List.of(
+            new ProductSuggestRowDto(1L, "Crème Brûlée Torch", 3),
+            new ProductSuggestRowDto(2L, "Creme Pot", 9),
+            new ProductSuggestRowDto(3L, "Cream Cheese", 5),
+            new ProductSuggestRowDto(4L, "Phone Case", 1),
+            new ProductSuggestRowDto(5L, "CRÈME fraîche", 3),
+            new ProductSuggestRowDto(6L, "   ", 100)));
+
+    @Test
+    void normalize_dropsCaseAccentsAndRepeatedWhitespace() {
+        assertThat(ProductNameIndex.normalize("  Crème   BRÛLÉE ")).isEqualTo("creme brulee");
+    }
+
+    @Test
+    void top_matchesPrefixIgnoringCaseAndAccents_mostPopularFirst() {
+        assertThat(index.top("creme", 10, id -> false)).extracting(ProductNameIndex.Entry::id)
+                .containsExactly(2L, 1L, 5L);
+        assertThat(index.top(ProductNameIndex.normalize("CRÉ"), 10, id -> false)).extracting(ProductNameIndex.Entry::id)
+                .containsExactly(2L, 3L, 1L, 5L);
+    }
+
+    @Test
+    void top_returnsOriginalNames() {
+        assertThat(index.top("creme b", 10, id -> false)).extracting(ProductNameIndex.Entry::name)
+                .containsExactly("Crème Brûlée Torch");
+    }
+
+    @Test
+    void top_skipsExcludedIdsAndStopsAtLimit() {
+        assertThat(index.top("cre", 2, id -> id == 2L)).extracting(ProductNameIndex.Entry::id)
+                .containsExactly(3L, 1L);
+    }
+
+    @Test
+    void top_withoutMatch_isEmpty() {
+        assertThat(index.top("zebra", 10, id -> false)).isEmpty();
+        assertThat(ProductNameIndex.build(List.of()).top("a", 10, id -> false)).isEmpty();
+    }
+
+    @Test
+    void top_leavesOutBlankNames() {
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    @Test
+    void top_agreesWithSortingAllMatches() {
+        Random random = new Random(42);
+        List<ProductSuggestRowDto> rows = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            rows.add(new ProductSuggestRowDto(id, "p" + random.nextInt(500), random.nextInt(50)));
+        }
+        ProductNameIndex randomIndex = ProductNameIndex.build(rows);
+
+        List<Long> expectedPopularity = rows.stream()
+                .map(row -> new ProductNameIndex.Entry(row.id(), row.productName(), row.productName(), row.popularity()))
+                .filter(entry -> entry.key().startsWith("p1"))
+                .sorted(ProductNameIndex.Entry.RANKING.thenComparing(Comparator.comparingLong(ProductNameIndex.Entry::id)))
+                .limit(15)
+                .map(ProductNameIndex.Entry::popularity)
+                .toList();
+
+        assertThat(randomIndex.top("p1", 15, id -> false)).extracting(ProductNameIndex.Entry::popularity)
+                .containsExactlyElementsOf(expectedPopularity);
+    }
+}
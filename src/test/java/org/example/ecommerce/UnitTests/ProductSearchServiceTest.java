@@ -0,0 +1,84 @@
+package org.example.ecommerce.UnitTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.ecommerce.DTO.ProductFacetsDto;
+import org.example.ecommerce.DTO.ProductFilterDto;
+import org.example.ecommerce.Exception.CategoryNotFoundException;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.example.ecommerce.Repository.ProductSearchCriteria;
+import org.example.ecommerce.Service.CategoryService;
+import org.example.ecommerce.Service.ProductSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchServiceTest {
+
+    private static final List<BigDecimal> BOUNDS = List.of(new BigDecimal("10"), new BigDecimal("50"));
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CategoryService categoryService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductSearchService productSearchService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // unsorted on purpose, the service orders the bounds
+        productSearchService = new ProductSearchService(productRepository, categoryService, meterRegistry,
+                List.of(new BigDecimal("50"), new BigDecimal("10")), Duration.ofSeconds(30), 100);
+    }
+
+    @Test
+    void search_resolvesCategorySubtreeAndTrimsPrefix() {
+        ProductFilterDto filter = new ProductFilterDto(1L, new BigDecimal("5"), null, true, "  Boo ");
+        when(categoryService.getSubtreePath(1L)).thenReturn("/1/");
+        when(productRepository.search(any(), any())).thenReturn(new PageImpl<>(List.of()));
+
+        productSearchService.search(filter, PageRequest.of(0, 20));
+
+        verify(productRepository).search(
+                new ProductSearchCriteria(1L, "/1/", new BigDecimal("5"), null, true, "Boo"),
+                PageRequest.of(0, 20));
+    }
+
+    @Test
+    void search_withUnknownCategory_throwsException() {
+        when(categoryService.getSubtreePath(9L)).thenThrow(new CategoryNotFoundException("Category with id 9 does not exist"));
+
+        assertThrows(CategoryNotFoundException.class,
+                () -> productSearchService.search(new ProductFilterDto(9L, null, null, null, null), PageRequest.of(0, 20)));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getFacets_isComputedOncePerFilterWithinTheTtl() {
+        ProductFilterDto filter = new ProductFilterDto(null, null, null, true, null);
+        ProductFacetsDto facets = new ProductFacetsDto(List.of(), List.of());
+        ProductSearchCriteria criteria = new ProductSearchCriteria(null, null, null, null, true, null);
+        when(productRepository.findFacets(criteria, BOUNDS)).thenReturn(facets);
+
+        assertThat(productSearchService.getFacets(filter)).isSameAs(facets);
+        assertThat(productSearchService.getFacets(new ProductFilterDto(null, null, null, true, null))).isSameAs(facets);
+
+        verify(productRepository, times(1)).findFacets(criteria, BOUNDS);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "productFacets").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+}
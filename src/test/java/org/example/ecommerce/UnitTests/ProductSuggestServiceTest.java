@@ -0,0 +1,105 @@
+package org.example.ecommerce.UnitTests;
+
+import org.example.ecommerce.DTO.ProductSuggestRowDto;
+import org.example.ecommerce.DTO.ProductSuggestionDto;
+import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.example.ecommerce.Service.ProductSuggestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSuggestServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSuggestService productSuggestService;
+
+    private final List<ProductSuggestRowDto> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        rows.add(new ProductSuggestRowDto(1L, "Phone", 5));
+        rows.add(new ProductSuggestRowDto(2L, "Phone Case", 2));
+        lenient().when(productRepository.findAllForSuggest()).thenAnswer(invocation -> List.copyOf(rows));
+    }
+
+    @Test
+    void suggest_buildsTheIndexOnceAndServesPrefixesFromIt() {
+        assertThat(productSuggestService.suggest("pho", 10)).containsExactly(
+                new ProductSuggestionDto(1L, "Phone"), new ProductSuggestionDto(2L, "Phone Case"));
+        assertThat(productSuggestService.suggest("phone c", 10)).containsExactly(new ProductSuggestionDto(2L, "Phone Case"));
+
+        verify(productRepository, times(1)).findAllForSuggest();
+    }
+
+    @Test
+    void suggest_withBlankQuery_returnsNothing() {
+        assertThat(productSuggestService.suggest("  ", 10)).isEmpty();
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void productSaved_isSuggestedWithoutRebuild() {
+        productSuggestService.rebuild();
+
+        productSuggestService.productSavedAfterCommit(product(3L, "Phone Charger"));
+        productSuggestService.productSavedAfterCommit(product(2L, "Tablet Case"));
+
+        assertThat(productSuggestService.suggest("phone", 10)).extracting(ProductSuggestionDto::id).containsExactly(1L, 3L);
+        assertThat(productSuggestService.suggest("tab", 10)).extracting(ProductSuggestionDto::productName)
+                .containsExactly("Tablet Case");
+        verify(productRepository, times(1)).findAllForSuggest();
+    }
+
+    @Test
+    void productRemoved_isNoLongerSuggested() {
+        productSuggestService.rebuild();
+
+        productSuggestService.productRemovedAfterCommit(1L);
+
+        assertThat(productSuggestService.suggest("phone", 10)).extracting(ProductSuggestionDto::id).containsExactly(2L);
+    }
+
+    @Test
+    void rebuild_foldsWrittenProductsIntoTheIndex() {
+        productSuggestService.rebuild();
+        productSuggestService.productSavedAfterCommit(product(3L, "Phone Charger"));
+        rows.add(new ProductSuggestRowDto(3L, "Phone Charger", 0));
+
+        productSuggestService.rebuild();
+
+        assertThat(productSuggestService.current().size()).isEqualTo(3);
+        assertThat(productSuggestService.suggest("phone", 10)).extracting(ProductSuggestionDto::id).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void suggest_capsTheLimit() {
+        for (long id = 3; id <= 40; id++) {
+            rows.add(new ProductSuggestRowDto(id, "Phone " + id, 0));
+        }
+
+        assertThat(productSuggestService.suggest("phone", 100)).hasSize(20);
+        assertThat(productSuggestService.suggest("phone", 0)).hasSize(1);
+    }
+
+    private static Product product(Long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setProductName(name);
+        return product;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.ecommerce.UnitTests;
+
+import org.example.ecommerce.Service.ProductTextAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProductTextAnalyzerTest {
+
+    @Test
+    void terms_dropCaseAccentsPunctuationAndStopWords() {
+        assertThat(ProductTextAnalyzer.terms("The Crème-Brûlée torch, for 2 people!"))
+                .containsExactly("crem", "brulee", "torch", "2", "peopl");
+    }
+
+    @Test
+    void terms_reduceInflectionsToTheSameStem() {
+        assertThat(ProductTextAnalyzer.terms("Running Shoes")).isEqualTo(ProductTextAnalyzer.terms("run shoe"));
+        assertThat(ProductTextAnalyzer.terms("charger charged charging charges"))
+                .containsExactly("charger", "charg", "charg", "charg");
+        assertThat(ProductTextAnalyzer.terms("batteries boxes glasses")).containsExactly("battery", "box", "glass");
+    }
+
+    @Test
+    void terms_keepShortWordsAndWordsWithoutVowelStems() {
+        assertThat(ProductTextAnalyzer.terms("bus red sling xl2s")).containsExactly("bus", "red", "sling", "xl2");
+    }
+
+    @Test
+    void terms_ofBlankText_areEmpty() {
+        assertThat(ProductTextAnalyzer.terms(null)).isEmpty();
+        assertThat(ProductTextAnalyzer.terms(" -- ")).isEmpty();
+    }
+}
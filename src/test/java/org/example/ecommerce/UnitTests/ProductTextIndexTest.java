@@ -0,0 +1,109 @@
+package org.example.ecommerce.UnitTests;
+
+import org.example.ecommerce.DTO.ProductTextRowDto;
+import org.example.ecommerce.Service.ProductTextAnalyzer;
+import org.example.ecommerce.Service.ProductTextIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ProductTextIndexTest {
+
+    private ProductTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductTextIndex();
+        index.put(new ProductTextRowDto(1L, "Trail Running Shoe", "Light shoe for wet trails", 10L, new BigDecimal("89.90")));
+        index.put(new ProductTextRowDto(2L, "Road Shoe", "Cushioned shoe for running on roads", 10L, new BigDecimal("120.00")));
+        index.put(new ProductTextRowDto(3L, "Running Socks", "Three pairs", 20L, new BigDecimal("12.50")));
+        index.put(new ProductTextRowDto(4L, "Rain Jacket", null, 30L, new BigDecimal("150.00")));
+    }
+
+    @Test
+    void search_ranksNameMatchesAboveDescriptionMatches() {
+        ProductTextIndex.Hits hits = search("running shoes", null, null, null, 0, 10);
+
+        assertThat(hits.total()).isEqualTo(3);
+        assertThat(hits.productIds()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void search_filtersByCategoryAndPrice() {
+        assertThat(search("running", Set.of(10L), null, null, 0, 10).productIds()).containsExactly(1L, 2L);
+        assertThat(search("running", null, 2000L, 10000L, 0, 10).productIds()).containsExactly(1L);
+        assertThat(search("jacket", Set.of(10L, 20L), null, null, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void search_pagesThroughTheRanking() {
+        ProductTextIndex.Hits second = search("running shoes", null, null, null, 1, 1);
+
+        assertThat(second.total()).isEqualTo(3);
+        assertThat(second.productIds()).containsExactly(2L);
+        assertThat(search("running shoes", null, null, null, 3, 1).productIds()).isEmpty();
+    }
+
+    @Test
+    void put_replacesTheProductAndRemoveHidesIt() {
+        index.put(new ProductTextRowDto(3L, "Wool Socks", "Three pairs", 20L, new BigDecimal("12.50")));
+        index.remove(4L);
+
+        assertThat(search("running", null, null, null, 0, 10).productIds()).containsExactly(1L, 2L);
+        assertThat(search("wool", null, null, null, 0, 10).productIds()).containsExactly(3L);
+        assertThat(search("jacket", null, null, null, 0, 10).total()).isZero();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void compacted_dropsReplacedDocumentsAndRanksTheSame() {
+        for (int i = 0; i < 10; i++) {
+            index.put(new ProductTextRowDto(3L, "Running Socks", "Three pairs " + i, 20L, new BigDecimal("12.50")));
+        }
+        assertThat(index.needsCompaction()).isTrue();
+
+        ProductTextIndex compacted = index.compacted();
+
+        assertThat(compacted.needsCompaction()).isFalse();
+        assertThat(compacted.size()).isEqualTo(4);
+        assertThat(compacted.search(ProductTextAnalyzer.terms("running shoes"), null, null, null, 0, 10))
+                .isEqualTo(search("running shoes", null, null, null, 0, 10));
+    }
+
+    @Test
+    void writeTo_andReadFrom_roundTripTheLiveProducts() throws IOException {
+        index.remove(2L);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+
+        ProductTextIndex read = ProductTextIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read.size()).isEqualTo(3);
+        assertThat(read.search(ProductTextAnalyzer.terms("running shoes"), null, 1000L, null, 0, 10))
+                .isEqualTo(search("running shoes", null, 1000L, null, 0, 10));
+    }
+
+    @Test
+    void readFrom_truncatedData_throws() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() / 2);
+
+        assertThatThrownBy(() -> ProductTextIndex.readFrom(new DataInputStream(new ByteArrayInputStream(truncated))))
+                .isInstanceOf(IOException.class);
+    }
+
+    private ProductTextIndex.Hits search(String query, Set<Long> categoryIds, Long minPriceCents, Long maxPriceCents,
+                                         long offset, int limit) {
+        List<String> terms = ProductTextAnalyzer.terms(query);
+        return index.search(terms, categoryIds, minPriceCents, maxPriceCents, offset, limit);
+    }
+}
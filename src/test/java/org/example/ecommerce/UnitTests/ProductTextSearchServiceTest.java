@@ -0,0 +1,170 @@
+package org.example.ecommerce.UnitTests;
+
+import org.example.ecommerce.DTO.ProductTextRowDto;
+import org.example.ecommerce.DTO.ProductTextSearchDto;
+import org.example.ecommerce.DTO.ProductViewDto;
+import org.example.ecommerce.DTO.ShowProductDto;
+import org.example.ecommerce.Model.ReviewSummary;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.example.ecommerce.Service.CategoryService;
+import org.example.ecommerce.Service.ProductTextSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductTextSearchServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-31T12:00:00Z");
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CategoryService categoryService;
+
+    @TempDir
+    private Path directory;
+
+    private final Map<Long, String> names = Map.of(1L, "Phone Case", 2L, "Phone Charger", 3L, "Desk Lamp");
+    private Path indexFile;
+    private ProductTextSearchService productTextSearchService;
+
+    @BeforeEach
+    void setUp() {
+        indexFile = directory.resolve("product-text.idx");
+        productTextSearchService = service();
+        lenient().when(productRepository.findTextRowsAfter(0L, PageRequest.of(0, 1000))).thenReturn(List.of(
+                row(1L, "Phone Case", "Silicone case for phones", 10L),
+                row(2L, "Phone Charger", "Fast charging", 20L),
+                row(3L, "Desk Lamp", "Lamp with phone holder", 20L)));
+        lenient().when(productRepository.findProductViewsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            // in no particular order, the service restores the ranking
+            List<ProductViewDto> views = new ArrayList<>();
+            ids.forEach(id -> views.addFirst(view(id)));
+            return views;
+        });
+    }
+
+    @Test
+    void search_buildsTheIndexOnceAndReturnsProductsByRelevance() {
+        Page<ShowProductDto> page = productTextSearchService.search(query("phones"), FIRST_PAGE);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(ShowProductDto::productName)
+                .containsExactly("Phone Case", "Phone Charger", "Desk Lamp");
+        assertThat(productTextSearchService.search(query("charge"), FIRST_PAGE).getContent())
+                .extracting(ShowProductDto::productName).containsExactly("Phone Charger");
+
+        verify(productRepository, times(1)).findTextRowsAfter(anyLong(), any());
+    }
+
+    @Test
+    void search_ofCategory_includesItsSubcategories() {
+        when(categoryService.getSubtreeIds(2L)).thenReturn(Set.of(2L, 20L));
+
+        Page<ShowProductDto> page = productTextSearchService.search(
+                new ProductTextSearchDto("phone", 2L, null, null), FIRST_PAGE);
+
+        assertThat(page.getContent()).extracting(ShowProductDto::productName).containsExactly("Phone Charger", "Desk Lamp");
+    }
+
+    @Test
+    void search_withOnlyStopWords_returnsNothing() {
+        assertThat(productTextSearchService.search(query("the and"), FIRST_PAGE)).isEmpty();
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void productRemoved_isNotFoundAnymore() {
+        productTextSearchService.load();
+
+        productTextSearchService.productRemovedAfterCommit(1L);
+
+        assertThat(productTextSearchService.search(query("case"), FIRST_PAGE).getTotalElements()).isZero();
+    }
+
+    @Test
+    void search_hittingAProductDeletedElsewhere_dropsItAndReadsThePageAgain() {
+        when(productRepository.findProductViewsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id != 1L).map(this::view).toList();
+        });
+
+        Page<ShowProductDto> page = productTextSearchService.search(query("phones"), PageRequest.of(0, 2));
+
+        assertThat(page.getContent()).extracting(ShowProductDto::productName)
+                .containsExactly("Phone Charger", "Desk Lamp");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        verify(productRepository, times(2)).findProductViewsByIdIn(anyCollection());
+    }
+
+    @Test
+    void reconcile_dropsTheProductsDeletedElsewhere() {
+        productTextSearchService.load();
+        when(productRepository.findAllIds()).thenReturn(Set.of(1L, 2L));
+
+        productTextSearchService.reconcile();
+
+        assertThat(productTextSearchService.search(query("phones"), FIRST_PAGE).getTotalElements()).isEqualTo(2);
+        assertThat(productTextSearchService.search(query("lamp"), FIRST_PAGE).getTotalElements()).isZero();
+    }
+
+    @Test
+    void load_afterSave_readsTheFileAndOnlyTheProductsChangedSince() throws Exception {
+        productTextSearchService.load();
+        productTextSearchService.save();
+        assertThat(Files.exists(indexFile)).isTrue();
+
+        when(productRepository.findAllIds()).thenReturn(Set.of(1L, 2L));
+        when(productRepository.findTextRowsModifiedSince(NOW.minusSeconds(60)))
+                .thenReturn(List.of(row(2L, "Phone Charger", "Wireless charging pad", 20L)));
+        ProductTextSearchService restarted = service();
+        restarted.load();
+
+        assertThat(restarted.search(query("wireless"), FIRST_PAGE).getContent())
+                .extracting(ShowProductDto::productName).containsExactly("Phone Charger");
+        assertThat(restarted.search(query("lamp"), FIRST_PAGE).getTotalElements()).isZero();
+        verify(productRepository, times(1)).findTextRowsAfter(anyLong(), any());
+    }
+
+    private ProductTextSearchService service() {
+        return new ProductTextSearchService(productRepository, categoryService, Clock.fixed(NOW, ZoneOffset.UTC),
+                indexFile);
+    }
+
+    private static ProductTextSearchDto query(String q) {
+        return new ProductTextSearchDto(q, null, null, null);
+    }
+
+    private static ProductTextRowDto row(Long id, String name, String description, Long categoryId) {
+        return new ProductTextRowDto(id, name, description, categoryId, new BigDecimal("10.00"));
+    }
+
+    private ProductViewDto view(Long id) {
+        return new ProductViewDto(id, 0L, names.get(id), null, 10.0, new ReviewSummary());
+    }
+}
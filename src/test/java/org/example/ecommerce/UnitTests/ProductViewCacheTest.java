@@ -0,0 +1,95 @@
+package org.example.ecommerce.UnitTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.ecommerce.DTO.ProductViewDto;
+import org.example.ecommerce.Model.ReviewSummary;
+import org.example.ecommerce.Repository.ProductRepository;
+import org.example.ecommerce.Service.ProductViewCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductViewCacheTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductViewCache productViewCache;
+    private ProductViewDto view;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productViewCache = new ProductViewCache(productRepository, meterRegistry, Duration.ofMinutes(5), 100);
+        view = new ProductViewDto(1L, 0L, "Book", "desc", 10.0, new ReviewSummary());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_secondCallIsServedFromCache() {
+        when(productRepository.findProductViewById(1L)).thenReturn(Optional.of(view));
+
+        assertThat(productViewCache.get(1L)).contains(view);
+        assertThat(productViewCache.get(1L)).contains(view);
+
+        verify(productRepository, times(1)).findProductViewById(1L);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("cache.load.duration").timeGauge()).isNotNull();
+    }
+
+    @Test
+    void get_whenMissing_doesNotCacheTheMiss() {
+        when(productRepository.findProductViewById(99L)).thenReturn(Optional.empty());
+
+        assertThat(productViewCache.get(99L)).isEmpty();
+        assertThat(productViewCache.get(99L)).isEmpty();
+
+        verify(productRepository, times(2)).findProductViewById(99L);
+    }
+
+    @Test
+    void evict_forcesReload() {
+        ProductViewDto updated = new ProductViewDto(1L, 1L, "Book", "new desc", 12.0, new ReviewSummary());
+        when(productRepository.findProductViewById(1L)).thenReturn(Optional.of(view)).thenReturn(Optional.of(updated));
+
+        productViewCache.get(1L);
+        productViewCache.evict(1L);
+
+        assertThat(productViewCache.get(1L)).contains(updated);
+    }
+
+    @Test
+    void evictAfterCommit_keepsEntryUntilTheTransactionCommits() {
+        when(productRepository.findProductViewById(1L)).thenReturn(Optional.of(view));
+        productViewCache.get(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        productViewCache.evictAfterCommit(1L);
+        productViewCache.get(1L);
+        verify(productRepository, times(1)).findProductViewById(1L);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        productViewCache.get(1L);
+        verify(productRepository, times(2)).findProductViewById(1L);
+    }
+}
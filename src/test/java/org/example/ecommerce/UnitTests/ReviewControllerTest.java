@@ -3,6 +3,7 @@ package org.example.ecommerce.UnitTests;
 import org.example.ecommerce.Controller.ReviewController;
 import org.example.ecommerce.DTO.ShowReviewDto;
 import org.example.ecommerce.Exception.GlobalExceptionHandler;
+import org.example.ecommerce.Exception.ReviewNotFoundException;
 import org.example.ecommerce.Service.ReviewService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +19,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,25 +38,42 @@ public class ReviewControllerTest {
 
     @Test
     void addReview_returnsCreated() throws Exception {
-        ShowReviewDto dto = new ShowReviewDto(1L, "Great", "test123");
+        ShowReviewDto dto = new ShowReviewDto(1L, "Great", 5, "test123");
         when(reviewService.addReview(any(Long.class), any())).thenReturn(dto);
 
         mockMvc.perform(post("/api/products/1/reviews")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("""
                         {
-                          "reviewText": "Great"
+                          "reviewText": "Great",
+                          "rating": 5
                         }
                         """))
                 .andExpect(status().isCreated())
                 .andExpect(header().string("Location", "http://localhost/api/products/1/reviews/1"))
                 .andExpect(jsonPath("$.id").value(1))
-                .andExpect(jsonPath("$.reviewText").value("Great"));
+                .andExpect(jsonPath("$.reviewText").value("Great"))
+                .andExpect(jsonPath("$.rating").value(5));
+    }
+
+    @Test
+    void addReview_withRatingOutOfRange_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/products/1/reviews")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                          "reviewText": "Great",
+                          "rating": 6
+                        }
+                        """))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reviewService);
     }
 
     @Test
     void getAllReviews_returnsPage() throws Exception {
-        ShowReviewDto dto = new ShowReviewDto(1L, "Great", "test123");
+        ShowReviewDto dto = new ShowReviewDto(1L, "Great", 5, "test123");
         when(reviewService.getAllReviews(1L, PageRequest.of(0, 10)))
                 .thenReturn(new PageImpl<>(List.of(dto), PageRequest.of(0, 10), 1));
 
@@ -63,4 +82,20 @@ public class ReviewControllerTest {
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.content[0].reviewText").value("Great"));
     }
+
+    @Test
+    void deleteReview_returnsNoContent() throws Exception {
+        mockMvc.perform(delete("/api/products/1/reviews/2"))
+                .andExpect(status().isNoContent());
+
+        verify(reviewService).deleteReview(1L, 2L);
+    }
+
+    @Test
+    void deleteReview_whenMissing_returnsNotFound() throws Exception {
+        doThrow(new ReviewNotFoundException("Review with id 2 does not exist")).when(reviewService).deleteReview(1L, 2L);
+
+        mockMvc.perform(delete("/api/products/1/reviews/2"))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -3,12 +3,16 @@ package org.example.ecommerce.UnitTests;
 import org.example.ecommerce.DTO.AddReviewDto;
 import org.example.ecommerce.DTO.ShowReviewDto;
 import org.example.ecommerce.Exception.ProductNotFoundException;
+import org.example.ecommerce.Exception.ReviewNotFoundException;
 import org.example.ecommerce.Mappers.ReviewMapper;
 import org.example.ecommerce.Model.Product;
 import org.example.ecommerce.Model.Review;
 import org.example.ecommerce.Model.User;
 import org.example.ecommerce.Repository.ProductRepository;
 import org.example.ecommerce.Repository.ReviewRepository;
+import org.example.ecommerce.Repository.UserRepository;
+import org.example.ecommerce.Service.CurrentUserResolver;
+import org.example.ecommerce.Service.ProductViewCache;
 import org.example.ecommerce.Service.ReviewService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,6 +27,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,6 +45,12 @@ public class ReviewServiceTest {
     private ProductRepository productRepository;
     @Mock
     private ReviewMapper reviewMapper;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+    @Mock
+    private ProductViewCache productViewCache;
 
     @InjectMocks
     private ReviewService reviewService;
@@ -63,28 +74,68 @@ public class ReviewServiceTest {
 
     @Test
     void addReview_whenProductMissing_throwsException() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.updateReviewSummary(eq(1L), eq(4), eq(1), any(Instant.class))).thenReturn(0);
 
-        assertThrows(ProductNotFoundException.class, () -> reviewService.addReview(1L, new AddReviewDto("ok")));
+        assertThrows(ProductNotFoundException.class, () -> reviewService.addReview(1L, new AddReviewDto("ok", 4)));
+        verifyNoInteractions(reviewRepository);
     }
 
     @Test
-    void addReview_whenValid_savesAndReturnsDto() {
+    void addReview_whenValid_updatesSummaryAndSavesWithoutLoadingProduct() {
         Product product = new Product();
         product.setId(1L);
         Review review = new Review();
-        ShowReviewDto dto = new ShowReviewDto(1L, "ok", "test123");
+        ShowReviewDto dto = new ShowReviewDto(1L, "ok", 4, "test123");
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.updateReviewSummary(eq(1L), eq(4), eq(1), any(Instant.class))).thenReturn(1);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(reviewMapper.reviewDtoToReview(any(AddReviewDto.class))).thenReturn(review);
         when(reviewMapper.reviewToShowReviewDto(review)).thenReturn(dto);
 
-        ShowReviewDto result = reviewService.addReview(1L, new AddReviewDto("ok"));
+        ShowReviewDto result = reviewService.addReview(1L, new AddReviewDto("ok", 4));
 
         assertThat(result).isEqualTo(dto);
         assertThat(review.getUser()).isEqualTo(user);
         assertThat(review.getProduct()).isEqualTo(product);
         verify(reviewRepository).save(review);
+        verify(productRepository, never()).findById(any());
+        verify(productViewCache).evictAfterCommit(1L);
+    }
+
+    @Test
+    void deleteReview_whenAuthor_removesReviewFromSummary() {
+        Review review = new Review();
+        review.setRating(5);
+
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
+        when(reviewRepository.findByIdAndProductIdAndUserId(2L, 1L, 1L)).thenReturn(Optional.of(review));
+
+        reviewService.deleteReview(1L, 2L);
+
+        verify(reviewRepository).delete(review);
+        verify(productRepository).updateReviewSummary(eq(1L), eq(5), eq(-1), any(Instant.class));
+        verify(productViewCache).evictAfterCommit(1L);
+    }
+
+    @Test
+    void deleteReview_withoutRating_removesItAsUnrated() {
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
+        when(reviewRepository.findByIdAndProductIdAndUserId(2L, 1L, 1L)).thenReturn(Optional.of(new Review()));
+
+        reviewService.deleteReview(1L, 2L);
+
+        verify(productRepository).updateReviewSummary(eq(1L), eq(0), eq(-1), any(Instant.class));
+    }
+
+    @Test
+    void deleteReview_whenNotAuthor_throwsException() {
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
+        when(reviewRepository.findByIdAndProductIdAndUserId(2L, 1L, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(ReviewNotFoundException.class, () -> reviewService.deleteReview(1L, 2L));
+        verify(productRepository, never()).updateReviewSummary(any(), anyInt(), anyInt(), any());
     }
 
     @Test
@@ -99,7 +150,7 @@ public class ReviewServiceTest {
         Product product = new Product();
         product.setId(1L);
         Review review = new Review();
-        ShowReviewDto dto = new ShowReviewDto(1L, "ok", "test123");
+        ShowReviewDto dto = new ShowReviewDto(1L, "ok", 4, "test123");
 
         Page<Review> page = new PageImpl<>(List.of(review), PageRequest.of(0, 10), 1);
 
@@ -111,4 +162,25 @@ public class ReviewServiceTest {
 
         assertThat(result.getContent()).containsExactly(dto);
     }
+
+    @Test
+    void backfillReviewSummaries_stampsTheProductsAndEvictsTheirCachedViews() {
+        when(productRepository.findIdsWithoutReviewSummary()).thenReturn(List.of(1L, 2L));
+        when(productRepository.backfillReviewSummaries(any(Instant.class))).thenReturn(2);
+
+        reviewService.backfillReviewSummaries();
+
+        verify(productRepository).backfillReviewSummaries(any(Instant.class));
+        verify(productViewCache).evictAllAfterCommit(List.of(1L, 2L));
+    }
+
+    @Test
+    void backfillReviewSummaries_whenNothingToBackfill_writesNothing() {
+        when(productRepository.findIdsWithoutReviewSummary()).thenReturn(List.of());
+
+        reviewService.backfillReviewSummaries();
+
+        verify(productRepository, never()).backfillReviewSummaries(any(Instant.class));
+        verifyNoInteractions(productViewCache);
+    }
 }
@@ -0,0 +1,106 @@
+package org.example.ecommerce.UnitTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.ecommerce.Repository.RevokedTokenRepository;
+import org.example.ecommerce.Service.BloomFilter;
+import org.example.ecommerce.Service.RevokedTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RevokedTokenServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private RevokedTokenService revokedTokenService;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenService = new RevokedTokenService(revokedTokenRepository, new SimpleMeterRegistry(), 1_000, 0.01);
+    }
+
+    @Test
+    void isRevoked_beforeFirstRebuild_checksDatabase() {
+        when(revokedTokenRepository.existsById("token-id")).thenReturn(true);
+
+        assertThat(revokedTokenService.isRevoked("token-id")).isTrue();
+    }
+
+    @Test
+    void isRevoked_tokenNotInFilter_doesNotQueryDatabase() {
+        when(revokedTokenRepository.findActiveTokenIds(any(Instant.class))).thenReturn(List.of("revoked-id"));
+        revokedTokenService.rebuild();
+
+        assertThat(revokedTokenService.isRevoked("other-id")).isFalse();
+
+        verify(revokedTokenRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    void isRevoked_tokenInFilter_isConfirmedByDatabase() {
+        when(revokedTokenRepository.findActiveTokenIds(any(Instant.class))).thenReturn(List.of("revoked-id"));
+        when(revokedTokenRepository.existsById("revoked-id")).thenReturn(true);
+        revokedTokenService.rebuild();
+
+        assertThat(revokedTokenService.isRevoked("revoked-id")).isTrue();
+
+        verify(revokedTokenRepository).existsById("revoked-id");
+    }
+
+    @Test
+    void rebuild_deletesExpiredRevocations() {
+        revokedTokenService.rebuild();
+
+        verify(revokedTokenRepository).deleteExpired(any(Instant.class));
+    }
+
+    @Test
+    void revoke_addsTokenToFilterWithoutRebuild() {
+        revokedTokenService.rebuild();
+        when(revokedTokenRepository.insertIfAbsent(eq("new-id"), any(Instant.class))).thenReturn(1);
+
+        assertThat(revokedTokenService.revoke("new-id", Instant.now().plusSeconds(60))).isTrue();
+        when(revokedTokenRepository.existsById("new-id")).thenReturn(true);
+
+        assertThat(revokedTokenService.isRevoked("new-id")).isTrue();
+    }
+
+    @Test
+    void revoke_whenAlreadyRevoked_returnsFalse() {
+        when(revokedTokenRepository.insertIfAbsent(eq("used-id"), any(Instant.class))).thenReturn(0);
+
+        assertThat(revokedTokenService.revoke("used-id", Instant.now().plusSeconds(60))).isFalse();
+    }
+
+    @Test
+    void revoke_expiredToken_isNotStored() {
+        assertThat(revokedTokenService.revoke("old-id", Instant.now().minusSeconds(1))).isFalse();
+
+        verify(revokedTokenRepository, never()).insertIfAbsent(anyString(), any(Instant.class));
+    }
+
+    @Test
+    void bloomFilter_hasNoFalseNegativesAndFewFalsePositives() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        List<String> added = java.util.stream.IntStream.range(0, 10_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+        added.forEach(filter::add);
+
+        assertThat(added).allMatch(filter::mightContain);
+
+        long falsePositives = java.util.stream.IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain(UUID.randomUUID().toString()))
+                .count();
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.ecommerce.UnitTests;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.example.ecommerce.Config.BoundedPasswordEncoder;
+import org.example.ecommerce.DTO.ImportRowErrorDto;
+import org.example.ecommerce.DTO.UserImportResultDto;
+import org.example.ecommerce.DTO.UserRegistrationDto;
+import org.example.ecommerce.Exception.InvalidImportFileException;
+import org.example.ecommerce.Mappers.UserMapper;
+import org.example.ecommerce.Model.User;
+import org.example.ecommerce.Model.UserRole;
+import org.example.ecommerce.Repository.UserRepository;
+import org.example.ecommerce.Service.ChunkedImporter;
+import org.example.ecommerce.Service.UserImportService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+
+    private static BoundedPasswordEncoder passwordEncoder;
+    private static Validator validator;
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserMapper userMapper;
+    @Mock
+    private EntityManager entityManager;
+
+    private UserImportService userImportService;
+
+    @BeforeAll
+    static void setUpEncoder() {
+        passwordEncoder = new BoundedPasswordEncoder(NoOpPasswordEncoder.getInstance(), 2, 4, Duration.ofSeconds(5));
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @AfterAll
+    static void tearDownEncoder() {
+        passwordEncoder.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(userRepository, userMapper, passwordEncoder,
+                new ChunkedImporter(validator, entityManager), 2, 2);
+        lenient().when(userMapper.toUser(any(UserRegistrationDto.class))).thenAnswer(invocation -> {
+            UserRegistrationDto dto = invocation.getArgument(0);
+            User user = new User();
+            user.setUsername(dto.username());
+            user.setEmail(dto.email());
+            user.setRole(UserRole.CUSTOMER);
+            return user;
+        });
+        lenient().when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        lenient().when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+    }
+
+    @Test
+    void importUsers_mapsPasswordAndRoleOfEachRow() throws Exception {
+        UserImportResultDto result = userImportService.importUsers(csv("""
+                username,email,password,role
+                alice,alice@example.com,secret1,
+                bob,bob@example.com,"pa,ss",ADMIN
+                carol,carol@example.com,secret3,customer
+                """));
+
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.failed()).isZero();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(2)).saveAll(chunks.capture());
+        assertThat(chunks.getAllValues().get(0)).hasSize(2);
+        User bob = chunks.getAllValues().get(0).get(1);
+        assertThat(bob.getPassword()).isEqualTo("pa,ss");
+        assertThat(bob.getRole()).isEqualTo(UserRole.ADMIN);
+    }
+
+    @Test
+    void importUsers_reportsInvalidAndDuplicateRowsByLine() throws Exception {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of("taken"));
+
+        UserImportResultDto result = userImportService.importUsers(csv("""
+                username,email,password
+                taken,taken@example.com,secret
+                ,nobody@example.com,secret
+                alice,alice@example.com,secret
+                alice,other@example.com,secret
+                dave,not-an-email,secret
+                """));
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(4);
+        assertThat(result.errors()).extracting(ImportRowErrorDto::line).containsExactly(2L, 3L, 5L, 6L);
+        assertThat(result.errors().get(0).message()).isEqualTo("User with username taken already exists");
+    }
+
+    @Test
+    void importUsers_withoutRequiredColumns_throws() {
+        assertThatThrownBy(() -> userImportService.importUsers(csv("username,password\nalice,secret\n")))
+                .isInstanceOf(InvalidImportFileException.class);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,8 +1,21 @@
 package org.example.ecommerce.UnitTests;
 
 import org.example.ecommerce.Controller.UserProductController;
+import org.example.ecommerce.DTO.BestsellerDto;
+import org.example.ecommerce.DTO.CategoryFacetDto;
+import org.example.ecommerce.DTO.PriceBucketFacetDto;
+import org.example.ecommerce.DTO.ProductFacetsDto;
+import org.example.ecommerce.DTO.ProductFilterDto;
+import org.example.ecommerce.DTO.ProductSuggestionDto;
+import org.example.ecommerce.DTO.ProductTextSearchDto;
+import org.example.ecommerce.DTO.ProductViewDto;
 import org.example.ecommerce.DTO.ShowProductDto;
 import org.example.ecommerce.Exception.GlobalExceptionHandler;
+import org.example.ecommerce.Model.ReviewSummary;
+import org.example.ecommerce.Service.BestsellerService;
+import org.example.ecommerce.Service.BestsellerWindow;
+import org.example.ecommerce.Service.ProductSuggestService;
+import org.example.ecommerce.Service.ProductTextSearchService;
 import org.example.ecommerce.Service.UserProductService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,13 +24,15 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.util.List;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,10 +47,19 @@ public class UserProductControllerTest {
     @MockitoBean
     private UserProductService userProductService;
 
+    @MockitoBean
+    private BestsellerService bestsellerService;
+
+    @MockitoBean
+    private ProductSuggestService productSuggestService;
+
+    @MockitoBean
+    private ProductTextSearchService productTextSearchService;
+
     @Test
     void getAllProducts_returnsPage() throws Exception {
-        ShowProductDto dto = new ShowProductDto("Product", "desc", 10.0);
-        when(userProductService.getAllProducts(PageRequest.of(0, 20)))
+        ShowProductDto dto = new ShowProductDto("Product", "desc", 10.0, new ReviewSummary());
+        when(userProductService.searchProducts(ProductFilterDto.NONE, PageRequest.of(0, 20)))
                 .thenReturn(new PageImpl<>(List.of(dto), PageRequest.of(0, 20), 1));
 
         mockMvc.perform(get("/api/products?page=0&size=20"))
@@ -45,12 +69,125 @@ public class UserProductControllerTest {
     }
 
     @Test
-    void getProductById_returnsProduct() throws Exception {
-        ShowProductDto dto = new ShowProductDto("Product", "desc", 10.0);
-        when(userProductService.getProductByProductName(1L)).thenReturn(dto);
+    void getAllProducts_whenETagMatches_returnsNotModifiedWithoutLoadingThePage() throws Exception {
+        when(userProductService.getCatalogETag(ProductFilterDto.NONE)).thenReturn("\"products-1-100\"");
+
+        mockMvc.perform(get("/api/products?page=0&size=20").header(HttpHeaders.IF_NONE_MATCH, "\"products-1-100\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"products-1-100\""))
+                .andExpect(content().string(""));
+
+        verify(userProductService, never()).searchProducts(any(), any());
+    }
+
+    @Test
+    void getAllProducts_bindsFilterParameters() throws Exception {
+        ProductFilterDto filter = new ProductFilterDto(3L, new BigDecimal("10"), new BigDecimal("50"), true, "boo");
+        when(userProductService.searchProducts(filter, PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(new ShowProductDto("Book", "desc", 20.0, new ReviewSummary())), PageRequest.of(0, 20), 1));
+
+        mockMvc.perform(get("/api/products?page=0&size=20&categoryId=3&minPrice=10&maxPrice=50&inStock=true&namePrefix=boo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].productName").value("Book"));
+    }
+
+    @Test
+    void getAllProducts_withNegativePrice_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products?minPrice=-1"))
+                .andExpect(status().isBadRequest());
+
+        verify(userProductService, never()).searchProducts(any(), any());
+    }
+
+    @Test
+    void getFacets_returnsCategoryAndPriceCounts() throws Exception {
+        ProductFilterDto filter = new ProductFilterDto(null, null, null, true, null);
+        when(userProductService.getFacets(filter)).thenReturn(new ProductFacetsDto(
+                List.of(new CategoryFacetDto(1L, "Books", 3)),
+                List.of(new PriceBucketFacetDto(null, new BigDecimal("10"), 1), new PriceBucketFacetDto(new BigDecimal("10"), new BigDecimal("25"), 2))));
+
+        mockMvc.perform(get("/api/products/facets?inStock=true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categories[0].categoryName").value("Books"))
+                .andExpect(jsonPath("$.categories[0].count").value(3))
+                .andExpect(jsonPath("$.priceBuckets[1].from").value(10))
+                .andExpect(jsonPath("$.priceBuckets[1].count").value(2));
+    }
+
+    @Test
+    void getProductById_returnsProductWithETag() throws Exception {
+        when(userProductService.getProductView(1L)).thenReturn(new ProductViewDto(1L, 4L, "Product", "desc", 10.0, new ReviewSummary()));
 
         mockMvc.perform(get("/api/products/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"product-1-4\""))
                 .andExpect(jsonPath("$.productName").value("Product"));
     }
+
+    @Test
+    void getProductById_whenETagMatches_returnsNotModified() throws Exception {
+        when(userProductService.getProductView(1L)).thenReturn(new ProductViewDto(1L, 4L, "Product", "desc", 10.0, new ReviewSummary()));
+
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"product-1-4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getProductById_whenProductChanged_returnsNewVersion() throws Exception {
+        when(userProductService.getProductView(1L)).thenReturn(new ProductViewDto(1L, 5L, "Product", "desc", 10.0, new ReviewSummary()));
+
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"product-1-4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"product-1-5\""));
+    }
+
+    @Test
+    void getBestsellers_returnsRankingOfWindow() throws Exception {
+        when(bestsellerService.getBestsellers(3L, BestsellerWindow.LAST_30_DAYS, 5))
+                .thenReturn(List.of(new BestsellerDto(10L, "Phone", 42L)));
+
+        mockMvc.perform(get("/api/products/bestsellers?category=3&window=30d&limit=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId").value(10))
+                .andExpect(jsonPath("$[0].unitsSold").value(42));
+    }
+
+    @Test
+    void getBestsellers_withUnknownWindow_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products/bestsellers?window=1y"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bestsellerService);
+    }
+
+    @Test
+    void suggest_returnsMatchingProducts() throws Exception {
+        when(productSuggestService.suggest("pho", 10)).thenReturn(List.of(new ProductSuggestionDto(1L, "Phone")));
+
+        mockMvc.perform(get("/api/products/suggest?q=pho"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].productName").value("Phone"));
+    }
+
+    @Test
+    void searchProducts_returnsPageOfMatches() throws Exception {
+        ShowProductDto dto = new ShowProductDto("Running Shoe", "desc", 89.9, new ReviewSummary());
+        when(productTextSearchService.search(new ProductTextSearchDto("running shoes", 3L, null, new BigDecimal("100")),
+                PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(dto), PageRequest.of(0, 20), 1));
+
+        mockMvc.perform(get("/api/products/search?q=running shoes&categoryId=3&maxPrice=100&page=0&size=20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].productName").value("Running Shoe"));
+    }
+
+    @Test
+    void searchProducts_withBlankQuery_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products/search?q= "))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productTextSearchService);
+    }
 }
@@ -1,10 +1,16 @@
 package org.example.ecommerce.UnitTests;
 
+import org.example.ecommerce.DTO.CollectionVersionDto;
+import org.example.ecommerce.DTO.ProductFilterDto;
+import org.example.ecommerce.DTO.ProductViewDto;
 import org.example.ecommerce.DTO.ShowProductDto;
 import org.example.ecommerce.Exception.ProductNotFoundException;
 import org.example.ecommerce.Mappers.ProductMapper;
-import org.example.ecommerce.Model.Product;
+import org.example.ecommerce.Model.ReviewSummary;
+import org.example.ecommerce.Repository.CategoryRepository;
 import org.example.ecommerce.Repository.ProductRepository;
+import org.example.ecommerce.Service.ProductSearchService;
+import org.example.ecommerce.Service.ProductViewCache;
 import org.example.ecommerce.Service.UserProductService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,11 +21,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,18 +37,22 @@ public class UserProductServiceTest {
     private ProductRepository productRepository;
     @Mock
     private ProductMapper productMapper;
+    @Mock
+    private ProductViewCache productViewCache;
+    @Mock
+    private ProductSearchService productSearchService;
+    @Mock
+    private CategoryRepository categoryRepository;
 
     @InjectMocks
     private UserProductService userProductService;
 
     @Test
-    void getAllProducts_returnsMappedPage() {
-        Product product = new Product();
-        ShowProductDto dto = new ShowProductDto("name", "desc", 10.0);
+    void getAllProducts_returnsProjectedPage() {
+        ShowProductDto dto = new ShowProductDto("name", "desc", 10.0, new ReviewSummary());
 
-        Page<Product> page = new PageImpl<>(List.of(product), PageRequest.of(0, 10), 1);
-        when(productRepository.findAll(PageRequest.of(0, 10))).thenReturn(page);
-        when(productMapper.productToShowProductDto(product)).thenReturn(dto);
+        Page<ShowProductDto> page = new PageImpl<>(List.of(dto), PageRequest.of(0, 10), 1);
+        when(productRepository.findAllShowProductDtos(PageRequest.of(0, 10))).thenReturn(page);
 
         Page<ShowProductDto> result = userProductService.getAllProducts(PageRequest.of(0, 10));
 
@@ -49,21 +61,66 @@ public class UserProductServiceTest {
 
     @Test
     void getProductByProductName_whenMissing_throwsException() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productViewCache.get(1L)).thenReturn(Optional.empty());
 
         assertThrows(ProductNotFoundException.class, () -> userProductService.getProductByProductName(1L));
     }
 
     @Test
     void getProductByProductName_whenExists_returnsDto() {
-        Product product = new Product();
-        ShowProductDto dto = new ShowProductDto("name", "desc", 10.0);
+        ProductViewDto view = new ProductViewDto(1L, 3L, "name", "desc", 10.0, new ReviewSummary());
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(productMapper.productToShowProductDto(product)).thenReturn(dto);
+        when(productViewCache.get(1L)).thenReturn(Optional.of(view));
 
         ShowProductDto result = userProductService.getProductByProductName(1L);
 
-        assertThat(result).isEqualTo(dto);
+        assertThat(result).isEqualTo(new ShowProductDto("name", "desc", 10.0, new ReviewSummary()));
+    }
+
+    @Test
+    void getCatalogETag_changesWithCountAndLastModification() {
+        Instant modified = Instant.parse("2026-01-01T10:00:00Z");
+        when(productRepository.findCatalogVersion()).thenReturn(
+                new CollectionVersionDto(2L, modified),
+                new CollectionVersionDto(2L, modified),
+                new CollectionVersionDto(1L, modified),
+                new CollectionVersionDto(1L, modified.plusNanos(1_000)));
+
+        String eTag = userProductService.getCatalogETag(ProductFilterDto.NONE);
+
+        assertThat(userProductService.getCatalogETag(ProductFilterDto.NONE)).isEqualTo(eTag);
+        assertThat(userProductService.getCatalogETag(ProductFilterDto.NONE)).isNotEqualTo(eTag);
+        assertThat(userProductService.getCatalogETag(ProductFilterDto.NONE)).isNotEqualTo(eTag).startsWith("\"products-1-");
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void getCatalogETag_withCategoryFilter_includesCategoriesVersion() {
+        Instant modified = Instant.parse("2026-01-01T10:00:00Z");
+        when(productRepository.findCatalogVersion()).thenReturn(new CollectionVersionDto(2L, modified));
+        when(categoryRepository.findCategoriesVersion()).thenReturn(new CollectionVersionDto(1L, modified));
+
+        String eTag = userProductService.getCatalogETag(new ProductFilterDto(1L, null, null, null, null));
+
+        assertThat(eTag).startsWith("\"products-2-").contains("-categories-1-").endsWith("\"");
+    }
+
+    @Test
+    void searchProducts_withoutFilter_readsTheUnfilteredPage() {
+        Page<ShowProductDto> page = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+        when(productRepository.findAllShowProductDtos(PageRequest.of(0, 10))).thenReturn(page);
+
+        assertThat(userProductService.searchProducts(new ProductFilterDto(null, null, null, false, " "), PageRequest.of(0, 10)))
+                .isSameAs(page);
+        verifyNoInteractions(productSearchService);
+    }
+
+    @Test
+    void searchProducts_withFilter_delegatesToSearch() {
+        ProductFilterDto filter = new ProductFilterDto(null, null, null, true, null);
+        Page<ShowProductDto> page = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+        when(productSearchService.search(filter, PageRequest.of(0, 10))).thenReturn(page);
+
+        assertThat(userProductService.searchProducts(filter, PageRequest.of(0, 10))).isSameAs(page);
     }
 }
@@ -12,6 +12,8 @@ import org.example.ecommerce.Repository.ProductRepository;
 import org.example.ecommerce.Repository.UserRepository;
 import org.example.ecommerce.Repository.WishlistItemRepository;
 import org.example.ecommerce.Repository.WishlistRepository;
+import org.example.ecommerce.Service.CurrentUserResolver;
+import org.example.ecommerce.Service.UserFetchPlan;
 import org.example.ecommerce.Service.WishListService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -46,6 +48,8 @@ public class WishListServiceTest {
     private UserRepository userRepository;
     @Mock
     private WishlistRepository wishlistRepository;
+    @Mock
+    private CurrentUserResolver currentUserResolver;
 
     @InjectMocks
     private WishListService wishListService;
@@ -60,7 +64,7 @@ public class WishListServiceTest {
 
         var auth = new UsernamePasswordAuthenticationToken(user, "test123");
         SecurityContextHolder.getContext().setAuthentication(auth);
-        lenient().when(userRepository.findByUsername("test123")).thenReturn(Optional.of(user));
+        lenient().when(currentUserResolver.getCurrentUser(UserFetchPlan.WISHLIST)).thenReturn(user);
     }
 
     @AfterEach